@@ -0,0 +1,80 @@
+package craftedMods.benchmarks;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.*;
+import java.util.*;
+
+import org.osgi.service.log.FormatterLogger;
+
+/*
+ * The benchmarks run without an OSGi framework, so the components have to be
+ * wired the way the declarative services runtime would do it
+ */
+public class BenchmarkComponents {
+
+	private BenchmarkComponents() {
+	}
+
+	/*
+	 * Sets the (usually private) reference field of a component
+	 */
+	public static <T> T inject(T component, String fieldName, Object value) {
+		for (Class<?> type = component.getClass(); type != null; type = type.getSuperclass()) {
+			try {
+				Field field = type.getDeclaredField(fieldName);
+				field.setAccessible(true);
+				field.set(component, value);
+				return component;
+			} catch (NoSuchFieldException e) {
+				// Search the superclass
+			} catch (IllegalAccessException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+		throw new IllegalArgumentException(
+				String.format("The component %s doesn't have a field \"%s\"", component.getClass().getName(), fieldName));
+	}
+
+	/*
+	 * Creates an instance of a component configuration annotation. Unspecified
+	 * values fall back to the defaults of the annotation.
+	 */
+	public static <A extends Annotation> A createConfiguration(Class<A> type, Map<String, Object> values) {
+		Map<String, Object> configuration = new HashMap<>(values);
+		return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+				(proxy, method, args) -> {
+					switch (method.getName()) {
+					case "annotationType":
+						return type;
+					case "toString":
+						return type.getName() + configuration;
+					case "hashCode":
+						return System.identityHashCode(proxy);
+					case "equals":
+						return proxy == args[0];
+					default:
+						if (configuration.containsKey(method.getName()))
+							return configuration.get(method.getName());
+						if (method.getDefaultValue() == null)
+							throw new IllegalArgumentException(
+									String.format("The configuration value \"%s\" is required", method.getName()));
+						return method.getDefaultValue();
+					}
+				}));
+	}
+
+	/*
+	 * A logger discarding everything, logging would only distort the results
+	 */
+	public static FormatterLogger createLogger() {
+		return (FormatterLogger) Proxy.newProxyInstance(FormatterLogger.class.getClassLoader(),
+				new Class<?>[] { FormatterLogger.class }, (proxy, method, args) -> {
+					if (method.getReturnType() == boolean.class)
+						return false;
+					if (method.getName().equals("getName"))
+						return "benchmark";
+					return null;
+				});
+	}
+
+}
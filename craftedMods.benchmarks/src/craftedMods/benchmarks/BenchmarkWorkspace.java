@@ -0,0 +1,199 @@
+package craftedMods.benchmarks;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+import org.osgi.service.log.FormatterLogger;
+
+import craftedMods.eventManager.provider.EventManagerImpl;
+import craftedMods.fileManager.provider.FileManagerImpl;
+import craftedMods.lotr.mpc.core.api.*;
+import craftedMods.lotr.mpc.core.api.MusicPackProjectManager;
+import craftedMods.lotr.mpc.core.provider.*;
+import craftedMods.lotr.mpc.persistence.api.*;
+import craftedMods.lotr.mpc.persistence.provider.*;
+import craftedMods.versionChecker.api.SemanticVersion;
+import craftedMods.versionChecker.base.DefaultSemanticVersion;
+
+/*
+ * The component graph of the application on top of a projects directory, wired
+ * like the declarative services runtime would do it
+ */
+public class BenchmarkWorkspace implements Closeable {
+
+	public static final SemanticVersion VERSION = DefaultSemanticVersion.of("1.0.0");
+
+	private final Path projectsDirectory;
+	private final boolean temporary;
+
+	private final FileManagerImpl fileManager = new FileManagerImpl();
+	private final EventManagerImpl eventManager = new EventManagerImpl();
+	private final MusicPackProjectFactoryImpl factory = new MusicPackProjectFactoryImpl();
+	private final MusicPackProjectReaderImpl projectReader = new MusicPackProjectReaderImpl();
+	private final MusicPackProjectWriterImpl projectWriter = new MusicPackProjectWriterImpl();
+	private final craftedMods.lotr.mpc.persistence.provider.MusicPackProjectManager managedProjects = new craftedMods.lotr.mpc.persistence.provider.MusicPackProjectManager();
+	private final TrackStoreManagerImpl trackStoreManager = new TrackStoreManagerImpl();
+	private final MusicPackProjectPersistenceManagerImpl persistenceManager = new MusicPackProjectPersistenceManagerImpl();
+	private final MusicPackProjectManagerImpl projectManager = new MusicPackProjectManagerImpl();
+	private final MusicPackJSONFileReader jsonReader = new MusicPackJSONFileReader();
+	private final MusicPackJSONFileWriter jsonWriter = new MusicPackJSONFileWriter();
+	private final MusicPackProjectExporterImpl exporter = new MusicPackProjectExporterImpl();
+	private final MusicPackProjectImporterImpl importer = new MusicPackProjectImporterImpl();
+
+	/*
+	 * Activates the components, the projects already stored in the directory are
+	 * loaded
+	 */
+	public BenchmarkWorkspace(Path projectsDirectory) throws IOException {
+		this(projectsDirectory, false);
+	}
+
+	private BenchmarkWorkspace(Path projectsDirectory, boolean temporary) throws IOException {
+		this.projectsDirectory = Objects.requireNonNull(projectsDirectory);
+		this.temporary = temporary;
+
+		FormatterLogger logger = BenchmarkComponents.createLogger();
+
+		BenchmarkComponents.inject(this.eventManager, "logger", logger);
+		this.eventManager.onActivate(
+				BenchmarkComponents.createConfiguration(EventManagerImpl.Configuration.class, Collections.emptyMap()));
+
+		BenchmarkComponents.inject(this.projectReader, "factory", this.factory);
+
+		this.managedProjects.onActivate();
+
+		BenchmarkComponents.inject(this.trackStoreManager, "fileManager", this.fileManager);
+		BenchmarkComponents.inject(this.trackStoreManager, "musicPackProjectManager", this.managedProjects);
+		this.trackStoreManager.onActivate();
+
+		BenchmarkComponents.inject(this.persistenceManager, "mpcVersion", VERSION);
+		BenchmarkComponents.inject(this.persistenceManager, "reader", this.projectReader);
+		BenchmarkComponents.inject(this.persistenceManager, "writer", this.projectWriter);
+		BenchmarkComponents.inject(this.persistenceManager, "factory", this.factory);
+		BenchmarkComponents.inject(this.persistenceManager, "logger", logger);
+		BenchmarkComponents.inject(this.persistenceManager, "eventManager", this.eventManager);
+		BenchmarkComponents.inject(this.persistenceManager, "fileManager", this.fileManager);
+		BenchmarkComponents.inject(this.persistenceManager, "musicPackProjectManager", this.managedProjects);
+		BenchmarkComponents.inject(this.persistenceManager, "trackStoreManager", this.trackStoreManager);
+		this.configurePersistence(Collections.emptyMap());
+
+		BenchmarkComponents.inject(this.projectManager, "logger", logger);
+		BenchmarkComponents.inject(this.projectManager, "eventManager", this.eventManager);
+		BenchmarkComponents.inject(this.projectManager, "persistenceManager", this.persistenceManager);
+		BenchmarkComponents.inject(this.projectManager, "mppFactory", this.factory);
+		BenchmarkComponents.inject(this.projectManager, "mpcVersion", VERSION);
+		this.projectManager.onActivate(
+				BenchmarkComponents.createConfiguration(MusicPackProjectManagerImpl.Configuration.class, Collections.emptyMap()));
+
+		BenchmarkComponents.inject(this.exporter, "logger", logger);
+		BenchmarkComponents.inject(this.exporter, "version", VERSION);
+		BenchmarkComponents.inject(this.exporter, "eventManager", this.eventManager);
+		BenchmarkComponents.inject(this.exporter, "fileManager", this.fileManager);
+		BenchmarkComponents.inject(this.exporter, "writer", this.jsonWriter);
+		BenchmarkComponents.inject(this.exporter, "trackStoreManager", this.trackStoreManager);
+		BenchmarkComponents.inject(this.exporter, "musicPackProjectManager", this.projectManager);
+		this.configureExporter(Collections.emptyMap());
+
+		BenchmarkComponents.inject(this.importer, "version", VERSION);
+		BenchmarkComponents.inject(this.importer, "logger", logger);
+		BenchmarkComponents.inject(this.importer, "eventManager", this.eventManager);
+		BenchmarkComponents.inject(this.importer, "fileManager", this.fileManager);
+		BenchmarkComponents.inject(this.importer, "musicPackProjectManager", this.projectManager);
+		BenchmarkComponents.inject(this.importer, "reader", this.jsonReader);
+		BenchmarkComponents.inject(this.importer, "trackStoreManager", this.trackStoreManager);
+		this.configureImporter(Collections.emptyMap());
+	}
+
+	/*
+	 * The directory of the workspace will be deleted when it's closed
+	 */
+	public static BenchmarkWorkspace createTemporary() throws IOException {
+		return new BenchmarkWorkspace(Files.createTempDirectory("mpc-benchmark"), true);
+	}
+
+	/*
+	 * The projects directory of the workspace is always used
+	 */
+	public void configurePersistence(Map<String, Object> configuration) throws IOException {
+		Map<String, Object> persistenceConfiguration = new HashMap<>(configuration);
+		persistenceConfiguration.put("projectsDirectory", this.projectsDirectory.toString());
+		this.persistenceManager.onActivate(BenchmarkComponents
+				.createConfiguration(MusicPackProjectPersistenceManagerImpl.Configuration.class, persistenceConfiguration));
+	}
+
+	public void configureExporter(Map<String, Object> configuration) {
+		this.exporter.onActivate(
+				BenchmarkComponents.createConfiguration(MusicPackProjectExporterImpl.Configuration.class, configuration));
+	}
+
+	public void configureImporter(Map<String, Object> configuration) {
+		this.importer.onActivate(
+				BenchmarkComponents.createConfiguration(MusicPackProjectImporterImpl.Configuration.class, configuration));
+	}
+
+	public Path getProjectsDirectory() {
+		return this.projectsDirectory;
+	}
+
+	public FileManagerImpl getFileManager() {
+		return this.fileManager;
+	}
+
+	public EventManagerImpl getEventManager() {
+		return this.eventManager;
+	}
+
+	public MusicPackProjectFactory getFactory() {
+		return this.factory;
+	}
+
+	public MusicPackProjectManager getProjectManager() {
+		return this.projectManager;
+	}
+
+	public TrackStoreManager getTrackStoreManager() {
+		return this.trackStoreManager;
+	}
+
+	public MusicPackProjectPersistenceManager getPersistenceManager() {
+		return this.persistenceManager;
+	}
+
+	public MusicPackProjectExporter getExporter() {
+		return this.exporter;
+	}
+
+	public MusicPackProjectImporter getImporter() {
+		return this.importer;
+	}
+
+	/*
+	 * The projects aren't saved, the benchmarks decide themselves what has to be
+	 * persisted
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			this.eventManager.onDeactivate();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		this.trackStoreManager.onDeactivate();
+		this.managedProjects.onDeactivate();
+		if (this.temporary)
+			deleteRecursively(this.projectsDirectory);
+	}
+
+	public static void deleteRecursively(Path path) throws IOException {
+		if (Files.isDirectory(path)) {
+			try (DirectoryStream<Path> children = Files.newDirectoryStream(path)) {
+				for (Path child : children) {
+					deleteRecursively(child);
+				}
+			}
+		}
+		Files.deleteIfExists(path);
+	}
+
+}
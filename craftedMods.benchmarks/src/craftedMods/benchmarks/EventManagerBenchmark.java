@@ -0,0 +1,95 @@
+package craftedMods.benchmarks;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import craftedMods.eventManager.api.*;
+import craftedMods.eventManager.base.*;
+import craftedMods.eventManager.provider.EventManagerImpl;
+import craftedMods.utils.data.*;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class EventManagerBenchmark {
+
+	private static final EventInfo EVENT = new DefaultEventInfo(EventManagerBenchmark.class, "EVENT");
+	private static final EventInfo UNHANDLED_EVENT = new DefaultEventInfo(EventManagerBenchmark.class,
+			"UNHANDLED_EVENT");
+	private static final TypedPropertyKey<Integer> EVENT_VALUE = TypedPropertyKey.createIntegerPropertyKey();
+	private static final TypedPropertyKey<Integer> EVENT_RESULT = TypedPropertyKey.createIntegerPropertyKey();
+
+	@Param({ "1", "10", "100" })
+	public int handlers;
+
+	private EventManagerImpl eventManager;
+
+	@Setup
+	public void setup() {
+		this.eventManager = new EventManagerImpl();
+		BenchmarkComponents.inject(this.eventManager, "logger", BenchmarkComponents.createLogger());
+		this.eventManager.onActivate(
+				BenchmarkComponents.createConfiguration(EventManagerImpl.Configuration.class, Collections.emptyMap()));
+		for (int i = 0; i < this.handlers; i++) {
+			this.eventManager.addHandler(new BenchmarkEventHandler(i % 2 == 0));
+		}
+	}
+
+	@TearDown
+	public void tearDown() throws InterruptedException {
+		this.eventManager.onDeactivate();
+	}
+
+	@Benchmark
+	public Collection<ReadOnlyTypedProperties> dispatch() {
+		LockableTypedProperties properties = new DefaultTypedProperties();
+		properties.put(EVENT_VALUE, 42);
+		return this.eventManager.dispatchEvent(EVENT, properties, EventDispatchPolicy.SYNCHRONOUS);
+	}
+
+	@Benchmark
+	public Collection<ReadOnlyTypedProperties> dispatchUnhandled() {
+		return this.eventManager.dispatchEvent(UNHANDLED_EVENT, EventDispatchPolicy.SYNCHRONOUS);
+	}
+
+	@Benchmark
+	public void addAndRemoveHandler(Blackhole blackhole) {
+		EventHandler handler = new BenchmarkEventHandler(false);
+		this.eventManager.addHandler(handler);
+		this.eventManager.removeHandler(handler);
+		blackhole.consume(handler);
+	}
+
+	/*
+	 * Every second handler contributes a result, like the veto handlers of the
+	 * application do
+	 */
+	private static class BenchmarkEventHandler implements EventHandler {
+
+		private final boolean returnsResult;
+
+		public BenchmarkEventHandler(boolean returnsResult) {
+			this.returnsResult = returnsResult;
+		}
+
+		@Override
+		public Map<EventInfo, EventHandlerPolicy> getSupportedEvents() {
+			return EventUtils.getSupportedEvents(EventHandlerPolicy.SYNCHRONOUS, EVENT);
+		}
+
+		@Override
+		public void handleEvent(Event event) {
+			Integer value = event.getEventProperties().getProperty(EVENT_VALUE);
+			if (this.returnsResult)
+				event.getEventResults().put(EVENT_RESULT, value);
+		}
+
+	}
+
+}
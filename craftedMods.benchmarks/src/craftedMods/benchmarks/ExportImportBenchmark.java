@@ -0,0 +1,76 @@
+package craftedMods.benchmarks;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import craftedMods.lotr.mpc.core.api.MusicPackProject;
+import craftedMods.utils.exceptions.InvalidInputException;
+
+/*
+ * Exports and imports a complete synthetic Music Pack through the real
+ * component graph on top of a temporary workspace
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ExportImportBenchmark {
+
+	@Param({ "100", "1000" })
+	public int tracks;
+
+	@Param({ "16384" })
+	public int trackSize;
+
+	@Param({ "false", "true" })
+	public boolean streamingImport;
+
+	private BenchmarkWorkspace workspace;
+	private MusicPackProject project;
+	private Path exportedPack;
+	private MusicPackProject importedProject;
+
+	@Setup
+	public void setup() throws IOException, InvalidInputException {
+		this.workspace = BenchmarkWorkspace.createTemporary();
+		this.workspace.configureImporter(Collections.singletonMap("streamingImport", this.streamingImport));
+		this.project = new SyntheticWorkspaceGenerator(this.tracks).createProject(this.workspace, "Benchmark",
+				this.tracks, this.trackSize);
+		// The exporter would ask whether an existing file can be overridden
+		this.exportedPack = Files.createTempDirectory("mpc-benchmark").resolve("Benchmark.zip");
+		this.workspace.getExporter().exportMusicPackProject(this.exportedPack, this.project);
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		this.workspace.close();
+		BenchmarkWorkspace.deleteRecursively(this.exportedPack.getParent());
+	}
+
+	@TearDown(Level.Invocation)
+	public void deleteImportedProject() {
+		if (this.importedProject != null) {
+			this.workspace.getProjectManager().deleteMusicPackProject(this.importedProject);
+			this.importedProject = null;
+		}
+	}
+
+	@Benchmark
+	public void export() {
+		this.workspace.getExporter().exportMusicPackProject(new MusicPackJSONFileBenchmark.NullOutputStream(),
+				this.project);
+	}
+
+	@Benchmark
+	public MusicPackProject importPack() {
+		this.importedProject = this.workspace.getImporter().importMusicPackProject(this.exportedPack);
+		return this.importedProject;
+	}
+
+}
@@ -0,0 +1,67 @@
+package craftedMods.benchmarks;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import craftedMods.lotr.mpc.core.api.Track;
+import craftedMods.lotr.mpc.core.provider.*;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MusicPackJSONFileBenchmark {
+
+	@Param({ "10", "1000", "10000" })
+	public int tracks;
+
+	private final MusicPackJSONFileReader reader = new MusicPackJSONFileReader();
+	private final MusicPackJSONFileWriter writer = new MusicPackJSONFileWriter();
+
+	private Collection<Track> trackData;
+	private byte[] json;
+
+	@Setup
+	public void setup() throws IOException {
+		this.trackData = new SyntheticWorkspaceGenerator(this.tracks).createTracks(this.tracks);
+		this.json = this.writer.writeJSONFile(this.trackData);
+	}
+
+	@Benchmark
+	public List<Track> read() throws IOException {
+		return this.reader.readJSONFile(this.json);
+	}
+
+	@Benchmark
+	public byte[] writeToArray() throws IOException {
+		return this.writer.writeJSONFile(this.trackData);
+	}
+
+	@Benchmark
+	public void writePrettyToStream() throws IOException {
+		this.writer.writeJSONFile(this.trackData, new NullOutputStream(), false);
+	}
+
+	@Benchmark
+	public void writeCompactToStream() throws IOException {
+		this.writer.writeJSONFile(this.trackData, new NullOutputStream(), true);
+	}
+
+	static class NullOutputStream extends OutputStream {
+
+		@Override
+		public void write(int b) {
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+		}
+
+	}
+
+}
@@ -0,0 +1,51 @@
+package craftedMods.benchmarks;
+
+import java.io.*;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import craftedMods.lotr.mpc.core.api.MusicPackProject;
+import craftedMods.lotr.mpc.core.provider.MusicPackProjectFactoryImpl;
+import craftedMods.lotr.mpc.persistence.provider.*;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MusicPackProjectPersistenceBenchmark {
+
+	@Param({ "10", "1000", "10000" })
+	public int tracks;
+
+	private final MusicPackProjectFactoryImpl factory = new MusicPackProjectFactoryImpl();
+	private final MusicPackProjectReaderImpl reader = new MusicPackProjectReaderImpl();
+	private final MusicPackProjectWriterImpl writer = new MusicPackProjectWriterImpl();
+
+	private MusicPackProject project;
+	private byte[] projectFile;
+
+	@Setup
+	public void setup() throws IOException {
+		BenchmarkComponents.inject(this.reader, "factory", this.factory);
+		this.project = this.factory.createMusicPackProjectInstance("Benchmark");
+		this.project.getMusicPack().getTracks()
+				.addAll(new SyntheticWorkspaceGenerator(this.tracks).createTracks(this.tracks));
+		this.projectFile = this.write();
+	}
+
+	@Benchmark
+	public MusicPackProject read() throws IOException {
+		return this.reader.readMusicPackProject(new ByteArrayInputStream(this.projectFile));
+	}
+
+	@Benchmark
+	public byte[] write() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		this.writer.writeMusicPackProject(this.project, out);
+		return out.toByteArray();
+	}
+
+}
@@ -0,0 +1,243 @@
+package craftedMods.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/*
+ * Creates tiny but valid Ogg Vorbis files: a mono stream with the smallest
+ * possible setup header followed by silent audio packets. The audio packets are
+ * padded with random bytes (which the decoder ignores), so the files don't
+ * compress better than real tracks do.
+ */
+public class SyntheticOggFile {
+
+	public static final int SAMPLE_RATE = 44100;
+
+	private static final int MAX_PAGE_DATA = 4096;
+	private static final int MAX_PACKET_SIZE = 255;
+	private static final int SAMPLES_PER_PACKET = 128; // Two overlapping short blocks of 256 samples
+
+	private static final int HEADER_TYPE_BOS = 0x02;
+	private static final int HEADER_TYPE_EOS = 0x04;
+
+	private static final int[] CRC_TABLE = new int[256];
+
+	static {
+		for (int i = 0; i < 256; i++) {
+			int crc = i << 24;
+			for (int j = 0; j < 8; j++) {
+				crc = (crc & 0x80000000) != 0 ? (crc << 1) ^ 0x04c11db7 : crc << 1;
+			}
+			CRC_TABLE[i] = crc;
+		}
+	}
+
+	private SyntheticOggFile() {
+	}
+
+	/*
+	 * The file will be at least the given amount of bytes large, but never much
+	 * larger. Very small sizes still result in one audio packet.
+	 */
+	public static byte[] create(Random random, int size) {
+		int serial = random.nextInt();
+		ByteArrayOutputStream out = new ByteArrayOutputStream(size + MAX_PAGE_DATA);
+		int sequence = 0;
+
+		writePage(out, HEADER_TYPE_BOS, 0, serial, sequence++, Collections.singletonList(createIdentificationHeader()));
+		writePage(out, 0, 0, serial, sequence++, Arrays.asList(createCommentHeader(), createSetupHeader()));
+
+		long decodedPackets = 0;
+		boolean last = false;
+		while (!last) {
+			List<byte[]> packets = new ArrayList<>();
+			int pageSize = 0;
+			while (pageSize < MAX_PAGE_DATA && !last) {
+				byte[] packet = createAudioPacket(random,
+						Math.min(MAX_PACKET_SIZE - 1, Math.max(1, size - out.size() - pageSize)));
+				packets.add(packet);
+				pageSize += packet.length + 1;
+				decodedPackets++;
+				last = out.size() + pageSize >= size;
+			}
+			// The first audio packet only primes the overlap, it doesn't return samples
+			writePage(out, last ? HEADER_TYPE_EOS : 0, (decodedPackets - 1) * SAMPLES_PER_PACKET, serial, sequence++,
+					packets);
+		}
+		return out.toByteArray();
+	}
+
+	private static byte[] createIdentificationHeader() {
+		BitWriter header = createHeader(1);
+		header.write(0, 32); // Vorbis version
+		header.write(1, 8); // Channels
+		header.write(SAMPLE_RATE, 32);
+		header.write(0, 32); // Maximum bitrate
+		header.write(0, 32); // Nominal bitrate
+		header.write(0, 32); // Minimum bitrate
+		header.write(8, 4); // Short blocks have 2^8 samples
+		header.write(11, 4); // Long blocks have 2^11 samples
+		header.write(1, 1); // Framing flag
+		return header.toByteArray();
+	}
+
+	private static byte[] createCommentHeader() {
+		BitWriter header = createHeader(3);
+		byte[] vendor = "craftedMods.benchmarks".getBytes(StandardCharsets.UTF_8);
+		header.write(vendor.length, 32);
+		for (byte b : vendor) {
+			header.write(b & 0xff, 8);
+		}
+		header.write(0, 32); // User comments
+		header.write(1, 1); // Framing flag
+		return header.toByteArray();
+	}
+
+	private static byte[] createSetupHeader() {
+		BitWriter header = createHeader(5);
+
+		header.write(0, 8); // One codebook: two entries with one bit each, without a lookup table
+		header.write(0x564342, 24);
+		header.write(1, 16); // Dimensions
+		header.write(2, 24); // Entries
+		header.write(0, 1); // Not ordered
+		header.write(0, 1); // Not sparse
+		header.write(0, 5); // Length of the first entry - 1
+		header.write(0, 5); // Length of the second entry - 1
+		header.write(0, 4); // No lookup table
+
+		header.write(0, 6); // One time domain transform
+		header.write(0, 16);
+
+		header.write(0, 6); // One floor of type 1 without partitions
+		header.write(1, 16);
+		header.write(0, 5); // Partitions
+		header.write(1, 2); // Multiplier - 1
+		header.write(8, 4); // Range bits
+
+		header.write(0, 6); // One residue of type 0 covering nothing
+		header.write(0, 16);
+		header.write(0, 24); // Begin
+		header.write(0, 24); // End
+		header.write(0, 24); // Partition size - 1
+		header.write(0, 6); // Classifications - 1
+		header.write(0, 8); // Classbook
+		header.write(0, 3); // Cascade of the only classification
+		header.write(0, 1);
+
+		header.write(0, 6); // One mapping of type 0
+		header.write(0, 16);
+		header.write(0, 1); // One submap
+		header.write(0, 1); // No coupling
+		header.write(0, 2); // Reserved
+		header.write(0, 8); // Time of the submap
+		header.write(0, 8); // Floor of the submap
+		header.write(0, 8); // Residue of the submap
+
+		header.write(0, 6); // One mode with short blocks
+		header.write(0, 1); // Block flag
+		header.write(0, 16); // Window type
+		header.write(0, 16); // Transform type
+		header.write(0, 8); // Mapping
+
+		header.write(1, 1); // Framing flag
+		return header.toByteArray();
+	}
+
+	/*
+	 * The first bit marks the packet as audio packet, the second one marks the
+	 * floor of the only channel as unused. The mode number has zero bits, so the
+	 * remaining content isn't read by the decoder.
+	 */
+	private static byte[] createAudioPacket(Random random, int size) {
+		byte[] packet = new byte[size];
+		random.nextBytes(packet);
+		packet[0] &= ~0x03;
+		return packet;
+	}
+
+	private static BitWriter createHeader(int type) {
+		BitWriter header = new BitWriter();
+		header.write(type, 8);
+		for (byte b : "vorbis".getBytes(StandardCharsets.US_ASCII)) {
+			header.write(b, 8);
+		}
+		return header;
+	}
+
+	private static void writePage(ByteArrayOutputStream out, int headerType, long granulePosition, int serial,
+			int sequence, List<byte[]> packets) {
+		ByteArrayOutputStream segments = new ByteArrayOutputStream();
+		ByteArrayOutputStream data = new ByteArrayOutputStream();
+		for (byte[] packet : packets) {
+			for (int remaining = packet.length; remaining >= 0; remaining -= 255) {
+				segments.write(Math.min(remaining, 255));
+			}
+			data.write(packet, 0, packet.length);
+		}
+		if (segments.size() > 255)
+			throw new IllegalArgumentException("The packets don't fit into a single page");
+
+		byte[] page = new byte[27 + segments.size() + data.size()];
+		page[0] = 'O';
+		page[1] = 'g';
+		page[2] = 'g';
+		page[3] = 'S';
+		page[5] = (byte) headerType;
+		writeLittleEndian(page, 6, granulePosition, 8);
+		writeLittleEndian(page, 14, serial, 4);
+		writeLittleEndian(page, 18, sequence, 4);
+		page[26] = (byte) segments.size();
+		System.arraycopy(segments.toByteArray(), 0, page, 27, segments.size());
+		System.arraycopy(data.toByteArray(), 0, page, 27 + segments.size(), data.size());
+		writeLittleEndian(page, 22, crc(page), 4);
+		out.write(page, 0, page.length);
+	}
+
+	private static void writeLittleEndian(byte[] target, int offset, long value, int bytes) {
+		for (int i = 0; i < bytes; i++) {
+			target[offset + i] = (byte) (value >>> (8 * i));
+		}
+	}
+
+	private static int crc(byte[] page) {
+		int crc = 0;
+		for (byte b : page) {
+			crc = (crc << 8) ^ CRC_TABLE[((crc >>> 24) ^ b) & 0xff];
+		}
+		return crc;
+	}
+
+	/*
+	 * Vorbis packs the values starting with the least significant bit
+	 */
+	private static class BitWriter {
+
+		private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		private int current;
+		private int bits;
+
+		public void write(long value, int count) {
+			for (int i = 0; i < count; i++) {
+				this.current |= (int) ((value >>> i) & 1) << this.bits;
+				if (++this.bits == 8) {
+					this.out.write(this.current);
+					this.current = 0;
+					this.bits = 0;
+				}
+			}
+		}
+
+		public byte[] toByteArray() {
+			if (this.bits > 0) {
+				this.out.write(this.current);
+				this.current = 0;
+				this.bits = 0;
+			}
+			return this.out.toByteArray();
+		}
+
+	}
+
+}
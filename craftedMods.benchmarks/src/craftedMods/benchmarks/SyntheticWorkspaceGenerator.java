@@ -0,0 +1,154 @@
+package craftedMods.benchmarks;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+import craftedMods.lotr.mpc.core.api.*;
+import craftedMods.lotr.mpc.core.base.*;
+import craftedMods.lotr.mpc.data.api.MusicPackData;
+import craftedMods.lotr.mpc.data.provider.MusicPackDataImpl;
+import craftedMods.lotr.mpc.persistence.api.TrackStore;
+import craftedMods.utils.exceptions.InvalidInputException;
+
+/*
+ * Creates reproducible workspaces and Music Packs for benchmarks and load
+ * tests. The regions and categories are the ones of the LOTR mod, the tracks
+ * are tiny valid Ogg files. The same seed always results in the same data, as
+ * long as the same methods are called in the same order.
+ */
+public class SyntheticWorkspaceGenerator {
+
+	public static final String PROJECTS_DIRECTORY = "projects";
+	public static final String PACKS_DIRECTORY = "packs";
+
+	private static final int AUTHORS = 50;
+
+	private final Random random;
+	private final MusicPackData data;
+	private final List<String> regions;
+	private final List<String> categories;
+
+	public SyntheticWorkspaceGenerator(long seed) {
+		this.random = new Random(seed);
+		MusicPackDataImpl data = new MusicPackDataImpl();
+		data.onActivate();
+		this.data = data;
+		this.regions = new ArrayList<>(data.getRegions().keySet());
+		this.categories = new ArrayList<>(data.getCategories());
+	}
+
+	public List<Track> createTracks(int count) {
+		List<Track> tracks = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			tracks.add(new DefaultTrack(String.format("track%05d.ogg", i),
+					this.random.nextInt(4) > 0 ? "Track " + i : null, this.createRegions(), this.createAuthors()));
+		}
+		return tracks;
+	}
+
+	private List<Region> createRegions() {
+		List<Region> regions = new ArrayList<>();
+		for (String name : this.pick(this.regions, 1, 3)) {
+			List<String> subregions = new ArrayList<>(this.data.getRegions().get(name));
+			regions.add(new DefaultRegion(name, this.pick(subregions, 0, Math.min(2, subregions.size())),
+					this.pick(this.categories, 0, 2), this.random.nextInt(3) == 0 ? this.random.nextFloat() : null));
+		}
+		return regions;
+	}
+
+	private List<String> createAuthors() {
+		List<String> authors = new ArrayList<>();
+		for (int i = this.random.nextInt(3); i > 0; i--) {
+			authors.add("Author " + this.random.nextInt(AUTHORS));
+		}
+		return authors;
+	}
+
+	/*
+	 * Picks between min and max distinct elements
+	 */
+	private <T> List<T> pick(List<T> elements, int min, int max) {
+		List<T> shuffled = new ArrayList<>(elements);
+		Collections.shuffle(shuffled, this.random);
+		return shuffled.subList(0, min + this.random.nextInt(max - min + 1));
+	}
+
+	public byte[] createTrackData(int size) {
+		return SyntheticOggFile.create(this.random, size);
+	}
+
+	/*
+	 * Registers and saves a project with the given amount of tracks, their
+	 * content is written into the track store
+	 */
+	public MusicPackProject createProject(BenchmarkWorkspace workspace, String name, int trackCount, int trackSize)
+			throws IOException, InvalidInputException {
+		MusicPackProject project = workspace.getProjectManager().registerMusicPackProject(
+				workspace.getFactory().createMusicPackProjectInstance(name));
+		project.getMusicPack().getTracks().addAll(this.createTracks(trackCount));
+		workspace.getProjectManager().saveMusicPackProject(project);
+		TrackStore store = workspace.getTrackStoreManager().getTrackStore(project);
+		for (Track track : project.getMusicPack().getTracks()) {
+			try (OutputStream out = store.openOutputStream(track.getName())) {
+				out.write(this.createTrackData(trackSize));
+			}
+		}
+		return project;
+	}
+
+	public List<MusicPackProject> createProjects(BenchmarkWorkspace workspace, int projectCount, int trackCount,
+			int trackSize) throws IOException, InvalidInputException {
+		List<MusicPackProject> projects = new ArrayList<>(projectCount);
+		for (int i = 0; i < projectCount; i++) {
+			projects.add(this.createProject(workspace, String.format("Project %04d", i), trackCount, trackSize));
+		}
+		return projects;
+	}
+
+	/*
+	 * Exports the project into the directory, the pack is named after the
+	 * project. Only the timestamps of the entries differ between two runs.
+	 */
+	public Path exportPack(BenchmarkWorkspace workspace, MusicPackProject project, Path directory)
+			throws IOException {
+		Path pack = Files.createDirectories(directory).resolve(project.getName() + ".zip");
+		workspace.getExporter().exportMusicPackProject(pack, project);
+		if (!Files.exists(pack))
+			throw new IOException(String.format("The Music Pack Project \"%s\" couldn't be exported", project.getName()));
+		return pack;
+	}
+
+	/*
+	 * Usage: <directory> <projects> <tracks> [track size] [seed] [export packs]
+	 *
+	 * The projects are written into the subdirectory "projects", which can be
+	 * used as projects directory of the application. The exported packs are
+	 * written into the subdirectory "packs". The directory should be empty.
+	 */
+	public static void main(String[] args) throws IOException, InvalidInputException {
+		if (args.length < 3) {
+			System.err.println(
+					"Usage: SyntheticWorkspaceGenerator <directory> <projects> <tracks> [track size] [seed] [export packs]");
+			System.exit(1);
+		}
+		Path directory = Paths.get(args[0]);
+		int projectCount = Integer.parseInt(args[1]);
+		int trackCount = Integer.parseInt(args[2]);
+		int trackSize = args.length > 3 ? Integer.parseInt(args[3]) : 4096;
+		long seed = args.length > 4 ? Long.parseLong(args[4]) : 0l;
+		boolean exportPacks = args.length > 5 ? Boolean.parseBoolean(args[5]) : true;
+
+		SyntheticWorkspaceGenerator generator = new SyntheticWorkspaceGenerator(seed);
+		try (BenchmarkWorkspace workspace = new BenchmarkWorkspace(directory.resolve(PROJECTS_DIRECTORY))) {
+			for (MusicPackProject project : generator.createProjects(workspace, projectCount, trackCount,
+					trackSize)) {
+				if (exportPacks)
+					generator.exportPack(workspace, project, directory.resolve(PACKS_DIRECTORY));
+			}
+		}
+		System.out.printf("Generated %d projects with %d tracks each at \"%s\"%n", projectCount, trackCount,
+				directory.toAbsolutePath());
+	}
+
+}
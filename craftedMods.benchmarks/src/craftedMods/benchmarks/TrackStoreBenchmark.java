@@ -0,0 +1,67 @@
+package craftedMods.benchmarks;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import craftedMods.lotr.mpc.core.api.MusicPackProject;
+import craftedMods.lotr.mpc.persistence.api.TrackStore;
+import craftedMods.utils.exceptions.InvalidInputException;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TrackStoreBenchmark {
+
+	@Param({ "100", "1000" })
+	public int tracks;
+
+	@Param({ "4096" })
+	public int trackSize;
+
+	private BenchmarkWorkspace workspace;
+	private TrackStore store;
+	private String[] trackNames;
+	private int nextTrack;
+	private byte[] buffer;
+
+	@Setup
+	public void setup() throws IOException, InvalidInputException {
+		this.workspace = BenchmarkWorkspace.createTemporary();
+		MusicPackProject project = new SyntheticWorkspaceGenerator(this.tracks).createProject(this.workspace,
+				"Benchmark", this.tracks, this.trackSize);
+		this.store = this.workspace.getTrackStoreManager().getTrackStore(project);
+		this.trackNames = this.store.getStoredTracks().toArray(new String[0]);
+		this.buffer = new byte[this.trackSize];
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		this.workspace.close();
+	}
+
+	@Benchmark
+	public Collection<String> refresh() throws IOException {
+		this.store.refresh();
+		return this.store.getStoredTracks();
+	}
+
+	@Benchmark
+	public int openAndRead() throws IOException {
+		String name = this.trackNames[this.nextTrack++ % this.trackNames.length];
+		int read = 0;
+		try (InputStream in = this.store.openInputStream(name)) {
+			int count;
+			while ((count = in.read(this.buffer)) > 0) {
+				read += count;
+			}
+		}
+		return read;
+	}
+
+}
@@ -0,0 +1,61 @@
+package craftedMods.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import craftedMods.utils.data.*;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TypedPropertiesBenchmark {
+
+	/*
+	 * The events of the application carry between one and five properties
+	 */
+	@Param({ "1", "5", "20" })
+	public int keys;
+
+	private TypedPropertyKey<Integer>[] propertyKeys;
+	private DefaultTypedProperties filledProperties;
+
+	@Setup
+	@SuppressWarnings("unchecked")
+	public void setup() {
+		this.propertyKeys = new TypedPropertyKey[this.keys];
+		this.filledProperties = new DefaultTypedProperties();
+		for (int i = 0; i < this.keys; i++) {
+			this.propertyKeys[i] = TypedPropertyKey.createIntegerPropertyKey();
+			this.filledProperties.put(this.propertyKeys[i], i);
+		}
+	}
+
+	@Benchmark
+	public DefaultTypedProperties put() {
+		DefaultTypedProperties properties = new DefaultTypedProperties();
+		for (int i = 0; i < this.propertyKeys.length; i++) {
+			properties.put(this.propertyKeys[i], i);
+		}
+		return properties;
+	}
+
+	@Benchmark
+	public void get(Blackhole blackhole) {
+		for (TypedPropertyKey<Integer> key : this.propertyKeys) {
+			blackhole.consume(this.filledProperties.getProperty(key));
+		}
+	}
+
+	@Benchmark
+	public void containsProperty(Blackhole blackhole) {
+		for (TypedPropertyKey<Integer> key : this.propertyKeys) {
+			blackhole.consume(this.filledProperties.containsProperty(key));
+		}
+	}
+
+}
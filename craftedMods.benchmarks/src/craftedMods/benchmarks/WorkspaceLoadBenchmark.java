@@ -0,0 +1,70 @@
+package craftedMods.benchmarks;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import craftedMods.lotr.mpc.core.api.MusicPackProject;
+import craftedMods.utils.exceptions.InvalidInputException;
+
+/*
+ * Loads the projects directory like the application does on startup
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class WorkspaceLoadBenchmark {
+
+	@Param({ "100", "800" })
+	public int projects;
+
+	@Param({ "100" })
+	public int tracks;
+
+	/*
+	 * Zero means one thread per available processor
+	 */
+	@Param({ "1", "0" })
+	public int loadThreads;
+
+	/*
+	 * Whether only the project headers are read
+	 */
+	@Param({ "false", "true" })
+	public boolean lazyLoading;
+
+	/*
+	 * Only used with lazy loading, the index is written by the first loading
+	 */
+	@Param({ "false", "true" })
+	public boolean workspaceIndex;
+
+	private BenchmarkWorkspace workspace;
+
+	@Setup
+	public void setup() throws IOException, InvalidInputException {
+		this.workspace = BenchmarkWorkspace.createTemporary();
+		new SyntheticWorkspaceGenerator(this.projects).createProjects(this.workspace, this.projects, this.tracks, 16);
+		Map<String, Object> configuration = new HashMap<>();
+		configuration.put("loadThreads", this.loadThreads);
+		configuration.put("lazyLoading", this.lazyLoading);
+		configuration.put("workspaceIndex", this.workspaceIndex);
+		this.workspace.configurePersistence(configuration);
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		this.workspace.close();
+	}
+
+	@Benchmark
+	public Collection<MusicPackProject> load() {
+		return this.workspace.getPersistenceManager().loadMusicPackProjects();
+	}
+
+}
@@ -11,7 +11,7 @@ public interface Event {
 
 	public ReadOnlyTypedProperties getEventProperties();
 
-	public boolean matches(EventInfo eventInfo);
+	public boolean matches(EventInfo eventInfo); // The topic of the event info may contain the wildcards defined by the event manager.
 
 	public LockableTypedProperties getEventResults();// TODO: Only supported for synchronous dispatched events
 
@@ -1,6 +1,7 @@
 package craftedMods.eventManager.api;
 
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 
 import org.osgi.annotation.versioning.ProviderType;
 
@@ -9,6 +10,18 @@ import craftedMods.utils.data.*;
 @ProviderType
 public interface EventManager {
 
+	/*
+	 * A segment of a subscribed topic which matches any single segment of the
+	 * dispatched topic, e.g. "craftedMods/lotr/mpc/core/api/MusicPackProjectImporter/*"
+	 */
+	public static final String TOPIC_SEGMENT_WILDCARD = "*";
+
+	/*
+	 * The last segment of a subscribed topic which matches one or more segments
+	 * of the dispatched topic, e.g. "craftedMods/lotr/mpc/**"
+	 */
+	public static final String TOPIC_SUBTREE_WILDCARD = "**";
+
 	public Collection<ReadOnlyTypedProperties> dispatchEvent(EventInfo eventInfo, LockableTypedProperties properties);// The event properties will be locked. The returned collection is never null.
 
 	public Collection<ReadOnlyTypedProperties> dispatchEvent(EventInfo eventInfo);
@@ -17,4 +30,34 @@ public interface EventManager {
 
 	public Collection<ReadOnlyTypedProperties> dispatchEvent(EventInfo eventInfo, EventDispatchPolicy policy);
 
+	/*
+	 * Stops calling further synchronous handlers as soon as a handler sets the
+	 * proceed property to false. The returned results include the veto, so
+	 * EventUtils.proceed can be applied to them as usual.
+	 */
+	public Collection<ReadOnlyTypedProperties> dispatchVetoableEvent(EventInfo eventInfo, LockableTypedProperties properties,
+			TypedPropertyKey<Boolean> proceedProperty);
+
+	/*
+	 * Asynchronous handlers receive events with equal ordering keys one after
+	 * another in the order they were dispatched. Other events are ordered by
+	 * their topic.
+	 */
+	public Collection<ReadOnlyTypedProperties> dispatchOrderedEvent(EventInfo eventInfo, LockableTypedProperties properties,
+			Object orderingKey);
+
+	/*
+	 * Calls all handlers on the asynchronous event threads, the synchronous ones
+	 * in their usual order first. The returned future completes with the results
+	 * of all handlers once they were called, or exceptionally if a handler threw
+	 * an exception or the event manager was deactivated.
+	 */
+	public CompletableFuture<Collection<ReadOnlyTypedProperties>> dispatchEventAsync(EventInfo eventInfo);
+
+	public CompletableFuture<Collection<ReadOnlyTypedProperties>> dispatchEventAsync(EventInfo eventInfo,
+			LockableTypedProperties properties);
+
+	public CompletableFuture<Collection<ReadOnlyTypedProperties>> dispatchEventAsync(EventInfo eventInfo,
+			LockableTypedProperties properties, EventDispatchPolicy policy);
+
 }
@@ -0,0 +1,28 @@
+package craftedMods.eventManager.api;
+
+import java.util.Map;
+
+import org.osgi.annotation.versioning.ProviderType;
+
+/*
+ * Provided by the event manager if it collects metrics. Only topics with at
+ * least one handler are recorded.
+ */
+@ProviderType
+public interface EventMetrics {
+
+	public Map<String, EventStatistics> getTopicStatistics(); // A snapshot of the recorded topics
+
+	public Map<EventHandler, EventStatistics> getHandlerStatistics(); // A snapshot of the registered handlers which were called
+
+	public int getAsynchronousQueueSize(); // The amount of asynchronous events waiting for a free thread
+
+	public long getRejectedAsynchronousEventCount(); // The amount of asynchronous events which arrived while the queue was full
+
+	public long getDroppedAsynchronousEventCount(); // The amount of asynchronous events which weren't delivered at all
+
+	public long getCoalescedProgressEventCount(); // The amount of progress events superseded by a newer one
+
+	public void reset();
+
+}
@@ -0,0 +1,35 @@
+package craftedMods.eventManager.api;
+
+import org.osgi.annotation.versioning.ProviderType;
+
+/*
+ * Statistics about the dispatches of a topic or the calls of a handler. The
+ * latencies of a topic are the time its synchronous handlers took in total.
+ */
+@ProviderType
+public interface EventStatistics {
+
+	/*
+	 * Bucket zero of the histogram contains the latencies below one microsecond,
+	 * bucket i the latencies from 2^(i-1) up to 2^i microseconds and the last
+	 * bucket all longer latencies
+	 */
+	public static final int LATENCY_HISTOGRAM_BUCKETS = 24;
+
+	public long getCount();
+
+	public long getExceptionCount();
+
+	public long getTotalLatencyNanos();
+
+	public long getMaxLatencyNanos();
+
+	public long[] getLatencyHistogram(); // A copy with LATENCY_HISTOGRAM_BUCKETS entries
+
+	public long getAsynchronousCount(); // The amount of asynchronous deliveries
+
+	public long getTotalQueueWaitNanos(); // The time asynchronous deliveries waited for a free thread in total
+
+	public long getMaxQueueWaitNanos();
+
+}
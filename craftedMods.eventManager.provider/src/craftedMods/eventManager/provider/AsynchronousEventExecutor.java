@@ -0,0 +1,370 @@
+package craftedMods.eventManager.provider;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/*
+ * A bounded thread pool for the asynchronous event delivery. The threads are
+ * started on demand and terminate if they were idle for a while. Tasks with an
+ * ordering key are executed in serial lanes, tasks of the same lane are
+ * executed one after another in the order they were submitted.
+ */
+class AsynchronousEventExecutor {
+
+	private static final long KEEP_ALIVE_SECONDS = 60;
+
+	/*
+	 * Blocked dispatchers check this often whether the executor was shut down
+	 */
+	private static final long BLOCK_POLL_MILLISECONDS = 100;
+
+	/*
+	 * A lane gives its thread back to the pool after this many tasks, so busy
+	 * lanes don't starve the others
+	 */
+	private static final int LANE_BATCH_SIZE = 64;
+
+	private final SaturationPolicy saturationPolicy;
+	private final BlockingQueue<Runnable> queue;
+	private final ThreadPoolExecutor executor;
+
+	private final int laneCapacity;
+	private final Lane[] lanes;
+
+	private final AtomicLong rejectedTasks = new AtomicLong();
+	private final AtomicLong droppedTasks = new AtomicLong();
+
+	/*
+	 * Zero or less threads means one thread per available processor. The queue
+	 * capacity applies to every lane separately. The amount of lanes is rounded
+	 * up to a power of two, zero or less disables the lanes. The queue has to be
+	 * able to hold all lanes, as they are scheduled through it.
+	 */
+	public AsynchronousEventExecutor(int threads, int queueCapacity, SaturationPolicy saturationPolicy, int lanes) {
+		if (queueCapacity <= 0)
+			throw new IllegalArgumentException("The queue capacity must be positive");
+		this.laneCapacity = queueCapacity;
+		if (lanes > 0) {
+			int laneCount = 1;
+			while (laneCount < lanes)
+				laneCount <<= 1;
+			this.lanes = new Lane[laneCount];
+			for (int i = 0; i < laneCount; i++)
+				this.lanes[i] = new Lane();
+		} else this.lanes = null;
+		if (this.lanes != null && queueCapacity < this.lanes.length)
+			throw new IllegalArgumentException("The queue capacity must not be smaller than the amount of lanes");
+		this.saturationPolicy = saturationPolicy;
+		this.queue = new ArrayBlockingQueue<>(queueCapacity);
+		int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+		this.executor = new ThreadPoolExecutor(poolSize, poolSize, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, this.queue,
+				new EventManagerThreadFactory(this), (task, executor) -> this.onSaturation(task));
+		this.executor.allowCoreThreadTimeOut(true);
+	}
+
+	/*
+	 * Droppable tasks may be discarded by the DROP_OLDEST policy. Returns false
+	 * if the task was discarded because the executor was shut down.
+	 */
+	public boolean execute(Runnable task, boolean droppable) {
+		try {
+			this.executor.execute(droppable ? new DroppableTask(task) : task);
+			return true;
+		} catch (RejectedExecutionException e) {
+			return false;
+		}
+	}
+
+	/*
+	 * Tasks without an ordering key are executed like other tasks
+	 */
+	public boolean execute(Object orderingKey, Runnable task, boolean droppable) {
+		if (this.lanes == null || orderingKey == null)
+			return this.execute(task, droppable);
+		int hash = orderingKey.hashCode();
+		return this.lanes[(hash ^ hash >>> 16) & this.lanes.length - 1].submit(task, droppable);
+	}
+
+	private void onSaturation(Runnable task) {
+		if (this.executor.isShutdown()) {
+			// Lanes count their discarded tasks themselves
+			if (task instanceof Lane)
+				throw new RejectedExecutionException("The lane wasn't scheduled");
+			throw this.discard();
+		}
+		this.rejectedTasks.incrementAndGet();
+		// A lane which can't be rescheduled keeps the thread it's running on
+		if (task instanceof Lane && this.isPoolThread())
+			throw new RejectedExecutionException("The lane wasn't rescheduled");
+		switch (this.saturationPolicy) {
+			case DROP_OLDEST:
+				if (this.dropOldestDroppableTask()) {
+					this.executor.execute(task);
+					break;
+				}
+				task.run();
+				break;
+			case BLOCK:
+				// Only the pool threads free space in the queue, so they can't wait for it
+				if (this.isPoolThread())
+					task.run();
+				else this.block(task);
+				break;
+			case CALLER_RUNS:
+			default:
+				task.run();
+				break;
+		}
+	}
+
+	private boolean dropOldestDroppableTask() {
+		Iterator<Runnable> queuedTasks = this.queue.iterator();
+		while (queuedTasks.hasNext()) {
+			Runnable queuedTask = queuedTasks.next();
+			if (queuedTask instanceof DroppableTask && this.queue.remove(queuedTask)) {
+				this.droppedTasks.incrementAndGet();
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void block(Runnable task) {
+		try {
+			while (!this.executor.isShutdown()) {
+				if (this.queue.offer(task, BLOCK_POLL_MILLISECONDS, TimeUnit.MILLISECONDS))
+					return;
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		throw this.discard();
+	}
+
+	private boolean isPoolThread() {
+		Thread currentThread = Thread.currentThread();
+		return currentThread instanceof EventManagerThread && ((EventManagerThread) currentThread).owner == this;
+	}
+
+	private RejectedExecutionException discard() {
+		this.droppedTasks.incrementAndGet();
+		return new RejectedExecutionException("The event task was discarded");
+	}
+
+	/*
+	 * The amount of tasks waiting for a free thread
+	 */
+	public int getQueueSize() {
+		int queueSize = 0;
+		for (Runnable queuedTask : this.queue) {
+			if (!(queuedTask instanceof Lane))
+				queueSize++;
+		}
+		if (this.lanes != null) {
+			for (Lane lane : this.lanes)
+				queueSize += lane.size();
+		}
+		return queueSize;
+	}
+
+	/*
+	 * The amount of tasks the saturation policy had to handle
+	 */
+	public long getRejectedTaskCount() {
+		return this.rejectedTasks.get();
+	}
+
+	/*
+	 * The amount of tasks which were never executed
+	 */
+	public long getDroppedTaskCount() {
+		return this.droppedTasks.get();
+	}
+
+	/*
+	 * Queued tasks are still executed
+	 */
+	public void shutdown() {
+		this.executor.shutdown();
+	}
+
+	public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+		return this.executor.awaitTermination(timeout, unit);
+	}
+
+	private static class DroppableTask implements Runnable {
+
+		private final Runnable task;
+
+		private DroppableTask(Runnable task) {
+			this.task = task;
+		}
+
+		@Override
+		public void run() {
+			this.task.run();
+		}
+
+	}
+
+	/*
+	 * The lane is scheduled on the pool while it has tasks. A dispatcher has to
+	 * wait if its lane is full, even with the CALLER_RUNS policy, as calling the
+	 * handlers itself would break the order. Only handlers dispatching events
+	 * into their own lane may exceed the capacity, as they would wait forever.
+	 */
+	private class Lane implements Runnable {
+
+		private final Deque<Runnable> tasks = new ArrayDeque<>();
+		private boolean scheduled = false;
+		private Thread drainingThread;
+
+		private boolean submit(Runnable task, boolean droppable) {
+			Runnable laneTask = droppable ? new DroppableTask(task) : task;
+			synchronized (this) {
+				if (this.tasks.size() >= AsynchronousEventExecutor.this.laneCapacity
+						&& this.drainingThread != Thread.currentThread() && !this.awaitSpace()) {
+					AsynchronousEventExecutor.this.droppedTasks.incrementAndGet();
+					return false;
+				}
+				this.tasks.add(laneTask);
+				if (this.scheduled)
+					return true;
+				this.scheduled = true;
+			}
+			if (this.schedule())
+				return true;
+			// A pool thread couldn't schedule the lane on the saturated pool, so it runs it
+			if (!AsynchronousEventExecutor.this.executor.isShutdown()) {
+				this.run();
+				return true;
+			}
+			// Tasks other dispatchers added in the meantime were accepted, so they're executed here
+			synchronized (this) {
+				this.tasks.removeFirstOccurrence(laneTask);
+				AsynchronousEventExecutor.this.droppedTasks.incrementAndGet();
+				this.notifyAll();
+			}
+			this.run();
+			return false;
+		}
+
+		private boolean awaitSpace() {
+			AsynchronousEventExecutor.this.rejectedTasks.incrementAndGet();
+			if (AsynchronousEventExecutor.this.saturationPolicy == SaturationPolicy.DROP_OLDEST
+					&& this.dropOldestDroppableTask())
+				return true;
+			try {
+				while (this.tasks.size() >= AsynchronousEventExecutor.this.laneCapacity) {
+					if (AsynchronousEventExecutor.this.executor.isShutdown())
+						return false;
+					this.wait(BLOCK_POLL_MILLISECONDS);
+				}
+				return true;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return false;
+			}
+		}
+
+		private boolean dropOldestDroppableTask() {
+			Iterator<Runnable> queuedTasks = this.tasks.iterator();
+			while (queuedTasks.hasNext()) {
+				if (queuedTasks.next() instanceof DroppableTask) {
+					queuedTasks.remove();
+					AsynchronousEventExecutor.this.droppedTasks.incrementAndGet();
+					return true;
+				}
+			}
+			return false;
+		}
+
+		/*
+		 * Fails if the executor was shut down or if a pool thread found the pool
+		 * saturated, the current thread has to drain the lane then
+		 */
+		private boolean schedule() {
+			return AsynchronousEventExecutor.this.execute(this, false);
+		}
+
+		private synchronized int size() {
+			return this.tasks.size();
+		}
+
+		@Override
+		public void run() {
+			while (this.runBatch() && !this.schedule());
+		}
+
+		/*
+		 * Returns false if the lane ran empty
+		 */
+		private boolean runBatch() {
+			Thread currentThread = Thread.currentThread();
+			for (int i = 0; i < LANE_BATCH_SIZE; i++) {
+				Runnable task;
+				synchronized (this) {
+					task = this.tasks.poll();
+					if (task == null) {
+						this.scheduled = false;
+						return false;
+					}
+					this.drainingThread = currentThread;
+					this.notifyAll();
+				}
+				try {
+					task.run();
+				} catch (RuntimeException e) {
+					// Reported like exceptions of other tasks, but the lane continues
+					currentThread.getUncaughtExceptionHandler().uncaughtException(currentThread, e);
+				} catch (Error e) {
+					// The remaining tasks are still executed
+					if (!this.schedule())
+						this.run();
+					throw e;
+				} finally {
+					synchronized (this) {
+						this.drainingThread = null;
+					}
+				}
+			}
+			return true;
+		}
+
+	}
+
+	private static class EventManagerThreadFactory implements ThreadFactory {
+
+		private static final AtomicInteger counter = new AtomicInteger();
+
+		private final AsynchronousEventExecutor owner;
+
+		private EventManagerThreadFactory(AsynchronousEventExecutor owner) {
+			this.owner = owner;
+		}
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new EventManagerThread(runnable, "Event Manager " + counter.incrementAndGet(), this.owner);
+			thread.setDaemon(true);
+			return thread;
+		}
+
+	}
+
+	/*
+	 * Identifies the threads of an executor
+	 */
+	private static class EventManagerThread extends Thread {
+
+		private final AsynchronousEventExecutor owner;
+
+		private EventManagerThread(Runnable runnable, String name, AsynchronousEventExecutor owner) {
+			super(runnable, name);
+			this.owner = owner;
+		}
+
+	}
+
+}
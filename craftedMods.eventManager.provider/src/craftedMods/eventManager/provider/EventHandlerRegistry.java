@@ -0,0 +1,238 @@
+package craftedMods.eventManager.provider;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import craftedMods.eventManager.api.*;
+import craftedMods.eventManager.base.DefaultEventInfo;
+
+/*
+ * A copy-on-write registry of the event handlers. The subscribed topics are
+ * indexed in an immutable trie which is rebuilt whenever a handler is added or
+ * removed. The handler table of a dispatched topic is resolved once by walking
+ * the trie and cached afterwards, so a dispatch usually only reads a volatile
+ * reference and walks arrays. The handlers of a table are ordered by their
+ * priority.
+ */
+class EventHandlerRegistry {
+
+	private static final EventHandler[] NO_HANDLERS = new EventHandler[0];
+
+	/*
+	 * Protects against unbounded growth if arbitrary topics are dispatched
+	 */
+	private static final int MAX_CACHED_TOPICS = 4096;
+
+	private final Map<EventHandler, Registration> registrations = new LinkedHashMap<>();
+
+	private volatile TopicIndex topicIndex = new TopicIndex(new TopicNode());
+
+	/*
+	 * The supported events are copied, so a handler is always removed from the
+	 * topics it was added for. Handlers with a higher priority are called first.
+	 */
+	public synchronized void addHandler(EventHandler handler, Map<EventInfo, EventHandlerPolicy> supportedEvents,
+			int priority) {
+		this.registrations.put(Objects.requireNonNull(handler),
+				new Registration(new LinkedHashMap<>(supportedEvents), priority));
+		this.rebuildTopicIndex();
+	}
+
+	public synchronized boolean removeHandler(EventHandler handler) {
+		if (this.registrations.remove(Objects.requireNonNull(handler)) == null)
+			return false;
+		this.rebuildTopicIndex();
+		return true;
+	}
+
+	/*
+	 * Returns null if no handler listens for the topic
+	 */
+	public HandlerTable getHandlerTable(String topic) {
+		TopicIndex topicIndex = this.topicIndex;
+		Optional<HandlerTable> handlerTable = topicIndex.handlerTables.get(topic);
+		if (handlerTable == null) {
+			handlerTable = Optional.ofNullable(topicIndex.createHandlerTable(topic));
+			if (topicIndex.handlerTables.size() < MAX_CACHED_TOPICS)
+				topicIndex.handlerTables.putIfAbsent(topic, handlerTable);
+		}
+		return handlerTable.orElse(null);
+	}
+
+	private void rebuildTopicIndex() {
+		List<Map.Entry<EventHandler, Registration>> registrations = new ArrayList<>(this.registrations.entrySet());
+		// The sort is stable, so the registration order is kept for equal priorities
+		registrations.sort((first, second) -> Integer.compare(second.getValue().priority, first.getValue().priority));
+		TopicNode root = new TopicNode();
+		for (int order = 0; order < registrations.size(); order++) {
+			Map.Entry<EventHandler, Registration> registration = registrations.get(order);
+			for (Map.Entry<EventInfo, EventHandlerPolicy> event : registration.getValue().supportedEvents.entrySet()) {
+				root.add(TopicPatterns.split(event.getKey().getTopic()), 0,
+						new Subscription(order, registration.getKey(), event.getValue()));
+			}
+		}
+		this.topicIndex = new TopicIndex(root);
+	}
+
+	private static class Registration {
+
+		private final Map<EventInfo, EventHandlerPolicy> supportedEvents;
+		private final int priority;
+
+		private Registration(Map<EventInfo, EventHandlerPolicy> supportedEvents, int priority) {
+			this.supportedEvents = supportedEvents;
+			this.priority = priority;
+		}
+
+	}
+
+	private static class Subscription {
+
+		private final int order;
+		private final EventHandler handler;
+		private final EventHandlerPolicy policy;
+
+		private Subscription(int order, EventHandler handler, EventHandlerPolicy policy) {
+			this.order = order;
+			this.handler = handler;
+			this.policy = policy;
+		}
+
+	}
+
+	private static class TopicIndex {
+
+		private final TopicNode root;
+		private final Map<String, Optional<HandlerTable>> handlerTables = new ConcurrentHashMap<>();
+
+		private TopicIndex(TopicNode root) {
+			this.root = root;
+		}
+
+		/*
+		 * The cost only depends on the depth of the topic and the amount of
+		 * wildcard branches on the path, not on the amount of subscriptions
+		 */
+		private HandlerTable createHandlerTable(String topic) {
+			List<Subscription> subscriptions = new ArrayList<>();
+			this.root.collect(TopicPatterns.split(topic), 0, subscriptions);
+			if (subscriptions.isEmpty())
+				return null;
+			subscriptions.sort(Comparator.comparingInt(subscription -> subscription.order));
+			Map<EventHandler, Set<EventHandlerPolicy>> handlers = new LinkedHashMap<>();
+			for (Subscription subscription : subscriptions) {
+				handlers.computeIfAbsent(subscription.handler, handler -> EnumSet.noneOf(EventHandlerPolicy.class))
+						.add(subscription.policy);
+			}
+			return new HandlerTable(topic, handlers);
+		}
+
+	}
+
+	private static class TopicNode {
+
+		private final Map<String, TopicNode> children = new HashMap<>();
+		private TopicNode segmentWildcardChild;
+
+		private final List<Subscription> subscriptions = new ArrayList<>();
+		private final List<Subscription> subtreeSubscriptions = new ArrayList<>();
+
+		private void add(String[] segments, int index, Subscription subscription) {
+			if (index == segments.length)
+				this.subscriptions.add(subscription);
+			else if (index == segments.length - 1 && EventManager.TOPIC_SUBTREE_WILDCARD.equals(segments[index]))
+				this.subtreeSubscriptions.add(subscription);
+			else if (EventManager.TOPIC_SEGMENT_WILDCARD.equals(segments[index])) {
+				if (this.segmentWildcardChild == null)
+					this.segmentWildcardChild = new TopicNode();
+				this.segmentWildcardChild.add(segments, index + 1, subscription);
+			} else this.children.computeIfAbsent(segments[index], segment -> new TopicNode()).add(segments, index + 1,
+					subscription);
+		}
+
+		private void collect(String[] segments, int index, List<Subscription> matches) {
+			if (index == segments.length) {
+				matches.addAll(this.subscriptions);
+				return;
+			}
+			matches.addAll(this.subtreeSubscriptions);
+			TopicNode child = this.children.get(segments[index]);
+			if (child != null)
+				child.collect(segments, index + 1, matches);
+			if (this.segmentWildcardChild != null)
+				this.segmentWildcardChild.collect(segments, index + 1, matches);
+		}
+
+	}
+
+	/*
+	 * The handlers of a topic, resolved for every dispatch policy. Handlers with
+	 * an unspecified policy are called synchronously, unless the event is
+	 * dispatched asynchronously.
+	 */
+	static class HandlerTable {
+
+		private final EventInfo synchronousEventInfo;
+		private final EventInfo asynchronousEventInfo;
+
+		private final EventHandler[][] synchronousHandlers = new EventHandler[EventDispatchPolicy.values().length][];
+		private final EventHandler[][] asynchronousHandlers = new EventHandler[EventDispatchPolicy.values().length][];
+
+		private HandlerTable(String topic, Map<EventHandler, Set<EventHandlerPolicy>> handlers) {
+			this.synchronousEventInfo = new DefaultEventInfo(topic, EventDispatchPolicy.SYNCHRONOUS);
+			this.asynchronousEventInfo = new DefaultEventInfo(topic, EventDispatchPolicy.ASYNCHRONOUS);
+
+			this.put(EventDispatchPolicy.SYNCHRONOUS, handlers, new EventHandlerPolicy[] { EventHandlerPolicy.SYNCHRONOUS,
+					EventHandlerPolicy.NOT_SPECIFIED }, new EventHandlerPolicy[0]);
+			this.put(EventDispatchPolicy.ASYNCHRONOUS, handlers, new EventHandlerPolicy[0], new EventHandlerPolicy[] {
+					EventHandlerPolicy.ASYNCHRONOUS, EventHandlerPolicy.NOT_SPECIFIED });
+			this.put(EventDispatchPolicy.HANDLER, handlers, new EventHandlerPolicy[] { EventHandlerPolicy.SYNCHRONOUS,
+					EventHandlerPolicy.NOT_SPECIFIED }, new EventHandlerPolicy[] { EventHandlerPolicy.ASYNCHRONOUS });
+		}
+
+		private void put(EventDispatchPolicy dispatchPolicy, Map<EventHandler, Set<EventHandlerPolicy>> handlers,
+				EventHandlerPolicy[] synchronousPolicies, EventHandlerPolicy[] asynchronousPolicies) {
+			this.synchronousHandlers[dispatchPolicy.ordinal()] = collect(handlers, synchronousPolicies);
+			this.asynchronousHandlers[dispatchPolicy.ordinal()] = collect(handlers, asynchronousPolicies);
+		}
+
+		/*
+		 * The handlers are already ordered by their priority
+		 */
+		private static EventHandler[] collect(Map<EventHandler, Set<EventHandlerPolicy>> handlers,
+				EventHandlerPolicy[] policies) {
+			List<EventHandler> collected = new ArrayList<>();
+			for (Map.Entry<EventHandler, Set<EventHandlerPolicy>> handler : handlers.entrySet()) {
+				for (EventHandlerPolicy policy : policies) {
+					if (handler.getValue().contains(policy)) {
+						collected.add(handler.getKey());
+						break;
+					}
+				}
+			}
+			return collected.isEmpty() ? NO_HANDLERS : collected.toArray(new EventHandler[collected.size()]);
+		}
+
+		public EventInfo getSynchronousEventInfo() {
+			return this.synchronousEventInfo;
+		}
+
+		public EventInfo getAsynchronousEventInfo() {
+			return this.asynchronousEventInfo;
+		}
+
+		/*
+		 * The dispatch policy has to be resolved already, the returned array must
+		 * not be modified
+		 */
+		public EventHandler[] getSynchronousHandlers(EventDispatchPolicy dispatchPolicy) {
+			return this.synchronousHandlers[dispatchPolicy.ordinal()];
+		}
+
+		public EventHandler[] getAsynchronousHandlers(EventDispatchPolicy dispatchPolicy) {
+			return this.asynchronousHandlers[dispatchPolicy.ordinal()];
+		}
+
+	}
+
+}
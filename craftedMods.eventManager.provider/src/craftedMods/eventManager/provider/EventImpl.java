@@ -26,7 +26,7 @@ public class EventImpl implements Event {
 
 	@Override
 	public boolean matches(EventInfo eventInfo) {
-		return this.eventInfo.getTopic().equals(eventInfo.getTopic());
+		return TopicPatterns.matches(eventInfo.getTopic(), this.eventInfo.getTopic());
 	}
 
 	void recreateEventResults() {
@@ -3,49 +3,187 @@ package craftedMods.eventManager.provider;
 import java.util.*;
 import java.util.concurrent.*;
 
+import org.osgi.framework.Constants;
 import org.osgi.service.component.annotations.*;
 import org.osgi.service.log.*;
 
 import craftedMods.eventManager.api.*;
-import craftedMods.eventManager.base.DefaultEventInfo;
 import craftedMods.utils.data.*;
 
 @Component(scope = ServiceScope.SINGLETON)
-public class EventManagerImpl implements EventManager {
+public class EventManagerImpl implements EventManager, EventMetrics {
 
-	private Map<String, Map<EventHandlerPolicy, Set<EventHandler>>> eventHandlers = new Hashtable<>();
+	public @interface Configuration {
+		/*
+		 * The amount of threads calling the asynchronous handlers, zero or less
+		 * means one thread per available processor
+		 */
+		int asynchronousThreads() default 0;
+
+		/*
+		 * The amount of asynchronous events waiting for a free thread, per lane if
+		 * the events are ordered. It must not be smaller than the amount of lanes.
+		 */
+		int asynchronousQueueCapacity() default DEFAULT_QUEUE_CAPACITY;
+
+		/*
+		 * Asynchronous events with the same ordering key - by default their topic -
+		 * are delivered one after another in the order they were dispatched. The
+		 * keys are spread over this many lanes, zero or less delivers all events
+		 * independently.
+		 */
+		int asynchronousLanes() default DEFAULT_ASYNCHRONOUS_LANES;
+
+		/*
+		 * What happens to asynchronous events if all threads are busy and the queue
+		 * is full
+		 */
+		SaturationPolicy saturationPolicy() default SaturationPolicy.CALLER_RUNS;
+
+		/*
+		 * Topics of events which only report the progress of an operation. Queued
+		 * asynchronous events of these topics may be discarded.
+		 */
+		String[] progressTopics() default {};
+
+		/*
+		 * Asynchronous handlers receive at most one event of a progress topic per
+		 * window (in milliseconds), the latest one. Zero or less delivers every
+		 * event.
+		 */
+		long progressEventWindow() default DEFAULT_PROGRESS_EVENT_WINDOW;
+
+		/*
+		 * Records the dispatches per topic and the calls per handler
+		 */
+		boolean collectMetrics() default true;
+
+		/*
+		 * Handlers taking longer (in milliseconds) are logged, zero or less
+		 * disables the logging
+		 */
+		long slowHandlerThreshold() default DEFAULT_SLOW_HANDLER_THRESHOLD;
+	}
+
+	private static final int DEFAULT_QUEUE_CAPACITY = 1024;
+	private static final int DEFAULT_ASYNCHRONOUS_LANES = 32;
+	private static final long DEFAULT_PROGRESS_EVENT_WINDOW = 50;
+	private static final long DEFAULT_SLOW_HANDLER_THRESHOLD = 250;
+
+	/*
+	 * Passed instead of the time an asynchronous event was posted if the
+	 * handler is called synchronously
+	 */
+	private static final long NOT_QUEUED = Long.MIN_VALUE;
+
+	/*
+	 * Used instead of timestamps if neither metrics are collected nor slow
+	 * handlers are logged
+	 */
+	private static final long NOT_MEASURED = Long.MIN_VALUE + 1;
+
+	private final EventHandlerRegistry handlerRegistry = new EventHandlerRegistry();
 
 	private List<Runnable> preActivationEventHandlerQuery = new ArrayList<>();
 
 	@Reference(service=LoggerFactory.class)
 	private FormatterLogger logger;
 
+	private int asynchronousThreads = 0;
+	private int asynchronousQueueCapacity = DEFAULT_QUEUE_CAPACITY;
+	private int asynchronousLanes = DEFAULT_ASYNCHRONOUS_LANES;
+	private SaturationPolicy saturationPolicy = SaturationPolicy.CALLER_RUNS;
+	private volatile Set<String> progressTopics = Collections.emptySet();
+	private long progressEventWindow = DEFAULT_PROGRESS_EVENT_WINDOW;
+
+	private volatile AsynchronousEventExecutor asynchronousExecutor = new AsynchronousEventExecutor(
+			this.asynchronousThreads, this.asynchronousQueueCapacity, this.saturationPolicy, this.asynchronousLanes);
+
+	private volatile ProgressEventCoalescer progressEventCoalescer = this.createProgressEventCoalescer();
+
+	private final EventMetricsCollector metrics = new EventMetricsCollector();
+	private volatile boolean collectMetrics = true;
+	private volatile long slowHandlerThresholdNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_SLOW_HANDLER_THRESHOLD);
+
 	@Activate
-	public void onActivate() {
+	public void onActivate(Configuration configuration) {
+		this.onModify(configuration);
 		for (Runnable task : this.preActivationEventHandlerQuery)
 			task.run();
 		this.preActivationEventHandlerQuery.clear();
 	}
 
+	@Modified
+	public void onModify(Configuration configuration) {
+		this.progressTopics = new HashSet<>(Arrays.asList(configuration.progressTopics()));
+		this.collectMetrics = configuration.collectMetrics();
+		this.slowHandlerThresholdNanos = TimeUnit.MILLISECONDS.toNanos(configuration.slowHandlerThreshold());
+		if (this.progressEventWindow != configuration.progressEventWindow()) {
+			this.progressEventWindow = configuration.progressEventWindow();
+			ProgressEventCoalescer previousCoalescer = this.progressEventCoalescer;
+			this.progressEventCoalescer = this.createProgressEventCoalescer();
+			if (previousCoalescer != null)
+				previousCoalescer.close();
+		}
+		if (this.asynchronousThreads != configuration.asynchronousThreads()
+				|| this.asynchronousQueueCapacity != configuration.asynchronousQueueCapacity()
+				|| this.saturationPolicy != configuration.saturationPolicy()
+				|| this.asynchronousLanes != configuration.asynchronousLanes()) {
+			this.asynchronousThreads = configuration.asynchronousThreads();
+			this.asynchronousQueueCapacity = configuration.asynchronousQueueCapacity();
+			this.saturationPolicy = configuration.saturationPolicy();
+			this.asynchronousLanes = configuration.asynchronousLanes();
+			AsynchronousEventExecutor previousExecutor = this.asynchronousExecutor;
+			this.asynchronousExecutor = new AsynchronousEventExecutor(this.asynchronousThreads,
+					this.asynchronousQueueCapacity, this.saturationPolicy, this.asynchronousLanes);
+			// The events queued by the previous executor are still delivered
+			previousExecutor.shutdown();
+		}
+	}
+
+	private ProgressEventCoalescer createProgressEventCoalescer() {
+		return this.progressEventWindow > 0 ? new ProgressEventCoalescer(this.progressEventWindow,
+				(topic, task) -> this.asynchronousExecutor.execute(topic, task, true)) : null;
+	}
+
 	@Deactivate
 	public void onDeactivate() throws InterruptedException {
+		// The latest progress events are delivered before the executor shuts down
+		if (this.progressEventCoalescer != null)
+			this.progressEventCoalescer.close();
 		this.asynchronousExecutor.shutdown();
 		this.asynchronousExecutor.awaitTermination(2, TimeUnit.SECONDS);
+		if (this.asynchronousExecutor.getRejectedTaskCount() > 0)
+			this.logger.debug("The asynchronous event queue was full %d times, %d events were discarded",
+					this.asynchronousExecutor.getRejectedTaskCount(), this.asynchronousExecutor.getDroppedTaskCount());
+	}
+
+	/*
+	 * Handlers with a higher service ranking are called first. The bind method
+	 * doesn't overload addHandler, because SCR would prefer addHandler(EventHandler)
+	 * and never pass the service properties.
+	 */
+	@Reference(cardinality = ReferenceCardinality.MULTIPLE, policy = ReferencePolicy.DYNAMIC, unbind = "unbindHandler")
+	public void bindHandler(EventHandler eventHandler, Map<String, Object> properties) {
+		Object ranking = properties.get(Constants.SERVICE_RANKING);
+		this.addHandler(eventHandler, ranking instanceof Integer ? (Integer) ranking : 0);
+	}
+
+	public void unbindHandler(EventHandler eventHandler) {
+		this.removeHandler(eventHandler);
 	}
 
-	@Reference(cardinality = ReferenceCardinality.MULTIPLE, policy = ReferencePolicy.DYNAMIC)
 	public void addHandler(EventHandler eventHandler) {
-		if (eventHandler.getSupportedEvents() != null) {
-			for (Map.Entry<EventInfo, EventHandlerPolicy> entry : eventHandler.getSupportedEvents().entrySet()) {
-				EventInfo info = entry.getKey();
-				EventHandlerPolicy policy = entry.getValue();
-				if (!this.eventHandlers.containsKey(info.getTopic())) this.eventHandlers.put(info.getTopic(), new HashMap<>());
-				if (!this.eventHandlers.get(info.getTopic()).containsKey(policy)) this.eventHandlers.get(info.getTopic()).put(policy, new HashSet<>());
-				this.eventHandlers.get(info.getTopic()).get(policy).add(eventHandler);
-			}
+		this.addHandler(eventHandler, 0);
+	}
+
+	public void addHandler(EventHandler eventHandler, int priority) {
+		Map<EventInfo, EventHandlerPolicy> supportedEvents = eventHandler.getSupportedEvents();
+		if (supportedEvents != null) {
+			this.handlerRegistry.addHandler(eventHandler, supportedEvents, priority);
 			Runnable task = () -> {
 				this.logger.debug("Registered the event handler \"%s\" listening for %d events", eventHandler,
-						eventHandler.getSupportedEvents().size());
+						supportedEvents.size());
 			};
 			if (this.logger != null) task.run();
 			else this.preActivationEventHandlerQuery.add(task);
@@ -53,18 +191,46 @@ public class EventManagerImpl implements EventManager {
 	}
 
 	public void removeHandler(EventHandler eventHandler) {
-		if (eventHandler.getSupportedEvents() != null) {
-			for (Map.Entry<EventInfo, EventHandlerPolicy> entry : eventHandler.getSupportedEvents().entrySet()) {
-				EventInfo info = entry.getKey();
-				EventHandlerPolicy policy = entry.getValue();
-				if (this.eventHandlers.containsKey(info.getTopic()))
-					if (this.eventHandlers.get(info.getTopic()).containsKey(policy)) this.eventHandlers.get(info.getTopic()).get(policy).remove(eventHandler);
-			}
+		if (this.handlerRegistry.removeHandler(eventHandler))
 			this.logger.debug("Unregistered the event handler %s", eventHandler);
-		}
+		this.metrics.removeHandler(eventHandler);
 	}
 
-	private ExecutorService asynchronousExecutor = Executors.newCachedThreadPool();
+	@Override
+	public Map<String, EventStatistics> getTopicStatistics() {
+		return this.metrics.getTopicStatistics();
+	}
+
+	@Override
+	public Map<EventHandler, EventStatistics> getHandlerStatistics() {
+		return this.metrics.getHandlerStatistics();
+	}
+
+	@Override
+	public int getAsynchronousQueueSize() {
+		return this.asynchronousExecutor.getQueueSize();
+	}
+
+	@Override
+	public long getRejectedAsynchronousEventCount() {
+		return this.asynchronousExecutor.getRejectedTaskCount();
+	}
+
+	@Override
+	public long getDroppedAsynchronousEventCount() {
+		return this.asynchronousExecutor.getDroppedTaskCount();
+	}
+
+	@Override
+	public long getCoalescedProgressEventCount() {
+		ProgressEventCoalescer coalescer = this.progressEventCoalescer;
+		return coalescer != null ? coalescer.getCoalescedEventCount() : 0;
+	}
+
+	@Override
+	public void reset() {
+		this.metrics.reset();
+	}
 
 	@Override
 	public Collection<ReadOnlyTypedProperties> dispatchEvent(EventInfo eventInfo) {
@@ -82,63 +248,226 @@ public class EventManagerImpl implements EventManager {
 	}
 
 	@Override
-	@SuppressWarnings("incomplete-switch")
 	public Collection<ReadOnlyTypedProperties> dispatchEvent(EventInfo eventInfo, LockableTypedProperties properties, EventDispatchPolicy policy) {
-		String eventTopic = eventInfo.getTopic();
+		return this.dispatchEvent(eventInfo, properties, policy, null, null);
+	}
 
-		LockableTypedProperties writeableEventProperties = properties == null ? new DefaultTypedProperties() : properties;
-		writeableEventProperties.lock();
+	@Override
+	public Collection<ReadOnlyTypedProperties> dispatchVetoableEvent(EventInfo eventInfo, LockableTypedProperties properties,
+			TypedPropertyKey<Boolean> proceedProperty) {
+		return this.dispatchEvent(eventInfo, properties, null, Objects.requireNonNull(proceedProperty), null);
+	}
 
-		Set<EventHandler> synchronousHandlers = new HashSet<>();
-		Set<EventHandler> asynchronousHandlers = new HashSet<>();
+	@Override
+	public Collection<ReadOnlyTypedProperties> dispatchOrderedEvent(EventInfo eventInfo, LockableTypedProperties properties,
+			Object orderingKey) {
+		return this.dispatchEvent(eventInfo, properties, null, null, Objects.requireNonNull(orderingKey));
+	}
 
-		EventDispatchPolicy dispatchPolicy = eventInfo.getEventDispatchPolicy() != EventDispatchPolicy.NOT_SPECIFIED ? eventInfo.getEventDispatchPolicy()
-				: policy != null && policy != EventDispatchPolicy.NOT_SPECIFIED ? policy : EventDispatchPolicy.HANDLER;
+	/*
+	 * Without an ordering key the asynchronous event is ordered by its topic
+	 */
+	private Collection<ReadOnlyTypedProperties> dispatchEvent(EventInfo eventInfo, LockableTypedProperties properties, EventDispatchPolicy policy,
+			TypedPropertyKey<Boolean> proceedProperty, Object orderingKey) {
+		EventHandlerRegistry.HandlerTable handlerTable = this.handlerRegistry.getHandlerTable(eventInfo.getTopic());
 
-		switch (dispatchPolicy) {
-			case SYNCHRONOUS:
-				synchronousHandlers.addAll(this.getEventHandlersByTopicAndPolicy(eventTopic, EventHandlerPolicy.SYNCHRONOUS));
-				synchronousHandlers.addAll(this.getEventHandlersByTopicAndPolicy(eventTopic, EventHandlerPolicy.NOT_SPECIFIED));
-				break;
-			case ASYNCHRONOUS:
-				asynchronousHandlers.addAll(this.getEventHandlersByTopicAndPolicy(eventTopic, EventHandlerPolicy.ASYNCHRONOUS));
-				asynchronousHandlers.addAll(this.getEventHandlersByTopicAndPolicy(eventTopic, EventHandlerPolicy.NOT_SPECIFIED));
-				break;
-			case HANDLER:
-				synchronousHandlers.addAll(this.getEventHandlersByTopicAndPolicy(eventTopic, EventHandlerPolicy.SYNCHRONOUS));
-				asynchronousHandlers.addAll(this.getEventHandlersByTopicAndPolicy(eventTopic, EventHandlerPolicy.ASYNCHRONOUS));
-				synchronousHandlers.addAll(this.getEventHandlersByTopicAndPolicy(eventTopic, EventHandlerPolicy.NOT_SPECIFIED));// This is provider specific
-				break;
+		if (handlerTable == null) {
+			if (properties != null)
+				properties.lock();
+			return Collections.emptyList();
 		}
 
-		this.postEvent(new EventImpl(new DefaultEventInfo(eventTopic, EventDispatchPolicy.ASYNCHRONOUS), writeableEventProperties), asynchronousHandlers);
-		return this.sendEvent(new EventImpl(new DefaultEventInfo(eventTopic, EventDispatchPolicy.SYNCHRONOUS), writeableEventProperties), synchronousHandlers);
+		LockableTypedProperties writeableEventProperties = this.lockEventProperties(properties);
+		EventDispatchPolicy dispatchPolicy = this.resolveDispatchPolicy(eventInfo, policy);
+
+		this.postEvent(new EventImpl(handlerTable.getAsynchronousEventInfo(), writeableEventProperties),
+				handlerTable.getAsynchronousHandlers(dispatchPolicy), orderingKey);
+
+		EventImpl event = new EventImpl(handlerTable.getSynchronousEventInfo(), writeableEventProperties);
+		return this.sendEvent(event, handlerTable.getSynchronousHandlers(dispatchPolicy), proceedProperty,
+				this.getTopicStatistics(event), NOT_QUEUED);
+	}
+
+	@Override
+	public CompletableFuture<Collection<ReadOnlyTypedProperties>> dispatchEventAsync(EventInfo eventInfo) {
+		return this.dispatchEventAsync(eventInfo, null, null);
+	}
+
+	@Override
+	public CompletableFuture<Collection<ReadOnlyTypedProperties>> dispatchEventAsync(EventInfo eventInfo,
+			LockableTypedProperties properties) {
+		return this.dispatchEventAsync(eventInfo, properties, null);
+	}
+
+	/*
+	 * Both handler groups are called in one task, so the future doesn't depend
+	 * on two tasks which could be discarded independently. The event isn't
+	 * coalesced, even if it's a progress event.
+	 */
+	@Override
+	public CompletableFuture<Collection<ReadOnlyTypedProperties>> dispatchEventAsync(EventInfo eventInfo,
+			LockableTypedProperties properties, EventDispatchPolicy policy) {
+		EventHandlerRegistry.HandlerTable handlerTable = this.handlerRegistry.getHandlerTable(eventInfo.getTopic());
+
+		if (handlerTable == null) {
+			if (properties != null)
+				properties.lock();
+			return CompletableFuture.completedFuture(Collections.emptyList());
+		}
+
+		LockableTypedProperties writeableEventProperties = this.lockEventProperties(properties);
+		EventDispatchPolicy dispatchPolicy = this.resolveDispatchPolicy(eventInfo, policy);
+
+		EventImpl synchronousEvent = new EventImpl(handlerTable.getSynchronousEventInfo(), writeableEventProperties);
+		EventHandler[] synchronousHandlers = handlerTable.getSynchronousHandlers(dispatchPolicy);
+		EventImpl asynchronousEvent = new EventImpl(handlerTable.getAsynchronousEventInfo(), writeableEventProperties);
+		EventHandler[] asynchronousHandlers = handlerTable.getAsynchronousHandlers(dispatchPolicy);
+
+		CompletableFuture<Collection<ReadOnlyTypedProperties>> results = new CompletableFuture<>();
+		long posted = this.startMeasurement();
+		Runnable task = () -> {
+			try {
+				EventStatisticsImpl topicStatistics = this.getTopicStatistics(synchronousEvent);
+				if (topicStatistics != null && posted != NOT_MEASURED)
+					topicStatistics.recordQueueWait(System.nanoTime() - posted);
+				Collection<ReadOnlyTypedProperties> synchronousResults = this.sendEvent(synchronousEvent,
+						synchronousHandlers, null, topicStatistics, posted);
+				Collection<ReadOnlyTypedProperties> asynchronousResults = this.sendEvent(asynchronousEvent,
+						asynchronousHandlers, null, null, posted);
+				if (asynchronousResults.isEmpty())
+					results.complete(synchronousResults);
+				else if (synchronousResults.isEmpty())
+					results.complete(asynchronousResults);
+				else {
+					List<ReadOnlyTypedProperties> allResults = new ArrayList<>(synchronousResults);
+					allResults.addAll(asynchronousResults);
+					results.complete(Collections.unmodifiableList(allResults));
+				}
+			} catch (RuntimeException | Error e) {
+				results.completeExceptionally(e);
+			}
+		};
+		if (!this.asynchronousExecutor.execute(eventInfo.getTopic(), task, false))
+			results.completeExceptionally(new RejectedExecutionException("The event manager was deactivated"));
+		return results;
 	}
 
-	private Set<EventHandler> getEventHandlersByTopicAndPolicy(String eventTopic, EventHandlerPolicy policy) {
-		Set<EventHandler> ret = new HashSet<>();
-		if (this.eventHandlers.containsKey(eventTopic) && this.eventHandlers.get(eventTopic).containsKey(policy))
-			ret.addAll(this.eventHandlers.get(eventTopic).get(policy));
-		return ret;
+	private LockableTypedProperties lockEventProperties(LockableTypedProperties properties) {
+		LockableTypedProperties writeableEventProperties = properties == null ? new DefaultTypedProperties() : properties;
+		writeableEventProperties.lock();
+		return writeableEventProperties;
 	}
 
-	private Collection<ReadOnlyTypedProperties> sendEvent(EventImpl event, Set<EventHandler> handlers) {
+	private EventDispatchPolicy resolveDispatchPolicy(EventInfo eventInfo, EventDispatchPolicy policy) {
+		return eventInfo.getEventDispatchPolicy() != EventDispatchPolicy.NOT_SPECIFIED ? eventInfo.getEventDispatchPolicy()
+				: policy != null && policy != EventDispatchPolicy.NOT_SPECIFIED ? policy : EventDispatchPolicy.HANDLER;
+	}
+
+	private EventStatisticsImpl getTopicStatistics(Event event) {
+		return this.collectMetrics ? this.metrics.getTopicStatistics(event.getEventInfo().getTopic()) : null;
+	}
+
+	/*
+	 * If a proceed property is specified, no further handlers are called once a
+	 * handler set it to false. The dispatch is only recorded if topic statistics
+	 * are specified.
+	 */
+	private Collection<ReadOnlyTypedProperties> sendEvent(EventImpl event, EventHandler[] handlers,
+			TypedPropertyKey<Boolean> proceedProperty, EventStatisticsImpl topicStatistics, long posted) {
+		if (handlers.length == 0) {
+			if (topicStatistics != null)
+				topicStatistics.record(0, false);
+			return Collections.emptyList();
+		}
+		long start = topicStatistics != null ? System.nanoTime() : this.startMeasurement();
+		long handlerStart = start;
 		List<LockableTypedProperties> results = new ArrayList<>();
-		for (EventHandler handler : handlers) {
-			handler.handleEvent(event);
-			if (!event.getEventResults().isEmpty()) {
-				event.getEventResults().lock();
-				results.add(event.getEventResults());
-				event.recreateEventResults();
+		try {
+			for (EventHandler handler : handlers) {
+				handlerStart = this.callHandler(handler, event, handlerStart, posted);
+				if (!event.getEventResults().isEmpty()) {
+					LockableTypedProperties eventResults = event.getEventResults();
+					eventResults.lock();
+					results.add(eventResults);
+					event.recreateEventResults();
+					if (proceedProperty != null && Boolean.FALSE.equals(eventResults.getProperty(proceedProperty)))
+						break;
+				}
 			}
+		} catch (RuntimeException | Error e) {
+			if (topicStatistics != null)
+				topicStatistics.record(System.nanoTime() - start, true);
+			throw e;
 		}
+		if (topicStatistics != null)
+			topicStatistics.record(handlerStart - start, false);
 		return Collections.unmodifiableList(results);
 	}
 
-	private void postEvent(Event event, Set<EventHandler> handlers) {
-		this.asynchronousExecutor.execute(() -> {
-			handlers.forEach(handler -> handler.handleEvent(event));
-		});
+	/*
+	 * Synchronous handlers always receive every progress event, so their results
+	 * aren't affected by the coalescing. Progress events are always ordered by
+	 * their topic.
+	 */
+	private void postEvent(Event event, EventHandler[] handlers, Object orderingKey) {
+		if (handlers.length > 0) {
+			long posted = this.startMeasurement();
+			Runnable task = () -> {
+				long handlerStart = this.startMeasurement();
+				if (this.collectMetrics && posted != NOT_MEASURED)
+					this.metrics.getTopicStatistics(event.getEventInfo().getTopic()).recordQueueWait(handlerStart - posted);
+				for (EventHandler handler : handlers)
+					handlerStart = this.callHandler(handler, event, handlerStart, posted);
+			};
+			String topic = event.getEventInfo().getTopic();
+			if (!this.progressTopics.contains(topic))
+				this.asynchronousExecutor.execute(orderingKey != null ? orderingKey : topic, task, false);
+			else {
+				ProgressEventCoalescer coalescer = this.progressEventCoalescer;
+				if (coalescer != null)
+					coalescer.submit(topic, task);
+				else this.asynchronousExecutor.execute(topic, task, true);
+			}
+		}
+	}
+
+	private long startMeasurement() {
+		return this.collectMetrics || this.slowHandlerThresholdNanos > 0 ? System.nanoTime() : NOT_MEASURED;
+	}
+
+	/*
+	 * Returns the time the handler finished, which is the start of the next
+	 * handler, so only one timestamp is taken per call. Exceptions thrown by the
+	 * handler are recorded and passed on.
+	 */
+	private long callHandler(EventHandler handler, Event event, long start, long posted) {
+		if (start == NOT_MEASURED) {
+			handler.handleEvent(event);
+			return NOT_MEASURED;
+		}
+		try {
+			handler.handleEvent(event);
+		} catch (RuntimeException | Error e) {
+			this.recordHandlerCall(handler, event, start, System.nanoTime(), true, posted);
+			throw e;
+		}
+		long end = System.nanoTime();
+		this.recordHandlerCall(handler, event, start, end, false, posted);
+		return end;
+	}
+
+	private void recordHandlerCall(EventHandler handler, Event event, long start, long end, boolean failed,
+			long posted) {
+		long latency = end - start;
+		if (this.collectMetrics) {
+			EventStatisticsImpl statistics = this.metrics.getHandlerStatistics(handler);
+			statistics.record(latency, failed);
+			if (posted != NOT_QUEUED && posted != NOT_MEASURED)
+				statistics.recordQueueWait(start - posted);
+		}
+		if (this.slowHandlerThresholdNanos > 0 && latency >= this.slowHandlerThresholdNanos)
+			this.logger.warn("The event handler \"%s\" took %d ms to handle the event \"%s\"", handler,
+					TimeUnit.NANOSECONDS.toMillis(latency), event.getEventInfo().getTopic());
 	}
 
 }
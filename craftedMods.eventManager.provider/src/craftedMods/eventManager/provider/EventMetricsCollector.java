@@ -0,0 +1,48 @@
+package craftedMods.eventManager.provider;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import craftedMods.eventManager.api.*;
+
+/*
+ * The statistics are created on their first use and discarded on a reset
+ */
+class EventMetricsCollector {
+
+	private final Map<String, EventStatisticsImpl> topicStatistics = new ConcurrentHashMap<>();
+	private final Map<EventHandler, EventStatisticsImpl> handlerStatistics = new ConcurrentHashMap<>();
+
+	public EventStatisticsImpl getTopicStatistics(String topic) {
+		EventStatisticsImpl statistics = this.topicStatistics.get(topic);
+		return statistics != null ? statistics
+				: this.topicStatistics.computeIfAbsent(topic, key -> new EventStatisticsImpl());
+	}
+
+	public EventStatisticsImpl getHandlerStatistics(EventHandler handler) {
+		EventStatisticsImpl statistics = this.handlerStatistics.get(handler);
+		return statistics != null ? statistics
+				: this.handlerStatistics.computeIfAbsent(handler, key -> new EventStatisticsImpl());
+	}
+
+	/*
+	 * Unregistered handlers mustn't be retained
+	 */
+	public void removeHandler(EventHandler handler) {
+		this.handlerStatistics.remove(handler);
+	}
+
+	public Map<String, EventStatistics> getTopicStatistics() {
+		return Collections.unmodifiableMap(new HashMap<>(this.topicStatistics));
+	}
+
+	public Map<EventHandler, EventStatistics> getHandlerStatistics() {
+		return Collections.unmodifiableMap(new HashMap<>(this.handlerStatistics));
+	}
+
+	public void reset() {
+		this.topicStatistics.clear();
+		this.handlerStatistics.clear();
+	}
+
+}
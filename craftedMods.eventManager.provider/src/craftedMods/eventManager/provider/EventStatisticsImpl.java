@@ -0,0 +1,97 @@
+package craftedMods.eventManager.provider;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.*;
+
+import craftedMods.eventManager.api.EventStatistics;
+
+/*
+ * Can be updated concurrently without locking
+ */
+class EventStatisticsImpl implements EventStatistics {
+
+	private final LongAdder count = new LongAdder();
+	private final LongAdder exceptionCount = new LongAdder();
+	private final LongAdder totalLatency = new LongAdder();
+	private final AtomicLong maxLatency = new AtomicLong();
+	private final AtomicLongArray latencyHistogram = new AtomicLongArray(LATENCY_HISTOGRAM_BUCKETS);
+
+	private final LongAdder asynchronousCount = new LongAdder();
+	private final LongAdder totalQueueWait = new LongAdder();
+	private final AtomicLong maxQueueWait = new AtomicLong();
+
+	public void record(long latencyNanos, boolean failed) {
+		this.count.increment();
+		if (failed)
+			this.exceptionCount.increment();
+		this.totalLatency.add(latencyNanos);
+		updateMax(this.maxLatency, latencyNanos);
+		this.latencyHistogram.incrementAndGet(getLatencyHistogramBucket(latencyNanos));
+	}
+
+	public void recordQueueWait(long queueWaitNanos) {
+		this.asynchronousCount.increment();
+		this.totalQueueWait.add(queueWaitNanos);
+		updateMax(this.maxQueueWait, queueWaitNanos);
+	}
+
+	/*
+	 * Only writes if the value is larger, which is rarely the case
+	 */
+	private static void updateMax(AtomicLong max, long value) {
+		long current;
+		while (value > (current = max.get()) && !max.compareAndSet(current, value))
+			;
+	}
+
+	static int getLatencyHistogramBucket(long latencyNanos) {
+		long micros = TimeUnit.NANOSECONDS.toMicros(latencyNanos);
+		if (micros <= 0)
+			return 0;
+		return Math.min(Long.SIZE - Long.numberOfLeadingZeros(micros), LATENCY_HISTOGRAM_BUCKETS - 1);
+	}
+
+	@Override
+	public long getCount() {
+		return this.count.sum();
+	}
+
+	@Override
+	public long getExceptionCount() {
+		return this.exceptionCount.sum();
+	}
+
+	@Override
+	public long getTotalLatencyNanos() {
+		return this.totalLatency.sum();
+	}
+
+	@Override
+	public long getMaxLatencyNanos() {
+		return this.maxLatency.get();
+	}
+
+	@Override
+	public long[] getLatencyHistogram() {
+		long[] histogram = new long[LATENCY_HISTOGRAM_BUCKETS];
+		for (int i = 0; i < histogram.length; i++)
+			histogram[i] = this.latencyHistogram.get(i);
+		return histogram;
+	}
+
+	@Override
+	public long getAsynchronousCount() {
+		return this.asynchronousCount.sum();
+	}
+
+	@Override
+	public long getTotalQueueWaitNanos() {
+		return this.totalQueueWait.sum();
+	}
+
+	@Override
+	public long getMaxQueueWaitNanos() {
+		return this.maxQueueWait.get();
+	}
+
+}
@@ -0,0 +1,115 @@
+package craftedMods.eventManager.provider;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/*
+ * Throttles the asynchronous delivery of progress events. The first event of a
+ * topic is delivered immediately, afterwards at most one event per window is
+ * delivered. Events superseded by a newer event of the same topic within a
+ * window are discarded, the latest one is always delivered at the end of the
+ * window.
+ */
+class ProgressEventCoalescer {
+
+	private final long windowNanos;
+	private final BiConsumer<String, Runnable> delivery;
+
+	private final ScheduledThreadPoolExecutor scheduler;
+
+	private final Map<String, TopicState> topics = new HashMap<>();
+	private boolean closed = false;
+
+	private final AtomicLong coalescedEvents = new AtomicLong();
+
+	/*
+	 * The delivery receives the topic and the task
+	 */
+	public ProgressEventCoalescer(long windowMillis, BiConsumer<String, Runnable> delivery) {
+		if (windowMillis <= 0)
+			throw new IllegalArgumentException("The window must be positive");
+		this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+		this.delivery = Objects.requireNonNull(delivery);
+		this.scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+			Thread thread = new Thread(runnable, "Event Manager Progress Coalescer");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.scheduler.setRemoveOnCancelPolicy(true);
+	}
+
+	public void submit(String topic, Runnable task) {
+		synchronized (this) {
+			if (!this.closed) {
+				TopicState state = this.topics.computeIfAbsent(topic, key -> new TopicState());
+				long now = System.nanoTime();
+				if (state.pendingTask != null || now - state.lastDelivery < this.windowNanos) {
+					if (state.pendingTask != null)
+						this.coalescedEvents.incrementAndGet();
+					else state.flush = this.scheduler.schedule(() -> this.flush(topic),
+							state.lastDelivery + this.windowNanos - now, TimeUnit.NANOSECONDS);
+					state.pendingTask = task;
+					return;
+				}
+				state.lastDelivery = now;
+			}
+		}
+		this.delivery.accept(topic, task);
+	}
+
+	private void flush(String topic) {
+		Runnable task;
+		synchronized (this) {
+			TopicState state = this.topics.get(topic);
+			// The pending event was already delivered on closing
+			if (state == null)
+				return;
+			task = state.pendingTask;
+			state.pendingTask = null;
+			state.flush = null;
+			state.lastDelivery = System.nanoTime();
+		}
+		if (task != null)
+			this.delivery.accept(topic, task);
+	}
+
+	/*
+	 * Delivers all pending events. Events submitted afterwards are delivered
+	 * immediately.
+	 */
+	public void close() {
+		Map<String, Runnable> pendingTasks = new LinkedHashMap<>();
+		synchronized (this) {
+			this.closed = true;
+			for (Map.Entry<String, TopicState> topic : this.topics.entrySet()) {
+				TopicState state = topic.getValue();
+				if (state.pendingTask != null) {
+					state.flush.cancel(false);
+					pendingTasks.put(topic.getKey(), state.pendingTask);
+					state.pendingTask = null;
+				}
+			}
+			this.topics.clear();
+		}
+		this.scheduler.shutdown();
+		pendingTasks.forEach(this.delivery);
+	}
+
+	/*
+	 * The amount of events which were superseded by a newer event
+	 */
+	public long getCoalescedEventCount() {
+		return this.coalescedEvents.get();
+	}
+
+	private static class TopicState {
+
+		private long lastDelivery = System.nanoTime() - TimeUnit.DAYS.toNanos(1);
+		private Runnable pendingTask;
+		private ScheduledFuture<?> flush;
+
+	}
+
+}
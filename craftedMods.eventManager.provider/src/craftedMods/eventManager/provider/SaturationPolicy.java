@@ -0,0 +1,25 @@
+package craftedMods.eventManager.provider;
+
+/*
+ * Determines what happens to an asynchronous event if all threads are busy and
+ * the queue is full
+ */
+public enum SaturationPolicy {
+
+	/*
+	 * The dispatching thread calls the handlers itself
+	 */
+	CALLER_RUNS,
+
+	/*
+	 * The oldest queued event of a progress topic is discarded. If no such event
+	 * is queued, the dispatching thread calls the handlers itself.
+	 */
+	DROP_OLDEST,
+
+	/*
+	 * The dispatching thread waits until the queue has space again
+	 */
+	BLOCK;
+
+}
@@ -0,0 +1,44 @@
+package craftedMods.eventManager.provider;
+
+import java.util.regex.Pattern;
+
+import craftedMods.eventManager.api.EventManager;
+
+/*
+ * Matches topics against subscribed topics, which may contain the wildcards
+ * defined by the event manager
+ */
+class TopicPatterns {
+
+	private static final Pattern SEPARATOR = Pattern.compile("/", Pattern.LITERAL);
+
+	private TopicPatterns() {
+	}
+
+	public static String[] split(String topic) {
+		return SEPARATOR.split(topic, -1);
+	}
+
+	public static boolean isPattern(String topic) {
+		return topic.indexOf(EventManager.TOPIC_SEGMENT_WILDCARD.charAt(0)) >= 0;
+	}
+
+	public static boolean matches(String pattern, String topic) {
+		if (!isPattern(pattern))
+			return pattern.equals(topic);
+		String[] patternSegments = split(pattern);
+		String[] topicSegments = split(topic);
+		for (int i = 0; i < patternSegments.length; i++) {
+			if (i == patternSegments.length - 1
+					&& EventManager.TOPIC_SUBTREE_WILDCARD.equals(patternSegments[i]))
+				return topicSegments.length > i;
+			if (i == topicSegments.length)
+				return false;
+			if (!EventManager.TOPIC_SEGMENT_WILDCARD.equals(patternSegments[i])
+					&& !patternSegments[i].equals(topicSegments[i]))
+				return false;
+		}
+		return patternSegments.length == topicSegments.length;
+	}
+
+}
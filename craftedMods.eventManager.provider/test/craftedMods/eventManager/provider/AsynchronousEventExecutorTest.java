@@ -0,0 +1,306 @@
+package craftedMods.eventManager.provider;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.junit.*;
+
+public class AsynchronousEventExecutorTest {
+
+	private AsynchronousEventExecutor executor;
+
+	private CountDownLatch blockedWorker;
+	private CountDownLatch releaseWorker;
+
+	@Before
+	public void setup() {
+		this.blockedWorker = new CountDownLatch(1);
+		this.releaseWorker = new CountDownLatch(1);
+	}
+
+	@After
+	public void teardown() throws InterruptedException {
+		this.releaseWorker.countDown();
+		if (this.executor != null) {
+			this.executor.shutdown();
+			this.executor.awaitTermination(2, TimeUnit.SECONDS);
+		}
+	}
+
+	@Test
+	public void testExecuteUsesNamedDaemonThreads() throws InterruptedException {
+		this.executor = new AsynchronousEventExecutor(1, 1, SaturationPolicy.CALLER_RUNS, 0);
+		List<Thread> threads = new ArrayList<>();
+		CountDownLatch executed = new CountDownLatch(1);
+
+		this.executor.execute(() -> {
+			threads.add(Thread.currentThread());
+			executed.countDown();
+		}, false);
+
+		Assert.assertTrue(executed.await(2, TimeUnit.SECONDS));
+		Assert.assertTrue(threads.get(0).isDaemon());
+		Assert.assertTrue(threads.get(0).getName().startsWith("Event Manager "));
+	}
+
+	@Test
+	public void testCallerRuns() throws InterruptedException {
+		this.executor = new AsynchronousEventExecutor(1, 1, SaturationPolicy.CALLER_RUNS, 0);
+		this.occupyWorker();
+		this.executor.execute(() -> {}, false);
+
+		List<Thread> threads = new ArrayList<>();
+		this.executor.execute(() -> threads.add(Thread.currentThread()), false);
+
+		Assert.assertEquals(Arrays.asList(Thread.currentThread()), threads);
+		Assert.assertEquals(1, this.executor.getQueueSize());
+		Assert.assertEquals(1, this.executor.getRejectedTaskCount());
+		Assert.assertEquals(0, this.executor.getDroppedTaskCount());
+	}
+
+	@Test
+	public void testDropOldest() throws InterruptedException {
+		this.executor = new AsynchronousEventExecutor(1, 2, SaturationPolicy.DROP_OLDEST, 0);
+		this.occupyWorker();
+
+		List<String> executed = Collections.synchronizedList(new ArrayList<>());
+		this.executor.execute(() -> executed.add("Progress 1"), true);
+		this.executor.execute(() -> executed.add("Other"), false);
+		this.executor.execute(() -> executed.add("Progress 2"), true);
+
+		Assert.assertEquals(2, this.executor.getQueueSize());
+		Assert.assertEquals(1, this.executor.getRejectedTaskCount());
+		Assert.assertEquals(1, this.executor.getDroppedTaskCount());
+
+		this.releaseWorker.countDown();
+		this.executor.shutdown();
+		Assert.assertTrue(this.executor.awaitTermination(2, TimeUnit.SECONDS));
+
+		Assert.assertEquals(Arrays.asList("Other", "Progress 2"), executed);
+	}
+
+	@Test
+	public void testDropOldestWithoutDroppableTasks() throws InterruptedException {
+		this.executor = new AsynchronousEventExecutor(1, 1, SaturationPolicy.DROP_OLDEST, 0);
+		this.occupyWorker();
+		this.executor.execute(() -> {}, false);
+
+		List<Thread> threads = new ArrayList<>();
+		this.executor.execute(() -> threads.add(Thread.currentThread()), true);
+
+		Assert.assertEquals(Arrays.asList(Thread.currentThread()), threads);
+		Assert.assertEquals(1, this.executor.getRejectedTaskCount());
+		Assert.assertEquals(0, this.executor.getDroppedTaskCount());
+	}
+
+	@Test
+	public void testBlock() throws InterruptedException {
+		this.executor = new AsynchronousEventExecutor(1, 1, SaturationPolicy.BLOCK, 0);
+		this.occupyWorker();
+		this.executor.execute(() -> {}, false);
+
+		CountDownLatch executed = new CountDownLatch(1);
+		Thread dispatcher = new Thread(() -> this.executor.execute(executed::countDown, false));
+		dispatcher.start();
+
+		dispatcher.join(200);
+		Assert.assertTrue(dispatcher.isAlive());
+
+		this.releaseWorker.countDown();
+		dispatcher.join(2000);
+		Assert.assertFalse(dispatcher.isAlive());
+		Assert.assertTrue(executed.await(2, TimeUnit.SECONDS));
+		Assert.assertEquals(1, this.executor.getRejectedTaskCount());
+		Assert.assertEquals(0, this.executor.getDroppedTaskCount());
+	}
+
+	@Test
+	public void testExecuteAfterShutdown() {
+		this.executor = new AsynchronousEventExecutor(1, 1, SaturationPolicy.CALLER_RUNS, 0);
+		this.executor.shutdown();
+
+		List<Thread> threads = new ArrayList<>();
+		Assert.assertFalse(this.executor.execute(() -> threads.add(Thread.currentThread()), false));
+
+		Assert.assertTrue(threads.isEmpty());
+		Assert.assertEquals(0, this.executor.getRejectedTaskCount());
+		Assert.assertEquals(1, this.executor.getDroppedTaskCount());
+	}
+
+	@Test
+	public void testLaneExecutesInOrder() throws InterruptedException {
+		this.executor = new AsynchronousEventExecutor(4, 16, SaturationPolicy.CALLER_RUNS, 4);
+		List<Integer> executed = Collections.synchronizedList(new ArrayList<>());
+		List<Integer> expected = new ArrayList<>();
+
+		for (int i = 0; i < 1000; i++) {
+			int index = i;
+			expected.add(index);
+			Assert.assertTrue(this.executor.execute("TOPIC_1", () -> executed.add(index), false));
+		}
+
+		this.executor.shutdown();
+		Assert.assertTrue(this.executor.awaitTermination(2, TimeUnit.SECONDS));
+
+		Assert.assertEquals(expected, executed);
+		Assert.assertEquals(0, this.executor.getDroppedTaskCount());
+	}
+
+	@Test
+	public void testLanesExecuteIndependently() throws InterruptedException {
+		this.executor = new AsynchronousEventExecutor(2, 16, SaturationPolicy.CALLER_RUNS, 2);
+		this.executor.execute(0, () -> {
+			this.blockedWorker.countDown();
+			try {
+				this.releaseWorker.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}, false);
+		Assert.assertTrue(this.blockedWorker.await(2, TimeUnit.SECONDS));
+
+		CountDownLatch executed = new CountDownLatch(1);
+		List<String> blockedLane = Collections.synchronizedList(new ArrayList<>());
+		this.executor.execute(0, () -> blockedLane.add("Blocked"), false);
+		this.executor.execute(1, executed::countDown, false);
+
+		Assert.assertTrue(executed.await(2, TimeUnit.SECONDS));
+		Assert.assertTrue(blockedLane.isEmpty());
+		Assert.assertEquals(1, this.executor.getQueueSize());
+	}
+
+	@Test
+	public void testFullLaneDropsOldest() throws InterruptedException {
+		this.executor = new AsynchronousEventExecutor(1, 2, SaturationPolicy.DROP_OLDEST, 1);
+		this.executor.execute("TOPIC_1", () -> {
+			this.blockedWorker.countDown();
+			try {
+				this.releaseWorker.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}, false);
+		Assert.assertTrue(this.blockedWorker.await(2, TimeUnit.SECONDS));
+
+		List<String> executed = Collections.synchronizedList(new ArrayList<>());
+		this.executor.execute("TOPIC_1", () -> executed.add("Progress 1"), true);
+		this.executor.execute("TOPIC_1", () -> executed.add("Other"), false);
+		this.executor.execute("TOPIC_1", () -> executed.add("Progress 2"), true);
+
+		Assert.assertEquals(1, this.executor.getRejectedTaskCount());
+		Assert.assertEquals(1, this.executor.getDroppedTaskCount());
+
+		this.releaseWorker.countDown();
+		this.executor.shutdown();
+		Assert.assertTrue(this.executor.awaitTermination(2, TimeUnit.SECONDS));
+
+		Assert.assertEquals(Arrays.asList("Other", "Progress 2"), executed);
+	}
+
+	@Test
+	public void testFullLaneBlocksInsteadOfCallerRuns() throws InterruptedException {
+		this.executor = new AsynchronousEventExecutor(1, 1, SaturationPolicy.CALLER_RUNS, 1);
+		this.executor.execute("TOPIC_1", () -> {
+			this.blockedWorker.countDown();
+			try {
+				this.releaseWorker.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}, false);
+		Assert.assertTrue(this.blockedWorker.await(2, TimeUnit.SECONDS));
+		this.executor.execute("TOPIC_1", () -> {}, false);
+
+		List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+		Thread dispatcher = new Thread(
+				() -> this.executor.execute("TOPIC_1", () -> threads.add(Thread.currentThread()), false));
+		dispatcher.start();
+
+		dispatcher.join(200);
+		Assert.assertTrue(dispatcher.isAlive());
+
+		this.releaseWorker.countDown();
+		dispatcher.join(2000);
+		Assert.assertFalse(dispatcher.isAlive());
+
+		this.executor.shutdown();
+		Assert.assertTrue(this.executor.awaitTermination(2, TimeUnit.SECONDS));
+		Assert.assertEquals(1, threads.size());
+		Assert.assertNotSame(dispatcher, threads.get(0));
+		Assert.assertEquals(1, this.executor.getRejectedTaskCount());
+	}
+
+	@Test
+	public void testBlockOnPoolThreadRunsTask() throws InterruptedException {
+		this.executor = new AsynchronousEventExecutor(1, 1, SaturationPolicy.BLOCK, 0);
+		List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+		CountDownLatch executed = new CountDownLatch(1);
+
+		// Waiting for space in the queue would wait for the waiting thread itself
+		this.executor.execute(() -> {
+			this.executor.execute(() -> {}, false);
+			this.executor.execute(() -> threads.add(Thread.currentThread()), false);
+			threads.add(Thread.currentThread());
+			executed.countDown();
+		}, false);
+
+		Assert.assertTrue(executed.await(2, TimeUnit.SECONDS));
+		Assert.assertEquals(2, threads.size());
+		Assert.assertSame(threads.get(0), threads.get(1));
+		Assert.assertEquals(1, this.executor.getRejectedTaskCount());
+		Assert.assertEquals(0, this.executor.getDroppedTaskCount());
+	}
+
+	@Test
+	public void testLaneKeepsThreadOnSaturatedPool() throws InterruptedException {
+		this.executor = new AsynchronousEventExecutor(1, 128, SaturationPolicy.BLOCK, 1);
+		this.occupyWorker();
+
+		int laneTasks = 100;
+		List<Integer> executed = Collections.synchronizedList(new ArrayList<>());
+		CountDownLatch laneDrained = new CountDownLatch(laneTasks);
+		for (int i = 0; i < laneTasks; i++) {
+			int task = i;
+			this.executor.execute("TOPIC_1", () -> {
+				// Fills the queue again after the lane was taken from it
+				if (task == 0)
+					this.executor.execute(() -> {}, false);
+				executed.add(task);
+				laneDrained.countDown();
+			}, false);
+		}
+		for (int i = 1; i < 128; i++)
+			this.executor.execute(() -> {}, false);
+
+		// The lane can't be rescheduled after its first batch, so it keeps its thread
+		this.releaseWorker.countDown();
+		Assert.assertTrue(laneDrained.await(2, TimeUnit.SECONDS));
+		for (int i = 0; i < laneTasks; i++)
+			Assert.assertEquals(Integer.valueOf(i), executed.get(i));
+		Assert.assertEquals(0, this.executor.getDroppedTaskCount());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidQueueCapacity() {
+		new AsynchronousEventExecutor(1, 0, SaturationPolicy.CALLER_RUNS, 0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testQueueCapacitySmallerThanLanes() {
+		// The lanes are rounded up to four
+		new AsynchronousEventExecutor(1, 3, SaturationPolicy.CALLER_RUNS, 3);
+	}
+
+	private void occupyWorker() throws InterruptedException {
+		this.executor.execute(() -> {
+			this.blockedWorker.countDown();
+			try {
+				this.releaseWorker.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}, false);
+		Assert.assertTrue(this.blockedWorker.await(2, TimeUnit.SECONDS));
+	}
+
+}
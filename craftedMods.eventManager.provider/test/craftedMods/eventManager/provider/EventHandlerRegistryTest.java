@@ -0,0 +1,169 @@
+package craftedMods.eventManager.provider;
+
+import java.util.*;
+
+import org.easymock.EasyMock;
+import org.junit.*;
+
+import craftedMods.eventManager.api.*;
+import craftedMods.eventManager.base.*;
+import craftedMods.eventManager.provider.EventHandlerRegistry.HandlerTable;
+
+public class EventHandlerRegistryTest {
+
+	private EventHandlerRegistry registry;
+
+	private EventInfo event;
+
+	private EventHandler mockEventHandler1;
+	private EventHandler mockEventHandler2;
+	private EventHandler mockEventHandler3;
+
+	@Before
+	public void setup() {
+		this.registry = new EventHandlerRegistry();
+		this.event = new DefaultEventInfo("TOPIC_1");
+		this.mockEventHandler1 = EasyMock.createMock(EventHandler.class);
+		this.mockEventHandler2 = EasyMock.createMock(EventHandler.class);
+		this.mockEventHandler3 = EasyMock.createMock(EventHandler.class);
+	}
+
+	@Test
+	public void testGetHandlerTableWithoutHandlers() {
+		Assert.assertNull(this.registry.getHandlerTable("TOPIC_1"));
+	}
+
+	@Test
+	public void testResolvedDispatchPolicies() {
+		this.registry.addHandler(this.mockEventHandler1,
+				EventUtils.getSupportedEvents(EventHandlerPolicy.SYNCHRONOUS, this.event), 0);
+		this.registry.addHandler(this.mockEventHandler2,
+				EventUtils.getSupportedEvents(EventHandlerPolicy.ASYNCHRONOUS, this.event), 0);
+		this.registry.addHandler(this.mockEventHandler3,
+				EventUtils.getSupportedEvents(EventHandlerPolicy.NOT_SPECIFIED, this.event), 0);
+
+		HandlerTable table = this.registry.getHandlerTable("TOPIC_1");
+
+		Assert.assertArrayEquals(new EventHandler[] { this.mockEventHandler1, this.mockEventHandler3 },
+				table.getSynchronousHandlers(EventDispatchPolicy.SYNCHRONOUS));
+		Assert.assertArrayEquals(new EventHandler[0], table.getAsynchronousHandlers(EventDispatchPolicy.SYNCHRONOUS));
+
+		Assert.assertArrayEquals(new EventHandler[0], table.getSynchronousHandlers(EventDispatchPolicy.ASYNCHRONOUS));
+		Assert.assertArrayEquals(new EventHandler[] { this.mockEventHandler2, this.mockEventHandler3 },
+				table.getAsynchronousHandlers(EventDispatchPolicy.ASYNCHRONOUS));
+
+		Assert.assertArrayEquals(new EventHandler[] { this.mockEventHandler1, this.mockEventHandler3 },
+				table.getSynchronousHandlers(EventDispatchPolicy.HANDLER));
+		Assert.assertArrayEquals(new EventHandler[] { this.mockEventHandler2 },
+				table.getAsynchronousHandlers(EventDispatchPolicy.HANDLER));
+
+		Assert.assertEquals("TOPIC_1", table.getSynchronousEventInfo().getTopic());
+		Assert.assertEquals(EventDispatchPolicy.SYNCHRONOUS, table.getSynchronousEventInfo().getEventDispatchPolicy());
+		Assert.assertEquals("TOPIC_1", table.getAsynchronousEventInfo().getTopic());
+		Assert.assertEquals(EventDispatchPolicy.ASYNCHRONOUS, table.getAsynchronousEventInfo().getEventDispatchPolicy());
+	}
+
+	@Test
+	public void testHandlerWithMultiplePoliciesForOneTopic() {
+		Map<EventInfo, EventHandlerPolicy> supportedEvents = new HashMap<>();
+		supportedEvents.put(this.event, EventHandlerPolicy.SYNCHRONOUS);
+		supportedEvents.put(new DefaultEventInfo("TOPIC_1", EventDispatchPolicy.SYNCHRONOUS),
+				EventHandlerPolicy.NOT_SPECIFIED);
+		this.registry.addHandler(this.mockEventHandler1, supportedEvents, 0);
+
+		Assert.assertArrayEquals(new EventHandler[] { this.mockEventHandler1 },
+				this.registry.getHandlerTable("TOPIC_1").getSynchronousHandlers(EventDispatchPolicy.HANDLER));
+	}
+
+	@Test
+	public void testRemoveHandler() {
+		Map<EventInfo, EventHandlerPolicy> supportedEvents = EventUtils
+				.getSupportedEvents(EventHandlerPolicy.SYNCHRONOUS, this.event);
+		this.registry.addHandler(this.mockEventHandler1, supportedEvents, 0);
+		this.registry.addHandler(this.mockEventHandler2,
+				EventUtils.getSupportedEvents(EventHandlerPolicy.SYNCHRONOUS, new DefaultEventInfo("TOPIC_2")), 0);
+
+		// The handler has to be removed from the topics it was registered for
+		supportedEvents.clear();
+
+		Assert.assertTrue(this.registry.removeHandler(this.mockEventHandler1));
+		Assert.assertFalse(this.registry.removeHandler(this.mockEventHandler1));
+
+		Assert.assertNull(this.registry.getHandlerTable("TOPIC_1"));
+		Assert.assertNotNull(this.registry.getHandlerTable("TOPIC_2"));
+	}
+
+	@Test
+	public void testHandlerTablesAreImmutable() {
+		this.registry.addHandler(this.mockEventHandler1,
+				EventUtils.getSupportedEvents(EventHandlerPolicy.SYNCHRONOUS, this.event), 0);
+
+		HandlerTable table = this.registry.getHandlerTable("TOPIC_1");
+
+		this.registry.addHandler(this.mockEventHandler2,
+				EventUtils.getSupportedEvents(EventHandlerPolicy.SYNCHRONOUS, this.event), 0);
+
+		Assert.assertArrayEquals(new EventHandler[] { this.mockEventHandler1 },
+				table.getSynchronousHandlers(EventDispatchPolicy.SYNCHRONOUS));
+		Assert.assertArrayEquals(new EventHandler[] { this.mockEventHandler1, this.mockEventHandler2 },
+				this.registry.getHandlerTable("TOPIC_1").getSynchronousHandlers(EventDispatchPolicy.SYNCHRONOUS));
+	}
+
+	@Test
+	public void testHandlersAreOrderedByPriority() {
+		Map<EventInfo, EventHandlerPolicy> supportedEvents = EventUtils.getSupportedEvents(EventHandlerPolicy.SYNCHRONOUS,
+				this.event);
+		this.registry.addHandler(this.mockEventHandler1, supportedEvents, 0);
+		this.registry.addHandler(this.mockEventHandler2,
+				EventUtils.getSupportedEvents(EventHandlerPolicy.NOT_SPECIFIED, this.event), 10);
+		this.registry.addHandler(this.mockEventHandler3, supportedEvents, 0);
+
+		Assert.assertArrayEquals(
+				new EventHandler[] { this.mockEventHandler2, this.mockEventHandler1, this.mockEventHandler3 },
+				this.registry.getHandlerTable("TOPIC_1").getSynchronousHandlers(EventDispatchPolicy.HANDLER));
+	}
+
+	@Test
+	public void testWildcardSubscriptions() {
+		this.registry.addHandler(this.mockEventHandler1, EventUtils.getSupportedEvents(EventHandlerPolicy.SYNCHRONOUS,
+				new DefaultEventInfo("craftedMods/Importer/*")), 0);
+		this.registry.addHandler(this.mockEventHandler2, EventUtils.getSupportedEvents(EventHandlerPolicy.SYNCHRONOUS,
+				new DefaultEventInfo("craftedMods/**")), 0);
+		this.registry.addHandler(this.mockEventHandler3, EventUtils.getSupportedEvents(EventHandlerPolicy.SYNCHRONOUS,
+				new DefaultEventInfo("craftedMods/Importer/COPYING_TRACK"), new DefaultEventInfo("*/Exporter/*")), 0);
+
+		Assert.assertArrayEquals(
+				new EventHandler[] { this.mockEventHandler1, this.mockEventHandler2, this.mockEventHandler3 },
+				this.registry.getHandlerTable("craftedMods/Importer/COPYING_TRACK")
+						.getSynchronousHandlers(EventDispatchPolicy.SYNCHRONOUS));
+		Assert.assertArrayEquals(new EventHandler[] { this.mockEventHandler1, this.mockEventHandler2 },
+				this.registry.getHandlerTable("craftedMods/Importer/SUCCESS")
+						.getSynchronousHandlers(EventDispatchPolicy.SYNCHRONOUS));
+		Assert.assertArrayEquals(new EventHandler[] { this.mockEventHandler2, this.mockEventHandler3 },
+				this.registry.getHandlerTable("craftedMods/Exporter/SUCCESS")
+						.getSynchronousHandlers(EventDispatchPolicy.SYNCHRONOUS));
+		Assert.assertArrayEquals(new EventHandler[] { this.mockEventHandler2 },
+				this.registry.getHandlerTable("craftedMods/Importer/COPYING_TRACK/BYTES")
+						.getSynchronousHandlers(EventDispatchPolicy.SYNCHRONOUS));
+
+		Assert.assertNull(this.registry.getHandlerTable("craftedMods"));
+		Assert.assertNull(this.registry.getHandlerTable("other/Importer"));
+		Assert.assertEquals("craftedMods/Importer/SUCCESS",
+				this.registry.getHandlerTable("craftedMods/Importer/SUCCESS").getSynchronousEventInfo().getTopic());
+	}
+
+	@Test
+	public void testCachedHandlerTablesAreRebuilt() {
+		this.registry.addHandler(this.mockEventHandler1, EventUtils.getSupportedEvents(EventHandlerPolicy.SYNCHRONOUS,
+				new DefaultEventInfo("TOPIC_*")), 0);
+
+		Assert.assertNull(this.registry.getHandlerTable("TOPIC_1"));
+
+		this.registry.addHandler(this.mockEventHandler2, EventUtils.getSupportedEvents(EventHandlerPolicy.SYNCHRONOUS,
+				new DefaultEventInfo("*")), 0);
+
+		Assert.assertArrayEquals(new EventHandler[] { this.mockEventHandler2 },
+				this.registry.getHandlerTable("TOPIC_1").getSynchronousHandlers(EventDispatchPolicy.SYNCHRONOUS));
+	}
+
+}
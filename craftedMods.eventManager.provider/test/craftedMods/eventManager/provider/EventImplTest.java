@@ -36,4 +36,13 @@ public class EventImplTest {
 		Assert.assertTrue(this.event.matches(this.info));
 	}
 
+	@Test
+	public void testMatchesPattern() {
+		EventImpl event = new EventImpl(new DefaultEventInfo("craftedMods/Importer/COPYING_TRACK"), null);
+		Assert.assertTrue(event.matches(new DefaultEventInfo("craftedMods/Importer/*")));
+		Assert.assertTrue(event.matches(new DefaultEventInfo("craftedMods/**")));
+		Assert.assertFalse(event.matches(new DefaultEventInfo("craftedMods/Exporter/*")));
+		Assert.assertFalse(event.matches(new DefaultEventInfo("craftedMods/Importer")));
+	}
+
 }
@@ -1,14 +1,18 @@
 package craftedMods.eventManager.provider;
 
+import java.lang.annotation.Annotation;
 import java.util.*;
+import java.util.concurrent.*;
 
 import org.easymock.*;
 import org.junit.*;
 import org.junit.runner.RunWith;
+import org.osgi.framework.Constants;
 import org.osgi.service.log.FormatterLogger;
 
 import craftedMods.eventManager.api.*;
 import craftedMods.eventManager.base.*;
+import craftedMods.eventManager.provider.EventManagerImpl.Configuration;
 import craftedMods.utils.data.*;
 
 @RunWith(EasyMockRunner.class)
@@ -479,4 +483,446 @@ public class EventManagerImplTest {
 		Assert.assertEquals(0, results.size());
 	}
 
+	@Test
+	public void testCoalescedProgressEvents() throws InterruptedException {
+		EventInfo progressEvent = new DefaultEventInfo("PROGRESS");
+		TypedPropertyKey<Integer> progress = TypedPropertyKey.createIntegerPropertyKey();
+		List<Integer> asynchronousProgress = Collections.synchronizedList(new ArrayList<>());
+		List<Integer> synchronousProgress = new ArrayList<>();
+
+		EasyMock.expect(this.mockEventHandler1.getSupportedEvents())
+				.andStubReturn(EventUtils.getSupportedEvents(EventHandlerPolicy.ASYNCHRONOUS, progressEvent));
+		this.mockEventHandler1.handleEvent(EasyMock.anyObject(Event.class));
+		EasyMock.expectLastCall().andAnswer(() -> {
+			Event event = (Event) EasyMock.getCurrentArguments()[0];
+			asynchronousProgress.add(event.getEventProperties().getProperty(progress));
+			return null;
+		}).times(2);
+
+		EasyMock.expect(this.mockEventHandler2.getSupportedEvents())
+				.andStubReturn(EventUtils.getSupportedEvents(EventHandlerPolicy.SYNCHRONOUS, progressEvent));
+		this.mockEventHandler2.handleEvent(EasyMock.anyObject(Event.class));
+		EasyMock.expectLastCall().andAnswer(() -> {
+			Event event = (Event) EasyMock.getCurrentArguments()[0];
+			synchronousProgress.add(event.getEventProperties().getProperty(progress));
+			return null;
+		}).times(5);
+
+		EasyMock.replay(this.mockEventHandler1);
+		EasyMock.replay(this.mockEventHandler2);
+
+		this.eventManager.onActivate(this.createConfiguration(new String[] { "PROGRESS" }, 10000, 0));
+		this.eventManager.addHandler(this.mockEventHandler1);
+		this.eventManager.addHandler(this.mockEventHandler2);
+
+		for (int i = 0; i < 5; i++) {
+			LockableTypedProperties properties = new DefaultTypedProperties();
+			properties.put(progress, i);
+			this.eventManager.dispatchEvent(progressEvent, properties);
+		}
+
+		this.eventManager.onDeactivate();
+
+		EasyMock.verify(this.mockEventHandler1);
+		EasyMock.verify(this.mockEventHandler2);
+
+		Assert.assertEquals(Arrays.asList(0, 1, 2, 3, 4), synchronousProgress);
+		Assert.assertEquals(Arrays.asList(0, 4), asynchronousProgress);
+		Assert.assertEquals(3, this.eventManager.getCoalescedProgressEventCount());
+	}
+
+	@Test
+	public void testVetoableEventStopsAfterVeto() {
+		TypedPropertyKey<Boolean> proceed = TypedPropertyKey.createBooleanPropertyKey();
+
+		EasyMock.expect(this.mockEventHandler1.getSupportedEvents())
+				.andStubReturn(EventUtils.getSupportedEvents(EventHandlerPolicy.SYNCHRONOUS, this.synchronousDispatchedEvent));
+		EasyMock.expect(this.mockEventHandler2.getSupportedEvents())
+				.andStubReturn(EventUtils.getSupportedEvents(EventHandlerPolicy.SYNCHRONOUS, this.synchronousDispatchedEvent));
+		EasyMock.expect(this.mockEventHandler3.getSupportedEvents())
+				.andStubReturn(EventUtils.getSupportedEvents(EventHandlerPolicy.SYNCHRONOUS, this.synchronousDispatchedEvent));
+
+		this.mockEventHandler1.handleEvent(EasyMock.anyObject(Event.class));
+		EasyMock.expectLastCall().andAnswer(() -> {
+			((Event) EasyMock.getCurrentArguments()[0]).getEventResults().put(proceed, true);
+			return null;
+		}).once();
+
+		this.mockEventHandler2.handleEvent(EasyMock.anyObject(Event.class));
+		EasyMock.expectLastCall().andAnswer(() -> {
+			((Event) EasyMock.getCurrentArguments()[0]).getEventResults().put(proceed, false);
+			return null;
+		}).once();
+
+		EasyMock.replay(this.mockEventHandler1);
+		EasyMock.replay(this.mockEventHandler2);
+		EasyMock.replay(this.mockEventHandler3);
+
+		this.eventManager.addHandler(this.mockEventHandler1);
+		this.eventManager.addHandler(this.mockEventHandler2);
+		this.eventManager.addHandler(this.mockEventHandler3);
+
+		Collection<ReadOnlyTypedProperties> results = this.eventManager.dispatchVetoableEvent(this.synchronousDispatchedEvent,
+				new DefaultTypedProperties(), proceed);
+
+		EasyMock.verify(this.mockEventHandler1);
+		EasyMock.verify(this.mockEventHandler2);
+		EasyMock.verify(this.mockEventHandler3);
+
+		Assert.assertEquals(2, results.size());
+		Assert.assertFalse(EventUtils.proceed(results, proceed));
+	}
+
+	@Test
+	public void testHandlersAreCalledByServiceRanking() {
+		List<EventHandler> calledHandlers = new ArrayList<>();
+
+		for (EventHandler handler : Arrays.asList(this.mockEventHandler1, this.mockEventHandler2, this.mockEventHandler3)) {
+			EasyMock.expect(handler.getSupportedEvents())
+					.andStubReturn(EventUtils.getSupportedEvents(EventHandlerPolicy.SYNCHRONOUS, this.synchronousDispatchedEvent));
+			handler.handleEvent(EasyMock.anyObject(Event.class));
+			EasyMock.expectLastCall().andAnswer(() -> {
+				calledHandlers.add(handler);
+				return null;
+			}).once();
+			EasyMock.replay(handler);
+		}
+
+		this.eventManager.bindHandler(this.mockEventHandler1, Collections.emptyMap());
+		this.eventManager.bindHandler(this.mockEventHandler2, Collections.singletonMap(Constants.SERVICE_RANKING, -5));
+		this.eventManager.bindHandler(this.mockEventHandler3, Collections.singletonMap(Constants.SERVICE_RANKING, 5));
+
+		this.eventManager.dispatchEvent(this.synchronousDispatchedEvent);
+
+		Assert.assertEquals(Arrays.asList(this.mockEventHandler3, this.mockEventHandler1, this.mockEventHandler2), calledHandlers);
+	}
+
+	@Test
+	public void testMetrics() throws InterruptedException {
+		EasyMock.expect(this.mockEventHandler1.getSupportedEvents())
+				.andStubReturn(EventUtils.getSupportedEvents(EventHandlerPolicy.SYNCHRONOUS, this.synchronousDispatchedEvent));
+		this.mockEventHandler1.handleEvent(EasyMock.anyObject(Event.class));
+		EasyMock.expectLastCall().times(2);
+
+		EasyMock.expect(this.mockEventHandler2.getSupportedEvents())
+				.andStubReturn(EventUtils.getSupportedEvents(EventHandlerPolicy.ASYNCHRONOUS, this.asynchronousDispatchedEvent));
+		this.mockEventHandler2.handleEvent(EasyMock.anyObject(Event.class));
+		EasyMock.expectLastCall().once();
+
+		EasyMock.replay(this.mockEventHandler1);
+		EasyMock.replay(this.mockEventHandler2);
+
+		this.eventManager.addHandler(this.mockEventHandler1);
+		this.eventManager.addHandler(this.mockEventHandler2);
+
+		this.eventManager.dispatchEvent(this.synchronousDispatchedEvent);
+		this.eventManager.dispatchEvent(this.synchronousDispatchedEvent);
+		this.eventManager.dispatchEvent(this.asynchronousDispatchedEvent);
+		this.eventManager.dispatchEvent(this.unspecifiedDispatchedEvent);
+
+		this.eventManager.onDeactivate();
+
+		EasyMock.verify(this.mockEventHandler1);
+		EasyMock.verify(this.mockEventHandler2);
+
+		Map<String, EventStatistics> topicStatistics = this.eventManager.getTopicStatistics();
+		Assert.assertEquals(new HashSet<>(Arrays.asList("TOPIC_1", "TOPIC_2")), topicStatistics.keySet());
+		Assert.assertEquals(2, topicStatistics.get("TOPIC_1").getCount());
+		Assert.assertEquals(2, Arrays.stream(topicStatistics.get("TOPIC_1").getLatencyHistogram()).sum());
+		Assert.assertEquals(0, topicStatistics.get("TOPIC_1").getAsynchronousCount());
+		Assert.assertEquals(1, topicStatistics.get("TOPIC_2").getAsynchronousCount());
+
+		Map<EventHandler, EventStatistics> handlerStatistics = this.eventManager.getHandlerStatistics();
+		Assert.assertEquals(2, handlerStatistics.get(this.mockEventHandler1).getCount());
+		Assert.assertEquals(0, handlerStatistics.get(this.mockEventHandler1).getAsynchronousCount());
+		Assert.assertEquals(1, handlerStatistics.get(this.mockEventHandler2).getCount());
+		Assert.assertEquals(1, handlerStatistics.get(this.mockEventHandler2).getAsynchronousCount());
+
+		this.eventManager.removeHandler(this.mockEventHandler1);
+		Assert.assertFalse(this.eventManager.getHandlerStatistics().containsKey(this.mockEventHandler1));
+
+		this.eventManager.reset();
+		Assert.assertTrue(this.eventManager.getTopicStatistics().isEmpty());
+		Assert.assertTrue(this.eventManager.getHandlerStatistics().isEmpty());
+	}
+
+	@Test
+	public void testHandlerExceptionsAreRecorded() {
+		EasyMock.expect(this.mockEventHandler1.getSupportedEvents())
+				.andStubReturn(EventUtils.getSupportedEvents(EventHandlerPolicy.SYNCHRONOUS, this.synchronousDispatchedEvent));
+		this.mockEventHandler1.handleEvent(EasyMock.anyObject(Event.class));
+		EasyMock.expectLastCall().andThrow(new IllegalStateException()).once();
+
+		EasyMock.replay(this.mockEventHandler1);
+
+		this.eventManager.addHandler(this.mockEventHandler1);
+
+		try {
+			this.eventManager.dispatchEvent(this.synchronousDispatchedEvent);
+			Assert.fail();
+		} catch (IllegalStateException e) {
+		}
+
+		EasyMock.verify(this.mockEventHandler1);
+
+		Assert.assertEquals(1, this.eventManager.getTopicStatistics().get("TOPIC_1").getExceptionCount());
+		Assert.assertEquals(1, this.eventManager.getHandlerStatistics().get(this.mockEventHandler1).getExceptionCount());
+	}
+
+	@Test
+	public void testSlowHandlerIsLogged() {
+		EasyMock.resetToNice(this.mockLogger);
+		this.mockLogger.warn(EasyMock.anyString(), EasyMock.same(this.mockEventHandler1), EasyMock.anyObject(),
+				EasyMock.eq("TOPIC_1"));
+		EasyMock.expectLastCall().once();
+		EasyMock.replay(this.mockLogger);
+
+		EasyMock.expect(this.mockEventHandler1.getSupportedEvents())
+				.andStubReturn(EventUtils.getSupportedEvents(EventHandlerPolicy.SYNCHRONOUS, this.synchronousDispatchedEvent));
+		this.mockEventHandler1.handleEvent(EasyMock.anyObject(Event.class));
+		EasyMock.expectLastCall().andAnswer(() -> {
+			Thread.sleep(20);
+			return null;
+		}).once();
+
+		EasyMock.replay(this.mockEventHandler1);
+
+		this.eventManager.onActivate(this.createConfiguration(new String[0], 50, 5));
+		this.eventManager.addHandler(this.mockEventHandler1);
+		this.eventManager.dispatchEvent(this.synchronousDispatchedEvent);
+
+		EasyMock.verify(this.mockEventHandler1);
+		EasyMock.verify(this.mockLogger);
+	}
+
+	@Test
+	public void testDispatchEventAsync() throws InterruptedException, ExecutionException, TimeoutException {
+		EasyMock.expect(this.mockEventHandler1.getSupportedEvents())
+				.andStubReturn(EventUtils.getSupportedEvents(EventHandlerPolicy.ASYNCHRONOUS, this.handlerSpecificDispatchedEvent));
+		EasyMock.expect(this.mockEventHandler2.getSupportedEvents())
+				.andStubReturn(EventUtils.getSupportedEvents(EventHandlerPolicy.SYNCHRONOUS, this.handlerSpecificDispatchedEvent));
+
+		TypedPropertyKey<String> property = TypedPropertyKey.createStringPropertyKey();
+		List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+
+		this.mockEventHandler1.handleEvent(EasyMock.anyObject(Event.class));
+		EasyMock.expectLastCall().andAnswer(() -> {
+			threads.add(Thread.currentThread());
+			((Event) EasyMock.getCurrentArguments()[0]).getEventResults().put(property, "Asynchronous");
+			return null;
+		}).once();
+
+		this.mockEventHandler2.handleEvent(EasyMock.anyObject(Event.class));
+		EasyMock.expectLastCall().andAnswer(() -> {
+			threads.add(Thread.currentThread());
+			((Event) EasyMock.getCurrentArguments()[0]).getEventResults().put(property, "Synchronous");
+			return null;
+		}).once();
+
+		EasyMock.replay(this.mockEventHandler1, this.mockEventHandler2);
+
+		this.eventManager.addHandler(this.mockEventHandler1);
+		this.eventManager.addHandler(this.mockEventHandler2);
+
+		List<ReadOnlyTypedProperties> results = new ArrayList<>(
+				this.eventManager.dispatchEventAsync(this.handlerSpecificDispatchedEvent).get(2, TimeUnit.SECONDS));
+
+		EasyMock.verify(this.mockEventHandler1, this.mockEventHandler2);
+
+		Assert.assertEquals(2, results.size());
+		Assert.assertEquals("Synchronous", results.get(0).getProperty(property));
+		Assert.assertEquals("Asynchronous", results.get(1).getProperty(property));
+		Assert.assertFalse(threads.contains(Thread.currentThread()));
+	}
+
+	@Test
+	public void testDispatchEventAsyncWithoutHandlers() throws InterruptedException, ExecutionException {
+		LockableTypedProperties properties = new DefaultTypedProperties();
+
+		Assert.assertTrue(this.eventManager.dispatchEventAsync(this.synchronousDispatchedEvent, properties).get().isEmpty());
+		Assert.assertTrue(properties.isLocked());
+	}
+
+	@Test
+	public void testDispatchEventAsyncWithHandlerException() throws InterruptedException {
+		EasyMock.expect(this.mockEventHandler1.getSupportedEvents())
+				.andStubReturn(EventUtils.getSupportedEvents(EventHandlerPolicy.SYNCHRONOUS, this.synchronousDispatchedEvent));
+		this.mockEventHandler1.handleEvent(EasyMock.anyObject(Event.class));
+		EasyMock.expectLastCall().andThrow(new IllegalStateException()).once();
+
+		EasyMock.replay(this.mockEventHandler1);
+
+		this.eventManager.addHandler(this.mockEventHandler1);
+
+		try {
+			this.eventManager.dispatchEventAsync(this.synchronousDispatchedEvent).get(2, TimeUnit.SECONDS);
+			Assert.fail();
+		} catch (ExecutionException e) {
+			Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+		} catch (TimeoutException e) {
+			Assert.fail();
+		}
+
+		EasyMock.verify(this.mockEventHandler1);
+	}
+
+	@Test
+	public void testDispatchEventAsyncAfterDeactivation() throws InterruptedException {
+		EasyMock.expect(this.mockEventHandler1.getSupportedEvents())
+				.andStubReturn(EventUtils.getSupportedEvents(EventHandlerPolicy.SYNCHRONOUS, this.synchronousDispatchedEvent));
+
+		EasyMock.replay(this.mockEventHandler1);
+
+		this.eventManager.addHandler(this.mockEventHandler1);
+		this.eventManager.onDeactivate();
+
+		Assert.assertTrue(this.eventManager.dispatchEventAsync(this.synchronousDispatchedEvent).isCompletedExceptionally());
+	}
+
+	@Test
+	public void testAsynchronousEventsAreDeliveredInOrder() throws InterruptedException {
+		TypedPropertyKey<Integer> index = TypedPropertyKey.createIntegerPropertyKey();
+		List<Integer> topicIndices = Collections.synchronizedList(new ArrayList<>());
+		List<Integer> keyIndices = Collections.synchronizedList(new ArrayList<>());
+		CountDownLatch delivered = new CountDownLatch(400);
+
+		EasyMock.expect(this.mockEventHandler1.getSupportedEvents()).andStubReturn(
+				EventUtils.getSupportedEvents(EventHandlerPolicy.ASYNCHRONOUS, this.asynchronousDispatchedEvent,
+						this.unspecifiedDispatchedEvent));
+		this.mockEventHandler1.handleEvent(EasyMock.anyObject(Event.class));
+		EasyMock.expectLastCall().andAnswer(() -> {
+			Event event = (Event) EasyMock.getCurrentArguments()[0];
+			(event.getEventInfo().getTopic().equals("TOPIC_2") ? topicIndices : keyIndices)
+					.add(event.getEventProperties().getProperty(index));
+			delivered.countDown();
+			return null;
+		}).times(400);
+
+		EasyMock.replay(this.mockEventHandler1);
+
+		this.eventManager.addHandler(this.mockEventHandler1);
+
+		for (int i = 0; i < 200; i++) {
+			LockableTypedProperties properties = new DefaultTypedProperties();
+			properties.put(index, i);
+			this.eventManager.dispatchEvent(this.asynchronousDispatchedEvent, properties);
+			properties = new DefaultTypedProperties();
+			properties.put(index, i);
+			this.eventManager.dispatchOrderedEvent(this.unspecifiedDispatchedEvent, properties, "KEY");
+		}
+
+		Assert.assertTrue(delivered.await(2, TimeUnit.SECONDS));
+		EasyMock.verify(this.mockEventHandler1);
+
+		List<Integer> expectedIndices = new ArrayList<>();
+		for (int i = 0; i < 200; i++)
+			expectedIndices.add(i);
+		Assert.assertEquals(expectedIndices, topicIndices);
+		Assert.assertEquals(expectedIndices, keyIndices);
+	}
+
+	@Test
+	public void testQueuedAsynchronousEventsAreDeliveredAfterReconfiguration()
+			throws InterruptedException, ExecutionException, TimeoutException {
+		TypedPropertyKey<Integer> index = TypedPropertyKey.createIntegerPropertyKey();
+		List<Integer> indices = Collections.synchronizedList(new ArrayList<>());
+		CountDownLatch blockedHandler = new CountDownLatch(1);
+		CountDownLatch releaseHandler = new CountDownLatch(1);
+
+		EasyMock.expect(this.mockEventHandler1.getSupportedEvents())
+				.andStubReturn(EventUtils.getSupportedEvents(EventHandlerPolicy.ASYNCHRONOUS, this.asynchronousDispatchedEvent));
+		this.mockEventHandler1.handleEvent(EasyMock.anyObject(Event.class));
+		EasyMock.expectLastCall().andAnswer(() -> {
+			Event event = (Event) EasyMock.getCurrentArguments()[0];
+			indices.add(event.getEventProperties().getProperty(index));
+			blockedHandler.countDown();
+			releaseHandler.await();
+			return null;
+		}).times(200);
+
+		EasyMock.replay(this.mockEventHandler1);
+
+		this.eventManager.onActivate(this.createConfiguration(new String[0], 0, 0, 2));
+		this.eventManager.addHandler(this.mockEventHandler1);
+
+		// More events than one batch of the lane are queued when the executor is replaced
+		List<CompletableFuture<Collection<ReadOnlyTypedProperties>>> results = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			LockableTypedProperties properties = new DefaultTypedProperties();
+			properties.put(index, i);
+			results.add(this.eventManager.dispatchEventAsync(this.asynchronousDispatchedEvent, properties));
+		}
+		Assert.assertTrue(blockedHandler.await(2, TimeUnit.SECONDS));
+
+		this.eventManager.onModify(this.createConfiguration(new String[0], 0, 0, 4));
+		releaseHandler.countDown();
+
+		for (CompletableFuture<Collection<ReadOnlyTypedProperties>> result : results)
+			result.get(2, TimeUnit.SECONDS);
+
+		EasyMock.verify(this.mockEventHandler1);
+
+		List<Integer> expectedIndices = new ArrayList<>();
+		for (int i = 0; i < 200; i++)
+			expectedIndices.add(i);
+		Assert.assertEquals(expectedIndices, indices);
+	}
+
+	private Configuration createConfiguration(String[] progressTopics, long progressEventWindow,
+			long slowHandlerThreshold) {
+		return this.createConfiguration(progressTopics, progressEventWindow, slowHandlerThreshold, 0);
+	}
+
+	private Configuration createConfiguration(String[] progressTopics, long progressEventWindow,
+			long slowHandlerThreshold, int asynchronousThreads) {
+		return new Configuration() {
+
+			@Override
+			public Class<? extends Annotation> annotationType() {
+				return Configuration.class;
+			}
+
+			@Override
+			public int asynchronousThreads() {
+				return asynchronousThreads;
+			}
+
+			@Override
+			public int asynchronousQueueCapacity() {
+				return 1024;
+			}
+
+			@Override
+			public int asynchronousLanes() {
+				return 32;
+			}
+
+			@Override
+			public SaturationPolicy saturationPolicy() {
+				return SaturationPolicy.CALLER_RUNS;
+			}
+
+			@Override
+			public String[] progressTopics() {
+				return progressTopics;
+			}
+
+			@Override
+			public long progressEventWindow() {
+				return progressEventWindow;
+			}
+
+			@Override
+			public boolean collectMetrics() {
+				return true;
+			}
+
+			@Override
+			public long slowHandlerThreshold() {
+				return slowHandlerThreshold;
+			}
+
+		};
+	}
+
 }
@@ -0,0 +1,40 @@
+package craftedMods.eventManager.provider;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.*;
+
+import craftedMods.eventManager.api.EventStatistics;
+
+public class EventStatisticsImplTest {
+
+	@Test
+	public void testLatencyHistogramBuckets() {
+		Assert.assertEquals(0, EventStatisticsImpl.getLatencyHistogramBucket(999));
+		Assert.assertEquals(1, EventStatisticsImpl.getLatencyHistogramBucket(TimeUnit.MICROSECONDS.toNanos(1)));
+		Assert.assertEquals(2, EventStatisticsImpl.getLatencyHistogramBucket(TimeUnit.MICROSECONDS.toNanos(3)));
+		Assert.assertEquals(10, EventStatisticsImpl.getLatencyHistogramBucket(TimeUnit.MILLISECONDS.toNanos(1)));
+		Assert.assertEquals(EventStatistics.LATENCY_HISTOGRAM_BUCKETS - 1,
+				EventStatisticsImpl.getLatencyHistogramBucket(TimeUnit.HOURS.toNanos(1)));
+	}
+
+	@Test
+	public void testRecord() {
+		EventStatisticsImpl statistics = new EventStatisticsImpl();
+		statistics.record(500, false);
+		statistics.record(TimeUnit.MICROSECONDS.toNanos(3), true);
+		statistics.recordQueueWait(100);
+		statistics.recordQueueWait(300);
+
+		Assert.assertEquals(2, statistics.getCount());
+		Assert.assertEquals(1, statistics.getExceptionCount());
+		Assert.assertEquals(3500, statistics.getTotalLatencyNanos());
+		Assert.assertEquals(3000, statistics.getMaxLatencyNanos());
+		Assert.assertEquals(1, statistics.getLatencyHistogram()[0]);
+		Assert.assertEquals(1, statistics.getLatencyHistogram()[2]);
+		Assert.assertEquals(2, statistics.getAsynchronousCount());
+		Assert.assertEquals(400, statistics.getTotalQueueWaitNanos());
+		Assert.assertEquals(300, statistics.getMaxQueueWaitNanos());
+	}
+
+}
@@ -0,0 +1,82 @@
+package craftedMods.eventManager.provider;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.junit.*;
+
+public class ProgressEventCoalescerTest {
+
+	private List<String> delivered;
+
+	private ProgressEventCoalescer coalescer;
+
+	@Before
+	public void setup() {
+		this.delivered = Collections.synchronizedList(new ArrayList<>());
+	}
+
+	@After
+	public void teardown() {
+		if (this.coalescer != null)
+			this.coalescer.close();
+	}
+
+	@Test
+	public void testFirstEventIsDeliveredImmediately() {
+		this.coalescer = new ProgressEventCoalescer(10000, (topic, task) -> task.run());
+
+		this.coalescer.submit("TOPIC_1", () -> this.delivered.add("Event 1"));
+
+		Assert.assertEquals(Arrays.asList("Event 1"), this.delivered);
+	}
+
+	@Test
+	public void testLatestEventIsDeliveredAfterWindow() throws InterruptedException {
+		this.coalescer = new ProgressEventCoalescer(100, (topic, task) -> task.run());
+		CountDownLatch flushed = new CountDownLatch(1);
+
+		this.coalescer.submit("TOPIC_1", () -> this.delivered.add("Event 1"));
+		this.coalescer.submit("TOPIC_1", () -> this.delivered.add("Event 2"));
+		this.coalescer.submit("TOPIC_1", () -> {
+			this.delivered.add("Event 3");
+			flushed.countDown();
+		});
+
+		Assert.assertEquals(Arrays.asList("Event 1"), this.delivered);
+		Assert.assertTrue(flushed.await(2, TimeUnit.SECONDS));
+		Assert.assertEquals(Arrays.asList("Event 1", "Event 3"), this.delivered);
+		Assert.assertEquals(1, this.coalescer.getCoalescedEventCount());
+	}
+
+	@Test
+	public void testTopicsAreCoalescedIndependently() {
+		this.coalescer = new ProgressEventCoalescer(10000, (topic, task) -> task.run());
+
+		this.coalescer.submit("TOPIC_1", () -> this.delivered.add("Event 1"));
+		this.coalescer.submit("TOPIC_2", () -> this.delivered.add("Event 2"));
+
+		Assert.assertEquals(Arrays.asList("Event 1", "Event 2"), this.delivered);
+	}
+
+	@Test
+	public void testCloseDeliversPendingEvents() {
+		this.coalescer = new ProgressEventCoalescer(10000, (topic, task) -> task.run());
+
+		this.coalescer.submit("TOPIC_1", () -> this.delivered.add("Event 1"));
+		this.coalescer.submit("TOPIC_1", () -> this.delivered.add("Event 2"));
+		this.coalescer.close();
+
+		Assert.assertEquals(Arrays.asList("Event 1", "Event 2"), this.delivered);
+
+		this.coalescer.submit("TOPIC_1", () -> this.delivered.add("Event 3"));
+
+		Assert.assertEquals(Arrays.asList("Event 1", "Event 2", "Event 3"), this.delivered);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidWindow() {
+		new ProgressEventCoalescer(0, (topic, task) -> task.run());
+	}
+
+}
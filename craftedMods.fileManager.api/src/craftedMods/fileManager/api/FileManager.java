@@ -49,6 +49,17 @@ public interface FileManager {
 
 	public OutputStream newOutputStream(Path path) throws IOException;
 
+	/**
+	 * Returns a new output stream for the specified file.
+	 * 
+	 * @param path The relevant file
+	 * @param sync Whether the written data is forced to the storage device when
+	 *             the stream is closed
+	 * @return The output stream
+	 * @throws IOException When IO-Errors occur
+	 */
+	public OutputStream newOutputStream(Path path, boolean sync) throws IOException;
+
 	public void write(Path path, byte[] data) throws IOException;
 
 	public void copy(Path file1, Path file2) throws IOException;
@@ -57,4 +68,29 @@ public interface FileManager {
 
 	public void rename(Path source, String newName) throws IOException;
 
+	/**
+	 * Moves a file and replaces an existing target. The move is atomic if the
+	 * file system supports it.
+	 * 
+	 * @param source The file
+	 * @param target The new location of the file
+	 * @throws IOException When IO-Errors occur
+	 */
+	public void move(Path source, Path target) throws IOException;
+
+	/**
+	 * @param path The file
+	 * @return The size of the file in bytes
+	 * @throws IOException When IO-Errors occur
+	 */
+	public long getSize(Path path) throws IOException;
+
+	/**
+	 * @param path The file
+	 * @return The time of the last modification of the file in milliseconds
+	 *         since the epoch
+	 * @throws IOException When IO-Errors occur
+	 */
+	public long getLastModified(Path path) throws IOException;
+
 }
@@ -1,6 +1,7 @@
 package craftedMods.fileManager.provider;
 
 import java.io.*;
+import java.nio.channels.*;
 import java.nio.file.*;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Objects;
@@ -133,6 +134,30 @@ public class FileManagerImpl implements FileManager {
 		return new BufferedOutputStream(Files.newOutputStream(path));
 	}
 
+	@Override
+	public OutputStream newOutputStream(Path path, boolean sync) throws IOException {
+		if (!sync)
+			return this.newOutputStream(path);
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.WRITE);
+		return new BufferedOutputStream(new FilterOutputStream(Channels.newOutputStream(channel)) {
+
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				this.out.write(b, off, len);
+			}
+
+			@Override
+			public void close() throws IOException {
+				try {
+					channel.force(true);
+				} finally {
+					this.out.close();
+				}
+			}
+		});
+	}
+
 	@Override
 	public void write(Path file, byte[] data) throws IOException {
 		Objects.requireNonNull(file);
@@ -174,4 +199,31 @@ public class FileManagerImpl implements FileManager {
 		}
 	}
 
+	@Override
+	public void move(Path source, Path target) throws IOException {
+		Objects.requireNonNull(source);
+		Objects.requireNonNull(target);
+		if (!this.exists(source))
+			throw new NoSuchFileException(source.toString());
+		try {
+			Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	@Override
+	public long getSize(Path path) throws IOException {
+		Objects.requireNonNull(path);
+		if (this.isDirectory(path))
+			throw new IOException(path.toString() + " is not a file");
+		return Files.size(path);
+	}
+
+	@Override
+	public long getLastModified(Path path) throws IOException {
+		Objects.requireNonNull(path);
+		return Files.getLastModifiedTime(path).toMillis();
+	}
+
 }
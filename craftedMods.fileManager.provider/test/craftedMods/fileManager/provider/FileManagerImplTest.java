@@ -2,12 +2,14 @@ package craftedMods.fileManager.provider;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.NotDirectoryException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
 
 import org.junit.Assert;
 import org.junit.Before;
@@ -498,4 +500,58 @@ public class FileManagerImplTest {
 		}
 	}
 
-}
\ No newline at end of file
+	@Test
+	public void testGetSize() throws IOException {
+		Path path = this.folder.getRoot().toPath().resolve("file.fil");
+		this.fileManager.write(path, new byte[] { 1, 2, 3 });
+		Assert.assertEquals(3, this.fileManager.getSize(path));
+	}
+
+	@Test(expected = IOException.class)
+	public void testGetSizeDir() throws IOException {
+		this.fileManager.getSize(this.folder.newFolder().toPath());
+	}
+
+	@Test(expected = NoSuchFileException.class)
+	public void testGetLastModifiedNotExisting() throws IOException {
+		this.fileManager.getLastModified(this.folder.getRoot().toPath().resolve("file.fil"));
+	}
+
+	@Test
+	public void testGetLastModified() throws IOException {
+		Path path = this.folder.getRoot().toPath().resolve("file.fil");
+		this.fileManager.createFile(path);
+		Files.setLastModifiedTime(path, FileTime.fromMillis(1500000000000l));
+		Assert.assertEquals(1500000000000l, this.fileManager.getLastModified(path));
+	}
+
+	@Test
+	public void testNewOutputStreamSync() throws IOException {
+		Path path = this.folder.getRoot().toPath().resolve("file.fil");
+		try (OutputStream out = this.fileManager.newOutputStream(path, true)) {
+			out.write(new byte[] { 1, 2, 3 });
+			out.write(4);
+		}
+		Assert.assertArrayEquals(new byte[] { 1, 2, 3, 4 }, this.fileManager.read(path));
+	}
+
+	@Test(expected = NoSuchFileException.class)
+	public void testMoveNonExistingFile() throws IOException {
+		this.fileManager.move(this.folder.getRoot().toPath().resolve("file.fil"),
+				this.folder.getRoot().toPath().resolve("file.fil2"));
+	}
+
+	@Test
+	public void testMoveReplacesTarget() throws IOException {
+		Path file = this.folder.getRoot().toPath().resolve("file.fil");
+		Path target = this.folder.getRoot().toPath().resolve("file.fil2");
+		this.fileManager.write(file, new byte[] { 1 });
+		this.fileManager.write(target, new byte[] { 2, 3 });
+
+		this.fileManager.move(file, target);
+
+		Assert.assertFalse(this.fileManager.exists(file));
+		Assert.assertArrayEquals(new byte[] { 1 }, this.fileManager.read(target));
+	}
+
+}
@@ -0,0 +1,26 @@
+package craftedMods.lotr.mpc.core.api;
+
+/**
+ * Describes how the entries of an exported Music Pack are compressed.
+ */
+public enum ExportCompressionMode {
+
+	/**
+	 * The entry is stored without compression. This is the best choice for data
+	 * which is already compressed, like Ogg Vorbis files.
+	 */
+	STORED,
+
+	/**
+	 * The entry is always deflated
+	 */
+	DEFLATED,
+
+	/**
+	 * The first block of the entry is compressed as sample. The entry is only
+	 * deflated if that saves a noticeable amount of space, otherwise it is
+	 * stored.
+	 */
+	AUTO;
+
+}
@@ -0,0 +1,55 @@
+package craftedMods.lotr.mpc.core.api;
+
+import org.osgi.annotation.versioning.ProviderType;
+
+/**
+ * Statistics about the compression of an exported Music Pack, grouped by the
+ * compression mode which was configured for the entries.
+ */
+@ProviderType
+public interface ExportStatistics {
+
+	/**
+	 * @param mode The compression mode
+	 * @return The amount of entries exported with the specified mode
+	 */
+	public int getEntryCount(ExportCompressionMode mode);
+
+	/**
+	 * @param mode The compression mode
+	 * @return The total size of the exported entries before the compression
+	 */
+	public long getUncompressedSize(ExportCompressionMode mode);
+
+	/**
+	 * @param mode The compression mode
+	 * @return The total size of the exported entries in the archive
+	 */
+	public long getCompressedSize(ExportCompressionMode mode);
+
+	/**
+	 * @param mode The compression mode
+	 * @return The amount of bytes saved by the compression
+	 */
+	public default long getSavedSize(ExportCompressionMode mode) {
+		return this.getUncompressedSize(mode) - this.getCompressedSize(mode);
+	}
+
+	/**
+	 * @param mode The compression mode
+	 * @return The time spent encoding the entries in nanoseconds
+	 */
+	public long getEncodingTime(ExportCompressionMode mode);
+
+	/**
+	 * Returns the estimated time which was saved by storing entries instead of
+	 * deflating them. This is only known for {@link ExportCompressionMode#AUTO},
+	 * where it is extrapolated from the time the compression of the samples
+	 * took.
+	 * 
+	 * @param mode The compression mode
+	 * @return The estimated saved time in nanoseconds
+	 */
+	public long getSavedTime(ExportCompressionMode mode);
+
+}
@@ -9,6 +9,13 @@ public interface MusicPack extends ReadOnlyMusicPack {
 
 	@Override
 	public NonNullSet<Track> getTracks();
+
+	/*
+	 * A stamp of the last modification of the Music Pack or one of its Tracks.
+	 * Later modifications have greater stamps, the stamps don't correspond to a
+	 * time.
+	 */
+	public long getLastModification();
 	
 	@Override
 	public MusicPack clone();
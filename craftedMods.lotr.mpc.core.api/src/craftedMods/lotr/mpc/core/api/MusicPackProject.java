@@ -14,8 +14,34 @@ public interface MusicPackProject {
 
 	public String getName();
 
+	/*
+	 * A lazily loaded Music Pack is read on the first access. If it can't be read,
+	 * an unchecked exception (a ServiceException of the persistence manager) is
+	 * thrown, and the next access tries again.
+	 */
 	public MusicPack getMusicPack();
 
+	/*
+	 * The amount of tracks of the Music Pack. Projects loading their Music Pack
+	 * lazily know it without loading the Music Pack.
+	 */
+	public default int getTrackCount() {
+		return this.getMusicPack().getTracks().size();
+	}
+
 	public PrimitiveProperties getProperties();
 
+	/*
+	 * Whether the name, the properties or the Music Pack of the project were
+	 * modified since it was loaded or saved the last time. New projects are
+	 * modified until they're saved.
+	 */
+	public boolean isModified();
+
+	/*
+	 * Marking the project as unmodified records its current state, it's modified
+	 * again as soon as it differs from that state
+	 */
+	public void setModified(boolean modified);
+
 }
@@ -1,5 +1,6 @@
 package craftedMods.lotr.mpc.core.api;
 
+import java.io.OutputStream;
 import java.nio.file.Path;
 
 import org.osgi.annotation.versioning.ProviderType;
@@ -40,6 +41,8 @@ public interface MusicPackProjectExporter {
 
 	public static final TypedPropertyKey<Boolean> PRE_SUCCESS_EVENT_RESULT_PROCEED = TypedPropertyKey
 			.createBooleanPropertyKey();
+	public static final TypedPropertyKey<ExportStatistics> SUCCESS_EVENT_STATISTICS = TypedPropertyKey
+			.createPropertyKey(ExportStatistics.class);
 	public static final TypedPropertyKey<Exception> ERROR_EVENT_EXCEPTION = TypedPropertyKey
 			.createPropertyKey(Exception.class);
 
@@ -70,4 +73,19 @@ public interface MusicPackProjectExporter {
 	 */
 	public void exportMusicPackProject(Path location, MusicPackProject packProject);
 
+	/**
+	 * Exports the specified, registered Music Pack Project in the format of a LOTR
+	 * Mod Music Pack and streams the archive to the specified output stream in a
+	 * single pass. The stream won't be closed. The events are the same as for
+	 * {@link #exportMusicPackProject(Path, MusicPackProject)}, but the
+	 * {@link #COMMON_EVENT_LOCATION} property is null and the
+	 * {@link #EXPORT_LOCATION_EXISTS_EVENT} won't be fired. If the exportation is
+	 * cancelled or fails, the data which was already written to the stream won't
+	 * be a valid Music Pack.
+	 * 
+	 * @param out         The stream the Music Pack will be written to
+	 * @param packProject The project to export
+	 */
+	public void exportMusicPackProject(OutputStream out, MusicPackProject packProject);
+
 }
@@ -1,5 +1,7 @@
 package craftedMods.lotr.mpc.core.api;
 
+import java.util.function.Supplier;
+
 import org.osgi.annotation.versioning.ProviderType;
 
 @ProviderType
@@ -7,4 +9,12 @@ public interface MusicPackProjectFactory {
 
 	public MusicPackProject createMusicPackProjectInstance(String name);
 
+	/*
+	 * Creates a Music Pack Project whose Music Pack is created by the loader when
+	 * it's accessed the first time. The loader may be called again if the Music
+	 * Pack was unloaded in the meantime.
+	 */
+	public MusicPackProject createMusicPackProjectInstance(String name, int trackCount,
+			Supplier<MusicPack> musicPackLoader);
+
 }
@@ -1,5 +1,6 @@
 package craftedMods.lotr.mpc.core.api;
 
+import java.io.InputStream;
 import java.nio.file.Path;
 import java.util.Collection;
 
@@ -73,4 +74,23 @@ public interface MusicPackProjectImporter {
 
 	public MusicPackProject importMusicPackProject(Path location);
 
+	/**
+	 * Imports a Music Pack from the specified stream. The archive is read in a
+	 * single forward pass, so the stream doesn't need to be seekable. The stream
+	 * won't be closed. The {@link #COMMON_EVENT_LOCATION} property of the events
+	 * is null.<br>
+	 * Because the entries are processed in the order they appear in the archive,
+	 * missing and non-Ogg files are reported after all entries were read. The
+	 * {@link #TRACK_COUNT_DETERMINED_EVENT} is fired once with the track count
+	 * declared by pack.properties or music.json: before the first track if one of
+	 * them precedes the tracks, otherwise as soon as one of them was read. The
+	 * count is never negative.
+	 * 
+	 * @param in            The stream the Music Pack will be read from
+	 * @param suggestedName The project name used if the Music Pack doesn't
+	 *                      declare one
+	 * @return The imported project or null if the import was cancelled or failed
+	 */
+	public MusicPackProject importMusicPackProject(InputStream in, String suggestedName);
+
 }
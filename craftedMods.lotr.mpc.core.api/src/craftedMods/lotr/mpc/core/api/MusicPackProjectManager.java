@@ -36,6 +36,9 @@ public interface MusicPackProjectManager {
 
 	public void deleteMusicPackProject(MusicPackProject project);
 
+	/*
+	 * Saves the modified projects, returns the projects which couldn't be saved
+	 */
 	public Collection<MusicPackProject> saveAllMusicPackProjects();
 
 	public void saveMusicPackProject(MusicPackProject project);
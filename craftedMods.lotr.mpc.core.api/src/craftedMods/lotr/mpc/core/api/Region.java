@@ -8,6 +8,12 @@ public interface Region extends ReadOnlyRegion {
 	public void setName(String name);
 
 	public void setWeight(Float weight);
+
+	/*
+	 * A stamp of the last modification of the Region. Later modifications have
+	 * greater stamps, the stamps don't correspond to a time.
+	 */
+	public long getLastModification();
 	
 	@Override
 	public Region clone();
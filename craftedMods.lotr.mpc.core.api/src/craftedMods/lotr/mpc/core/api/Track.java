@@ -13,6 +13,12 @@ public interface Track extends ReadOnlyTrack{
 
 	@Override
 	public NonNullSet<Region> getRegions();
+
+	/*
+	 * A stamp of the last modification of the Track or one of its Regions. Later
+	 * modifications have greater stamps, the stamps don't correspond to a time.
+	 */
+	public long getLastModification();
 	
 	@Override
 	public Track clone();
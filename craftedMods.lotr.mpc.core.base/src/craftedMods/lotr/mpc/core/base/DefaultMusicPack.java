@@ -1,6 +1,7 @@
 package craftedMods.lotr.mpc.core.base;
 
 import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.stream.Collectors;
 
 import craftedMods.lotr.mpc.core.api.MusicPack;
@@ -10,7 +11,9 @@ import craftedMods.utils.data.NonNullSet;
 
 public class DefaultMusicPack implements MusicPack {
 
-	private NonNullSet<Track> tracksSet = CollectionUtils.createNonNullLinkedHashSet();
+	private NonNullSet<Track> tracksSet = CollectionUtils.createNonNullSetWithInternal(new LinkedHashSet<>(),
+			this::modified);
+	private volatile long lastModification = ModificationStamps.next();
 
 	public DefaultMusicPack() {
 	}
@@ -24,6 +27,18 @@ public class DefaultMusicPack implements MusicPack {
 		return this.tracksSet;
 	}
 
+	@Override
+	public long getLastModification() {
+		long lastModification = this.lastModification;
+		for (Track track : this.tracksSet)
+			lastModification = Math.max(lastModification, track.getLastModification());
+		return lastModification;
+	}
+
+	private void modified() {
+		this.lastModification = ModificationStamps.next();
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
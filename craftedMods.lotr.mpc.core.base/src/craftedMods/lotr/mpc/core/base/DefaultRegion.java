@@ -1,6 +1,7 @@
 package craftedMods.lotr.mpc.core.base;
 
 import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.Objects;
 
 import craftedMods.lotr.mpc.core.api.Region;
@@ -10,9 +11,12 @@ import craftedMods.utils.data.NonNullSet;
 public class DefaultRegion implements Region {
 
 	private String name;
-	private NonNullSet<String> subregions = CollectionUtils.createNonNullLinkedHashSet();
-	private NonNullSet<String> categories = CollectionUtils.createNonNullLinkedHashSet();
+	private NonNullSet<String> subregions = CollectionUtils.createNonNullSetWithInternal(new LinkedHashSet<>(),
+			this::modified);
+	private NonNullSet<String> categories = CollectionUtils.createNonNullSetWithInternal(new LinkedHashSet<>(),
+			this::modified);
 	private Float weight;
+	private volatile long lastModification;
 
 	public DefaultRegion(String name) {
 		this.setName(name);
@@ -35,6 +39,7 @@ public class DefaultRegion implements Region {
 		Objects.requireNonNull(name);
 
 		this.name = name;
+		this.modified();
 	}
 
 	@Override
@@ -55,6 +60,16 @@ public class DefaultRegion implements Region {
 	@Override
 	public void setWeight(Float weight) {
 		this.weight = weight;
+		this.modified();
+	}
+
+	@Override
+	public long getLastModification() {
+		return this.lastModification;
+	}
+
+	private void modified() {
+		this.lastModification = ModificationStamps.next();
 	}
 
 	@Override
@@ -1,6 +1,7 @@
 package craftedMods.lotr.mpc.core.base;
 
 import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
@@ -13,8 +14,11 @@ public class DefaultTrack implements Track {
 
 	private String name;
 	private String title;
-	private NonNullSet<Region> regions = CollectionUtils.createNonNullLinkedHashSet();
-	private NonNullSet<String> authors = CollectionUtils.createNonNullLinkedHashSet();
+	private NonNullSet<Region> regions = CollectionUtils.createNonNullSetWithInternal(new LinkedHashSet<>(),
+			this::modified);
+	private NonNullSet<String> authors = CollectionUtils.createNonNullSetWithInternal(new LinkedHashSet<>(),
+			this::modified);
+	private volatile long lastModification;
 
 	public DefaultTrack(String name) {
 		this.setName(name);
@@ -37,6 +41,7 @@ public class DefaultTrack implements Track {
 		Objects.requireNonNull(name);
 
 		this.name = name;
+		this.modified();
 	}
 
 	@Override
@@ -52,6 +57,7 @@ public class DefaultTrack implements Track {
 	@Override
 	public void setTitle(String title) {
 		this.title = title;
+		this.modified();
 	}
 
 	@Override
@@ -64,6 +70,18 @@ public class DefaultTrack implements Track {
 		return this.authors;
 	}
 
+	@Override
+	public long getLastModification() {
+		long lastModification = this.lastModification;
+		for (Region region : this.regions)
+			lastModification = Math.max(lastModification, region.getLastModification());
+		return lastModification;
+	}
+
+	private void modified() {
+		this.lastModification = ModificationStamps.next();
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
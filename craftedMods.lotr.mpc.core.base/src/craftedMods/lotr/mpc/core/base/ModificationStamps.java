@@ -0,0 +1,21 @@
+package craftedMods.lotr.mpc.core.base;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Hands out the modification stamps of the Music Pack elements. The stamps are
+ * shared by all elements, so a removed element can't hide a modification of its
+ * parent.
+ */
+class ModificationStamps {
+
+	private static final AtomicLong LAST_STAMP = new AtomicLong();
+
+	private ModificationStamps() {
+	}
+
+	public static long next() {
+		return LAST_STAMP.incrementAndGet();
+	}
+
+}
@@ -35,4 +35,25 @@ public class DefaultMusicPackTest {
 		}
 	}
 
+	@Test
+	public void testLastModification() {
+		DefaultRegion region = new DefaultRegion("region1");
+		DefaultTrack track = new DefaultTrack("name", null, Arrays.asList(region), Arrays.asList());
+		DefaultTrack track2 = new DefaultTrack("name2");
+		DefaultMusicPack pack = new DefaultMusicPack(Arrays.asList(track, track2));
+		long lastModification = pack.getLastModification();
+
+		region.setWeight(0.5f);
+		Assert.assertTrue(pack.getLastModification() > lastModification);
+		lastModification = pack.getLastModification();
+
+		// A removed Track doesn't take its modifications with it
+		pack.getTracks().remove(track2);
+		Assert.assertTrue(pack.getLastModification() > lastModification);
+		lastModification = pack.getLastModification();
+
+		track2.setName("name3");
+		Assert.assertEquals(lastModification, pack.getLastModification());
+	}
+
 }
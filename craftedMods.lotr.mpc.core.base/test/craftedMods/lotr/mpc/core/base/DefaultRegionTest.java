@@ -28,4 +28,27 @@ public class DefaultRegionTest {
 		Assert.assertFalse(categories == region2.getCategories());
 	}
 
+	@Test
+	public void testLastModification() {
+		DefaultRegion region = new DefaultRegion("region1");
+		long lastModification = region.getLastModification();
+
+		region.getSubregions().add("sub1");
+		Assert.assertTrue(region.getLastModification() > lastModification);
+		lastModification = region.getLastModification();
+
+		region.getCategories().add("cat1");
+		Assert.assertTrue(region.getLastModification() > lastModification);
+		lastModification = region.getLastModification();
+
+		region.setWeight(0.5f);
+		Assert.assertTrue(region.getLastModification() > lastModification);
+		lastModification = region.getLastModification();
+
+		// Unchanged sets don't modify the Region
+		region.getSubregions().add("sub1");
+		region.getCategories().remove("cat2");
+		Assert.assertEquals(lastModification, region.getLastModification());
+	}
+
 }
@@ -41,4 +41,27 @@ public class DefaultTrackTest {
 		}
 	}
 
+	@Test
+	public void testLastModification() {
+		DefaultRegion region = new DefaultRegion("region1");
+		DefaultRegion region2 = new DefaultRegion("region2");
+		DefaultTrack track = new DefaultTrack("track", null, Arrays.asList(region, region2), Arrays.asList("author"));
+		long lastModification = track.getLastModification();
+
+		track.setTitle("title");
+		Assert.assertTrue(track.getLastModification() > lastModification);
+		lastModification = track.getLastModification();
+
+		track.getAuthors().clear();
+		Assert.assertTrue(track.getLastModification() > lastModification);
+		lastModification = track.getLastModification();
+
+		region.getSubregions().add("sub1");
+		Assert.assertTrue(track.getLastModification() > lastModification);
+		lastModification = track.getLastModification();
+
+		track.getRegions().remove(region2);
+		Assert.assertTrue(track.getLastModification() > lastModification);
+	}
+
 }
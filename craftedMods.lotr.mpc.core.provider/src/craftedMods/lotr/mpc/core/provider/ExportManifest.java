@@ -0,0 +1,151 @@
+package craftedMods.lotr.mpc.core.provider;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import craftedMods.utils.data.ExtendedProperties;
+import craftedMods.utils.io.ZipEntryData;
+
+/*
+ * Describes the track entries of an exported Music Pack together with the
+ * state of their sources, so an incremental exportation can decide which
+ * entries can be copied from the previous archive. The entries are added
+ * concurrently by the exporter workers.
+ */
+public class ExportManifest {
+
+	public static final String FILE_SUFFIX = ".mpcmanifest";
+
+	private static final String VERSION_KEY = "manifestVersion";
+	private static final String SETTINGS_KEY = "settings";
+	private static final String ENTRY_KEY_PREFIX = "entry.";
+	private static final int VERSION = 1;
+
+	private final String settings;
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+	/*
+	 * The settings describe how the entries were encoded, entries of manifests
+	 * with different settings cannot be reused
+	 */
+	public ExportManifest(String settings) {
+		this.settings = Objects.requireNonNull(settings);
+	}
+
+	public String getSettings() {
+		return this.settings;
+	}
+
+	public Entry getEntry(String name) {
+		return this.entries.get(Objects.requireNonNull(name));
+	}
+
+	public void putEntry(String name, Entry entry) {
+		this.entries.put(Objects.requireNonNull(name), Objects.requireNonNull(entry));
+	}
+
+	public int getEntryCount() {
+		return this.entries.size();
+	}
+
+	public void store(OutputStream out) throws IOException {
+		ExtendedProperties props = new ExtendedProperties();
+		props.setInteger(VERSION_KEY, VERSION);
+		props.setString(SETTINGS_KEY, this.settings);
+		for (Map.Entry<String, Entry> entry : this.entries.entrySet()) {
+			props.setString(ENTRY_KEY_PREFIX + entry.getKey(), entry.getValue().toString());
+		}
+		props.store(out, "The export manifest of the Music Pack Creator, it enables incremental exportations");
+	}
+
+	/*
+	 * Returns null if the manifest has an unsupported version
+	 */
+	public static ExportManifest load(InputStream in) throws IOException {
+		ExtendedProperties props = new ExtendedProperties();
+		props.load(in);
+		if (props.getInteger(VERSION_KEY, -1) != VERSION)
+			return null;
+		ExportManifest manifest = new ExportManifest(props.getString(SETTINGS_KEY, ""));
+		for (String key : props.stringPropertyNames()) {
+			if (key.startsWith(ENTRY_KEY_PREFIX)) {
+				manifest.putEntry(key.substring(ENTRY_KEY_PREFIX.length()), Entry.parse(props.getProperty(key)));
+			}
+		}
+		return manifest;
+	}
+
+	public static class Entry {
+
+		private final int method;
+		private final long crc;
+		private final long size;
+		private final long compressedSize;
+		private final String hash;
+		private final long sourceSize;
+		private final long sourceModified;
+
+		public Entry(ZipEntryData entry, String hash, long sourceSize, long sourceModified) {
+			this(entry.getMethod(), entry.getCrc(), entry.getSize(), entry.getCompressedSize(), hash, sourceSize,
+					sourceModified);
+		}
+
+		private Entry(int method, long crc, long size, long compressedSize, String hash, long sourceSize,
+				long sourceModified) {
+			this.method = method;
+			this.crc = crc;
+			this.size = size;
+			this.compressedSize = compressedSize;
+			this.hash = Objects.requireNonNull(hash);
+			this.sourceSize = sourceSize;
+			this.sourceModified = sourceModified;
+		}
+
+		public long getSize() {
+			return this.size;
+		}
+
+		public String getHash() {
+			return this.hash;
+		}
+
+		public boolean isSourceUnchanged(long sourceSize, long sourceModified) {
+			return this.sourceSize == sourceSize && this.sourceModified == sourceModified;
+		}
+
+		/*
+		 * Checks whether the entry of the previous archive is still the one
+		 * described by the manifest
+		 */
+		public boolean describes(ZipEntryData entry) {
+			return entry != null && entry.getMethod() == this.method && entry.getCrc() == this.crc
+					&& entry.getSize() == this.size && entry.getCompressedSize() == this.compressedSize;
+		}
+
+		public Entry withSource(long sourceSize, long sourceModified) {
+			return new Entry(this.method, this.crc, this.size, this.compressedSize, this.hash, sourceSize,
+					sourceModified);
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%d;%d;%d;%d;%s;%d;%d", this.method, this.crc, this.size, this.compressedSize,
+					this.hash, this.sourceSize, this.sourceModified);
+		}
+
+		private static Entry parse(String value) throws IOException {
+			String[] parts = value.split(";");
+			if (parts.length != 7)
+				throw new IOException("Invalid manifest entry: " + value);
+			try {
+				return new Entry(Integer.parseInt(parts[0]), Long.parseLong(parts[1]), Long.parseLong(parts[2]),
+						Long.parseLong(parts[3]), parts[4], Long.parseLong(parts[5]), Long.parseLong(parts[6]));
+			} catch (NumberFormatException e) {
+				throw new IOException("Invalid manifest entry: " + value, e);
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,80 @@
+package craftedMods.lotr.mpc.core.provider;
+
+import java.util.*;
+
+import craftedMods.lotr.mpc.core.api.*;
+
+/*
+ * The entries are encoded concurrently, so the statistics have to be
+ * thread-safe
+ */
+public class ExportStatisticsImpl implements ExportStatistics {
+
+	private final Map<ExportCompressionMode, Values> values = new EnumMap<>(ExportCompressionMode.class);
+
+	public ExportStatisticsImpl() {
+		for (ExportCompressionMode mode : ExportCompressionMode.values())
+			this.values.put(mode, new Values());
+	}
+
+	public synchronized void record(ExportCompressionMode mode, long uncompressedSize, long compressedSize,
+			long encodingTime, long savedTime) {
+		Values modeValues = this.values.get(Objects.requireNonNull(mode));
+		modeValues.entryCount++;
+		modeValues.uncompressedSize += uncompressedSize;
+		modeValues.compressedSize += compressedSize;
+		modeValues.encodingTime += encodingTime;
+		modeValues.savedTime += savedTime;
+	}
+
+	@Override
+	public synchronized int getEntryCount(ExportCompressionMode mode) {
+		return this.values.get(Objects.requireNonNull(mode)).entryCount;
+	}
+
+	@Override
+	public synchronized long getUncompressedSize(ExportCompressionMode mode) {
+		return this.values.get(Objects.requireNonNull(mode)).uncompressedSize;
+	}
+
+	@Override
+	public synchronized long getCompressedSize(ExportCompressionMode mode) {
+		return this.values.get(Objects.requireNonNull(mode)).compressedSize;
+	}
+
+	@Override
+	public synchronized long getEncodingTime(ExportCompressionMode mode) {
+		return this.values.get(Objects.requireNonNull(mode)).encodingTime;
+	}
+
+	@Override
+	public synchronized long getSavedTime(ExportCompressionMode mode) {
+		return this.values.get(Objects.requireNonNull(mode)).savedTime;
+	}
+
+	@Override
+	public synchronized String toString() {
+		StringBuilder builder = new StringBuilder();
+		for (ExportCompressionMode mode : ExportCompressionMode.values()) {
+			Values modeValues = this.values.get(mode);
+			if (modeValues.entryCount > 0) {
+				if (builder.length() > 0)
+					builder.append(", ");
+				builder.append(String.format("%s: %d entries, %d of %d bytes saved, %d ms spent, ~%d ms saved", mode,
+						modeValues.entryCount, modeValues.uncompressedSize - modeValues.compressedSize,
+						modeValues.uncompressedSize, modeValues.encodingTime / 1000000,
+						modeValues.savedTime / 1000000));
+			}
+		}
+		return builder.toString();
+	}
+
+	private static class Values {
+		private int entryCount;
+		private long uncompressedSize;
+		private long compressedSize;
+		private long encodingTime;
+		private long savedTime;
+	}
+
+}
@@ -1,18 +1,20 @@
 package craftedMods.lotr.mpc.core.provider;
 
 import java.io.ByteArrayInputStream;
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.util.ArrayList;
 import java.util.List;
 
 import org.osgi.service.component.annotations.Component;
 
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
+import com.google.gson.JsonSyntaxException;
 import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
 
 import craftedMods.lotr.mpc.core.api.MusicPackProjectExporter;
 import craftedMods.lotr.mpc.core.api.Region;
@@ -20,58 +22,147 @@ import craftedMods.lotr.mpc.core.api.Track;
 import craftedMods.lotr.mpc.core.base.DefaultRegion;
 import craftedMods.lotr.mpc.core.base.DefaultTrack;
 
+/*
+ * Parses the tracks directly from the JSON tokens, so no intermediate tree of
+ * the whole file has to be kept in memory. Unknown keys are skipped.
+ */
 @Component(service = MusicPackJSONFileReader.class)
 public class MusicPackJSONFileReader {
 
 	public List<Track> readJSONFile(byte[] content) throws IOException {
-		ArrayList<Track> tracks = new ArrayList<>();
-		try (ByteArrayInputStream in = new ByteArrayInputStream(content);
-				JsonReader reader = new JsonReader(new InputStreamReader(in))) {
-			JsonParser parser = new JsonParser();
-			JsonElement root = parser.parse(reader);
-			root.getAsJsonObject().getAsJsonArray(MusicPackProjectExporter.JSON_TRACKS).forEach(track -> {
-				JsonObject trackObj = track.getAsJsonObject();
-				String trackName = trackObj.get(MusicPackProjectExporter.JSON_TRACK_NAME).getAsString();
-				String title = null;
-				if (trackObj.get(MusicPackProjectExporter.JSON_TRACK_TITLE) != null) {
-					title = trackObj.get(MusicPackProjectExporter.JSON_TRACK_TITLE).getAsString();
+		return this.readJSONFile(new ByteArrayInputStream(content));
+	}
+
+	/*
+	 * The stream won't be closed, it's only read up to the end of the root object
+	 */
+	public List<Track> readJSONFile(InputStream in) throws IOException {
+		return this.readJSONFile(new InputStreamReader(in));
+	}
+
+	/*
+	 * The reader won't be closed, it's only read up to the end of the root object
+	 */
+	public List<Track> readJSONFile(Reader in) throws IOException {
+		JsonReader reader = new JsonReader(in);
+		reader.setLenient(true); // The JsonParser used to parse the files leniently too
+		try {
+			return this.readTracks(reader);
+		} catch (MalformedJsonException | EOFException | IllegalStateException | NumberFormatException e) {
+			throw new JsonSyntaxException(e);
+		}
+	}
+
+	private List<Track> readTracks(JsonReader reader) throws IOException {
+		List<Track> tracks = null;
+		reader.beginObject();
+		while (reader.hasNext()) {
+			if (reader.nextName().equals(MusicPackProjectExporter.JSON_TRACKS)) {
+				tracks = new ArrayList<>();
+				reader.beginArray();
+				while (reader.hasNext()) {
+					tracks.add(this.readTrack(reader));
 				}
-				ArrayList<Region> regions = new ArrayList<>();
-				trackObj.getAsJsonArray(MusicPackProjectExporter.JSON_TRACK_REGIONS).forEach(element -> {
-					JsonObject region = element.getAsJsonObject();
-					String name = region.get(MusicPackProjectExporter.JSON_REGION_NAME).getAsString();
-					ArrayList<String> subRegions = new ArrayList<>();
-					JsonArray sub = region.getAsJsonArray(MusicPackProjectExporter.JSON_REGION_SUB);
-					if (sub != null) {
-						sub.forEach(element2 -> {
-							subRegions.add(element2.getAsString());
-						});
-					}
-					ArrayList<String> categories = new ArrayList<>();
-					JsonArray cat = region.getAsJsonArray(MusicPackProjectExporter.JSON_REGION_CATEGORIES);
-					if (cat != null) {
-						cat.forEach(element2 -> {
-							categories.add(element2.getAsString());
-						});
-					}
-					Float weight = null;
-					if (region.get(MusicPackProjectExporter.JSON_REGION_WEIGHT) != null) {
-						weight = Float.valueOf(region.get(MusicPackProjectExporter.JSON_REGION_WEIGHT).getAsString());
-					}
-					regions.add(new DefaultRegion(name, subRegions, categories, weight));
-				});
-				ArrayList<String> authors = new ArrayList<>();
-				JsonArray aut = trackObj.getAsJsonArray(MusicPackProjectExporter.JSON_TRACK_AUTHORS);
-				if (aut != null) {
-					aut.forEach(author -> {
-						authors.add(author.getAsString());
-					});
+				reader.endArray();
+			} else {
+				reader.skipValue();
+			}
+		}
+		reader.endObject();
+		return requireValue(tracks, MusicPackProjectExporter.JSON_TRACKS);
+	}
+
+	private Track readTrack(JsonReader reader) throws IOException {
+		String trackName = null;
+		String title = null;
+		List<Region> regions = null;
+		List<String> authors = new ArrayList<>();
+		reader.beginObject();
+		while (reader.hasNext()) {
+			switch (reader.nextName()) {
+			case MusicPackProjectExporter.JSON_TRACK_NAME:
+				trackName = nextStringOrNull(reader);
+				break;
+			case MusicPackProjectExporter.JSON_TRACK_TITLE:
+				title = nextStringOrNull(reader);
+				break;
+			case MusicPackProjectExporter.JSON_TRACK_REGIONS:
+				regions = new ArrayList<>();
+				reader.beginArray();
+				while (reader.hasNext()) {
+					regions.add(this.readRegion(reader));
 				}
-				tracks.add(new DefaultTrack(trackName, title, regions, authors));
-			});
+				reader.endArray();
+				break;
+			case MusicPackProjectExporter.JSON_TRACK_AUTHORS:
+				authors = readStrings(reader);
+				break;
+			default:
+				reader.skipValue();
+			}
+		}
+		reader.endObject();
+		return new DefaultTrack(requireValue(trackName, MusicPackProjectExporter.JSON_TRACK_NAME), title,
+				requireValue(regions, MusicPackProjectExporter.JSON_TRACK_REGIONS), authors);
+	}
+
+	private Region readRegion(JsonReader reader) throws IOException {
+		String name = null;
+		List<String> subRegions = new ArrayList<>();
+		List<String> categories = new ArrayList<>();
+		Float weight = null;
+		reader.beginObject();
+		while (reader.hasNext()) {
+			switch (reader.nextName()) {
+			case MusicPackProjectExporter.JSON_REGION_NAME:
+				name = nextStringOrNull(reader);
+				break;
+			case MusicPackProjectExporter.JSON_REGION_SUB:
+				subRegions = readStrings(reader);
+				break;
+			case MusicPackProjectExporter.JSON_REGION_CATEGORIES:
+				categories = readStrings(reader);
+				break;
+			case MusicPackProjectExporter.JSON_REGION_WEIGHT:
+				// Numbers are returned as they were written, so the parsed value stays the same
+				String weightString = nextStringOrNull(reader);
+				weight = weightString != null ? Float.valueOf(weightString) : null;
+				break;
+			default:
+				reader.skipValue();
+			}
+		}
+		reader.endObject();
+		return new DefaultRegion(requireValue(name, MusicPackProjectExporter.JSON_REGION_NAME), subRegions, categories,
+				weight);
+	}
 
+	private static List<String> readStrings(JsonReader reader) throws IOException {
+		List<String> strings = new ArrayList<>();
+		if (reader.peek() == JsonToken.NULL) {
+			reader.nextNull();
+		} else {
+			reader.beginArray();
+			while (reader.hasNext()) {
+				strings.add(reader.nextString());
+			}
+			reader.endArray();
 		}
-		return tracks;
+		return strings;
+	}
+
+	private static String nextStringOrNull(JsonReader reader) throws IOException {
+		if (reader.peek() == JsonToken.NULL) {
+			reader.nextNull();
+			return null;
+		}
+		return reader.nextString();
+	}
+
+	private static <T> T requireValue(T value, String key) {
+		if (value == null)
+			throw new JsonSyntaxException(String.format("The required value \"%s\" is missing", key));
+		return value;
 	}
 
 }
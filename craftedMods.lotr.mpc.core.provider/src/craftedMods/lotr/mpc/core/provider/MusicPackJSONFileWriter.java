@@ -2,11 +2,14 @@ package craftedMods.lotr.mpc.core.provider;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.util.Collection;
 
 import org.osgi.service.component.annotations.Component;
 
+import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.stream.JsonWriter;
 
@@ -17,70 +20,88 @@ import craftedMods.lotr.mpc.core.api.Track;
 @Component(service = MusicPackJSONFileWriter.class)
 public class MusicPackJSONFileWriter {
 
+	/*
+	 * Gson instances are immutable and thread-safe, so they can be shared by all
+	 * exportations
+	 */
+	private static final Gson PRETTY_GSON = new GsonBuilder().setPrettyPrinting().create();
+	private static final Gson COMPACT_GSON = new GsonBuilder().create();
+
 	public byte[] writeJSONFile(Collection<Track> tracks) throws IOException {
-		byte[] ret = null;
-		try (ByteArrayOutputStream out = new ByteArrayOutputStream();
-				JsonWriter writer = new GsonBuilder().setPrettyPrinting().create()
-						.newJsonWriter(new OutputStreamWriter(out))) {
-			writer.beginObject();
-			writer.name(MusicPackProjectExporter.JSON_TRACKS);
-			writer.beginArray();
-			for (Track track : tracks) {
-				writer.beginObject();
-				writer.name(MusicPackProjectExporter.JSON_TRACK_NAME).value(track.getName());
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		this.writeJSONFile(tracks, out, false);
+		return out.toByteArray();
+	}
 
-				if (track.hasTitle()) {
-					writer.name(MusicPackProjectExporter.JSON_TRACK_TITLE).value(track.getTitle());
-				}
+	/*
+	 * The stream will be flushed, but not closed. The compact mode omits all
+	 * whitespace.
+	 */
+	public void writeJSONFile(Collection<Track> tracks, OutputStream out, boolean compact) throws IOException {
+		this.writeJSONFile(tracks, new OutputStreamWriter(out), compact);
+	}
 
-				writer.name(MusicPackProjectExporter.JSON_TRACK_REGIONS);
-				writer.beginArray();
-				for (Region region : track.getRegions()) {
-					writer.beginObject();
-					writer.name(MusicPackProjectExporter.JSON_REGION_NAME).value(region.getName());
-
-					if (!region.getSubregions().isEmpty()) {
-						writer.name(MusicPackProjectExporter.JSON_REGION_SUB);
-						writer.beginArray();
-						for (String sub : region.getSubregions()) {
-							writer.value(sub);
-						}
-						writer.endArray();
-					}
+	/*
+	 * The writer will be flushed, but not closed. The compact mode omits all
+	 * whitespace.
+	 */
+	public void writeJSONFile(Collection<Track> tracks, Writer out, boolean compact) throws IOException {
+		JsonWriter writer = (compact ? COMPACT_GSON : PRETTY_GSON).newJsonWriter(out);
+		writer.beginObject();
+		writer.name(MusicPackProjectExporter.JSON_TRACKS);
+		writer.beginArray();
+		for (Track track : tracks) {
+			writer.beginObject();
+			writer.name(MusicPackProjectExporter.JSON_TRACK_NAME).value(track.getName());
 
-					if (!region.getCategories().isEmpty()) {
-						writer.name(MusicPackProjectExporter.JSON_REGION_CATEGORIES);
-						writer.beginArray();
-						for (String category : region.getCategories()) {
-							writer.value(category);
-						}
-						writer.endArray();
-					}
+			if (track.hasTitle()) {
+				writer.name(MusicPackProjectExporter.JSON_TRACK_TITLE).value(track.getTitle());
+			}
+
+			writer.name(MusicPackProjectExporter.JSON_TRACK_REGIONS);
+			writer.beginArray();
+			for (Region region : track.getRegions()) {
+				writer.beginObject();
+				writer.name(MusicPackProjectExporter.JSON_REGION_NAME).value(region.getName());
 
-					if (region.getWeight() != null) {
-						writer.name(MusicPackProjectExporter.JSON_REGION_WEIGHT).value(region.getWeight());
+				if (!region.getSubregions().isEmpty()) {
+					writer.name(MusicPackProjectExporter.JSON_REGION_SUB);
+					writer.beginArray();
+					for (String sub : region.getSubregions()) {
+						writer.value(sub);
 					}
-					writer.endObject();
+					writer.endArray();
 				}
-				writer.endArray();
 
-				if (!track.getAuthors().isEmpty()) {
-					writer.name(MusicPackProjectExporter.JSON_TRACK_AUTHORS);
+				if (!region.getCategories().isEmpty()) {
+					writer.name(MusicPackProjectExporter.JSON_REGION_CATEGORIES);
 					writer.beginArray();
-					for (String author : track.getAuthors()) {
-						writer.value(author);
+					for (String category : region.getCategories()) {
+						writer.value(category);
 					}
 					writer.endArray();
 				}
+
+				if (region.getWeight() != null) {
+					writer.name(MusicPackProjectExporter.JSON_REGION_WEIGHT).value(region.getWeight());
+				}
 				writer.endObject();
 			}
 			writer.endArray();
-			writer.endObject();
-			writer.flush();
 
-			ret = out.toByteArray();
+			if (!track.getAuthors().isEmpty()) {
+				writer.name(MusicPackProjectExporter.JSON_TRACK_AUTHORS);
+				writer.beginArray();
+				for (String author : track.getAuthors()) {
+					writer.value(author);
+				}
+				writer.endArray();
+			}
+			writer.endObject();
 		}
-		return ret;
+		writer.endArray();
+		writer.endObject();
+		writer.flush();
 	}
 
 }
@@ -1,10 +1,13 @@
 package craftedMods.lotr.mpc.core.provider;
 
 import java.io.*;
-import java.net.URI;
-import java.nio.file.*;
-import java.nio.file.FileSystem;
+import java.math.BigInteger;
+import java.nio.file.Path;
+import java.security.*;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.*;
 
 import org.osgi.service.component.annotations.*;
 import org.osgi.service.log.*;
@@ -16,11 +19,61 @@ import craftedMods.lotr.mpc.core.api.*;
 import craftedMods.lotr.mpc.persistence.api.*;
 import craftedMods.utils.Utils;
 import craftedMods.utils.data.*;
+import craftedMods.utils.io.*;
 import craftedMods.versionChecker.api.SemanticVersion;
 
 @Component
 public class MusicPackProjectExporterImpl implements MusicPackProjectExporter {
 
+	public @interface Configuration {
+		/*
+		 * The amount of threads compressing the tracks concurrently, zero or less
+		 * means one thread per available processor
+		 */
+		int compressionThreads() default 0;
+
+		/*
+		 * Ogg Vorbis is already compressed, deflating these tracks only costs time
+		 */
+		ExportCompressionMode oggTrackCompression() default ExportCompressionMode.STORED;
+
+		ExportCompressionMode otherTrackCompression() default ExportCompressionMode.DEFLATED;
+
+		/*
+		 * The compression of music.json and pack.properties
+		 */
+		ExportCompressionMode metadataCompression() default ExportCompressionMode.DEFLATED;
+
+		int compressionLevel() default Deflater.DEFAULT_COMPRESSION;
+
+		/*
+		 * Writes music.json without any whitespace, which makes the file of large
+		 * packs notably smaller
+		 */
+		boolean compactMusicJson() default false;
+
+		/*
+		 * If enabled, a manifest is stored next to the exported file and
+		 * re-exportations to the same location copy unchanged tracks from the
+		 * previous file instead of encoding them again
+		 */
+		boolean incrementalExport() default false;
+	}
+
+	/*
+	 * In AUTO mode entries are only deflated if the sample shrinks at least by
+	 * this fraction
+	 */
+	private static final double AUTO_COMPRESSION_MIN_SAVING = 0.05;
+
+	/*
+	 * The writer waits for the oldest track once the tracks which weren't written
+	 * yet are larger than this, unless not even every worker has a track
+	 */
+	private static final long MAX_PENDING_BYTES = 64l * 1024 * 1024;
+
+	private static final String TEMP_FILE_SUFFIX = ".tmp";
+
 	@Reference(service = LoggerFactory.class)
 	private FormatterLogger logger;
 
@@ -42,6 +95,30 @@ public class MusicPackProjectExporterImpl implements MusicPackProjectExporter {
 	@Reference
 	private MusicPackProjectManager musicPackProjectManager;
 
+	private int compressionThreads = 0;
+	private ExportCompressionMode oggTrackCompression = ExportCompressionMode.STORED;
+	private ExportCompressionMode otherTrackCompression = ExportCompressionMode.DEFLATED;
+	private ExportCompressionMode metadataCompression = ExportCompressionMode.DEFLATED;
+	private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+	private boolean compactMusicJson = false;
+	private boolean incrementalExport = false;
+
+	@Activate
+	public void onActivate(Configuration configuration) {
+		this.onModify(configuration);
+	}
+
+	@Modified
+	public void onModify(Configuration configuration) {
+		this.compressionThreads = configuration.compressionThreads();
+		this.oggTrackCompression = configuration.oggTrackCompression();
+		this.otherTrackCompression = configuration.otherTrackCompression();
+		this.metadataCompression = configuration.metadataCompression();
+		this.compressionLevel = configuration.compressionLevel();
+		this.compactMusicJson = configuration.compactMusicJson();
+		this.incrementalExport = configuration.incrementalExport();
+	}
+
 	@Override
 	public void exportMusicPackProject(Path exportLocation, MusicPackProject project) {
 		Objects.requireNonNull(exportLocation);
@@ -49,71 +126,53 @@ public class MusicPackProjectExporterImpl implements MusicPackProjectExporter {
 		if (!musicPackProjectManager.getRegisteredMusicPackProjects().contains(project))
 			throw new IllegalArgumentException(
 					String.format("The Music Pack Project \"%s\" isn't registered", project.getName()));
-		MusicPack pack = project.getMusicPack();
 		boolean delete = false;
 		boolean cancel = false;
+		ExportStatisticsImpl statistics = new ExportStatisticsImpl();
+		ExportManifest manifest = this.incrementalExport ? new ExportManifest(this.getManifestSettings()) : null;
+		PreviousExport previousExport = null;
+		Path output = exportLocation; // The file which has to be deleted if the exportation fails
 		try {
 			if (fileManager.exists(exportLocation)) {
 				if (!EventUtils.proceed(this.dispatchEvent(EXPORT_LOCATION_EXISTS_EVENT, exportLocation, project),
 						MusicPackProjectExporter.EXPORT_LOCATION_EXISTS_EVENT_RESULT_OVERRIDE, false)) {
 					cancel = true;
 				} else {
-					fileManager.deleteFile(exportLocation); // Delete the file to prevent conflicts
+					if (manifest != null)
+						previousExport = this.openPreviousExport(exportLocation, manifest.getSettings());
+					if (previousExport == null)
+						fileManager.deleteFile(exportLocation); // Delete the file to prevent conflicts
 				}
 			}
 			
 			if (!cancel) {
-				Map<String, Object> env = new HashMap<>();
-				env.put("create", "true"); // The .zip file will be created by the file system
-				env.put("useTempFile", Boolean.TRUE); // Fixes the memory leaks
-
-				try (FileSystem zip = FileSystems.newFileSystem(URI.create("jar:" + exportLocation.toUri()), env)) {
-					dispatchEvent(CREATING_FILE_EVENT, exportLocation, project,
-							MusicPackProjectExporter.CREATING_FILE_EVENT_FILENAME, MusicPackProjectExporter.BASE_FILE);
-					Path musicJson = zip.getPath(".", MusicPackProjectExporter.BASE_FILE);
-					fileManager.write(musicJson, writer.writeJSONFile(pack.getTracks()));
-
-					dispatchEvent(CREATING_FILE_EVENT, exportLocation, project,
-							MusicPackProjectExporter.CREATING_FILE_EVENT_FILENAME, MusicPackProjectExporter.PACK_FILE);
-					Path packProperties = zip.getPath(".", MusicPackProjectExporter.PACK_FILE);
-
-					ExtendedProperties props = new ExtendedProperties();
-					props.setString(MusicPackProjectExporter.PACK_PROJECT_NAME_KEY, project.getName());
-					props.setInteger(MusicPackProjectExporter.PACK_TRACKS_KEY, pack.getTracks().size());
-					props.putAll(project.getProperties());
-					try (ByteArrayOutputStream out2 = new ByteArrayOutputStream()) {
-						props.store(out2, "This Music Pack was generated by the Music Pack Creator ("
-								+ version.toString()
-								+ ") made by Crafted_Mods (see http://lotrminecraftmod.wikia.com/wiki/Thread:308819 and https://github.com/CraftedMods/music-pack-creator)");
-						fileManager.write(packProperties, out2.toByteArray());
-					}
-					Path tracksDir = zip.getPath(".", MusicPackProjectExporter.TRACKS_DIR);
-					fileManager.createDir(tracksDir);
-					TrackStore trackStore = trackStoreManager.getTrackStore(project);
-					for (Track track : pack.getTracks()) {
-						Path trackZipLocation = tracksDir.resolve(track.getName());
-
-						try (InputStream trackIn = trackStore.openInputStream(track.getName());
-								OutputStream trackOut = fileManager.newOutputStream(trackZipLocation)) {
-
-							if (!EventUtils.proceed(
-									this.dispatchEvent(COPYING_TRACK_EVENT, exportLocation, project,
-											MusicPackProjectExporter.COPYING_TRACK_EVENT_TRACK_NAME, track.getName()),
-									MusicPackProjectExporter.COPYING_TRACK_EVENT_RESULT_PROCEED)) {
-								delete = true;
-								break;
-							}
-
-							Utils.writeFromInputStreamToOutputStream(trackIn, trackOut);
-						}
-					}
+				if (previousExport != null) {
+					// The previous file is read while the new one is written
+					output = exportLocation.resolveSibling(exportLocation.getFileName() + TEMP_FILE_SUFFIX);
+				}
+				try (PreviousExport previous = previousExport;
+						OutputStream out = fileManager.newOutputStream(output)) {
+					delete = !this.writeMusicPack(out, exportLocation, project, statistics, previous, manifest);
+				}
+				if (!delete && output != exportLocation) {
+					fileManager.rename(output, exportLocation.getFileName().toString());
+					output = exportLocation;
 				}
 			}
 			if (!cancel && !delete && EventUtils.proceed(this.dispatchEvent(PRE_SUCCESS_EVENT, exportLocation, project),
 					MusicPackProjectExporter.PRE_SUCCESS_EVENT_RESULT_PROCEED)) {
-				dispatchEvent(SUCCESS_EVENT, exportLocation, project);
+				if (manifest != null)
+					this.storeManifest(exportLocation, manifest);
+				if (previousExport != null)
+					this.logger.debug("Copied %d of %d tracks of the Music Pack Project \"%s\" from the previous exportation",
+							previousExport.getReusedEntries(), project.getMusicPack().getTracks().size(),
+							project.getName());
+				dispatchEvent(SUCCESS_EVENT, exportLocation, project, MusicPackProjectExporter.SUCCESS_EVENT_STATISTICS,
+						statistics);
 				this.logger.info("Successfully exported the Music Pack Project \"%s\" to \"%s\"", project.getName(),
 						exportLocation);
+				this.logger.debug("Compression statistics of the exported Music Pack Project \"%s\": %s",
+						project.getName(), statistics);
 			} else {
 				/*
 				 * Cancel is true if overriding an existing file wasn't permitted, otherwise
@@ -132,7 +191,7 @@ public class MusicPackProjectExporterImpl implements MusicPackProjectExporter {
 		} finally {
 			if (delete) {
 				try {
-					fileManager.deleteFile(exportLocation);
+					fileManager.deleteFile(output);
 				} catch (IOException e) {
 					logger.error("Couldn't delete the exported but corrupted Music Pack from \"%s\"", exportLocation,
 							e);
@@ -141,18 +200,489 @@ public class MusicPackProjectExporterImpl implements MusicPackProjectExporter {
 		}
 	}
 
+	@Override
+	public void exportMusicPackProject(OutputStream out, MusicPackProject project) {
+		Objects.requireNonNull(out);
+		Objects.requireNonNull(project);
+		if (!musicPackProjectManager.getRegisteredMusicPackProjects().contains(project))
+			throw new IllegalArgumentException(
+					String.format("The Music Pack Project \"%s\" isn't registered", project.getName()));
+		try {
+			boolean proceed;
+			ExportStatisticsImpl statistics = new ExportStatisticsImpl();
+			try (OutputStream nonClosingOut = new NonClosingOutputStream(out)) {
+				proceed = this.writeMusicPack(nonClosingOut, null, project, statistics, null, null);
+			}
+			if (proceed && EventUtils.proceed(this.dispatchEvent(PRE_SUCCESS_EVENT, null, project),
+					MusicPackProjectExporter.PRE_SUCCESS_EVENT_RESULT_PROCEED)) {
+				dispatchEvent(SUCCESS_EVENT, null, project, MusicPackProjectExporter.SUCCESS_EVENT_STATISTICS, statistics);
+				this.logger.info("Successfully exported the Music Pack Project \"%s\" to a stream", project.getName());
+				this.logger.debug("Compression statistics of the exported Music Pack Project \"%s\": %s",
+						project.getName(), statistics);
+			} else {
+				this.dispatchEvent(CANCEL_EVENT, null, project);
+			}
+		} catch (Exception e) {
+			this.dispatchEvent(ERROR_EVENT, null, project, MusicPackProjectExporter.ERROR_EVENT_EXCEPTION, e);
+
+			this.logger.error("Couldn't export the Music Pack Project \"%s\" to a stream", project.getName(), e);
+		}
+	}
+
+	/*
+	 * Writes the Music Pack as .zip in one pass to the specified stream, which
+	 * will be closed afterwards. Returns false if the exportation was cancelled.
+	 * If a manifest is specified, the tracks are recorded in it and unchanged
+	 * tracks are copied from the previous exportation, if available.
+	 */
+	private boolean writeMusicPack(OutputStream target, Path exportLocation, MusicPackProject project,
+			ExportStatisticsImpl statistics, PreviousExport previous, ExportManifest manifest) throws IOException {
+		MusicPack pack = project.getMusicPack();
+		try (ZipArchiveWriter zip = new ZipArchiveWriter(target)) {
+			dispatchEvent(CREATING_FILE_EVENT, exportLocation, project,
+					MusicPackProjectExporter.CREATING_FILE_EVENT_FILENAME, MusicPackProjectExporter.BASE_FILE);
+			zip.write(this.encodeMetadata(MusicPackProjectExporter.BASE_FILE,
+					out -> writer.writeJSONFile(pack.getTracks(), out, this.compactMusicJson), statistics));
+
+			dispatchEvent(CREATING_FILE_EVENT, exportLocation, project,
+					MusicPackProjectExporter.CREATING_FILE_EVENT_FILENAME, MusicPackProjectExporter.PACK_FILE);
+			ExtendedProperties props = new ExtendedProperties();
+			props.setString(MusicPackProjectExporter.PACK_PROJECT_NAME_KEY, project.getName());
+			props.setInteger(MusicPackProjectExporter.PACK_TRACKS_KEY, pack.getTracks().size());
+			props.putAll(project.getProperties());
+			String comment = "This Music Pack was generated by the Music Pack Creator (" + version.toString()
+					+ ") made by Crafted_Mods (see http://lotrminecraftmod.wikia.com/wiki/Thread:308819 and https://github.com/CraftedMods/music-pack-creator)";
+			zip.write(this.encodeMetadata(MusicPackProjectExporter.PACK_FILE, out -> props.store(out, comment),
+					statistics));
+
+			zip.write(ZipEntryData.directory(MusicPackProjectExporter.TRACKS_DIR));
+			return this.writeTracks(zip, exportLocation, project, pack.getTracks(), statistics, previous, manifest);
+		}
+	}
+
+	/*
+	 * The tracks are compressed concurrently by a worker pool while the calling
+	 * thread writes the finished entries in the order of the tracks. The pending
+	 * tracks are limited by their size, large compressed entries are kept in
+	 * temporary files and stored tracks are read again when they're written.
+	 */
+	private boolean writeTracks(ZipArchiveWriter zip, Path exportLocation, MusicPackProject project,
+			Collection<Track> tracks, ExportStatisticsImpl statistics, PreviousExport previous, ExportManifest manifest)
+			throws IOException {
+		TrackStore trackStore = trackStoreManager.getTrackStore(project);
+		int threads = Math.max(1, Math.min(tracks.size(),
+				this.compressionThreads > 0 ? this.compressionThreads : Runtime.getRuntime().availableProcessors()));
+		int maxPendingEntries = threads * 2;
+		ExecutorService executor = Executors.newFixedThreadPool(threads, new ExporterThreadFactory());
+		Deque<PendingEntry> pendingEntries = new ArrayDeque<>();
+		long pendingBytes = 0l;
+		try {
+			for (Track track : tracks) {
+				if (!EventUtils.proceed(
+						this.dispatchVetoableEvent(COPYING_TRACK_EVENT, exportLocation, project,
+								MusicPackProjectExporter.COPYING_TRACK_EVENT_TRACK_NAME, track.getName(),
+								MusicPackProjectExporter.COPYING_TRACK_EVENT_RESULT_PROCEED),
+						MusicPackProjectExporter.COPYING_TRACK_EVENT_RESULT_PROCEED)) {
+					return false;
+				}
+
+				String trackName = track.getName();
+				long trackSize = trackStore.getTrackSize(trackName);
+				PendingEntry pendingEntry = new PendingEntry(executor.submit(() -> manifest != null
+						? this.exportTrack(trackStore, trackName, statistics, previous, manifest)
+						: this.encodeTrack(trackStore, trackName, null, statistics)), trackSize);
+				pendingEntries.add(pendingEntry);
+				pendingBytes += pendingEntry.size;
+
+				while (!pendingEntries.isEmpty() && (pendingEntries.peek().entry.isDone()
+						|| pendingEntries.size() > maxPendingEntries
+						|| pendingEntries.size() > threads && pendingBytes > MAX_PENDING_BYTES)) {
+					PendingEntry writtenEntry = pendingEntries.poll();
+					zip.write(this.awaitEntry(writtenEntry.entry));
+					pendingBytes -= writtenEntry.size;
+				}
+			}
+			while (!pendingEntries.isEmpty()) {
+				zip.write(this.awaitEntry(pendingEntries.poll().entry));
+			}
+		} finally {
+			executor.shutdownNow();
+			try {
+				// Don't return before all tracks were released by the workers
+				executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			// The entries which won't be written anymore may have temporary files
+			for (PendingEntry pendingEntry : pendingEntries)
+				pendingEntry.discard();
+		}
+		return true;
+	}
+
+	/*
+	 * The content is written directly into the entry, only in AUTO mode it has to
+	 * be rendered beforehand to take the sample
+	 */
+	private ZipEntryData encodeMetadata(String name, MetadataContent content, ExportStatisticsImpl statistics)
+			throws IOException {
+		ExportCompressionMode mode = this.metadataCompression;
+		long start = System.nanoTime();
+		byte[] data = null;
+		CompressionSample sample = null;
+		if (mode == ExportCompressionMode.AUTO) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			content.writeTo(out);
+			data = out.toByteArray();
+			sample = this.sampleCompression(data, Math.min(data.length, TransferUtils.BUFFER_SIZE));
+		}
+		try (ZipEntryBuffer entry = new ZipEntryBuffer(name, this.getCompressionMethod(mode, sample),
+				this.compressionLevel)) {
+			if (data != null)
+				entry.write(data);
+			else
+				content.writeTo(entry);
+			return this.recordStatistics(entry.toEntryData(), mode, sample, start, statistics);
+		}
+	}
+
+	/*
+	 * Copies the track from the previous exportation if its source is unchanged,
+	 * otherwise encodes it. The source is assumed to be unchanged if its size and
+	 * modification time or its hash didn't change.
+	 */
+	private ZipEntryData exportTrack(TrackStore trackStore, String trackName, ExportStatisticsImpl statistics,
+			PreviousExport previous, ExportManifest manifest) throws IOException {
+		String entryName = MusicPackProjectExporter.TRACKS_DIR + trackName;
+		long start = System.nanoTime();
+		long sourceSize = trackStore.getTrackSize(trackName);
+		long sourceModified = trackStore.getTrackLastModified(trackName);
+
+		ExportManifest.Entry previousEntry = previous != null ? previous.getManifest().getEntry(entryName) : null;
+		if (previousEntry != null) {
+			boolean unchanged = previousEntry.isSourceUnchanged(sourceSize, sourceModified);
+			if (!unchanged && previousEntry.getSize() == sourceSize)
+				unchanged = previousEntry.getHash().equals(hashTrack(trackStore, trackName));
+			if (unchanged) {
+				ZipEntryData entry = previous.getArchive().readRawEntry(entryName);
+				if (previousEntry.describes(entry)) {
+					manifest.putEntry(entryName, previousEntry.withSource(sourceSize, sourceModified));
+					statistics.record(this.getTrackCompressionMode(trackName), entry.getSize(),
+							entry.getCompressedSize(), System.nanoTime() - start, 0l);
+					previous.reusedEntries.incrementAndGet();
+					return entry;
+				}
+			}
+		}
+
+		MessageDigest digest = createDigest();
+		ZipEntryData entry = this.encodeTrack(trackStore, trackName, digest, statistics);
+		manifest.putEntry(entryName,
+				new ExportManifest.Entry(entry, toHexString(digest.digest()), sourceSize, sourceModified));
+		return entry;
+	}
+
+	/*
+	 * The digest, if specified, is updated with the uncompressed data. Stored
+	 * tracks are only read to compute their CRC, the writer copies them directly
+	 * from the track store.
+	 */
+	private ZipEntryData encodeTrack(TrackStore trackStore, String trackName, MessageDigest digest,
+			ExportStatisticsImpl statistics) throws IOException {
+		ExportCompressionMode mode = this.getTrackCompressionMode(trackName);
+		String entryName = MusicPackProjectExporter.TRACKS_DIR + trackName;
+		long start = System.nanoTime();
+		try (InputStream trackIn = trackStore.openInputStream(trackName)) {
+			InputStream in = digest != null ? new DigestInputStream(trackIn, digest) : trackIn;
+			CompressionSample sample = null;
+			if (mode == ExportCompressionMode.AUTO) {
+				byte[] sampleData = new byte[TransferUtils.BUFFER_SIZE];
+				int sampleLength = readSample(in, sampleData);
+				sample = this.sampleCompression(sampleData, sampleLength);
+				in = new SequenceInputStream(new ByteArrayInputStream(sampleData, 0, sampleLength), in);
+			}
+			int method = this.getCompressionMethod(mode, sample);
+			if (method == ZipEntryData.STORED) {
+				CRC32 crc = new CRC32();
+				long size = skipFully(new CheckedInputStream(in, crc));
+				return this.recordStatistics(new ZipEntryData(entryName, method, crc.getValue(), size, size, out -> {
+					try (InputStream storedIn = trackStore.openInputStream(trackName)) {
+						TransferUtils.transfer(storedIn, out);
+					}
+				}), mode, sample, start, statistics);
+			}
+			try (ZipEntryBuffer entry = new ZipEntryBuffer(entryName, method, this.compressionLevel)) {
+				Utils.writeFromInputStreamToOutputStream(in, entry);
+				return this.recordStatistics(entry.toEntryData(), mode, sample, start, statistics);
+			}
+		}
+	}
+
+	private ExportCompressionMode getTrackCompressionMode(String trackName) {
+		return trackName.toLowerCase(Locale.ROOT).endsWith(".ogg") ? this.oggTrackCompression
+				: this.otherTrackCompression;
+	}
+
+	private int getCompressionMethod(ExportCompressionMode mode, CompressionSample sample) {
+		switch (mode) {
+		case STORED:
+			return ZipEntryData.STORED;
+		case DEFLATED:
+			return ZipEntryData.DEFLATED;
+		default:
+			return sample.deflate ? ZipEntryData.DEFLATED : ZipEntryData.STORED;
+		}
+	}
+
+	private static long skipFully(InputStream in) throws IOException {
+		byte[] buffer = new byte[TransferUtils.BUFFER_SIZE];
+		long length = 0;
+		int read;
+		while ((read = in.read(buffer)) != -1) {
+			length += read;
+		}
+		return length;
+	}
+
+	private static int readSample(InputStream in, byte[] sample) throws IOException {
+		int length = 0;
+		int read;
+		while (length < sample.length && (read = in.read(sample, length, sample.length - length)) != -1) {
+			length += read;
+		}
+		return length;
+	}
+
+	private CompressionSample sampleCompression(byte[] data, int length) {
+		long start = System.nanoTime();
+		Deflater deflater = new Deflater(this.compressionLevel, true);
+		try {
+			deflater.setInput(data, 0, length);
+			deflater.finish();
+			byte[] buffer = new byte[TransferUtils.BUFFER_SIZE];
+			long compressedLength = 0;
+			while (!deflater.finished()) {
+				compressedLength += deflater.deflate(buffer);
+			}
+			return new CompressionSample(length,
+					length > 0 && compressedLength <= length * (1.0 - AUTO_COMPRESSION_MIN_SAVING),
+					System.nanoTime() - start);
+		} finally {
+			deflater.end();
+		}
+	}
+
+	private ZipEntryData recordStatistics(ZipEntryData entry, ExportCompressionMode mode, CompressionSample sample,
+			long start, ExportStatisticsImpl statistics) {
+		long savedTime = 0l;
+		if (sample != null && !sample.deflate && sample.length > 0) {
+			// Extrapolate how long deflating the remaining data would have taken
+			savedTime = sample.time * (entry.getSize() - sample.length) / sample.length;
+		}
+		statistics.record(mode, entry.getSize(), entry.getCompressedSize(), System.nanoTime() - start, savedTime);
+		return entry;
+	}
+
+	private static String hashTrack(TrackStore trackStore, String trackName) throws IOException {
+		MessageDigest digest = createDigest();
+		try (InputStream in = trackStore.openInputStream(trackName)) {
+			byte[] buffer = new byte[TransferUtils.BUFFER_SIZE];
+			int read;
+			while ((read = in.read(buffer)) != -1) {
+				digest.update(buffer, 0, read);
+			}
+		}
+		return toHexString(digest.digest());
+	}
+
+	private static MessageDigest createDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("Every Java platform has to support SHA-256", e);
+		}
+	}
+
+	private static String toHexString(byte[] hash) {
+		return String.format("%0" + hash.length * 2 + "x", new BigInteger(1, hash));
+	}
+
+	/*
+	 * The manifest settings contain everything influencing the encoding of the
+	 * tracks
+	 */
+	private String getManifestSettings() {
+		return String.format("%d;%s;%s", this.compressionLevel, this.oggTrackCompression,
+				this.otherTrackCompression);
+	}
+
+	private static Path getManifestLocation(Path exportLocation) {
+		return exportLocation.resolveSibling(exportLocation.getFileName() + ExportManifest.FILE_SUFFIX);
+	}
+
+	/*
+	 * Returns null if there is no usable previous exportation at the location
+	 */
+	private PreviousExport openPreviousExport(Path exportLocation, String settings) {
+		Path manifestLocation = getManifestLocation(exportLocation);
+		try {
+			if (fileManager.exists(manifestLocation)) {
+				ExportManifest manifest;
+				try (InputStream in = fileManager.newInputStream(manifestLocation)) {
+					manifest = ExportManifest.load(in);
+				}
+				if (manifest != null && manifest.getSettings().equals(settings))
+					return new PreviousExport(manifest, new ZipArchiveReader(exportLocation));
+			}
+		} catch (IOException e) {
+			this.logger.warn("Couldn't read the previous exportation at \"%s\", all tracks will be encoded again",
+					exportLocation, e);
+		}
+		return null;
+	}
+
+	/*
+	 * The exportation already succeeded, without a manifest the next one just
+	 * cannot be incremental
+	 */
+	private void storeManifest(Path exportLocation, ExportManifest manifest) {
+		try (OutputStream out = fileManager.newOutputStream(getManifestLocation(exportLocation))) {
+			manifest.store(out);
+		} catch (IOException e) {
+			this.logger.warn("Couldn't store the export manifest for \"%s\"", exportLocation, e);
+		}
+	}
+
+	private ZipEntryData awaitEntry(Future<ZipEntryData> entry) throws IOException {
+		try {
+			return entry.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("The exportation was interrupted");
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException)
+				throw (IOException) cause;
+			if (cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			if (cause instanceof Error)
+				throw (Error) cause;
+			throw new IOException(cause);
+		}
+	}
+
 	private <T> Collection<ReadOnlyTypedProperties> dispatchEvent(EventInfo info, Path path, MusicPackProject project) {
 		return this.dispatchEvent(info, path, project, null, null);
 	}
 
 	private <T> Collection<ReadOnlyTypedProperties> dispatchEvent(EventInfo info, Path path, MusicPackProject project,
 			TypedPropertyKey<T> key, T value) {
+		return this.eventManager.dispatchEvent(info, this.createEventProperties(path, project, key, value));
+	}
+
+	/*
+	 * No further handlers are called once a handler vetoed
+	 */
+	private <T> Collection<ReadOnlyTypedProperties> dispatchVetoableEvent(EventInfo info, Path path,
+			MusicPackProject project, TypedPropertyKey<T> key, T value, TypedPropertyKey<Boolean> proceedProperty) {
+		return this.eventManager.dispatchVetoableEvent(info, this.createEventProperties(path, project, key, value),
+				proceedProperty);
+	}
+
+	private <T> LockableTypedProperties createEventProperties(Path path, MusicPackProject project,
+			TypedPropertyKey<T> key, T value) {
 		LockableTypedProperties properties = new DefaultTypedProperties();
 		properties.put(MusicPackProjectExporter.COMMON_EVENT_LOCATION, path);
 		properties.put(MusicPackProjectExporter.COMMON_EVENT_MUSIC_PACK_PROJECT, project);
 		if (key != null)
 			properties.put(key, value);
-		return this.eventManager.dispatchEvent(info, properties);
+		return properties;
+	}
+
+	private static class PendingEntry {
+
+		private final Future<ZipEntryData> entry;
+		private final long size;
+
+		private PendingEntry(Future<ZipEntryData> entry, long size) {
+			this.entry = entry;
+			this.size = size;
+		}
+
+		private void discard() {
+			if (this.entry.isDone() && !this.entry.isCancelled()) {
+				try {
+					this.entry.get().close();
+				} catch (InterruptedException | ExecutionException | IOException e) {
+					// The entry failed or its resources are gone already
+				}
+			}
+		}
+
+	}
+
+	@FunctionalInterface
+	private interface MetadataContent {
+
+		public void writeTo(OutputStream out) throws IOException;
+
+	}
+
+	private static class CompressionSample {
+
+		private final int length;
+		private final boolean deflate;
+		private final long time;
+
+		private CompressionSample(int length, boolean deflate, long time) {
+			this.length = length;
+			this.deflate = deflate;
+			this.time = time;
+		}
+
+	}
+
+	private static class PreviousExport implements Closeable {
+
+		private final ExportManifest manifest;
+		private final ZipArchiveReader archive;
+		private final AtomicInteger reusedEntries = new AtomicInteger();
+
+		private PreviousExport(ExportManifest manifest, ZipArchiveReader archive) {
+			this.manifest = manifest;
+			this.archive = archive;
+		}
+
+		private ExportManifest getManifest() {
+			return this.manifest;
+		}
+
+		private ZipArchiveReader getArchive() {
+			return this.archive;
+		}
+
+		private int getReusedEntries() {
+			return this.reusedEntries.get();
+		}
+
+		@Override
+		public void close() throws IOException {
+			this.archive.close();
+		}
+
+	}
+
+	private static class ExporterThreadFactory implements ThreadFactory {
+
+		private final AtomicInteger counter = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "Music Pack Exporter " + counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+
 	}
 
 }
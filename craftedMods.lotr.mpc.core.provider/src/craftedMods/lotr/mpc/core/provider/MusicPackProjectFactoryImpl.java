@@ -1,5 +1,7 @@
 package craftedMods.lotr.mpc.core.provider;
 
+import java.util.function.Supplier;
+
 import org.osgi.service.component.annotations.Component;
 
 import craftedMods.lotr.mpc.core.api.*;
@@ -12,4 +14,10 @@ public class MusicPackProjectFactoryImpl implements MusicPackProjectFactory {
 		return new MusicPackProjectImpl(name);
 	}
 
+	@Override
+	public MusicPackProject createMusicPackProjectInstance(String name, int trackCount,
+			Supplier<MusicPack> musicPackLoader) {
+		return new MusicPackProjectImpl(name, trackCount, musicPackLoader);
+	}
+
 }
@@ -1,5 +1,10 @@
 package craftedMods.lotr.mpc.core.provider;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
 import craftedMods.lotr.mpc.core.api.MusicPack;
 import craftedMods.lotr.mpc.core.api.MusicPackProject;
 import craftedMods.lotr.mpc.core.base.DefaultMusicPack;
@@ -9,11 +14,38 @@ import craftedMods.utils.data.PrimitiveProperties;
 public class MusicPackProjectImpl implements MusicPackProject {
 
 	private String name;
-	private final MusicPack musicPack = new DefaultMusicPack();
 	private final PrimitiveProperties properties = new ExtendedProperties();
 
+	/*
+	 * The Music Pack is null as long as a lazily loaded project wasn't accessed.
+	 * Projects without a loader always have a Music Pack.
+	 */
+	private volatile MusicPack musicPack;
+	private final Supplier<MusicPack> musicPackLoader;
+	private final int headerTrackCount;
+	private volatile long lastMusicPackAccess = System.nanoTime();
+
+	/*
+	 * The state recorded when the project was marked as unmodified the last time.
+	 * The Music Pack is compared by its modification stamp, which is recorded again
+	 * when a lazily loaded Music Pack is loaded.
+	 */
+	private boolean modified = true;
+	private String savedName;
+	private Map<Object, Object> savedProperties;
+	private long savedMusicPackModification;
+
 	public MusicPackProjectImpl(String name) {
 		this.name = name;
+		this.musicPack = new DefaultMusicPack();
+		this.musicPackLoader = null;
+		this.headerTrackCount = 0;
+	}
+
+	public MusicPackProjectImpl(String name, int trackCount, Supplier<MusicPack> musicPackLoader) {
+		this.name = name;
+		this.musicPackLoader = Objects.requireNonNull(musicPackLoader);
+		this.headerTrackCount = trackCount;
 	}
 
 	@Override
@@ -27,7 +59,52 @@ public class MusicPackProjectImpl implements MusicPackProject {
 
 	@Override
 	public MusicPack getMusicPack() {
-		return this.musicPack;
+		this.lastMusicPackAccess = System.nanoTime();
+		MusicPack pack = this.musicPack;
+		if (pack == null) {
+			synchronized (this) {
+				pack = this.musicPack;
+				if (pack == null) {
+					this.musicPack = pack = Objects.requireNonNull(this.musicPackLoader.get());
+					this.savedMusicPackModification = pack.getLastModification();
+				}
+			}
+		}
+		return pack;
+	}
+
+	@Override
+	public int getTrackCount() {
+		MusicPack pack = this.musicPack;
+		return pack == null ? this.headerTrackCount : pack.getTracks().size();
+	}
+
+	public boolean isMusicPackLoaded() {
+		return this.musicPack != null;
+	}
+
+	/*
+	 * Whether the Music Pack wasn't accessed for at least the specified time
+	 */
+	public boolean isMusicPackIdle(long idleNanos) {
+		return System.nanoTime() - this.lastMusicPackAccess >= idleNanos;
+	}
+
+	/*
+	 * Drops the loaded Music Pack of a lazily loaded project, it will be loaded
+	 * again on the next access. The Music Pack is kept if the project was modified
+	 * since it was saved, this is checked under the same lock as the unloading.
+	 * Returns false if the Music Pack wasn't unloaded.
+	 *
+	 * Unloading isn't safe if somebody still holds a reference to the Music Pack:
+	 * modifications made through it afterwards aren't part of the project anymore
+	 * and are lost.
+	 */
+	public synchronized boolean unloadMusicPack() {
+		if (this.musicPackLoader == null || this.musicPack == null || this.isModified())
+			return false;
+		this.musicPack = null;
+		return true;
 	}
 
 	@Override
@@ -35,6 +112,26 @@ public class MusicPackProjectImpl implements MusicPackProject {
 		return this.properties;
 	}
 
+	@Override
+	public synchronized boolean isModified() {
+		if (this.modified || !Objects.equals(this.name, this.savedName) || !this.properties.equals(this.savedProperties))
+			return true;
+		MusicPack pack = this.musicPack;
+		return pack != null && pack.getLastModification() > this.savedMusicPackModification;
+	}
+
+	@Override
+	public synchronized void setModified(boolean modified) {
+		this.modified = modified;
+		if (!modified) {
+			this.savedName = this.name;
+			this.savedProperties = new HashMap<>(this.properties);
+			MusicPack pack = this.musicPack;
+			if (pack != null)
+				this.savedMusicPackModification = pack.getLastModification();
+		}
+	}
+
 	@Override
 	public String toString() {
 		return name;
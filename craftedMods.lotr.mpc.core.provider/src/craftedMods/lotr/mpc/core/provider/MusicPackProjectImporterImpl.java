@@ -4,7 +4,10 @@ import java.io.*;
 import java.nio.file.*;
 import java.nio.file.FileSystem;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
+import java.util.zip.*;
 
 import org.osgi.service.component.annotations.*;
 import org.osgi.service.log.*;
@@ -19,11 +22,27 @@ import craftedMods.lotr.mpc.persistence.api.*;
 import craftedMods.utils.Utils;
 import craftedMods.utils.data.*;
 import craftedMods.utils.exceptions.InvalidInputException;
+import craftedMods.utils.function.FailableSupplier;
+import craftedMods.utils.io.*;
 import craftedMods.versionChecker.api.SemanticVersion;
 
 @Component
 public class MusicPackProjectImporterImpl implements MusicPackProjectImporter {
 
+	public @interface Configuration {
+		/*
+		 * Imports Music Packs from files in a single forward pass instead of
+		 * accessing them as zip file system
+		 */
+		boolean streamingImport() default false;
+
+		/*
+		 * The amount of tracks extracted concurrently from Music Packs accessed as
+		 * zip file system, zero or less means one per available processor
+		 */
+		int copyThreads() default 0;
+	}
+
 	@Reference(target = "(application=mpc)")
 	private SemanticVersion version;
 
@@ -45,12 +64,30 @@ public class MusicPackProjectImporterImpl implements MusicPackProjectImporter {
 	@Reference
 	private TrackStoreManager trackStoreManager;
 
+	private boolean streamingImport = false;
+	private int copyThreads = 0;
+
+	@Activate
+	public void onActivate(Configuration configuration) {
+		this.onModify(configuration);
+	}
+
+	@Modified
+	public void onModify(Configuration configuration) {
+		this.streamingImport = configuration.streamingImport();
+		this.copyThreads = configuration.copyThreads();
+	}
+
 	@Override
 	public MusicPackProject importMusicPackProject(Path location) {
 		Objects.requireNonNull(location);
 		if (!fileManager.exists(location))
 			throw new UncheckedIOException(new NoSuchFileException(location.toString()));
 
+		if (this.streamingImport)
+			return this.importMusicPackProject(() -> fileManager.newInputStream(location), location,
+					location.getFileName().toString().replaceAll(".zip", ""));
+
 		boolean delete = false;
 		boolean cancel = false;
 		boolean error = false;
@@ -101,8 +138,212 @@ public class MusicPackProjectImporterImpl implements MusicPackProjectImporter {
 		return null;
 	}
 
+	@Override
+	public MusicPackProject importMusicPackProject(InputStream in, String suggestedName) {
+		Objects.requireNonNull(in);
+		Objects.requireNonNull(suggestedName);
+		return this.importMusicPackProject(() -> new NonClosingInputStream(in), null, suggestedName);
+	}
+
+	/*
+	 * Reads the Music Pack in one forward pass. The metadata files are processed
+	 * when they are encountered and the tracks are piped directly into the track
+	 * store. The project is registered as soon as music.json or the first track
+	 * are found. The track count is dispatched once it's known, which may be after
+	 * the first tracks if they precede pack.properties and music.json. Non-Ogg
+	 * files are collected and reported together after all entries were read.
+	 */
+	private MusicPackProject importMusicPackProject(FailableSupplier<InputStream, IOException> source,
+			Path location, String suggestedName) {
+		boolean delete = false;
+		boolean cancel = false;
+		boolean error = false;
+
+		MusicPackProjectImpl project = null;
+
+		try (ZipInputStream zip = new ZipInputStream(
+				new BufferedInputStream(source.get(), TransferUtils.BUFFER_SIZE))) {
+			project = new MusicPackProjectImpl(musicPackProjectManager.getUnusedMusicPackProjectName(suggestedName));
+
+			boolean packPropertiesFound = false;
+			boolean musicJsonFound = false;
+			boolean tracksDirFound = false;
+			int expectedTrackCount = -1;
+			boolean trackCountDispatched = false;
+			int copiedTracks = 0;
+			List<String> nonOggFiles = new ArrayList<>();
+
+			ZipEntry entry;
+			while (!cancel && !error && (entry = zip.getNextEntry()) != null) {
+				String entryName = entry.getName();
+				if (entryName.equals(MusicPackProjectExporter.PACK_FILE)) {
+					packPropertiesFound = true;
+					dispatchEvent(READING_FILE_EVENT, location, MusicPackProjectImporter.READING_FILE_EVENT_FILENAME,
+							MusicPackProjectExporter.PACK_FILE);
+					ExtendedProperties props = new ExtendedProperties();
+					props.load(zip);
+					if (props.getProperty(MusicPackProjectExporter.PACK_TRACKS_KEY) != null && !trackCountDispatched)
+						expectedTrackCount = props.getInteger(MusicPackProjectExporter.PACK_TRACKS_KEY, -1);
+					this.applyPackProperties(props, project,
+							musicPackProjectManager.getRegisteredMusicPackProjects().contains(project));
+					if (copiedTracks > 0 && !trackCountDispatched && expectedTrackCount >= 0) {
+						trackCountDispatched = true;
+						cancel = !this.dispatchTrackCount(location, expectedTrackCount);
+					}
+				} else if (entryName.equals(MusicPackProjectExporter.BASE_FILE)) {
+					musicJsonFound = true;
+					dispatchEvent(READING_FILE_EVENT, location, MusicPackProjectImporter.READING_FILE_EVENT_FILENAME,
+							MusicPackProjectExporter.BASE_FILE);
+					this.registerImportedProject(project);
+					try {
+						List<Track> tracks = reader.readJSONFile(zip);
+						project.getMusicPack().getTracks().addAll(tracks);
+						if (expectedTrackCount < 0)
+							expectedTrackCount = tracks.size();
+						if (copiedTracks > 0 && !trackCountDispatched) {
+							trackCountDispatched = true;
+							cancel = !this.dispatchTrackCount(location, expectedTrackCount);
+						}
+					} catch (JsonSyntaxException e) {
+						this.logger.error("The track data at the file %s of the Music Pack at \"%s\" are invalid",
+								MusicPackProjectExporter.BASE_FILE, location);
+						this.dispatchEvent(INVALID_MUSIC_JSON_EVENT, location);
+						error = true;
+					}
+				} else if (entryName.startsWith(MusicPackProjectExporter.TRACKS_DIR)) {
+					tracksDirFound = true;
+					String fileName = entryName.substring(MusicPackProjectExporter.TRACKS_DIR.length());
+					if (entry.isDirectory() || fileName.isEmpty() || fileName.contains("/"))
+						continue; // Only the files directly in the tracks directory are tracks
+					if (!fileName.endsWith(".ogg")) {
+						nonOggFiles.add(fileName);
+						continue;
+					}
+					// An unknown count is dispatched once pack.properties or music.json were read
+					if (!trackCountDispatched && expectedTrackCount >= 0) {
+						trackCountDispatched = true;
+						if (!this.dispatchTrackCount(location, expectedTrackCount)) {
+							cancel = true;
+							continue;
+						}
+					}
+					if (!EventUtils.proceed(
+							this.dispatchVetoableEvent(COPYING_TRACK_EVENT, location,
+									MusicPackProjectImporter.COPYING_TRACK_EVENT_TRACK_NAME, fileName,
+									MusicPackProjectImporter.COPYING_TRACK_EVENT_RESULT_PROCEED),
+							MusicPackProjectImporter.COPYING_TRACK_EVENT_RESULT_PROCEED)) {
+						cancel = true;
+						continue;
+					}
+					this.registerImportedProject(project);
+					try (OutputStream out = trackStoreManager.getTrackStore(project).openOutputStream(fileName)) {
+						Utils.writeFromInputStreamToOutputStream(zip, out);
+					}
+					copiedTracks++;
+				}
+			}
+
+			if (!cancel && !error) {
+				if (!packPropertiesFound) {
+					this.logger.warn("The Music Pack at \"%s\" doesn't contain the optional file %s", location,
+							MusicPackProjectExporter.PACK_FILE);
+					this.dispatchEvent(FILE_NOT_FOUND_EVENT, location, FILE_NOT_FOUND_EVENT_FILENAME,
+							MusicPackProjectExporter.PACK_FILE);
+				}
+				if (!musicJsonFound) {
+					this.logger.error("The Music Pack at \"%s\" doesn't contain the required file %s", location,
+							MusicPackProjectExporter.BASE_FILE);
+					this.dispatchEvent(FILE_NOT_FOUND_EVENT, location, FILE_NOT_FOUND_EVENT_FILENAME,
+							MusicPackProjectExporter.BASE_FILE);
+					error = true;
+				} else if (!tracksDirFound) {
+					this.logger.warn("The Music Pack at \"%s\" doesn't contain the tracks directory \"%s\"",
+							location, MusicPackProjectExporter.TRACKS_DIR);
+					cancel = !EventUtils.proceed(
+							this.dispatchEvent(FILE_NOT_FOUND_EVENT, location, FILE_NOT_FOUND_EVENT_FILENAME,
+									MusicPackProjectExporter.TRACKS_DIR),
+							MusicPackProjectImporter.FILE_NOT_FOUND_EVENT_RESULT_PROCEED);
+				} else {
+					if (!nonOggFiles.isEmpty()) {
+						cancel = !EventUtils.proceed(
+								this.dispatchEvent(NON_OGG_TRACK_FILES_FOUND_EVENT, location,
+										NON_OGG_TRACK_FILES_FOUND_EVENT_FILENAMES, nonOggFiles),
+								NON_OGG_TRACK_FILES_FOUND_EVENT_ENTRIES_RESULT_PROCEED);
+					}
+					if (!cancel && !trackCountDispatched) {
+						cancel = !this.dispatchTrackCount(location, copiedTracks);
+					}
+				}
+			}
+
+			if (!error) {
+				if (!cancel) {
+					cancel = !EventUtils.proceed(this.dispatchEvent(PRE_SUCCESS_EVENT, location),
+							MusicPackProjectImporter.PRE_SUCCESS_EVENT_RESULT_PROCEED);
+
+					if (!cancel) {
+						dispatchEvent(SUCCESS_EVENT, location, SUCCESS_EVENT_PROJECT_NAME, project.getName());
+						this.logger.info("Successfully imported the Music Pack Project \"%s\" from \"%s\"",
+								project.getName(), location == null ? "a stream" : location);
+						return project;
+					}
+				}
+
+				this.dispatchEvent(CANCEL_EVENT, location);
+			}
+
+			delete = true;
+
+		} catch (Exception e) {
+			delete = true;
+			this.dispatchEvent(UNEXPECTED_ERROR_EVENT, location,
+					MusicPackProjectImporter.UNEXPECTED_ERROR_EVENT_EXCEPTION, e);
+
+			this.logger.error("Couldn't import the Music Pack from \"%s\"",
+					location == null ? "a stream" : location.toString(), e);
+		} finally {
+			if (delete && project != null) {
+				if (musicPackProjectManager.getRegisteredMusicPackProjects().contains(project)) {
+					musicPackProjectManager.deleteMusicPackProject(project);
+				}
+			}
+		}
+		return null;
+	}
+
+	private boolean dispatchTrackCount(Path location, int trackCount) {
+		return EventUtils.proceed(this.dispatchEvent(TRACK_COUNT_DETERMINED_EVENT, location,
+				TRACK_COUNT_DETERMINED_EVENT_TRACK_COUNT, trackCount), TRACK_COUNT_DETERMINED_EVENT_RESULT_PROCEED);
+	}
+
+	private void registerImportedProject(MusicPackProjectImpl project) throws InvalidInputException {
+		if (!this.musicPackProjectManager.getRegisteredMusicPackProjects().contains(project)) {
+			this.musicPackProjectManager.registerMusicPackProject(project);
+			this.musicPackProjectManager.saveMusicPackProject(project);
+		}
+	}
+
+	private void applyPackProperties(ExtendedProperties props, MusicPackProjectImpl project, boolean registered)
+			throws InvalidInputException {
+		if (props.getProperty(MusicPackProjectExporter.PACK_PROJECT_NAME_KEY) != null) {
+			String name = musicPackProjectManager
+					.getUnusedMusicPackProjectName(props.getProperty(MusicPackProjectExporter.PACK_PROJECT_NAME_KEY));
+			if (registered) {
+				musicPackProjectManager.renameMusicPackProject(project, name);
+			} else {
+				project.setName(name);
+			}
+			props.remove(MusicPackProjectExporter.PACK_PROJECT_NAME_KEY);
+		}
+
+		// The track count property isn't needed by this importer
+		props.remove(MusicPackProjectExporter.PACK_TRACKS_KEY);
+
+		project.getProperties().putAll(props);
+	}
+
 	private void readPackPropertiesFile(Path packLocation, FileSystem zip, MusicPackProjectImpl project)
-			throws IOException {
+			throws IOException, InvalidInputException {
 		dispatchEvent(READING_FILE_EVENT, packLocation, MusicPackProjectImporter.READING_FILE_EVENT_FILENAME,
 				MusicPackProjectExporter.PACK_FILE);
 
@@ -113,16 +354,7 @@ public class MusicPackProjectImporterImpl implements MusicPackProjectImporter {
 				ExtendedProperties props = new ExtendedProperties();
 				props.load(propertiesIn);
 
-				if (props.getProperty(MusicPackProjectExporter.PACK_PROJECT_NAME_KEY) != null) {
-					project.setName(musicPackProjectManager.getUnusedMusicPackProjectName(
-							props.getProperty(MusicPackProjectExporter.PACK_PROJECT_NAME_KEY)));
-					props.remove(MusicPackProjectExporter.PACK_PROJECT_NAME_KEY);
-				}
-
-				// The track count property isn't needed by this importer
-				props.remove(MusicPackProjectExporter.PACK_TRACKS_KEY);
-
-				project.getProperties().putAll(props);
+				this.applyPackProperties(props, project, false);
 			}
 		} else {
 			this.logger.warn("The Music Pack at \"%s\" doesn't contain the optional file %s", packLocation,
@@ -188,20 +420,54 @@ public class MusicPackProjectImporterImpl implements MusicPackProjectImporter {
 					TRACK_COUNT_DETERMINED_EVENT_RESULT_PROCEED))
 				return false;
 
-			for (Path path : oggFiles) {
+			/*
+			 * The events are dispatched and the tracks are added to the store in the order
+			 * of the tracks on this thread, only the copying happens on the workers. There
+			 * are never more copies submitted than workers, so a cancellation only waits
+			 * for the running copies.
+			 */
+			int threads = Math.max(1, Math.min(oggFiles.size(),
+					this.copyThreads > 0 ? this.copyThreads : Runtime.getRuntime().availableProcessors()));
+			ExecutorService executor = Executors.newFixedThreadPool(threads, new ImporterThreadFactory());
+			CompletionService<Void> copies = new ExecutorCompletionService<>(executor);
+			int runningCopies = 0;
+			try {
+				for (Path path : oggFiles) {
+
+					if (!EventUtils.proceed(
+							this.dispatchVetoableEvent(COPYING_TRACK_EVENT, packLocation,
+									MusicPackProjectImporter.COPYING_TRACK_EVENT_TRACK_NAME,
+									path.getFileName().toString(),
+									MusicPackProjectImporter.COPYING_TRACK_EVENT_RESULT_PROCEED),
+							MusicPackProjectImporter.COPYING_TRACK_EVENT_RESULT_PROCEED)) {
+						return false;
+					}
 
-				if (!EventUtils.proceed(
-						this.dispatchEvent(COPYING_TRACK_EVENT, packLocation,
-								MusicPackProjectImporter.COPYING_TRACK_EVENT_TRACK_NAME, path.getFileName().toString()),
-						MusicPackProjectImporter.COPYING_TRACK_EVENT_RESULT_PROCEED)) {
-					return false;
-				}
+					if (runningCopies == threads) {
+						this.awaitCopy(copies);
+						runningCopies--;
+					}
 
-				try (InputStream in = fileManager.newInputStream(path);
-						OutputStream out = store.openOutputStream(path.getFileName().toString());) {
-					Utils.writeFromInputStreamToOutputStream(in, out);
-				}
+					OutputStream out = store.openOutputStream(path.getFileName().toString());
+					copies.submit(() -> {
+						try (OutputStream trackOut = out; InputStream in = fileManager.newInputStream(path)) {
+							Utils.writeFromInputStreamToOutputStream(in, trackOut);
+						}
+						return null;
+					});
+					runningCopies++;
 
+				}
+				for (; runningCopies > 0; runningCopies--) {
+					this.awaitCopy(copies);
+				}
+			} finally {
+				executor.shutdown();
+				try {
+					executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
 			}
 			return true;
 		} else {
@@ -217,16 +483,59 @@ public class MusicPackProjectImporterImpl implements MusicPackProjectImporter {
 		}
 	}
 
+	private void awaitCopy(CompletionService<Void> copies) throws IOException {
+		try {
+			copies.take().get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("The import was interrupted");
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException)
+				throw (IOException) cause;
+			if (cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			if (cause instanceof Error)
+				throw (Error) cause;
+			throw new IOException(cause);
+		}
+	}
+
 	private <T> Collection<ReadOnlyTypedProperties> dispatchEvent(EventInfo info, Path path) {
 		return this.dispatchEvent(info, path, null, null);
 	}
 
 	private <T> Collection<ReadOnlyTypedProperties> dispatchEvent(EventInfo info, Path path, TypedPropertyKey<T> key, T value) {
+		return this.eventManager.dispatchEvent(info, this.createEventProperties(path, key, value));
+	}
+
+	/*
+	 * No further handlers are called once a handler vetoed
+	 */
+	private <T> Collection<ReadOnlyTypedProperties> dispatchVetoableEvent(EventInfo info, Path path, TypedPropertyKey<T> key,
+			T value, TypedPropertyKey<Boolean> proceedProperty) {
+		return this.eventManager.dispatchVetoableEvent(info, this.createEventProperties(path, key, value), proceedProperty);
+	}
+
+	private <T> LockableTypedProperties createEventProperties(Path path, TypedPropertyKey<T> key, T value) {
 		LockableTypedProperties properties = new DefaultTypedProperties();
 		properties.put(MusicPackProjectImporter.COMMON_EVENT_LOCATION, path);
 		if (key != null)
 			properties.put(key, value);
-		return this.eventManager.dispatchEvent(info, properties);
+		return properties;
+	}
+
+	private static class ImporterThreadFactory implements ThreadFactory {
+
+		private final AtomicInteger counter = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "Music Pack Importer " + counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+
 	}
 
 }
@@ -1,6 +1,7 @@
 package craftedMods.lotr.mpc.core.provider;
 
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 import org.osgi.service.component.annotations.*;
 import org.osgi.service.log.*;
@@ -16,6 +17,17 @@ import craftedMods.versionChecker.api.SemanticVersion;
 @Component
 public class MusicPackProjectManagerImpl implements MusicPackProjectManager {
 
+	public @interface Configuration {
+		/*
+		 * The time in milliseconds after which the Music Pack of a lazily loaded project
+		 * which wasn't accessed is unloaded when all projects are saved, zero or less
+		 * keeps the Music Packs loaded. Only applicable if nobody holds a reference to
+		 * the Music Packs for a longer time: modifications made through a reference
+		 * to an unloaded Music Pack are lost.
+		 */
+		long musicPackIdleTimeout() default 0;
+	}
+
 	@Reference(service = LoggerFactory.class)
 	private FormatterLogger logger;
 
@@ -36,8 +48,11 @@ public class MusicPackProjectManagerImpl implements MusicPackProjectManager {
 
 	private List<MusicPackProjectImpl> musicPackProjects;
 
+	private long musicPackIdleTimeout = 0;
+
 	@Activate
-	public void onActivate() {
+	public void onActivate(Configuration configuration) {
+		this.musicPackIdleTimeout = configuration.musicPackIdleTimeout();
 		this.logger.debug(this.compatibilityManager == null ? "No compatibility manager service was found"
 				: "Found a compatibility manager service");
 
@@ -161,9 +176,22 @@ public class MusicPackProjectManagerImpl implements MusicPackProjectManager {
 	@Override
 	public Collection<MusicPackProject> saveAllMusicPackProjects() {
 		Collection<MusicPackProject> erroredProjects = new ArrayList<>();
-		for (MusicPackProject project : this.musicPackProjects) {
+		long idleNanos = TimeUnit.MILLISECONDS.toNanos(this.musicPackIdleTimeout);
+		int savedProjects = 0;
+		for (MusicPackProjectImpl project : this.musicPackProjects) {
 			try {
-				this.saveMusicPackProject(project);
+				// Saving accesses the Music Pack, so it has to be checked before
+				boolean idle = this.musicPackIdleTimeout > 0 && project.isMusicPackLoaded()
+						&& project.isMusicPackIdle(idleNanos);
+				// Unmodified projects match their project files already
+				if (project.isModified()) {
+					this.saveMusicPackProject(project);
+					savedProjects++;
+				}
+				// Modifications made after the idle check keep the Music Pack loaded
+				if (idle && project.unloadMusicPack())
+					this.logger.debug("Unloaded the Music Pack of the idle Music Pack Project \"%s\"",
+							project.getName());
 			} catch (Exception e) {
 				this.logger.error("The Music Pack Project \"%s\" couldn't be saved: ", project.getName(), e);
 				LockableTypedProperties properties = new DefaultTypedProperties();
@@ -173,6 +201,7 @@ public class MusicPackProjectManagerImpl implements MusicPackProjectManager {
 				erroredProjects.add(project);
 			}
 		}
+		this.logger.debug("Saved %d of %d Music Pack Projects", savedProjects, this.musicPackProjects.size());
 		return erroredProjects;
 	}
 
@@ -0,0 +1,58 @@
+package craftedMods.lotr.mpc.core.provider;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import craftedMods.utils.io.ZipEntryData;
+
+public class ExportManifestTest {
+
+	@Test
+	public void testStoreAndLoad() throws IOException {
+		ZipEntryData data = new ZipEntryData("assets/lotrmusic/track=1.ogg", ZipEntryData.STORED, 4711l, 3l,
+				new byte[] { 1, 2, 3 }, 0, 3);
+		ExportManifest manifest = new ExportManifest("-1;STORED;DEFLATED");
+		manifest.putEntry(data.getName(), new ExportManifest.Entry(data, "abcdef", 3l, 1500000000000l));
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		manifest.store(out);
+		ExportManifest loaded = ExportManifest.load(new ByteArrayInputStream(out.toByteArray()));
+
+		Assert.assertEquals("-1;STORED;DEFLATED", loaded.getSettings());
+		Assert.assertEquals(1, loaded.getEntryCount());
+		ExportManifest.Entry entry = loaded.getEntry(data.getName());
+		Assert.assertEquals("abcdef", entry.getHash());
+		Assert.assertTrue(entry.isSourceUnchanged(3l, 1500000000000l));
+		Assert.assertFalse(entry.isSourceUnchanged(3l, 1500000000001l));
+		Assert.assertTrue(entry.describes(data));
+	}
+
+	@Test
+	public void testDescribes() {
+		ZipEntryData data = new ZipEntryData("track", ZipEntryData.STORED, 4711l, 3l, new byte[] { 1, 2, 3 }, 0, 3);
+		ExportManifest.Entry entry = new ExportManifest.Entry(data, "abcdef", 3l, 0l);
+
+		Assert.assertFalse(entry.describes(null));
+		Assert.assertFalse(
+				entry.describes(new ZipEntryData("track", ZipEntryData.STORED, 4712l, 3l, new byte[3], 0, 3)));
+		Assert.assertFalse(
+				entry.describes(new ZipEntryData("track", ZipEntryData.DEFLATED, 4711l, 3l, new byte[3], 0, 3)));
+		Assert.assertTrue(entry.withSource(5l, 6l).describes(data));
+		Assert.assertTrue(entry.withSource(5l, 6l).isSourceUnchanged(5l, 6l));
+	}
+
+	@Test
+	public void testLoadUnsupportedVersion() throws IOException {
+		Assert.assertNull(ExportManifest.load(new ByteArrayInputStream("manifestVersion=2".getBytes("UTF-8"))));
+	}
+
+	@Test(expected = IOException.class)
+	public void testLoadInvalidEntry() throws IOException {
+		ExportManifest.load(new ByteArrayInputStream("manifestVersion=1\nentry.track=1;2".getBytes("UTF-8")));
+	}
+
+}
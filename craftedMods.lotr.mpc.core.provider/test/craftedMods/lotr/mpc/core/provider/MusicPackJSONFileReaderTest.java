@@ -1,12 +1,17 @@
 package craftedMods.lotr.mpc.core.provider;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
 import java.util.Arrays;
 import java.util.List;
 
 import org.junit.Assert;
 import org.junit.Test;
 
+import com.google.gson.JsonSyntaxException;
+
 import craftedMods.lotr.mpc.core.api.Track;
 import craftedMods.lotr.mpc.core.base.DefaultRegion;
 import craftedMods.lotr.mpc.core.base.DefaultTrack;
@@ -34,4 +39,50 @@ public class MusicPackJSONFileReaderTest {
 
 		Assert.assertEquals(tracksList, reader.readJSONFile(data));
 	}
+
+	@Test
+	public void testReadJSONFileUnknownKeysAndOptionalFields() throws IOException {
+		String json = "{\"version\":2,\"tracks\":[{\"file\":\"Track1\",\"extra\":{\"a\":[1,2]},"
+				+ "\"regions\":[{\"name\":\"all\",\"weight\":\"1.5\",\"unknown\":null}]},"
+				+ "{\"file\":\"Track2\",\"title\":\"Title\",\"regions\":[{\"name\":\"shire\",\"sub\":[\"hobbiton\"],"
+				+ "\"weight\":0.25}],\"authors\":[\"Author1\"]}]}";
+
+		List<Track> expected = Arrays.asList(
+				new DefaultTrack("Track1", null,
+						Arrays.asList(new DefaultRegion("all", Arrays.asList(), Arrays.asList(), 1.5f)), Arrays.asList()),
+				new DefaultTrack("Track2", "Title",
+						Arrays.asList(new DefaultRegion("shire", Arrays.asList("hobbiton"), Arrays.asList(), 0.25f)),
+						Arrays.asList("Author1")));
+
+		Assert.assertEquals(expected, reader.readJSONFile(new StringReader(json)));
+	}
+
+	@Test
+	public void testReadJSONFileDoesntCloseStream() throws IOException {
+		boolean[] closed = new boolean[1];
+		InputStream in = new ByteArrayInputStream("{\"tracks\":[]}".getBytes("UTF-8")) {
+			@Override
+			public void close() {
+				closed[0] = true;
+			}
+		};
+
+		Assert.assertTrue(reader.readJSONFile(in).isEmpty());
+		Assert.assertFalse(closed[0]);
+	}
+
+	@Test(expected = JsonSyntaxException.class)
+	public void testReadJSONFileMissingTrackName() throws IOException {
+		reader.readJSONFile(new StringReader("{\"tracks\":[{\"regions\":[]}]}"));
+	}
+
+	@Test(expected = JsonSyntaxException.class)
+	public void testReadJSONFileMalformed() throws IOException {
+		reader.readJSONFile(new StringReader("{\"tracks\":[{\"file\":\"Track1\",\"regions\":[}"));
+	}
+
+	@Test(expected = JsonSyntaxException.class)
+	public void testReadJSONFileEmpty() throws IOException {
+		reader.readJSONFile(new byte[0]);
+	}
 }
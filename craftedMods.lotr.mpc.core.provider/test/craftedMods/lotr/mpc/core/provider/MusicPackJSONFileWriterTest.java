@@ -1,6 +1,7 @@
 package craftedMods.lotr.mpc.core.provider;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.util.Arrays;
@@ -40,6 +41,42 @@ public class MusicPackJSONFileWriterTest {
 		checkMusicJSONFile(writer.writeJSONFile(tracksList), tracksList);
 	}
 
+	@Test
+	public void testWriteJSONFileCompact() throws IOException {
+		DefaultTrack track1 = new DefaultTrack("Track1", "Title", Arrays.asList(
+				new DefaultRegion("mordor", Arrays.asList("nanUngol", "nurn"), Arrays.asList("day"), 2.0f)),
+				Arrays.asList("Author1", "Author2"));
+		DefaultTrack track2 = new DefaultTrack("Track2", null,
+				Arrays.asList(new DefaultRegion("all", Arrays.asList(), Arrays.asList(), null)), Arrays.asList());
+
+		List<Track> tracksList = Arrays.asList(track1, track2);
+
+		ByteArrayOutputStream compact = new ByteArrayOutputStream();
+		writer.writeJSONFile(tracksList, compact, true);
+
+		byte[] pretty = writer.writeJSONFile(tracksList);
+		Assert.assertTrue(compact.size() < pretty.length);
+		Assert.assertFalse(compact.toString().contains("\n"));
+		Assert.assertFalse(compact.toString().contains(" "));
+		checkMusicJSONFile(compact.toByteArray(), tracksList);
+	}
+
+	@Test
+	public void testWriteJSONFileDoesntCloseStream() throws IOException {
+		boolean[] closed = new boolean[1];
+		ByteArrayOutputStream out = new ByteArrayOutputStream() {
+			@Override
+			public void close() {
+				closed[0] = true;
+			}
+		};
+
+		writer.writeJSONFile(Arrays.asList(), out, false);
+
+		Assert.assertFalse(closed[0]);
+		Assert.assertArrayEquals(writer.writeJSONFile(Arrays.asList()), out.toByteArray());
+	}
+
 	private void checkMusicJSONFile(byte[] data, List<Track> tracks) throws IOException {
 		try (ByteArrayInputStream in = new ByteArrayInputStream(data);
 				InputStreamReader bridge = new InputStreamReader(in);
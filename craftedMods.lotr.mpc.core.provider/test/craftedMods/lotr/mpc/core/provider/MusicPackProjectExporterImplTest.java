@@ -1,10 +1,11 @@
 package craftedMods.lotr.mpc.core.provider;
 
 import java.io.*;
-import java.net.URI;
+import java.lang.annotation.Annotation;
 import java.nio.file.*;
-import java.nio.file.FileSystem;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.*;
 
 import org.easymock.*;
 import org.junit.*;
@@ -14,11 +15,12 @@ import org.powermock.api.easymock.PowerMock;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
-import craftedMods.eventManager.api.EventManager;
+import craftedMods.eventManager.api.*;
 import craftedMods.eventManager.base.EventUtils;
 import craftedMods.fileManager.api.FileManager;
 import craftedMods.lotr.mpc.core.api.*;
 import craftedMods.lotr.mpc.core.base.DefaultTrack;
+import craftedMods.lotr.mpc.core.provider.MusicPackProjectExporterImpl.Configuration;
 import craftedMods.lotr.mpc.persistence.api.*;
 import craftedMods.utils.Utils;
 import craftedMods.utils.data.*;
@@ -69,16 +71,10 @@ public class MusicPackProjectExporterImplTest extends EasyMockSupport {
 
 	private Collection<MusicPackProject> registeredMPPs;
 
-	private Map<String, Object> envs;
-
 	@Before
 	public void setup() {
 		exportLocation = Paths.get("test", "music", "pack.zip");
 
-		envs = new HashMap<>();
-		envs.put("create", "true");
-		envs.put("useTempFile", Boolean.TRUE);
-
 		mockMusicPackProject = this.createMock(MusicPackProject.class);
 		mockMusicPack = this.createMock(MusicPack.class);
 		tracksSet = CollectionUtils.createNonNullLinkedHashSet();
@@ -111,7 +107,12 @@ public class MusicPackProjectExporterImplTest extends EasyMockSupport {
 
 	@Test(expected = NullPointerException.class)
 	public void testExportNullLocation() {
-		exporter.exportMusicPackProject(null, this.createMock(MusicPackProject.class));
+		exporter.exportMusicPackProject((Path) null, this.createMock(MusicPackProject.class));
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void testExportNullStream() {
+		exporter.exportMusicPackProject((OutputStream) null, this.createMock(MusicPackProject.class));
 	}
 
 	@Test(expected = NullPointerException.class)
@@ -128,42 +129,24 @@ public class MusicPackProjectExporterImplTest extends EasyMockSupport {
 
 	@Test
 	public void testExportPack() throws Exception {
-		PowerMock.mockStatic(FileSystems.class);
 		PowerMock.mockStaticPartial(EventUtils.class, "proceed");
 
 		registeredMPPs.add(mockMusicPackProject);
 
 		EasyMock.expect(mockFileManager.exists(exportLocation)).andReturn(false).once();
 
-		FileSystem mockFileSystem = this.createMock(FileSystem.class);
+		ByteArrayOutputStream exportOut = new ByteArrayOutputStream();
 
-		mockFileSystem.close();
-		EasyMock.expectLastCall().once();
-
-		EasyMock.expect(mockFileSystem.getSeparator()).andStubReturn("/");
-
-		EasyMock.expect(mockFileSystem.getPath(EasyMock.anyString(), EasyMock.anyString()))
-				.andStubAnswer(new IAnswer<Path>() {
-					@Override
-					public Path answer() throws Throwable {
-						return Paths.get(EasyMock.getCurrentArguments()[0].toString(),
-								EasyMock.getCurrentArguments()[1].toString());
-					}
-				});
-
-		EasyMock.expect(FileSystems.newFileSystem(URI.create("jar:" + exportLocation.toUri()), envs))
-				.andReturn(mockFileSystem).once();
+		EasyMock.expect(mockFileManager.newOutputStream(exportLocation)).andReturn(exportOut).once();
 
 		Capture<LockableTypedProperties> createFileEventPropertiesCapture = Capture.newInstance(CaptureType.ALL);
 
 		EasyMock.expect(mockEventManager.dispatchEvent(EasyMock.eq(MusicPackProjectExporter.CREATING_FILE_EVENT),
 				EasyMock.capture(createFileEventPropertiesCapture))).andReturn(null).times(2);
 
-		byte[] mockArray = new byte[] {};
+		byte[] jsonArray = new byte[] { 1, 2, 3 };
 
-		EasyMock.expect(mockWriter.writeJSONFile(tracksSet)).andReturn(mockArray).once();
-		mockFileManager.write(Paths.get(".", MusicPackProjectExporter.BASE_FILE), mockArray);
-		EasyMock.expectLastCall().once();
+		this.expectWriteJSONFile(jsonArray);
 
 		ExtendedProperties mockPackProperties = this.createMock(ExtendedProperties.class);
 
@@ -176,35 +159,18 @@ public class MusicPackProjectExporterImplTest extends EasyMockSupport {
 		mockPackProperties.putAll(musicPackProjectProperties);
 		EasyMock.expectLastCall().once();
 
-		ByteArrayOutputStream mockByteArrayOutStream = this.createMock(ByteArrayOutputStream.class);
-
-		PowerMock.expectNew(ByteArrayOutputStream.class).andReturn(mockByteArrayOutStream).once();
-
-		byte[] propsArray = new byte[] {};
-
-		mockPackProperties.store(EasyMock.eq(mockByteArrayOutStream), EasyMock.anyString());
+		mockPackProperties.store(EasyMock.anyObject(OutputStream.class), EasyMock.anyString());
 		EasyMock.expectLastCall().once();
 
-		EasyMock.expect(mockByteArrayOutStream.toByteArray()).andReturn(propsArray).once();
-
-		mockFileManager.write(EasyMock.eq(Paths.get(".", MusicPackProjectExporter.PACK_FILE)), EasyMock.eq(propsArray));
-		EasyMock.expectLastCall().once();
-
-		mockByteArrayOutStream.close();
-		EasyMock.expectLastCall().asStub();
-
-		Path tracksDir = Paths.get(".", MusicPackProjectExporter.TRACKS_DIR);
-
-		EasyMock.expect(mockFileManager.createDir(tracksDir)).andReturn(true).once();
-
 		Capture<LockableTypedProperties> copyTrackEventProperties = Capture.newInstance(CaptureType.ALL);
 
 		EasyMock.expect(EventUtils.proceed(EasyMock.anyObject(),
 				EasyMock.eq(MusicPackProjectExporter.COPYING_TRACK_EVENT_RESULT_PROCEED))).andReturn(true).times(3);
-		EasyMock.expect(this.mockEventManager.dispatchEvent(EasyMock.eq(MusicPackProjectExporter.COPYING_TRACK_EVENT),
-				EasyMock.capture(copyTrackEventProperties))).andReturn(Arrays.asList()).times(3);
+		EasyMock.expect(this.mockEventManager.dispatchVetoableEvent(EasyMock.eq(MusicPackProjectExporter.COPYING_TRACK_EVENT),
+				EasyMock.capture(copyTrackEventProperties), EasyMock.eq(MusicPackProjectExporter.COPYING_TRACK_EVENT_RESULT_PROCEED))).andReturn(Arrays.asList()).times(3);
 
 		TrackStore mockTrackStore = this.createMock(TrackStore.class);
+		EasyMock.expect(mockTrackStore.getTrackSize(EasyMock.anyString())).andStubReturn(0l);
 
 		EasyMock.expect(mockTrackStoreManager.getTrackStore(mockMusicPackProject)).andReturn(mockTrackStore).once();
 
@@ -225,35 +191,18 @@ public class MusicPackProjectExporterImplTest extends EasyMockSupport {
 		track3MockInputStream.close();
 		EasyMock.expectLastCall().once();
 
-		OutputStream track1MockOutputStream = this.createMock(OutputStream.class);
-		OutputStream track2MockOutputStream = this.createMock(OutputStream.class);
-		OutputStream track3MockOutputStream = this.createMock(OutputStream.class);
-
-		EasyMock.expect(mockFileManager.newOutputStream(tracksDir.resolve(trackName1)))
-				.andReturn(track1MockOutputStream).once();
-		EasyMock.expect(mockFileManager.newOutputStream(tracksDir.resolve(trackName2)))
-				.andReturn(track2MockOutputStream).once();
-		EasyMock.expect(mockFileManager.newOutputStream(tracksDir.resolve(trackName3)))
-				.andReturn(track3MockOutputStream).once();
-
-		track1MockOutputStream.close();
-		EasyMock.expectLastCall().once();
-
-		track2MockOutputStream.close();
-		EasyMock.expectLastCall().once();
-
-		track3MockOutputStream.close();
-		EasyMock.expectLastCall().once();
-
 		PowerMock.mockStatic(Utils.class);
 
-		Utils.writeFromInputStreamToOutputStream(track1MockInputStream, track1MockOutputStream);
+		Utils.writeFromInputStreamToOutputStream(EasyMock.eq(track1MockInputStream),
+				EasyMock.anyObject(OutputStream.class));
 		EasyMock.expectLastCall().once();
 
-		Utils.writeFromInputStreamToOutputStream(track2MockInputStream, track2MockOutputStream);
+		Utils.writeFromInputStreamToOutputStream(EasyMock.eq(track2MockInputStream),
+				EasyMock.anyObject(OutputStream.class));
 		EasyMock.expectLastCall().once();
 
-		Utils.writeFromInputStreamToOutputStream(track3MockInputStream, track3MockOutputStream);
+		Utils.writeFromInputStreamToOutputStream(EasyMock.eq(track3MockInputStream),
+				EasyMock.anyObject(OutputStream.class));
 		EasyMock.expectLastCall().once();
 
 		Capture<LockableTypedProperties> preSuccessEventProperties = Capture.newInstance();
@@ -294,6 +243,175 @@ public class MusicPackProjectExporterImplTest extends EasyMockSupport {
 
 		this.checkForStandardProperties(successEventProperties.getValue());
 
+		ExportStatistics statistics = successEventProperties.getValue()
+				.getProperty(MusicPackProjectExporter.SUCCESS_EVENT_STATISTICS);
+		Assert.assertEquals(5, statistics.getEntryCount(ExportCompressionMode.DEFLATED));
+		Assert.assertEquals(0, statistics.getEntryCount(ExportCompressionMode.STORED));
+
+		Map<String, byte[]> entries = this.readZipEntries(exportOut.toByteArray());
+
+		Assert.assertEquals(Arrays.asList(MusicPackProjectExporter.BASE_FILE, MusicPackProjectExporter.PACK_FILE,
+				MusicPackProjectExporter.TRACKS_DIR, MusicPackProjectExporter.TRACKS_DIR + trackName1,
+				MusicPackProjectExporter.TRACKS_DIR + trackName2, MusicPackProjectExporter.TRACKS_DIR + trackName3),
+				new ArrayList<>(entries.keySet()));
+		Assert.assertArrayEquals(jsonArray, entries.get(MusicPackProjectExporter.BASE_FILE));
+
+		this.verifyAll();
+		PowerMock.verifyAll();
+	}
+
+	@Test
+	public void testExportPackToStream() throws Exception {
+		registeredMPPs.add(mockMusicPackProject);
+
+		this.expectWriteJSONFile(new byte[] { 4, 5 });
+
+		PowerMock.expectNew(ExtendedProperties.class).andStubReturn(this.createNiceMock(ExtendedProperties.class));
+
+		EasyMock.expect(mockEventManager.dispatchEvent(EasyMock.eq(MusicPackProjectExporter.CREATING_FILE_EVENT),
+				EasyMock.anyObject(LockableTypedProperties.class))).andReturn(Arrays.asList()).times(2);
+
+		Capture<LockableTypedProperties> copyTrackEventProperties = Capture.newInstance(CaptureType.ALL);
+
+		EasyMock.expect(this.mockEventManager.dispatchVetoableEvent(EasyMock.eq(MusicPackProjectExporter.COPYING_TRACK_EVENT),
+				EasyMock.capture(copyTrackEventProperties), EasyMock.eq(MusicPackProjectExporter.COPYING_TRACK_EVENT_RESULT_PROCEED))).andReturn(Arrays.asList()).times(3);
+
+		TrackStore mockTrackStore = this.createMock(TrackStore.class);
+		EasyMock.expect(mockTrackStore.getTrackSize(EasyMock.anyString())).andStubReturn(0l);
+
+		EasyMock.expect(mockTrackStoreManager.getTrackStore(mockMusicPackProject)).andReturn(mockTrackStore).once();
+
+		EasyMock.expect(mockTrackStore.openInputStream(trackName1))
+				.andReturn(new ByteArrayInputStream(new byte[] { 1 }));
+		EasyMock.expect(mockTrackStore.openInputStream(trackName2))
+				.andReturn(new ByteArrayInputStream(new byte[] { 2, 2 }));
+		EasyMock.expect(mockTrackStore.openInputStream(trackName3))
+				.andReturn(new ByteArrayInputStream(new byte[] { 3, 3, 3 }));
+
+		EasyMock.expect(this.mockEventManager.dispatchEvent(EasyMock.eq(MusicPackProjectExporter.PRE_SUCCESS_EVENT),
+				EasyMock.anyObject(LockableTypedProperties.class))).andReturn(Arrays.asList()).once();
+
+		Capture<LockableTypedProperties> successEventProperties = Capture.newInstance();
+
+		EasyMock.expect(this.mockEventManager.dispatchEvent(EasyMock.eq(MusicPackProjectExporter.SUCCESS_EVENT),
+				EasyMock.capture(successEventProperties))).andReturn(Arrays.asList()).once();
+
+		AtomicBoolean closed = new AtomicBoolean(false);
+		ByteArrayOutputStream exportOut = new ByteArrayOutputStream() {
+			@Override
+			public void close() throws IOException {
+				closed.set(true);
+			}
+		};
+
+		this.replayAll();
+		PowerMock.replayAll();
+
+		exporter.exportMusicPackProject(exportOut, mockMusicPackProject);
+
+		Assert.assertFalse(closed.get());
+
+		for (int i = 0; i < 3; i++) {
+			LockableTypedProperties copyTrackEventPropertiesValue = copyTrackEventProperties.getValues().get(i);
+			Assert.assertNull(copyTrackEventPropertiesValue.getProperty(MusicPackProjectExporter.COMMON_EVENT_LOCATION));
+			Assert.assertEquals(i == 0 ? trackName1 : i == 1 ? trackName2 : trackName3,
+					copyTrackEventPropertiesValue.getProperty(MusicPackProjectExporter.COPYING_TRACK_EVENT_TRACK_NAME));
+		}
+
+		Assert.assertEquals(mockMusicPackProject, successEventProperties.getValue()
+				.getProperty(MusicPackProjectExporter.COMMON_EVENT_MUSIC_PACK_PROJECT));
+
+		Map<String, byte[]> entries = this.readZipEntries(exportOut.toByteArray());
+
+		Assert.assertEquals(6, entries.size());
+		Assert.assertArrayEquals(new byte[] { 4, 5 }, entries.get(MusicPackProjectExporter.BASE_FILE));
+		Assert.assertArrayEquals(new byte[] { 1 }, entries.get(MusicPackProjectExporter.TRACKS_DIR + trackName1));
+		Assert.assertArrayEquals(new byte[] { 2, 2 }, entries.get(MusicPackProjectExporter.TRACKS_DIR + trackName2));
+		Assert.assertArrayEquals(new byte[] { 3, 3, 3 },
+				entries.get(MusicPackProjectExporter.TRACKS_DIR + trackName3));
+
+		this.verifyAll();
+		PowerMock.verifyAll();
+	}
+
+	@Test
+	public void testExportPackCompressionPolicy() throws Exception {
+		exporter.onActivate(this.createConfiguration(ExportCompressionMode.DEFLATED, ExportCompressionMode.AUTO,
+				ExportCompressionMode.STORED));
+
+		registeredMPPs.add(mockMusicPackProject);
+
+		Track oggTrack = new DefaultTrack("track.ogg");
+		tracksSet.add(oggTrack);
+
+		this.expectWriteJSONFile(new byte[100]);
+
+		PowerMock.expectNew(ExtendedProperties.class).andStubReturn(this.createNiceMock(ExtendedProperties.class));
+
+		Capture<LockableTypedProperties> successEventProperties = Capture.newInstance();
+
+		EasyMock.expect(this.mockEventManager.dispatchEvent(EasyMock.eq(MusicPackProjectExporter.SUCCESS_EVENT),
+				EasyMock.capture(successEventProperties))).andReturn(Arrays.asList()).once();
+
+		EasyMock.expect(mockEventManager.dispatchEvent(EasyMock.anyObject(EventInfo.class),
+				EasyMock.anyObject(LockableTypedProperties.class))).andStubReturn(Arrays.asList());
+		EasyMock.expect(mockEventManager.dispatchVetoableEvent(EasyMock.anyObject(EventInfo.class),
+				EasyMock.anyObject(LockableTypedProperties.class),
+				EasyMock.eq(MusicPackProjectExporter.COPYING_TRACK_EVENT_RESULT_PROCEED))).andStubReturn(Arrays.asList());
+
+		TrackStore mockTrackStore = this.createMock(TrackStore.class);
+		EasyMock.expect(mockTrackStore.getTrackSize(EasyMock.anyString())).andStubReturn(0l);
+
+		EasyMock.expect(mockTrackStoreManager.getTrackStore(mockMusicPackProject)).andReturn(mockTrackStore).once();
+
+		byte[] randomData = new byte[100000];
+		new Random(1).nextBytes(randomData);
+
+		// Stored tracks are read again when they're written
+		EasyMock.expect(mockTrackStore.openInputStream(trackName1)).andAnswer(() -> new ByteArrayInputStream(randomData))
+				.times(2);
+		EasyMock.expect(mockTrackStore.openInputStream(trackName2))
+				.andReturn(new ByteArrayInputStream(new byte[100000]));
+		EasyMock.expect(mockTrackStore.openInputStream(trackName3)).andAnswer(() -> new ByteArrayInputStream(new byte[0]))
+				.times(2);
+		EasyMock.expect(mockTrackStore.openInputStream("track.ogg"))
+				.andReturn(new ByteArrayInputStream(new byte[100000]));
+
+		ByteArrayOutputStream exportOut = new ByteArrayOutputStream();
+
+		this.replayAll();
+		PowerMock.replayAll();
+
+		exporter.exportMusicPackProject(exportOut, mockMusicPackProject);
+
+		Map<String, Integer> methods = new HashMap<>();
+		try (ZipInputStream zipIn = new ZipInputStream(new ByteArrayInputStream(exportOut.toByteArray()))) {
+			ZipEntry entry;
+			while ((entry = zipIn.getNextEntry()) != null)
+				methods.put(entry.getName(), entry.getMethod());
+		}
+
+		Assert.assertEquals(Integer.valueOf(ZipEntry.STORED), methods.get(MusicPackProjectExporter.BASE_FILE));
+		Assert.assertEquals(Integer.valueOf(ZipEntry.STORED), methods.get(MusicPackProjectExporter.PACK_FILE));
+		Assert.assertEquals(Integer.valueOf(ZipEntry.STORED),
+				methods.get(MusicPackProjectExporter.TRACKS_DIR + trackName1));
+		Assert.assertEquals(Integer.valueOf(ZipEntry.DEFLATED),
+				methods.get(MusicPackProjectExporter.TRACKS_DIR + trackName2));
+		Assert.assertEquals(Integer.valueOf(ZipEntry.STORED),
+				methods.get(MusicPackProjectExporter.TRACKS_DIR + trackName3));
+		Assert.assertEquals(Integer.valueOf(ZipEntry.DEFLATED),
+				methods.get(MusicPackProjectExporter.TRACKS_DIR + "track.ogg"));
+
+		ExportStatistics statistics = successEventProperties.getValue()
+				.getProperty(MusicPackProjectExporter.SUCCESS_EVENT_STATISTICS);
+		Assert.assertEquals(2, statistics.getEntryCount(ExportCompressionMode.STORED));
+		Assert.assertEquals(0, statistics.getSavedSize(ExportCompressionMode.STORED));
+		Assert.assertEquals(3, statistics.getEntryCount(ExportCompressionMode.AUTO));
+		Assert.assertEquals(200000, statistics.getUncompressedSize(ExportCompressionMode.AUTO));
+		Assert.assertTrue(statistics.getSavedSize(ExportCompressionMode.AUTO) > 90000);
+		Assert.assertEquals(1, statistics.getEntryCount(ExportCompressionMode.DEFLATED));
+		Assert.assertTrue(statistics.getSavedSize(ExportCompressionMode.DEFLATED) > 90000);
+
 		this.verifyAll();
 		PowerMock.verifyAll();
 	}
@@ -335,13 +453,10 @@ public class MusicPackProjectExporterImplTest extends EasyMockSupport {
 
 	@Test
 	public void testExportPackOverridePermitted() throws Exception {
-		PowerMock.mockStatic(FileSystems.class);
 		PowerMock.mockStaticPartialNice(EventUtils.class, "proceed");
 
 		registeredMPPs.add(mockMusicPackProject);
 
-		EasyMock.resetToNice(this.mockWriter);
-
 		EasyMock.expect(mockFileManager.exists(exportLocation)).andReturn(true).once();
 
 		Capture<LockableTypedProperties> overrideEventProperties = Capture.newInstance();
@@ -355,44 +470,20 @@ public class MusicPackProjectExporterImplTest extends EasyMockSupport {
 
 		EasyMock.expect(this.mockFileManager.deleteFile(exportLocation)).andReturn(true).once();
 
-		FileSystem mockFileSystem = this.createMock(FileSystem.class);
-
-		mockFileSystem.close();
-		EasyMock.expectLastCall().asStub();
-
-		EasyMock.expect(mockFileSystem.getSeparator()).andStubReturn("/");
+		ByteArrayOutputStream exportOut = new ByteArrayOutputStream();
 
-		EasyMock.expect(mockFileSystem.getPath(EasyMock.anyString(), EasyMock.anyString()))
-				.andStubAnswer(new IAnswer<Path>() {
-					@Override
-					public Path answer() throws Throwable {
-						return Paths.get(EasyMock.getCurrentArguments()[0].toString(),
-								EasyMock.getCurrentArguments()[1].toString());
-					}
-				});
-
-		EasyMock.expect(FileSystems.newFileSystem(URI.create("jar:" + exportLocation.toUri()), envs))
-				.andStubReturn(mockFileSystem);
+		EasyMock.expect(mockFileManager.newOutputStream(exportLocation)).andReturn(exportOut).once();
 
 		EasyMock.expect(mockEventManager.dispatchEvent(EasyMock.eq(MusicPackProjectExporter.CREATING_FILE_EVENT),
 				EasyMock.anyObject(LockableTypedProperties.class))).andReturn(null).times(2);
 
-		mockFileManager.write(EasyMock.eq(Paths.get(".", MusicPackProjectExporter.BASE_FILE)),
-				EasyMock.anyObject(byte[].class));
+		mockWriter.writeJSONFile(EasyMock.anyObject(), EasyMock.anyObject(OutputStream.class), EasyMock.eq(false));
 		EasyMock.expectLastCall().asStub();
 
 		PowerMock.expectNew(ExtendedProperties.class).andStubReturn(this.createNiceMock(ExtendedProperties.class));
 
-		PowerMock.expectNew(ByteArrayOutputStream.class)
-				.andStubReturn(this.createNiceMock(ByteArrayOutputStream.class));
-
-		mockFileManager.write(EasyMock.eq(Paths.get(".", MusicPackProjectExporter.PACK_FILE)),
-				EasyMock.anyObject(byte[].class));
-		EasyMock.expectLastCall().asStub();
-
-		EasyMock.expect(mockFileManager.createDir(EasyMock.anyObject(Path.class))).andStubReturn(true);
-
 		TrackStore mockTrackStore = this.createMock(TrackStore.class);
+		EasyMock.expect(mockTrackStore.getTrackSize(EasyMock.anyString())).andStubReturn(0l);
 
 		EasyMock.expect(mockTrackStoreManager.getTrackStore(mockMusicPackProject)).andStubReturn(mockTrackStore);
 
@@ -403,23 +494,16 @@ public class MusicPackProjectExporterImplTest extends EasyMockSupport {
 		track1MockInputStream.close();
 		EasyMock.expectLastCall().asStub();
 
-		OutputStream track1MockOutputStream = this.createMock(OutputStream.class);
-
-		EasyMock.expect(mockFileManager.newOutputStream(EasyMock.anyObject(Path.class)))
-				.andStubReturn(track1MockOutputStream);
-
-		track1MockOutputStream.close();
-		EasyMock.expectLastCall().asStub();
-
 		PowerMock.mockStatic(Utils.class);
 
-		Utils.writeFromInputStreamToOutputStream(track1MockInputStream, track1MockOutputStream);
+		Utils.writeFromInputStreamToOutputStream(EasyMock.eq(track1MockInputStream),
+				EasyMock.anyObject(OutputStream.class));
 		EasyMock.expectLastCall().asStub();
 
 		EasyMock.expect(EventUtils.proceed(EasyMock.anyObject(),
 				EasyMock.eq(MusicPackProjectExporter.COPYING_TRACK_EVENT_RESULT_PROCEED))).andReturn(true).times(3);
-		EasyMock.expect(this.mockEventManager.dispatchEvent(EasyMock.eq(MusicPackProjectExporter.COPYING_TRACK_EVENT),
-				EasyMock.anyObject(LockableTypedProperties.class))).andReturn(Arrays.asList()).times(3);
+		EasyMock.expect(this.mockEventManager.dispatchVetoableEvent(EasyMock.eq(MusicPackProjectExporter.COPYING_TRACK_EVENT),
+				EasyMock.anyObject(LockableTypedProperties.class), EasyMock.eq(MusicPackProjectExporter.COPYING_TRACK_EVENT_RESULT_PROCEED))).andReturn(Arrays.asList()).times(3);
 
 		EasyMock.expect(EventUtils.proceed(EasyMock.anyObject(),
 				EasyMock.eq(MusicPackProjectExporter.PRE_SUCCESS_EVENT_RESULT_PROCEED))).andStubReturn(true);
@@ -443,53 +527,26 @@ public class MusicPackProjectExporterImplTest extends EasyMockSupport {
 
 	@Test
 	public void testExportPackCopyTrackCancel() throws Exception {
-		PowerMock.mockStatic(FileSystems.class);
 		PowerMock.mockStaticPartialNice(EventUtils.class, "proceed");
 
 		registeredMPPs.add(mockMusicPackProject);
 
-		EasyMock.resetToNice(this.mockWriter);
-
 		EasyMock.expect(mockFileManager.exists(exportLocation)).andReturn(false).once();
 
-		FileSystem mockFileSystem = this.createMock(FileSystem.class);
-
-		mockFileSystem.close();
-		EasyMock.expectLastCall().asStub();
-
-		EasyMock.expect(mockFileSystem.getSeparator()).andStubReturn("/");
-
-		EasyMock.expect(mockFileSystem.getPath(EasyMock.anyString(), EasyMock.anyString()))
-				.andStubAnswer(new IAnswer<Path>() {
-					@Override
-					public Path answer() throws Throwable {
-						return Paths.get(EasyMock.getCurrentArguments()[0].toString(),
-								EasyMock.getCurrentArguments()[1].toString());
-					}
-				});
+		ByteArrayOutputStream exportOut = new ByteArrayOutputStream();
 
-		EasyMock.expect(FileSystems.newFileSystem(URI.create("jar:" + exportLocation.toUri()), envs))
-				.andStubReturn(mockFileSystem);
+		EasyMock.expect(mockFileManager.newOutputStream(exportLocation)).andReturn(exportOut).once();
 
 		EasyMock.expect(mockEventManager.dispatchEvent(EasyMock.eq(MusicPackProjectExporter.CREATING_FILE_EVENT),
 				EasyMock.anyObject(LockableTypedProperties.class))).andReturn(null).times(2);
 
-		mockFileManager.write(EasyMock.eq(Paths.get(".", MusicPackProjectExporter.BASE_FILE)),
-				EasyMock.anyObject(byte[].class));
+		mockWriter.writeJSONFile(EasyMock.anyObject(), EasyMock.anyObject(OutputStream.class), EasyMock.eq(false));
 		EasyMock.expectLastCall().asStub();
 
 		PowerMock.expectNew(ExtendedProperties.class).andStubReturn(this.createNiceMock(ExtendedProperties.class));
 
-		PowerMock.expectNew(ByteArrayOutputStream.class)
-				.andStubReturn(this.createNiceMock(ByteArrayOutputStream.class));
-
-		mockFileManager.write(EasyMock.eq(Paths.get(".", MusicPackProjectExporter.PACK_FILE)),
-				EasyMock.anyObject(byte[].class));
-		EasyMock.expectLastCall().asStub();
-
-		EasyMock.expect(mockFileManager.createDir(EasyMock.anyObject(Path.class))).andStubReturn(true);
-
 		TrackStore mockTrackStore = this.createMock(TrackStore.class);
+		EasyMock.expect(mockTrackStore.getTrackSize(EasyMock.anyString())).andStubReturn(0l);
 
 		EasyMock.expect(mockTrackStoreManager.getTrackStore(mockMusicPackProject)).andStubReturn(mockTrackStore);
 
@@ -500,24 +557,17 @@ public class MusicPackProjectExporterImplTest extends EasyMockSupport {
 		track1MockInputStream.close();
 		EasyMock.expectLastCall().asStub();
 
-		OutputStream track1MockOutputStream = this.createMock(OutputStream.class);
-
-		EasyMock.expect(mockFileManager.newOutputStream(EasyMock.anyObject(Path.class)))
-				.andStubReturn(track1MockOutputStream);
-
-		track1MockOutputStream.close();
-		EasyMock.expectLastCall().asStub();
-
 		PowerMock.mockStatic(Utils.class);
 
-		Utils.writeFromInputStreamToOutputStream(track1MockInputStream, track1MockOutputStream);
+		Utils.writeFromInputStreamToOutputStream(EasyMock.eq(track1MockInputStream),
+				EasyMock.anyObject(OutputStream.class));
 		EasyMock.expectLastCall().asStub();
 
 		EasyMock.expect(EventUtils.proceed(EasyMock.anyObject(),
 				EasyMock.eq(MusicPackProjectExporter.COPYING_TRACK_EVENT_RESULT_PROCEED))).andReturn(true).times(2)
 				.andReturn(false).once();
-		EasyMock.expect(this.mockEventManager.dispatchEvent(EasyMock.eq(MusicPackProjectExporter.COPYING_TRACK_EVENT),
-				EasyMock.anyObject(LockableTypedProperties.class))).andReturn(Arrays.asList()).atLeastOnce();
+		EasyMock.expect(this.mockEventManager.dispatchVetoableEvent(EasyMock.eq(MusicPackProjectExporter.COPYING_TRACK_EVENT),
+				EasyMock.anyObject(LockableTypedProperties.class), EasyMock.eq(MusicPackProjectExporter.COPYING_TRACK_EVENT_RESULT_PROCEED))).andReturn(Arrays.asList()).atLeastOnce();
 
 		EasyMock.expect(this.mockEventManager.dispatchEvent(EasyMock.eq(MusicPackProjectExporter.CANCEL_EVENT),
 				EasyMock.anyObject(LockableTypedProperties.class))).andReturn(Arrays.asList()).once();
@@ -535,53 +585,26 @@ public class MusicPackProjectExporterImplTest extends EasyMockSupport {
 
 	@Test
 	public void testExportPackPreSuccessCancel() throws Exception {
-		PowerMock.mockStatic(FileSystems.class);
 		PowerMock.mockStaticPartialNice(EventUtils.class, "proceed");
 
 		registeredMPPs.add(mockMusicPackProject);
 
-		EasyMock.resetToNice(this.mockWriter);
-
 		EasyMock.expect(mockFileManager.exists(exportLocation)).andReturn(false).once();
 
-		FileSystem mockFileSystem = this.createMock(FileSystem.class);
+		ByteArrayOutputStream exportOut = new ByteArrayOutputStream();
 
-		mockFileSystem.close();
-		EasyMock.expectLastCall().asStub();
-
-		EasyMock.expect(mockFileSystem.getSeparator()).andStubReturn("/");
-
-		EasyMock.expect(mockFileSystem.getPath(EasyMock.anyString(), EasyMock.anyString()))
-				.andStubAnswer(new IAnswer<Path>() {
-					@Override
-					public Path answer() throws Throwable {
-						return Paths.get(EasyMock.getCurrentArguments()[0].toString(),
-								EasyMock.getCurrentArguments()[1].toString());
-					}
-				});
-
-		EasyMock.expect(FileSystems.newFileSystem(URI.create("jar:" + exportLocation.toUri()), envs))
-				.andStubReturn(mockFileSystem);
+		EasyMock.expect(mockFileManager.newOutputStream(exportLocation)).andReturn(exportOut).once();
 
 		EasyMock.expect(mockEventManager.dispatchEvent(EasyMock.eq(MusicPackProjectExporter.CREATING_FILE_EVENT),
 				EasyMock.anyObject(LockableTypedProperties.class))).andReturn(null).times(2);
 
-		mockFileManager.write(EasyMock.eq(Paths.get(".", MusicPackProjectExporter.BASE_FILE)),
-				EasyMock.anyObject(byte[].class));
+		mockWriter.writeJSONFile(EasyMock.anyObject(), EasyMock.anyObject(OutputStream.class), EasyMock.eq(false));
 		EasyMock.expectLastCall().asStub();
 
 		PowerMock.expectNew(ExtendedProperties.class).andStubReturn(this.createNiceMock(ExtendedProperties.class));
 
-		PowerMock.expectNew(ByteArrayOutputStream.class)
-				.andStubReturn(this.createNiceMock(ByteArrayOutputStream.class));
-
-		mockFileManager.write(EasyMock.eq(Paths.get(".", MusicPackProjectExporter.PACK_FILE)),
-				EasyMock.anyObject(byte[].class));
-		EasyMock.expectLastCall().asStub();
-
-		EasyMock.expect(mockFileManager.createDir(EasyMock.anyObject(Path.class))).andStubReturn(true);
-
 		TrackStore mockTrackStore = this.createMock(TrackStore.class);
+		EasyMock.expect(mockTrackStore.getTrackSize(EasyMock.anyString())).andStubReturn(0l);
 
 		EasyMock.expect(mockTrackStoreManager.getTrackStore(mockMusicPackProject)).andStubReturn(mockTrackStore);
 
@@ -592,23 +615,16 @@ public class MusicPackProjectExporterImplTest extends EasyMockSupport {
 		track1MockInputStream.close();
 		EasyMock.expectLastCall().asStub();
 
-		OutputStream track1MockOutputStream = this.createMock(OutputStream.class);
-
-		EasyMock.expect(mockFileManager.newOutputStream(EasyMock.anyObject(Path.class)))
-				.andStubReturn(track1MockOutputStream);
-
-		track1MockOutputStream.close();
-		EasyMock.expectLastCall().asStub();
-
 		PowerMock.mockStatic(Utils.class);
 
-		Utils.writeFromInputStreamToOutputStream(track1MockInputStream, track1MockOutputStream);
+		Utils.writeFromInputStreamToOutputStream(EasyMock.eq(track1MockInputStream),
+				EasyMock.anyObject(OutputStream.class));
 		EasyMock.expectLastCall().asStub();
 
 		EasyMock.expect(EventUtils.proceed(EasyMock.anyObject(),
 				EasyMock.eq(MusicPackProjectExporter.COPYING_TRACK_EVENT_RESULT_PROCEED))).andReturn(true).times(3);
-		EasyMock.expect(this.mockEventManager.dispatchEvent(EasyMock.eq(MusicPackProjectExporter.COPYING_TRACK_EVENT),
-				EasyMock.anyObject(LockableTypedProperties.class))).andReturn(Arrays.asList()).times(3);
+		EasyMock.expect(this.mockEventManager.dispatchVetoableEvent(EasyMock.eq(MusicPackProjectExporter.COPYING_TRACK_EVENT),
+				EasyMock.anyObject(LockableTypedProperties.class), EasyMock.eq(MusicPackProjectExporter.COPYING_TRACK_EVENT_RESULT_PROCEED))).andReturn(Arrays.asList()).times(3);
 
 		EasyMock.expect(EventUtils.proceed(EasyMock.anyObject(),
 				EasyMock.eq(MusicPackProjectExporter.PRE_SUCCESS_EVENT_RESULT_PROCEED))).andStubReturn(false);
@@ -660,6 +676,76 @@ public class MusicPackProjectExporterImplTest extends EasyMockSupport {
 
 	}
 
+	private void expectWriteJSONFile(byte[] data) throws IOException {
+		mockWriter.writeJSONFile(EasyMock.eq(tracksSet), EasyMock.anyObject(OutputStream.class), EasyMock.eq(false));
+		EasyMock.expectLastCall().andAnswer(() -> {
+			((OutputStream) EasyMock.getCurrentArguments()[1]).write(data);
+			return null;
+		}).once();
+	}
+
+	private Configuration createConfiguration(ExportCompressionMode oggTrackCompression,
+			ExportCompressionMode otherTrackCompression, ExportCompressionMode metadataCompression) {
+		return new Configuration() {
+
+			@Override
+			public Class<? extends Annotation> annotationType() {
+				return Configuration.class;
+			}
+
+			@Override
+			public int compressionThreads() {
+				return 2;
+			}
+
+			@Override
+			public ExportCompressionMode oggTrackCompression() {
+				return oggTrackCompression;
+			}
+
+			@Override
+			public ExportCompressionMode otherTrackCompression() {
+				return otherTrackCompression;
+			}
+
+			@Override
+			public ExportCompressionMode metadataCompression() {
+				return metadataCompression;
+			}
+
+			@Override
+			public int compressionLevel() {
+				return Deflater.BEST_COMPRESSION;
+			}
+
+			@Override
+			public boolean incrementalExport() {
+				return false;
+			}
+
+			@Override
+			public boolean compactMusicJson() {
+				return false;
+			}
+		};
+	}
+
+	private Map<String, byte[]> readZipEntries(byte[] zipData) throws IOException {
+		Map<String, byte[]> entries = new LinkedHashMap<>();
+		try (ZipInputStream zipIn = new ZipInputStream(new ByteArrayInputStream(zipData))) {
+			ZipEntry entry;
+			while ((entry = zipIn.getNextEntry()) != null) {
+				ByteArrayOutputStream entryData = new ByteArrayOutputStream();
+				byte[] buffer = new byte[1024];
+				int read;
+				while ((read = zipIn.read(buffer)) != -1)
+					entryData.write(buffer, 0, read);
+				entries.put(entry.getName(), entryData.toByteArray());
+			}
+		}
+		return entries;
+	}
+
 	private void checkForStandardProperties(LockableTypedProperties properties) {
 		Assert.assertEquals(mockMusicPackProject,
 				properties.getProperty(MusicPackProjectExporter.COMMON_EVENT_MUSIC_PACK_PROJECT));
@@ -1,9 +1,11 @@
 package craftedMods.lotr.mpc.core.provider;
 
 import java.io.*;
+import java.lang.annotation.Annotation;
 import java.nio.file.*;
 import java.nio.file.FileSystem;
 import java.util.*;
+import java.util.zip.*;
 
 import org.easymock.*;
 import org.junit.*;
@@ -15,10 +17,11 @@ import org.powermock.modules.junit4.PowerMockRunner;
 
 import com.google.gson.JsonSyntaxException;
 
-import craftedMods.eventManager.api.EventManager;
+import craftedMods.eventManager.api.*;
 import craftedMods.eventManager.base.EventUtils;
 import craftedMods.fileManager.api.FileManager;
 import craftedMods.lotr.mpc.core.api.*;
+import craftedMods.lotr.mpc.core.provider.MusicPackProjectImporterImpl.Configuration;
 import craftedMods.lotr.mpc.persistence.api.*;
 import craftedMods.utils.Utils;
 import craftedMods.utils.data.*;
@@ -205,8 +208,8 @@ public class MusicPackProjectImporterImplTest extends EasyMockSupport {
 				.once();
 
 		Capture<LockableTypedProperties> copyingTrackEventPropertiesCapture = Capture.newInstance(CaptureType.ALL);
-		EasyMock.expect(mockEventManager.dispatchEvent(EasyMock.eq(MusicPackProjectImporter.COPYING_TRACK_EVENT),
-				EasyMock.capture(copyingTrackEventPropertiesCapture))).andReturn(null).times(3);
+		EasyMock.expect(mockEventManager.dispatchVetoableEvent(EasyMock.eq(MusicPackProjectImporter.COPYING_TRACK_EVENT),
+				EasyMock.capture(copyingTrackEventPropertiesCapture), EasyMock.eq(MusicPackProjectImporter.COPYING_TRACK_EVENT_RESULT_PROCEED))).andReturn(null).times(3);
 
 		EasyMock.expect(EventUtils.proceed(EasyMock.anyObject(),
 				EasyMock.eq(MusicPackProjectImporter.COPYING_TRACK_EVENT_RESULT_PROCEED))).andReturn(true).times(3);
@@ -412,8 +415,8 @@ public class MusicPackProjectImporterImplTest extends EasyMockSupport {
 				.once();
 
 		Capture<LockableTypedProperties> copyingTrackEventPropertiesCapture = Capture.newInstance(CaptureType.ALL);
-		EasyMock.expect(mockEventManager.dispatchEvent(EasyMock.eq(MusicPackProjectImporter.COPYING_TRACK_EVENT),
-				EasyMock.capture(copyingTrackEventPropertiesCapture))).andReturn(null).times(3);
+		EasyMock.expect(mockEventManager.dispatchVetoableEvent(EasyMock.eq(MusicPackProjectImporter.COPYING_TRACK_EVENT),
+				EasyMock.capture(copyingTrackEventPropertiesCapture), EasyMock.eq(MusicPackProjectImporter.COPYING_TRACK_EVENT_RESULT_PROCEED))).andReturn(null).times(3);
 
 		EasyMock.expect(EventUtils.proceed(EasyMock.anyObject(),
 				EasyMock.eq(MusicPackProjectImporter.COPYING_TRACK_EVENT_RESULT_PROCEED))).andReturn(true).times(3);
@@ -641,8 +644,8 @@ public class MusicPackProjectImporterImplTest extends EasyMockSupport {
 				.once();
 
 		Capture<LockableTypedProperties> copyingTrackEventPropertiesCapture = Capture.newInstance(CaptureType.ALL);
-		EasyMock.expect(mockEventManager.dispatchEvent(EasyMock.eq(MusicPackProjectImporter.COPYING_TRACK_EVENT),
-				EasyMock.capture(copyingTrackEventPropertiesCapture))).andReturn(null).times(3);
+		EasyMock.expect(mockEventManager.dispatchVetoableEvent(EasyMock.eq(MusicPackProjectImporter.COPYING_TRACK_EVENT),
+				EasyMock.capture(copyingTrackEventPropertiesCapture), EasyMock.eq(MusicPackProjectImporter.COPYING_TRACK_EVENT_RESULT_PROCEED))).andReturn(null).times(3);
 
 		EasyMock.expect(EventUtils.proceed(EasyMock.anyObject(),
 				EasyMock.eq(MusicPackProjectImporter.COPYING_TRACK_EVENT_RESULT_PROCEED))).andReturn(true).times(3);
@@ -1387,8 +1390,8 @@ public class MusicPackProjectImporterImplTest extends EasyMockSupport {
 				.once();
 
 		Capture<LockableTypedProperties> copyingTrackEventPropertiesCapture = Capture.newInstance(CaptureType.ALL);
-		EasyMock.expect(mockEventManager.dispatchEvent(EasyMock.eq(MusicPackProjectImporter.COPYING_TRACK_EVENT),
-				EasyMock.capture(copyingTrackEventPropertiesCapture))).andReturn(null).times(2);
+		EasyMock.expect(mockEventManager.dispatchVetoableEvent(EasyMock.eq(MusicPackProjectImporter.COPYING_TRACK_EVENT),
+				EasyMock.capture(copyingTrackEventPropertiesCapture), EasyMock.eq(MusicPackProjectImporter.COPYING_TRACK_EVENT_RESULT_PROCEED))).andReturn(null).times(2);
 
 		EasyMock.expect(EventUtils.proceed(EasyMock.anyObject(),
 				EasyMock.eq(MusicPackProjectImporter.COPYING_TRACK_EVENT_RESULT_PROCEED))).andReturn(true).times(2);
@@ -1931,8 +1934,8 @@ public class MusicPackProjectImporterImplTest extends EasyMockSupport {
 				.once();
 
 		Capture<LockableTypedProperties> copyingTrackEventPropertiesCapture = Capture.newInstance(CaptureType.ALL);
-		EasyMock.expect(mockEventManager.dispatchEvent(EasyMock.eq(MusicPackProjectImporter.COPYING_TRACK_EVENT),
-				EasyMock.capture(copyingTrackEventPropertiesCapture))).andReturn(null).times(3);
+		EasyMock.expect(mockEventManager.dispatchVetoableEvent(EasyMock.eq(MusicPackProjectImporter.COPYING_TRACK_EVENT),
+				EasyMock.capture(copyingTrackEventPropertiesCapture), EasyMock.eq(MusicPackProjectImporter.COPYING_TRACK_EVENT_RESULT_PROCEED))).andReturn(null).times(3);
 
 		EasyMock.expect(EventUtils.proceed(EasyMock.anyObject(),
 				EasyMock.eq(MusicPackProjectImporter.COPYING_TRACK_EVENT_RESULT_PROCEED))).andReturn(true).times(2)
@@ -2141,8 +2144,8 @@ public class MusicPackProjectImporterImplTest extends EasyMockSupport {
 				.once();
 
 		Capture<LockableTypedProperties> copyingTrackEventPropertiesCapture = Capture.newInstance(CaptureType.ALL);
-		EasyMock.expect(mockEventManager.dispatchEvent(EasyMock.eq(MusicPackProjectImporter.COPYING_TRACK_EVENT),
-				EasyMock.capture(copyingTrackEventPropertiesCapture))).andReturn(null).times(3);
+		EasyMock.expect(mockEventManager.dispatchVetoableEvent(EasyMock.eq(MusicPackProjectImporter.COPYING_TRACK_EVENT),
+				EasyMock.capture(copyingTrackEventPropertiesCapture), EasyMock.eq(MusicPackProjectImporter.COPYING_TRACK_EVENT_RESULT_PROCEED))).andReturn(null).times(3);
 
 		EasyMock.expect(EventUtils.proceed(EasyMock.anyObject(),
 				EasyMock.eq(MusicPackProjectImporter.COPYING_TRACK_EVENT_RESULT_PROCEED))).andReturn(true).times(3);
@@ -2253,6 +2256,281 @@ public class MusicPackProjectImporterImplTest extends EasyMockSupport {
 		PowerMock.verifyAll();
 	}
 
+	@Test
+	public void testImportPackFromStream() throws Exception {
+		byte[] musicJson = new byte[] { 1, 2, 3 };
+
+		ByteArrayOutputStream packData = new ByteArrayOutputStream();
+		try (ZipOutputStream zip = new ZipOutputStream(packData)) {
+			zip.putNextEntry(new ZipEntry(MusicPackProjectExporter.BASE_FILE));
+			zip.write(musicJson);
+			zip.putNextEntry(new ZipEntry(MusicPackProjectExporter.PACK_FILE));
+			zip.write((MusicPackProjectExporter.PACK_PROJECT_NAME_KEY + "=Imported\n"
+					+ MusicPackProjectExporter.PACK_TRACKS_KEY + "=2\nkey=value\n").getBytes("ISO-8859-1"));
+			zip.putNextEntry(new ZipEntry(MusicPackProjectExporter.TRACKS_DIR));
+			zip.putNextEntry(new ZipEntry(MusicPackProjectExporter.TRACKS_DIR + "cover.png"));
+			zip.write(new byte[] { 8 });
+			zip.putNextEntry(new ZipEntry(MusicPackProjectExporter.TRACKS_DIR + "a.ogg"));
+			zip.write(new byte[] { 4, 5 });
+			zip.putNextEntry(new ZipEntry(MusicPackProjectExporter.TRACKS_DIR + "b.ogg"));
+			zip.write(new byte[] { 6 });
+			zip.putNextEntry(new ZipEntry(MusicPackProjectExporter.TRACKS_DIR + "readme.txt"));
+			zip.write(new byte[] { 7 });
+		}
+
+		List<EventInfo> events = new ArrayList<>();
+		List<LockableTypedProperties> eventProperties = new ArrayList<>();
+		IAnswer<Collection<ReadOnlyTypedProperties>> recordEvent = () -> {
+			events.add((EventInfo) EasyMock.getCurrentArguments()[0]);
+			eventProperties.add((LockableTypedProperties) EasyMock.getCurrentArguments()[1]);
+			return new ArrayList<>();
+		};
+		EasyMock.expect(mockEventManager.dispatchEvent(EasyMock.anyObject(EventInfo.class),
+				EasyMock.anyObject(LockableTypedProperties.class))).andStubAnswer(recordEvent);
+		EasyMock.expect(mockEventManager.dispatchVetoableEvent(EasyMock.anyObject(EventInfo.class),
+				EasyMock.anyObject(LockableTypedProperties.class),
+				EasyMock.eq(MusicPackProjectImporter.COPYING_TRACK_EVENT_RESULT_PROCEED))).andStubAnswer(recordEvent);
+
+		List<MusicPackProject> registeredProjects = new ArrayList<>();
+		EasyMock.expect(mockMusicPackProjectManager.getUnusedMusicPackProjectName(EasyMock.anyString()))
+				.andStubAnswer(() -> (String) EasyMock.getCurrentArguments()[0]);
+		EasyMock.expect(mockMusicPackProjectManager.getRegisteredMusicPackProjects())
+				.andStubReturn(registeredProjects);
+		EasyMock.expect(mockMusicPackProjectManager.registerMusicPackProject(EasyMock.anyObject())).andAnswer(() -> {
+			registeredProjects.add((MusicPackProject) EasyMock.getCurrentArguments()[0]);
+			return (MusicPackProject) EasyMock.getCurrentArguments()[0];
+		}).once();
+		mockMusicPackProjectManager.saveMusicPackProject(EasyMock.anyObject());
+		EasyMock.expectLastCall().once();
+		EasyMock.expect(mockMusicPackProjectManager.renameMusicPackProject(EasyMock.anyObject(), EasyMock.eq("Imported")))
+				.andReturn(true).once();
+
+		Track track1 = this.createMock(Track.class);
+		Track track2 = this.createMock(Track.class);
+		EasyMock.expect(mockReader.readJSONFile(EasyMock.anyObject(InputStream.class))).andAnswer(() -> {
+			InputStream in = (InputStream) EasyMock.getCurrentArguments()[0];
+			byte[] content = new byte[musicJson.length];
+			new DataInputStream(in).readFully(content);
+			Assert.assertArrayEquals(musicJson, content);
+			return Arrays.asList(track1, track2);
+		}).once();
+
+		TrackStore mockTrackStore = this.createMock(TrackStore.class);
+		EasyMock.expect(mockTrackStoreManager.getTrackStore(EasyMock.anyObject())).andStubReturn(mockTrackStore);
+
+		ByteArrayOutputStream track1Out = new ByteArrayOutputStream();
+		ByteArrayOutputStream track2Out = new ByteArrayOutputStream();
+		EasyMock.expect(mockTrackStore.openOutputStream("a.ogg")).andReturn(track1Out).once();
+		EasyMock.expect(mockTrackStore.openOutputStream("b.ogg")).andReturn(track2Out).once();
+
+		this.replayAll();
+		PowerMock.replayAll();
+
+		MusicPackProject project = importer.importMusicPackProject(new ByteArrayInputStream(packData.toByteArray()),
+				"suggested");
+
+		Assert.assertNotNull(project);
+		Assert.assertEquals(Arrays.asList(track1, track2), new ArrayList<>(project.getMusicPack().getTracks()));
+		Assert.assertEquals("value", project.getProperties().getString("key", null));
+		Assert.assertNull(project.getProperties().getString(MusicPackProjectExporter.PACK_TRACKS_KEY, null));
+
+		Assert.assertArrayEquals(new byte[] { 4, 5 }, track1Out.toByteArray());
+		Assert.assertArrayEquals(new byte[] { 6 }, track2Out.toByteArray());
+
+		Assert.assertEquals(Arrays.asList(MusicPackProjectImporter.READING_FILE_EVENT,
+				MusicPackProjectImporter.READING_FILE_EVENT, MusicPackProjectImporter.TRACK_COUNT_DETERMINED_EVENT,
+				MusicPackProjectImporter.COPYING_TRACK_EVENT, MusicPackProjectImporter.COPYING_TRACK_EVENT,
+				MusicPackProjectImporter.NON_OGG_TRACK_FILES_FOUND_EVENT, MusicPackProjectImporter.PRE_SUCCESS_EVENT,
+				MusicPackProjectImporter.SUCCESS_EVENT), events);
+		Assert.assertEquals(Integer.valueOf(2), eventProperties.get(2)
+				.getProperty(MusicPackProjectImporter.TRACK_COUNT_DETERMINED_EVENT_TRACK_COUNT));
+		Assert.assertEquals("b.ogg",
+				eventProperties.get(4).getProperty(MusicPackProjectImporter.COPYING_TRACK_EVENT_TRACK_NAME));
+		Assert.assertEquals(Arrays.asList("cover.png", "readme.txt"), eventProperties.get(5)
+				.getProperty(MusicPackProjectImporter.NON_OGG_TRACK_FILES_FOUND_EVENT_FILENAMES));
+		for (LockableTypedProperties properties : eventProperties)
+			Assert.assertNull(properties.getProperty(MusicPackProjectImporter.COMMON_EVENT_LOCATION));
+
+		this.verifyAll();
+		PowerMock.verifyAll();
+	}
+
+	@Test
+	public void testImportPackCopiesTracksConcurrently() throws Exception {
+		int trackCount = 200;
+		Path packFile = Files.createTempFile("pack", ".zip");
+		try {
+			try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(packFile))) {
+				zip.putNextEntry(new ZipEntry(MusicPackProjectExporter.BASE_FILE));
+				zip.write(new byte[] { 1 });
+				zip.putNextEntry(new ZipEntry(MusicPackProjectExporter.TRACKS_DIR));
+				for (int i = 0; i < trackCount; i++) {
+					zip.putNextEntry(new ZipEntry(MusicPackProjectExporter.TRACKS_DIR + "track" + i + ".ogg"));
+					zip.write(new byte[] { (byte) i, 2, 3 });
+				}
+			}
+
+			EasyMock.expect(mockFileManager.exists(EasyMock.anyObject(Path.class)))
+					.andStubAnswer(() -> Files.exists((Path) EasyMock.getCurrentArguments()[0]));
+			EasyMock.expect(mockFileManager.read(EasyMock.anyObject(Path.class)))
+					.andStubAnswer(() -> Files.readAllBytes((Path) EasyMock.getCurrentArguments()[0]));
+			EasyMock.expect(mockFileManager.getPathsInDirectory(EasyMock.anyObject(Path.class)))
+					.andStubAnswer(() -> Files.list((Path) EasyMock.getCurrentArguments()[0]));
+			EasyMock.expect(mockFileManager.newInputStream(EasyMock.anyObject(Path.class)))
+					.andStubAnswer(() -> Files.newInputStream((Path) EasyMock.getCurrentArguments()[0]));
+
+			EasyMock.expect(mockEventManager.dispatchEvent(EasyMock.anyObject(EventInfo.class),
+					EasyMock.anyObject(LockableTypedProperties.class))).andStubReturn(new ArrayList<>());
+			EasyMock.expect(mockEventManager.dispatchVetoableEvent(EasyMock.anyObject(EventInfo.class),
+					EasyMock.anyObject(LockableTypedProperties.class),
+					EasyMock.eq(MusicPackProjectImporter.COPYING_TRACK_EVENT_RESULT_PROCEED)))
+					.andStubReturn(new ArrayList<>());
+
+			EasyMock.expect(mockMusicPackProjectManager.getUnusedMusicPackProjectName(EasyMock.anyString()))
+					.andStubAnswer(() -> (String) EasyMock.getCurrentArguments()[0]);
+			EasyMock.expect(mockMusicPackProjectManager.registerMusicPackProject(EasyMock.anyObject()))
+					.andAnswer(() -> (MusicPackProject) EasyMock.getCurrentArguments()[0]).once();
+			mockMusicPackProjectManager.saveMusicPackProject(EasyMock.anyObject());
+			EasyMock.expectLastCall().once();
+			EasyMock.expect(mockReader.readJSONFile(EasyMock.anyObject(byte[].class))).andReturn(new ArrayList<>())
+					.once();
+
+			// The tracks have to be added to the store on the importing thread
+			Map<String, ByteArrayOutputStream> storedTracks = new HashMap<>();
+			Set<Thread> storingThreads = new HashSet<>();
+			TrackStore mockTrackStore = this.createMock(TrackStore.class);
+			EasyMock.expect(mockTrackStoreManager.getTrackStore(EasyMock.anyObject())).andStubReturn(mockTrackStore);
+			EasyMock.expect(mockTrackStore.openOutputStream(EasyMock.anyString())).andStubAnswer(() -> {
+				storingThreads.add(Thread.currentThread());
+				ByteArrayOutputStream out = new ByteArrayOutputStream();
+				storedTracks.put((String) EasyMock.getCurrentArguments()[0], out);
+				return out;
+			});
+
+			this.replayAll();
+
+			importer.onActivate(this.createConfiguration(4));
+			Assert.assertNotNull(importer.importMusicPackProject(packFile));
+
+			Assert.assertEquals(Collections.singleton(Thread.currentThread()), storingThreads);
+			Assert.assertEquals(trackCount, storedTracks.size());
+			for (int i = 0; i < trackCount; i++)
+				Assert.assertArrayEquals(new byte[] { (byte) i, 2, 3 },
+						storedTracks.get("track" + i + ".ogg").toByteArray());
+
+			this.verifyAll();
+		} finally {
+			Files.delete(packFile);
+		}
+	}
+
+	@Test
+	public void testImportPackFromStreamCopyTrackCancel() throws Exception {
+		ByteArrayOutputStream packData = new ByteArrayOutputStream();
+		try (ZipOutputStream zip = new ZipOutputStream(packData)) {
+			zip.putNextEntry(new ZipEntry(MusicPackProjectExporter.TRACKS_DIR + "a.ogg"));
+			zip.write(new byte[] { 4, 5 });
+			zip.putNextEntry(new ZipEntry(MusicPackProjectExporter.BASE_FILE));
+			zip.write(new byte[] { 1 });
+		}
+
+		List<EventInfo> events = new ArrayList<>();
+		IAnswer<Collection<ReadOnlyTypedProperties>> recordEvent = () -> {
+			EventInfo event = (EventInfo) EasyMock.getCurrentArguments()[0];
+			events.add(event);
+			if (event == MusicPackProjectImporter.COPYING_TRACK_EVENT) {
+				LockableTypedProperties result = new DefaultTypedProperties();
+				result.put(MusicPackProjectImporter.COPYING_TRACK_EVENT_RESULT_PROCEED, false);
+				return Arrays.asList(result);
+			}
+			return new ArrayList<>();
+		};
+		EasyMock.expect(mockEventManager.dispatchEvent(EasyMock.anyObject(EventInfo.class),
+				EasyMock.anyObject(LockableTypedProperties.class))).andStubAnswer(recordEvent);
+		EasyMock.expect(mockEventManager.dispatchVetoableEvent(EasyMock.anyObject(EventInfo.class),
+				EasyMock.anyObject(LockableTypedProperties.class),
+				EasyMock.eq(MusicPackProjectImporter.COPYING_TRACK_EVENT_RESULT_PROCEED))).andStubAnswer(recordEvent);
+
+		EasyMock.expect(mockMusicPackProjectManager.getUnusedMusicPackProjectName("suggested"))
+				.andReturn("suggested").once();
+		EasyMock.expect(mockMusicPackProjectManager.getRegisteredMusicPackProjects())
+				.andStubReturn(new ArrayList<>());
+
+		this.replayAll();
+		PowerMock.replayAll();
+
+		Assert.assertNull(importer.importMusicPackProject(new ByteArrayInputStream(packData.toByteArray()),
+				"suggested"));
+
+		// The track count isn't known yet when the first track is copied
+		Assert.assertEquals(Arrays.asList(MusicPackProjectImporter.COPYING_TRACK_EVENT,
+				MusicPackProjectImporter.CANCEL_EVENT), events);
+
+		this.verifyAll();
+		PowerMock.verifyAll();
+	}
+
+	@Test
+	public void testImportPackFromStreamTracksBeforeMusicJSON() throws Exception {
+		ByteArrayOutputStream packData = new ByteArrayOutputStream();
+		try (ZipOutputStream zip = new ZipOutputStream(packData)) {
+			zip.putNextEntry(new ZipEntry(MusicPackProjectExporter.TRACKS_DIR + "a.ogg"));
+			zip.write(new byte[] { 4, 5 });
+			zip.putNextEntry(new ZipEntry(MusicPackProjectExporter.BASE_FILE));
+			zip.write(new byte[] { 1 });
+		}
+
+		List<EventInfo> events = new ArrayList<>();
+		List<LockableTypedProperties> eventProperties = new ArrayList<>();
+		IAnswer<Collection<ReadOnlyTypedProperties>> recordEvent = () -> {
+			events.add((EventInfo) EasyMock.getCurrentArguments()[0]);
+			eventProperties.add((LockableTypedProperties) EasyMock.getCurrentArguments()[1]);
+			return new ArrayList<>();
+		};
+		EasyMock.expect(mockEventManager.dispatchEvent(EasyMock.anyObject(EventInfo.class),
+				EasyMock.anyObject(LockableTypedProperties.class))).andStubAnswer(recordEvent);
+		EasyMock.expect(mockEventManager.dispatchVetoableEvent(EasyMock.anyObject(EventInfo.class),
+				EasyMock.anyObject(LockableTypedProperties.class),
+				EasyMock.eq(MusicPackProjectImporter.COPYING_TRACK_EVENT_RESULT_PROCEED))).andStubAnswer(recordEvent);
+
+		List<MusicPackProject> registeredProjects = new ArrayList<>();
+		EasyMock.expect(mockMusicPackProjectManager.getUnusedMusicPackProjectName("suggested"))
+				.andReturn("suggested").once();
+		EasyMock.expect(mockMusicPackProjectManager.getRegisteredMusicPackProjects())
+				.andStubReturn(registeredProjects);
+		EasyMock.expect(mockMusicPackProjectManager.registerMusicPackProject(EasyMock.anyObject())).andAnswer(() -> {
+			registeredProjects.add((MusicPackProject) EasyMock.getCurrentArguments()[0]);
+			return (MusicPackProject) EasyMock.getCurrentArguments()[0];
+		}).once();
+		mockMusicPackProjectManager.saveMusicPackProject(EasyMock.anyObject());
+		EasyMock.expectLastCall().once();
+
+		Track track = this.createMock(Track.class);
+		EasyMock.expect(mockReader.readJSONFile(EasyMock.anyObject(InputStream.class)))
+				.andReturn(Arrays.asList(track)).once();
+
+		TrackStore mockTrackStore = this.createMock(TrackStore.class);
+		EasyMock.expect(mockTrackStoreManager.getTrackStore(EasyMock.anyObject())).andStubReturn(mockTrackStore);
+		EasyMock.expect(mockTrackStore.openOutputStream("a.ogg")).andReturn(new ByteArrayOutputStream()).once();
+
+		this.replayAll();
+		PowerMock.replayAll();
+
+		Assert.assertNotNull(importer.importMusicPackProject(new ByteArrayInputStream(packData.toByteArray()),
+				"suggested"));
+
+		// The track count is dispatched once music.json declared it
+		Assert.assertEquals(Arrays.asList(MusicPackProjectImporter.COPYING_TRACK_EVENT,
+				MusicPackProjectImporter.READING_FILE_EVENT, MusicPackProjectImporter.TRACK_COUNT_DETERMINED_EVENT,
+				MusicPackProjectImporter.FILE_NOT_FOUND_EVENT, MusicPackProjectImporter.PRE_SUCCESS_EVENT,
+				MusicPackProjectImporter.SUCCESS_EVENT), events);
+		Assert.assertEquals(Integer.valueOf(1), eventProperties.get(2)
+				.getProperty(MusicPackProjectImporter.TRACK_COUNT_DETERMINED_EVENT_TRACK_COUNT));
+
+		this.verifyAll();
+		PowerMock.verifyAll();
+	}
+
 	@Test
 	public void testImportPackUnexpectedErrorUnregisteredProject() throws IOException {
 		PowerMock.mockStatic(FileSystems.class);
@@ -2412,4 +2690,24 @@ public class MusicPackProjectImporterImplTest extends EasyMockSupport {
 		this.verifyAll();
 		PowerMock.verifyAll();
 	}
+
+	private Configuration createConfiguration(int copyThreads) {
+		return new Configuration() {
+
+			@Override
+			public Class<? extends Annotation> annotationType() {
+				return Configuration.class;
+			}
+
+			@Override
+			public boolean streamingImport() {
+				return false;
+			}
+
+			@Override
+			public int copyThreads() {
+				return copyThreads;
+			}
+		};
+	}
 }
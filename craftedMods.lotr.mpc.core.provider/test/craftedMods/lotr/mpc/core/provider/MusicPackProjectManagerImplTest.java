@@ -1,6 +1,8 @@
 package craftedMods.lotr.mpc.core.provider;
 
+import java.lang.annotation.Annotation;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.easymock.*;
 import org.junit.*;
@@ -11,6 +13,9 @@ import org.osgi.service.log.FormatterLogger;
 import craftedMods.eventManager.api.*;
 import craftedMods.lotr.mpc.compatibility.api.MusicPackProjectCompatibilityManager;
 import craftedMods.lotr.mpc.core.api.*;
+import craftedMods.lotr.mpc.core.base.DefaultMusicPack;
+import craftedMods.lotr.mpc.core.base.DefaultTrack;
+import craftedMods.lotr.mpc.core.provider.MusicPackProjectManagerImpl.Configuration;
 import craftedMods.lotr.mpc.persistence.api.MusicPackProjectPersistenceManager;
 import craftedMods.utils.data.LockableTypedProperties;
 import craftedMods.utils.exceptions.InvalidInputException;
@@ -68,7 +73,7 @@ public class MusicPackProjectManagerImplTest {
 		EasyMock.replay(this.mockMusicPackProjectFactory);
 		EasyMock.replay(this.mockCompatibilityManager);
 
-		this.musicPackProjectManager.onActivate();
+		this.musicPackProjectManager.onActivate(this.createConfiguration(0));
 
 		EasyMock.replay(this.mockLogger);
 	}
@@ -79,7 +84,7 @@ public class MusicPackProjectManagerImplTest {
 		EasyMock.expect(this.mockPersistenceManager.loadMusicPackProjects()).andReturn(Arrays.asList()).once();
 		EasyMock.replay(this.mockPersistenceManager);
 
-		this.musicPackProjectManager.onActivate();
+		this.musicPackProjectManager.onActivate(this.createConfiguration(0));
 
 		EasyMock.verify(this.mockPersistenceManager);
 
@@ -100,7 +105,7 @@ public class MusicPackProjectManagerImplTest {
 		EasyMock.replay(this.mockPersistenceManager);
 		EasyMock.replay(this.mockCompatibilityManager);
 
-		this.musicPackProjectManager.onActivate();
+		this.musicPackProjectManager.onActivate(this.createConfiguration(0));
 
 		EasyMock.verify(this.mockPersistenceManager);
 		EasyMock.verify(this.mockCompatibilityManager);
@@ -123,7 +128,7 @@ public class MusicPackProjectManagerImplTest {
 				EasyMock.capture(loadingErrorEventPropertiesCapture))).andReturn(null).once();
 		EasyMock.replay(this.mockEventManager);
 
-		this.musicPackProjectManager.onActivate();
+		this.musicPackProjectManager.onActivate(this.createConfiguration(0));
 
 		EasyMock.verify(this.mockPersistenceManager);
 		EasyMock.verify(this.mockEventManager);
@@ -381,6 +386,106 @@ public class MusicPackProjectManagerImplTest {
 		EasyMock.verify(this.mockPersistenceManager);
 	}
 
+	@Test
+	public void testSaveAllMusicPackProjectsUnloadsIdleMusicPacks()
+			throws InvalidInputException, InterruptedException {
+		EasyMock.reset(this.mockPersistenceManager);
+		this.mockPersistenceManager.saveMusicPackProject(EasyMock.anyObject(MusicPackProject.class));
+		EasyMock.expectLastCall().andAnswer(() -> {
+			// The persistence manager accesses the Music Pack on saving
+			MusicPackProject savedProject = (MusicPackProject) EasyMock.getCurrentArguments()[0];
+			savedProject.getMusicPack();
+			savedProject.setModified(false);
+			return null;
+		}).times(2);
+		EasyMock.expect(this.mockPersistenceManager.loadMusicPackProjects()).andReturn(Arrays.asList()).once();
+
+		EasyMock.replay(this.mockPersistenceManager);
+
+		this.musicPackProjectManager.onActivate(this.createConfiguration(50));
+
+		AtomicInteger loads = new AtomicInteger();
+		MusicPackProjectImpl lazyProject = new MusicPackProjectImpl("Lazy", 0, () -> {
+			loads.incrementAndGet();
+			return new DefaultMusicPack();
+		});
+		MusicPackProjectImpl project = new MusicPackProjectImpl("Project");
+		this.musicPackProjectManager.registerMusicPackProject(lazyProject);
+		this.musicPackProjectManager.registerMusicPackProject(project);
+
+		lazyProject.getMusicPack();
+		Assert.assertTrue(this.musicPackProjectManager.saveAllMusicPackProjects().isEmpty());
+		Assert.assertTrue(lazyProject.isMusicPackLoaded());
+
+		Thread.sleep(100);
+		Assert.assertTrue(this.musicPackProjectManager.saveAllMusicPackProjects().isEmpty());
+		Assert.assertFalse(lazyProject.isMusicPackLoaded());
+		Assert.assertTrue(project.isMusicPackLoaded());
+
+		lazyProject.getMusicPack();
+		Assert.assertEquals(2, loads.get());
+
+		EasyMock.verify(this.mockPersistenceManager);
+	}
+
+	@Test
+	public void testUnloadMusicPackKeepsModifiedMusicPacks() {
+		MusicPackProjectImpl lazyProject = new MusicPackProjectImpl("Lazy", 0, DefaultMusicPack::new);
+		lazyProject.getMusicPack();
+		lazyProject.setModified(false);
+
+		lazyProject.getMusicPack().getTracks().add(new DefaultTrack("Track"));
+		Assert.assertFalse(lazyProject.unloadMusicPack());
+		Assert.assertTrue(lazyProject.isMusicPackLoaded());
+
+		lazyProject.setModified(false);
+		Assert.assertTrue(lazyProject.unloadMusicPack());
+		Assert.assertFalse(lazyProject.isMusicPackLoaded());
+
+		Assert.assertFalse(new MusicPackProjectImpl("Project").unloadMusicPack());
+	}
+
+	@Test
+	public void testSaveAllMusicPackProjectsSavesModifiedProjects() throws InvalidInputException {
+		EasyMock.reset(this.mockPersistenceManager);
+		this.mockPersistenceManager.saveMusicPackProject(EasyMock.anyObject(MusicPackProject.class));
+		EasyMock.expectLastCall().andAnswer(() -> {
+			((MusicPackProject) EasyMock.getCurrentArguments()[0]).setModified(false);
+			return null;
+		}).times(4);
+		EasyMock.expect(this.mockPersistenceManager.loadMusicPackProjects()).andReturn(Arrays.asList()).once();
+
+		EasyMock.replay(this.mockPersistenceManager);
+
+		this.musicPackProjectManager.onActivate(this.createConfiguration(0));
+
+		MusicPackProjectImpl project1 = new MusicPackProjectImpl("Project 1");
+		MusicPackProjectImpl project2 = new MusicPackProjectImpl("Project 2");
+		MusicPackProjectImpl project3 = new MusicPackProjectImpl("Project 3");
+		Track track = new DefaultTrack("Track");
+		project3.getMusicPack().getTracks().add(track);
+		this.musicPackProjectManager.registerMusicPackProject(project1);
+		this.musicPackProjectManager.registerMusicPackProject(project2);
+		this.musicPackProjectManager.registerMusicPackProject(project3);
+
+		Assert.assertTrue(this.musicPackProjectManager.saveAllMusicPackProjects().isEmpty());
+		Assert.assertFalse(project1.isModified());
+		Assert.assertFalse(project2.isModified());
+		Assert.assertFalse(project3.isModified());
+
+		// Setting an equal value doesn't modify the project
+		project1.getProperties().setString(MusicPackProject.PROPERTY_MPC_VERSION, this.mpcVersion.toString());
+		track.setTitle("Title");
+		Assert.assertFalse(project1.isModified());
+		Assert.assertFalse(project2.isModified());
+		Assert.assertTrue(project3.isModified());
+
+		Assert.assertTrue(this.musicPackProjectManager.saveAllMusicPackProjects().isEmpty());
+		Assert.assertFalse(project3.isModified());
+
+		EasyMock.verify(this.mockPersistenceManager);
+	}
+
 	@Test
 	public void testSaveAllMusicPackProjectsWithOneError() throws InvalidInputException {
 		EasyMock.reset(this.mockPersistenceManager);
@@ -427,4 +532,19 @@ public class MusicPackProjectManagerImplTest {
 	public void testGetRegisteredMusicPackProjectsIsUnmodifiable() {
 		this.musicPackProjectManager.getRegisteredMusicPackProjects().clear();
 	}
+
+	private Configuration createConfiguration(long musicPackIdleTimeout) {
+		return new Configuration() {
+
+			@Override
+			public Class<? extends Annotation> annotationType() {
+				return Configuration.class;
+			}
+
+			@Override
+			public long musicPackIdleTimeout() {
+				return musicPackIdleTimeout;
+			}
+		};
+	}
 }
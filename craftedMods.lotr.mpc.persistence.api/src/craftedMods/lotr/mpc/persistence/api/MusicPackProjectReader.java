@@ -1,8 +1,10 @@
 package craftedMods.lotr.mpc.persistence.api;
 
 import java.io.*;
+import java.util.function.Supplier;
 
 import org.osgi.annotation.versioning.ProviderType;
+import craftedMods.lotr.mpc.core.api.MusicPack;
 import craftedMods.lotr.mpc.core.api.MusicPackProject;
 
 @ProviderType
@@ -19,4 +21,32 @@ public interface MusicPackProjectReader {
 	 */
 	public MusicPackProject readMusicPackProject(InputStream projectData) throws IOException;
 
+	/**
+	 * Reads only the name, the properties and the track count of a Music Pack
+	 * Project. The Music Pack is created by the supplied loader when it's accessed
+	 * the first time. The supplied stream will be closed.
+	 * 
+	 * @param projectData
+	 *            The read Music Pack Project data
+	 * @param musicPackLoader
+	 *            Loads the Music Pack of the project
+	 * @return The Music Pack Project
+	 * @throws IOException
+	 *             If the Music Pack Project couldn't be loaded due IO issues
+	 */
+	public MusicPackProject readMusicPackProjectHeader(InputStream projectData, Supplier<MusicPack> musicPackLoader)
+			throws IOException;
+
+	/**
+	 * Reads only the Music Pack of a Music Pack Project. The supplied stream will
+	 * be closed.
+	 * 
+	 * @param projectData
+	 *            The read Music Pack Project data
+	 * @return The Music Pack
+	 * @throws IOException
+	 *             If the Music Pack couldn't be loaded due IO issues
+	 */
+	public MusicPack readMusicPack(InputStream projectData) throws IOException;
+
 }
@@ -24,4 +24,19 @@ public interface TrackStore {
 
 	public void deleteTrack(String name) throws IOException;
 
+	/**
+	 * @param name The name of the track
+	 * @return The size of the stored track in bytes
+	 * @throws IOException If the size couldn't be determined
+	 */
+	public long getTrackSize(String name) throws IOException;
+
+	/**
+	 * @param name The name of the track
+	 * @return The time of the last modification of the stored track in
+	 *         milliseconds since the epoch
+	 * @throws IOException If the time couldn't be determined
+	 */
+	public long getTrackLastModified(String name) throws IOException;
+
 }
@@ -1,7 +1,7 @@
 package craftedMods.lotr.mpc.persistence.provider;
 
 import java.nio.file.Path;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import org.osgi.service.component.annotations.Activate;
@@ -15,9 +15,12 @@ public class MusicPackProjectManager {
 
 	private Map<MusicPackProject, Path> managedMusicPackProjects;
 
+	/*
+	 * Keeps the order the projects were loaded in
+	 */
 	@Activate
 	public void onActivate() {
-		managedMusicPackProjects = new HashMap<>();
+		managedMusicPackProjects = new LinkedHashMap<>();
 	}
 
 	@Deactivate
@@ -3,6 +3,8 @@ package craftedMods.lotr.mpc.persistence.provider;
 import java.io.IOException;
 import java.nio.file.*;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import org.osgi.framework.ServiceException;
@@ -12,7 +14,7 @@ import org.osgi.service.log.*;
 import craftedMods.eventManager.api.EventManager;
 import craftedMods.fileManager.api.FileManager;
 import craftedMods.lotr.mpc.compatibility.api.MusicPackProjectCompatibilityManager;
-import craftedMods.lotr.mpc.core.api.MusicPackProject;
+import craftedMods.lotr.mpc.core.api.*;
 import craftedMods.lotr.mpc.persistence.api.*;
 import craftedMods.utils.data.*;
 import craftedMods.versionChecker.api.SemanticVersion;
@@ -25,10 +27,36 @@ public class MusicPackProjectPersistenceManagerImpl implements MusicPackProjectP
     public @interface Configuration
     {
         String projectsDirectory();
+
+        /*
+         * The amount of threads reading the project files, zero or less means one
+         * thread per available processor
+         */
+        int loadThreads() default 0;
+
+        /*
+         * Reads only the headers of the project files on loading, the Music Packs are
+         * read when they're accessed the first time
+         */
+        boolean lazyLoading() default true;
+
+        /*
+         * Stores the project headers in an index file, the project files of unchanged
+         * projects aren't read on loading then. Only used with lazy loading.
+         */
+        boolean workspaceIndex() default true;
+
+        /*
+         * Forces the saved project files to the storage device before they replace
+         * the previous ones
+         */
+        boolean syncSaves() default true;
     }
 
     public static final String PROJECT_FILE_NAME = "project.json";
     public static final String OLD_PROJECT_FILE_NAME = "project_old.json";
+    public static final String NEW_PROJECT_FILE_NAME = "project_new.json";
+    public static final String CORRUPT_PROJECT_FILE_NAME = "project_corrupt.json";
 
     @Reference(target = "(application=mpc)")
     SemanticVersion mpcVersion;
@@ -39,6 +67,9 @@ public class MusicPackProjectPersistenceManagerImpl implements MusicPackProjectP
     @Reference
     private MusicPackProjectWriter writer;
 
+    @Reference
+    private MusicPackProjectFactory factory;
+
     @Reference(service = LoggerFactory.class)
     private FormatterLogger logger;
 
@@ -53,6 +84,16 @@ public class MusicPackProjectPersistenceManagerImpl implements MusicPackProjectP
 
     private Path projectsDir;
 
+    private int loadThreads = 0;
+
+    private boolean lazyLoading = true;
+
+    private boolean useWorkspaceIndex = true;
+
+    private boolean syncSaves = true;
+
+    private WorkspaceIndex workspaceIndex;
+
     @Reference
     private MusicPackProjectManager musicPackProjectManager;
 
@@ -63,36 +104,83 @@ public class MusicPackProjectPersistenceManagerImpl implements MusicPackProjectP
     public void onActivate (Configuration configuration) throws IOException
     {
         this.projectsDir = this.fileManager.getPathAndCreateDir (configuration.projectsDirectory ());
+        this.loadThreads = configuration.loadThreads ();
+        this.lazyLoading = configuration.lazyLoading ();
+        this.useWorkspaceIndex = configuration.workspaceIndex ();
+        this.syncSaves = configuration.syncSaves ();
         this.logger.info ("The projects directory is located at \"%s\"", this.projectsDir.toString ());
         this.logger.debug (
             this.compatibilityManager == null ? "No compatibility manager service was found"
                 : "Found a compatibility manager service");
     }
 
+    @Deactivate
+    public void onDeactivate ()
+    {
+        this.writeWorkspaceIndex ();
+    }
+
     @Override
     public Collection<MusicPackProject> loadMusicPackProjects ()
     {
         this.musicPackProjectManager.getManagedMusicPackProjects ().clear ();
+        this.workspaceIndex = this.lazyLoading && this.useWorkspaceIndex ? this.readWorkspaceIndex () : null;
         try
         {
             List<Path> projectFolders = fileManager.getPathsInDirectory (this.projectsDir)
-                .filter (fileManager::isDirectory).collect (Collectors.toList ());
-            for (Path projectFolder : projectFolders)
+                .filter (fileManager::isDirectory).sorted ().collect (Collectors.toList ());
+            /*
+             * The project files are read concurrently, but the compatibility fixes are
+             * applied and the projects are registered on this thread in the order of
+             * their folders. That way the events and the order of the managed projects
+             * don't depend on the scheduling.
+             */
+            List<Future<MusicPackProject>> readProjects = new ArrayList<> (projectFolders.size ());
+            ExecutorService executor = projectFolders.isEmpty () ? null
+                : Executors.newFixedThreadPool (Math.min (projectFolders.size (),
+                    this.loadThreads > 0 ? this.loadThreads : Runtime.getRuntime ().availableProcessors ()),
+                    new LoaderThreadFactory ());
+            try
             {
-                try
+                for (Path projectFolder : projectFolders)
                 {
-                    this.loadMusicPackProject (projectFolder);
+                    readProjects.add (this.submitMusicPackProject (executor, projectFolder));
                 }
-                catch (Exception e)
+                for (int i = 0; i < projectFolders.size (); i++)
                 {
-                    this.logger.error ("The Music Pack Project at \"%s\" couldn't be loaded: ", projectFolder, e);
-                    LockableTypedProperties properties = new DefaultTypedProperties ();
-                    properties.put (MusicPackProjectPersistenceManager.LOAD_ALL_PROJECT_ERROR_EVENT_EXCEPTION, e);
-                    properties.put (MusicPackProjectPersistenceManager.LOAD_ALL_PROJECT_ERROR_EVENT_MUSIC_PACK_PROJECT_PATH, projectFolder);
-                    this.eventManager.dispatchEvent (MusicPackProjectPersistenceManager.LOAD_ALL_PROJECT_ERROR_EVENT,
-                        properties);
+                    Path projectFolder = projectFolders.get (i);
+                    try
+                    {
+                        MusicPackProject project = this.awaitMusicPackProject (readProjects.get (i));
+                        if (project != null)
+                        {
+                            this.registerMusicPackProject (projectFolder, project);
+                        }
+                    }
+                    catch (Exception e)
+                    {
+                        this.logger.error ("The Music Pack Project at \"%s\" couldn't be loaded: ", projectFolder, e);
+                        LockableTypedProperties properties = new DefaultTypedProperties ();
+                        properties.put (MusicPackProjectPersistenceManager.LOAD_ALL_PROJECT_ERROR_EVENT_EXCEPTION, e);
+                        properties.put (MusicPackProjectPersistenceManager.LOAD_ALL_PROJECT_ERROR_EVENT_MUSIC_PACK_PROJECT_PATH, projectFolder);
+                        this.eventManager.dispatchEvent (MusicPackProjectPersistenceManager.LOAD_ALL_PROJECT_ERROR_EVENT,
+                            properties);
+                    }
                 }
             }
+            finally
+            {
+                if (executor != null)
+                {
+                    executor.shutdownNow ();
+                }
+            }
+            if (this.workspaceIndex != null)
+            {
+                this.workspaceIndex.retain (projectFolders.stream ().map (folder -> folder.getFileName ().toString ())
+                    .collect (Collectors.toSet ()));
+                this.writeWorkspaceIndex ();
+            }
             this.logger.info ("Loaded %d Music Pack Projects",
                 this.musicPackProjectManager.getManagedMusicPackProjects ().keySet ().size ());
         }
@@ -103,62 +191,322 @@ public class MusicPackProjectPersistenceManagerImpl implements MusicPackProjectP
         return this.musicPackProjectManager.getManagedMusicPackProjects ().keySet ();
     }
 
-    private void loadMusicPackProject (Path projectFolder)
+    /*
+     * Applies the pre load fixes before the project file is read. If they fail, the
+     * returned future fails and the error is reported when the project is awaited.
+     */
+    private Future<MusicPackProject> submitMusicPackProject (ExecutorService executor, Path projectFolder)
     {
-        if (this.compatibilityManager != null)
+        try
+        {
+            if (this.compatibilityManager != null)
+            {
+                this.compatibilityManager.applyPreLoadFixes (projectFolder);
+            }
+        }
+        catch (RuntimeException e)
+        {
+            CompletableFuture<MusicPackProject> failedProject = new CompletableFuture<> ();
+            failedProject.completeExceptionally (e);
+            return failedProject;
+        }
+        return executor.submit ( () -> this.readMusicPackProject (projectFolder));
+    }
+
+    /*
+     * Rethrows the exception the project couldn't be read with
+     */
+    private MusicPackProject awaitMusicPackProject (Future<MusicPackProject> readProject) throws Exception
+    {
+        try
+        {
+            return readProject.get ();
+        }
+        catch (InterruptedException e)
         {
-            this.compatibilityManager.applyPreLoadFixes (projectFolder);
+            Thread.currentThread ().interrupt ();
+            throw new ServiceException ("The loading of the Music Pack Projects was interrupted", e);
         }
-        if (fileManager.exists (
-            Paths.get (projectFolder.toString (), MusicPackProjectPersistenceManagerImpl.PROJECT_FILE_NAME)))
+        catch (ExecutionException e)
+        {
+            Throwable cause = e.getCause ();
+            if (cause instanceof Exception)
+                throw (Exception) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw new ServiceException ("Couldn't read the Music Pack Project: ", cause);
+        }
+    }
+
+    /*
+     * Called on the loader threads, returns null if the folder doesn't contain a
+     * project
+     */
+    private MusicPackProject readMusicPackProject (Path projectFolder)
+    {
+        Path projectFile = Paths.get (projectFolder.toString (), MusicPackProjectPersistenceManagerImpl.PROJECT_FILE_NAME);
+        this.recoverInterruptedSave (projectFolder, projectFile);
+        if (fileManager.exists (projectFile) || this.restoreBackup (projectFolder, projectFile))
         {
             try
             {
-                MusicPackProject project = this.reader.readMusicPackProject (fileManager.newInputStream (
-                    Paths.get (projectFolder.toString (), MusicPackProjectPersistenceManagerImpl.PROJECT_FILE_NAME)));
-                String version = project.getProperties ().getString (MusicPackProject.PROPERTY_MPC_VERSION, null);
-                if (version != null)
+                return this.readProjectFile (projectFolder, projectFile);
+            }
+            catch (IOException | RuntimeException e)
+            {
+                if (!this.restoreBackup (projectFolder, projectFile))
                 {
-                    // A non-semantic version is handled like an older version
-                    boolean isSemanticVersion = DefaultSemanticVersion.isSemanticVersion (version);
-                    int comp = !isSemanticVersion ? -1 : DefaultSemanticVersion.of (version).compareTo (mpcVersion);
-                    if (comp != 0)
+                    throw this.createLoadingException (projectFolder, e);
+                }
+            }
+            try
+            {
+                return this.readProjectFile (projectFolder, projectFile);
+            }
+            catch (IOException e)
+            {
+                throw this.createLoadingException (projectFolder, e);
+            }
+        }
+        else
+        {
+            this.logger.warn ("Found a directory \"%s\" in the projects folder which didn't contain the project file",
+                projectFolder.toString ());
+            return null;
+        }
+    }
+
+    private RuntimeException createLoadingException (Path projectFolder, Exception e)
+    {
+        if (e instanceof RuntimeException)
+            return (RuntimeException) e;
+        return new ServiceException (
+            String.format ("Couldn't load the Music Pack Project from \"%s\"", projectFolder.toString ()), e);
+    }
+
+    private MusicPackProject readProjectFile (Path projectFolder, Path projectFile) throws IOException
+    {
+        if (this.lazyLoading)
+        {
+            return this.readMusicPackProjectHeader (projectFolder, projectFile);
+        }
+        return this.reader.readMusicPackProject (fileManager.newInputStream (projectFile));
+    }
+
+    /*
+     * The new project file of an interrupted save is the newest one, it's only
+     * used if it was written completely
+     */
+    private void recoverInterruptedSave (Path projectFolder, Path projectFile)
+    {
+        Path newProjectFile = Paths.get (projectFolder.toString (), NEW_PROJECT_FILE_NAME);
+        if (fileManager.exists (newProjectFile))
+        {
+            try
+            {
+                if (this.isValidProjectFile (newProjectFile))
+                {
+                    if (fileManager.exists (projectFile))
                     {
-                        LockableTypedProperties properties = new DefaultTypedProperties ();
-                        boolean newer = comp > 0;
-                        properties.put (newer
-                            ? MusicPackProjectPersistenceManager.NEWER_SAVE_VERSION_EVENT_MUSIC_PACK_PROJECT
-                            : MusicPackProjectPersistenceManager.OLDER_SAVE_VERSION_EVENT_MUSIC_PACK_PROJECT,
-                            project);
-                        properties.put (
-                            newer ? MusicPackProjectPersistenceManager.NEWER_SAVE_VERSION_EVENT_DETECTED_VERSION
-                                : MusicPackProjectPersistenceManager.OLDER_SAVE_VERSION_EVENT_DETECTED_VERSION,
-                            version);
-                        this.eventManager
-                            .dispatchEvent (
-                                newer ? MusicPackProjectPersistenceManager.NEWER_SAVE_VERSION_EVENT
-                                    : MusicPackProjectPersistenceManager.OLDER_SAVE_VERSION_EVENT,
-                                properties);
+                        fileManager.copy (projectFile, Paths.get (projectFolder.toString (), OLD_PROJECT_FILE_NAME));
                     }
+                    fileManager.move (newProjectFile, projectFile);
+                    this.logger.warn ("Completed an interrupted save of the Music Pack Project at \"%s\"",
+                        projectFolder.toString ());
                 }
-                this.musicPackProjectManager.getManagedMusicPackProjects ().put (project, projectFolder);
-                if (this.compatibilityManager != null)
+                else
                 {
-                    this.compatibilityManager.applyPostLoadFixes (projectFolder, project, version);
+                    fileManager.deleteFile (newProjectFile);
+                    this.logger.warn ("Discarded the incomplete project file of the Music Pack Project at \"%s\"",
+                        projectFolder.toString ());
                 }
             }
             catch (IOException e)
             {
-                throw new ServiceException (
-                    String.format ("Couldn't load the Music Pack Project from \"%s\"", projectFolder.toString ()), e);
+                this.logger.error ("Couldn't recover the interrupted save of the Music Pack Project at \"%s\": ",
+                    projectFolder.toString (), e);
             }
         }
+    }
+
+    /*
+     * Replaces a missing or unreadable project file by the backup if the backup is
+     * valid. An unreadable project file is kept for inspection.
+     */
+    private boolean restoreBackup (Path projectFolder, Path projectFile)
+    {
+        Path oldProjectFile = Paths.get (projectFolder.toString (), OLD_PROJECT_FILE_NAME);
+        if (!fileManager.exists (oldProjectFile) || !this.isValidProjectFile (oldProjectFile))
+        {
+            return false;
+        }
+        // The project file may only have been inaccessible
+        if (fileManager.exists (projectFile) && this.isValidProjectFile (projectFile))
+        {
+            return false;
+        }
+        try
+        {
+            if (fileManager.exists (projectFile))
+            {
+                fileManager.move (projectFile, Paths.get (projectFolder.toString (), CORRUPT_PROJECT_FILE_NAME));
+            }
+            fileManager.copy (oldProjectFile, projectFile);
+            this.logger.warn ("Restored the Music Pack Project at \"%s\" from its backup", projectFolder.toString ());
+            return true;
+        }
+        catch (IOException e)
+        {
+            this.logger.error ("Couldn't restore the backup of the Music Pack Project at \"%s\": ",
+                projectFolder.toString (), e);
+            return false;
+        }
+    }
+
+    private boolean isValidProjectFile (Path file)
+    {
+        try
+        {
+            this.reader.readMusicPackProject (fileManager.newInputStream (file));
+            return true;
+        }
+        catch (IOException | RuntimeException e)
+        {
+            return false;
+        }
+    }
+
+    /*
+     * Takes the header from the workspace index if the project file didn't change
+     */
+    private MusicPackProject readMusicPackProjectHeader (Path projectFolder, Path projectFile) throws IOException
+    {
+        WorkspaceIndex index = this.workspaceIndex;
+        if (index == null)
+        {
+            return this.reader.readMusicPackProjectHeader (fileManager.newInputStream (projectFile),
+                () -> this.readMusicPack (projectFile));
+        }
+        String folder = projectFolder.getFileName ().toString ();
+        long size = fileManager.getSize (projectFile);
+        long lastModified = fileManager.getLastModified (projectFile);
+        WorkspaceIndex.Entry entry = index.get (folder, size, lastModified);
+        MusicPackProject project;
+        if (entry != null)
+        {
+            project = this.factory.createMusicPackProjectInstance (entry.getName (), entry.getTrackCount (),
+                () -> this.readMusicPack (projectFile));
+            project.getProperties ().putAll (entry.getProperties ());
+        }
         else
         {
-            this.logger.warn ("Found a directory \"%s\" in the projects folder which didn't contain the project file",
-                projectFolder.toString ());
+            project = this.reader.readMusicPackProjectHeader (fileManager.newInputStream (projectFile),
+                () -> this.readMusicPack (projectFile));
+            index.put (folder, WorkspaceIndex.Entry.of (project, size, lastModified));
         }
+        return project;
+    }
 
+    /*
+     * An unreadable index is discarded, all project files are read then
+     */
+    private WorkspaceIndex readWorkspaceIndex ()
+    {
+        Path indexFile = Paths.get (this.projectsDir.toString (), WorkspaceIndex.INDEX_FILE_NAME);
+        if (fileManager.exists (indexFile))
+        {
+            try
+            {
+                return WorkspaceIndex.read (fileManager, indexFile);
+            }
+            catch (IOException e)
+            {
+                this.logger.warn ("Couldn't read the workspace index, all Music Pack Projects will be read: ", e);
+            }
+        }
+        return new WorkspaceIndex ();
+    }
+
+    private void writeWorkspaceIndex ()
+    {
+        WorkspaceIndex index = this.workspaceIndex;
+        if (index != null && index.isModified ())
+        {
+            try
+            {
+                index.write (fileManager, Paths.get (this.projectsDir.toString (), WorkspaceIndex.INDEX_FILE_NAME));
+                this.logger.debug ("Wrote the workspace index with %d entries", index.size ());
+            }
+            catch (IOException e)
+            {
+                this.logger.error ("Couldn't write the workspace index: ", e);
+            }
+        }
+    }
+
+    /*
+     * Called when a lazily loaded project accesses its Music Pack. The tracks were
+     * only skipped on loading, so a corrupt project file is replaced by its backup
+     * here. Failures are thrown as ServiceException.
+     */
+    private MusicPack readMusicPack (Path projectFile)
+    {
+        try
+        {
+            try
+            {
+                return this.reader.readMusicPack (fileManager.newInputStream (projectFile));
+            }
+            catch (IOException | RuntimeException e)
+            {
+                if (!this.restoreBackup (projectFile.getParent (), projectFile))
+                {
+                    throw e;
+                }
+            }
+            return this.reader.readMusicPack (fileManager.newInputStream (projectFile));
+        }
+        catch (IOException | RuntimeException e)
+        {
+            throw new ServiceException (
+                String.format ("Couldn't load the Music Pack from \"%s\"", projectFile.toString ()), e);
+        }
+    }
+
+    private void registerMusicPackProject (Path projectFolder, MusicPackProject project)
+    {
+        String version = project.getProperties ().getString (MusicPackProject.PROPERTY_MPC_VERSION, null);
+        if (version != null)
+        {
+            // A non-semantic version is handled like an older version
+            boolean isSemanticVersion = DefaultSemanticVersion.isSemanticVersion (version);
+            int comp = !isSemanticVersion ? -1 : DefaultSemanticVersion.of (version).compareTo (mpcVersion);
+            if (comp != 0)
+            {
+                LockableTypedProperties properties = new DefaultTypedProperties ();
+                boolean newer = comp > 0;
+                properties.put (newer
+                    ? MusicPackProjectPersistenceManager.NEWER_SAVE_VERSION_EVENT_MUSIC_PACK_PROJECT
+                    : MusicPackProjectPersistenceManager.OLDER_SAVE_VERSION_EVENT_MUSIC_PACK_PROJECT,
+                    project);
+                properties.put (
+                    newer ? MusicPackProjectPersistenceManager.NEWER_SAVE_VERSION_EVENT_DETECTED_VERSION
+                        : MusicPackProjectPersistenceManager.OLDER_SAVE_VERSION_EVENT_DETECTED_VERSION,
+                    version);
+                this.eventManager
+                    .dispatchEvent (
+                        newer ? MusicPackProjectPersistenceManager.NEWER_SAVE_VERSION_EVENT
+                            : MusicPackProjectPersistenceManager.OLDER_SAVE_VERSION_EVENT,
+                        properties);
+            }
+        }
+        // The loaded project matches its project file, fixes applied afterwards modify it
+        project.setModified (false);
+        this.musicPackProjectManager.getManagedMusicPackProjects ().put (project, projectFolder);
+        if (this.compatibilityManager != null)
+        {
+            this.compatibilityManager.applyPostLoadFixes (projectFolder, project, version);
+        }
     }
 
     @Override
@@ -182,33 +530,106 @@ public class MusicPackProjectPersistenceManagerImpl implements MusicPackProjectP
             }
         }
         
+        // A lazily loaded Music Pack is read before anything is written
         try
         {
-            Path projectFilePath = Paths.get (
-                this.musicPackProjectManager.getManagedMusicPackProjects ().get (project).toString (),
-                MusicPackProjectPersistenceManagerImpl.PROJECT_FILE_NAME);
+            project.getMusicPack ();
+        }
+        catch (RuntimeException e)
+        {
+            throw new ServiceException (
+                String.format ("Couldn't load the Music Pack of the Music Pack Project \"%s\", it wasn't saved: ",
+                    project.getName ()),
+                e);
+        }
+        /*
+         * The state is recorded before the project is written, so modifications made
+         * while writing are saved the next time
+         */
+        project.setModified (false);
 
+        /*
+         * The project is written to a new file which replaces the project file
+         * afterwards, so the project file is complete at any time
+         */
+        Path projectDir = this.musicPackProjectManager.getManagedMusicPackProjects ().get (project);
+        Path projectFilePath = Paths.get (projectDir.toString (), MusicPackProjectPersistenceManagerImpl.PROJECT_FILE_NAME);
+        Path newProjectFilePath = Paths.get (projectDir.toString (), NEW_PROJECT_FILE_NAME);
+        try
+        {
+            this.writer.writeMusicPackProject (project, fileManager.newOutputStream (newProjectFilePath, this.syncSaves));
+        }
+        catch (IOException e)
+        {
             try
             {
-                if (fileManager.exists (projectFilePath))
-                {
-                    fileManager.rename (projectFilePath, OLD_PROJECT_FILE_NAME);
-                }
+                fileManager.deleteFile (newProjectFilePath);
             }
-            catch (IOException e)
+            catch (IOException e2)
             {
-                logger.error (
-                    "Couldn't backup the old project file for the Music Pack Project \"" + project.getName () + "\"",
-                    e);
+                e.addSuppressed (e2);
             }
+            project.setModified (true);
+            throw new ServiceException (
+                String.format ("Couldn't write the Music Pack Project \"%s\": ", project.getName ()), e);
+        }
+        catch (RuntimeException e)
+        {
+            project.setModified (true);
+            throw e;
+        }
+
+        /*
+         * The backup is a copy and the new file replaces the project file in a single
+         * move, so there is a project file at any time
+         */
+        try
+        {
+            if (fileManager.exists (projectFilePath))
+            {
+                fileManager.copy (projectFilePath, Paths.get (projectDir.toString (), OLD_PROJECT_FILE_NAME));
+            }
+        }
+        catch (IOException e)
+        {
+            logger.error (
+                "Couldn't backup the old project file for the Music Pack Project \"" + project.getName () + "\"",
+                e);
+        }
 
-            this.writer.writeMusicPackProject (project,
-                fileManager.newOutputStream (projectFilePath));
+        try
+        {
+            fileManager.move (newProjectFilePath, projectFilePath);
         }
         catch (IOException e)
         {
+            project.setModified (true);
             throw new ServiceException (
-                String.format ("Couldn't write the Music Pack Project \"%s\": ", project.getName ()), e);
+                String.format ("Couldn't replace the project file of the Music Pack Project \"%s\": ",
+                    project.getName ()),
+                e);
+        }
+        this.updateWorkspaceIndex (project, projectFilePath);
+    }
+
+    /*
+     * The index is written on deactivation or after the next loading
+     */
+    private void updateWorkspaceIndex (MusicPackProject project, Path projectFile)
+    {
+        WorkspaceIndex index = this.workspaceIndex;
+        if (index != null)
+        {
+            String folder = projectFile.getParent ().getFileName ().toString ();
+            try
+            {
+                index.put (folder, WorkspaceIndex.Entry.of (project, fileManager.getSize (projectFile),
+                    fileManager.getLastModified (projectFile)));
+            }
+            catch (IOException e)
+            {
+                index.remove (folder);
+            }
         }
     }
 
@@ -230,8 +651,12 @@ public class MusicPackProjectPersistenceManagerImpl implements MusicPackProjectP
         {
             try
             {
-                this.fileManager
-                    .deleteDirAndContent (this.musicPackProjectManager.getManagedMusicPackProjects ().get (project));
+                Path projectDir = this.musicPackProjectManager.getManagedMusicPackProjects ().get (project);
+                this.fileManager.deleteDirAndContent (projectDir);
+                if (this.workspaceIndex != null)
+                {
+                    this.workspaceIndex.remove (projectDir.getFileName ().toString ());
+                }
                 this.trackStoreManager.deleteTrackStore (project);
                 this.musicPackProjectManager.getManagedMusicPackProjects ().remove (project);
                 return true;
@@ -244,4 +669,19 @@ public class MusicPackProjectPersistenceManagerImpl implements MusicPackProjectP
         }
         return false;
     }
+
+    private static class LoaderThreadFactory implements ThreadFactory
+    {
+
+        private final AtomicInteger counter = new AtomicInteger ();
+
+        @Override
+        public Thread newThread (Runnable runnable)
+        {
+            Thread thread = new Thread (runnable, "Music Pack Project Loader " + counter.incrementAndGet ());
+            thread.setDaemon (true);
+            return thread;
+        }
+
+    }
 }
@@ -8,6 +8,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.Supplier;
 
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Reference;
@@ -16,11 +17,14 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
+import craftedMods.lotr.mpc.core.api.MusicPack;
 import craftedMods.lotr.mpc.core.api.MusicPackProject;
 import craftedMods.lotr.mpc.core.api.MusicPackProjectFactory;
 import craftedMods.lotr.mpc.core.api.Region;
 import craftedMods.lotr.mpc.core.api.Track;
+import craftedMods.lotr.mpc.core.base.DefaultMusicPack;
 import craftedMods.lotr.mpc.core.base.DefaultRegion;
 import craftedMods.lotr.mpc.core.base.DefaultTrack;
 import craftedMods.lotr.mpc.persistence.api.MusicPackProjectReader;
@@ -50,6 +54,106 @@ public class MusicPackProjectReaderImpl implements MusicPackProjectReader {
 		return project;
 	}
 
+	@Override
+	public MusicPackProject readMusicPackProjectHeader(InputStream projectData, Supplier<MusicPack> musicPackLoader)
+			throws IOException {
+		Objects.requireNonNull(projectData);
+		Objects.requireNonNull(musicPackLoader);
+		String name = null;
+		Map<String, String> properties = null;
+		int trackCount = -1;
+		int countedTracks = -1;
+		try (InputStreamReader bridge = new InputStreamReader(projectData);
+				JsonReader reader = new JsonReader(bridge)) {
+			reader.beginObject();
+			while (reader.hasNext()) {
+				if (!reader.nextName().equals(MusicPackProjectWriterImpl.JSON_PROJECT)) {
+					reader.skipValue();
+					continue;
+				}
+				reader.beginObject();
+				/*
+				 * The tracks aren't parsed, but skipped and counted. This detects truncated
+				 * or malformed project files when they're loaded and not when the Music Pack
+				 * is accessed the first time.
+				 */
+				while (reader.hasNext()) {
+					switch (reader.nextName()) {
+						case MusicPackProjectWriterImpl.JSON_PROJECT_NAME:
+							name = reader.nextString();
+							break;
+						case MusicPackProjectWriterImpl.JSON_PROJECT_PROPERTIES:
+							properties = this.readStringMap(reader);
+							break;
+						case MusicPackProjectWriterImpl.JSON_PROJECT_TRACK_COUNT:
+							trackCount = reader.nextInt();
+							break;
+						case MusicPackProjectWriterImpl.JSON_PROJECT_TRACKS:
+							// Projects saved by older versions don't contain the track count
+							countedTracks = this.countTracks(reader);
+							break;
+						default:
+							reader.skipValue();
+					}
+				}
+				reader.endObject();
+			}
+			reader.endObject();
+		} catch (IllegalStateException | NumberFormatException e) {
+			throw new IOException("The Music Pack Project file is malformed", e);
+		}
+		projectData.close();
+		if (name == null || properties == null || countedTracks < 0)
+			throw new IOException("The Music Pack Project is incomplete");
+		if (trackCount >= 0 && trackCount != countedTracks)
+			throw new IOException("The track count of the Music Pack Project doesn't match its tracks");
+		MusicPackProject project = this.factory.createMusicPackProjectInstance(name, countedTracks,
+				musicPackLoader);
+		project.getProperties().putAll(properties);
+		return project;
+	}
+
+	@Override
+	public MusicPack readMusicPack(InputStream projectData) throws IOException {
+		Objects.requireNonNull(projectData);
+		MusicPack musicPack = null;
+		try (InputStreamReader bridge = new InputStreamReader(projectData);
+				JsonReader reader = new JsonReader(bridge)) {
+			JsonParser parser = new JsonParser();
+			JsonObject root = parser.parse(reader).getAsJsonObject();
+			musicPack = new DefaultMusicPack(
+					this.readTracks(root.getAsJsonObject(MusicPackProjectWriterImpl.JSON_PROJECT)));
+		}
+		projectData.close();
+		return musicPack;
+	}
+
+	private int countTracks(JsonReader reader) throws IOException {
+		int count = 0;
+		reader.beginArray();
+		while (reader.peek() != JsonToken.END_ARRAY) {
+			if (reader.peek() != JsonToken.BEGIN_OBJECT)
+				throw new IOException("A track of the Music Pack Project is malformed");
+			reader.skipValue();
+			count++;
+		}
+		reader.endArray();
+		return count;
+	}
+
+	private Map<String, String> readStringMap(JsonReader reader) throws IOException {
+		Map<String, String> ret = new HashMap<>();
+		reader.beginArray();
+		while (reader.hasNext()) {
+			reader.beginObject();
+			while (reader.hasNext())
+				ret.put(reader.nextName(), reader.nextString());
+			reader.endObject();
+		}
+		reader.endArray();
+		return ret;
+	}
+
 	private List<Track> readTracks(JsonObject projectObject) {
 		List<Track> tracks = new ArrayList<>();
 		projectObject.getAsJsonArray(MusicPackProjectWriterImpl.JSON_PROJECT_TRACKS).forEach(trackElement -> {
@@ -24,6 +24,7 @@ public class MusicPackProjectWriterImpl implements MusicPackProjectWriter {
 	public static final String JSON_PROJECT_NAME = "name";
 	public static final String JSON_PROJECT_TRACKS = "tracks";
 	public static final String JSON_PROJECT_PROPERTIES = "properties";
+	public static final String JSON_PROJECT_TRACK_COUNT = "trackCount";
 	public static final String JSON_TRACK_NAME = "name";
 	public static final String JSON_TRACK_TITLE = "title";
 	public static final String JSON_TRACK_REGIONS = "regions";
@@ -42,9 +43,15 @@ public class MusicPackProjectWriterImpl implements MusicPackProjectWriter {
 			writer.beginObject();
 			writer.name(MusicPackProjectWriterImpl.JSON_PROJECT);
 			writer.beginObject();
+			/*
+			 * The name, the properties and the track count form the header which can be
+			 * read without parsing the tracks
+			 */
 			writer.name(MusicPackProjectWriterImpl.JSON_PROJECT_NAME).value(project.getName());
-			this.writeTracks(project, writer);
 			this.writeStringMap(writer, MusicPackProjectWriterImpl.JSON_PROJECT_PROPERTIES, project.getProperties());
+			writer.name(MusicPackProjectWriterImpl.JSON_PROJECT_TRACK_COUNT)
+					.value(project.getMusicPack().getTracks().size());
+			this.writeTracks(project, writer);
 			writer.endObject();
 			writer.endObject();
 			writer.flush();
@@ -3,12 +3,13 @@ package craftedMods.lotr.mpc.persistence.provider;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 
 import craftedMods.fileManager.api.FileManager;
@@ -21,7 +22,8 @@ public class TrackStoreImpl implements TrackStore {
 	private final Path storeDir;
 	private final FileManager fileManager;
 
-	private final Map<String, Path> storedTracks = new HashMap<>();
+	// The exporter's workers look tracks up concurrently, while other threads may store tracks
+	private final Map<String, Path> storedTracks = new ConcurrentHashMap<>();
 
 	public TrackStoreImpl(MusicPackProject project, Path storeDir, FileManager fileManager) {
 		this.project = project;
@@ -56,29 +58,51 @@ public class TrackStoreImpl implements TrackStore {
 
 	@Override
 	public InputStream openInputStream(String name) throws IOException {
-		this.requireRegisteredTrack(name);
-		return fileManager.newInputStream(storedTracks.get(name));
+		return fileManager.newInputStream(this.requireRegisteredTrack(name));
 	}
 
 	@Override
 	public OutputStream openOutputStream(String name) throws IOException {
 		Objects.requireNonNull(name);
-		if (!this.storedTracks.containsKey(name)) {
-			this.storedTracks.put(name, fileManager.getPathAndCreateFile(storeDir.toString(), name));
+		Path track;
+		try {
+			track = this.storedTracks.computeIfAbsent(name, key -> {
+				try {
+					return fileManager.getPathAndCreateFile(storeDir.toString(), key);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
 		}
-		return fileManager.newOutputStream(this.storedTracks.get(name));
+		return fileManager.newOutputStream(track);
 	}
 
 	@Override
 	public void deleteTrack(String name) throws IOException {
 		this.requireRegisteredTrack(name);
-		fileManager.deleteFile(storedTracks.remove(name));
+		Path track = storedTracks.remove(name);
+		if (track != null)
+			fileManager.deleteFile(track);
+	}
+
+	@Override
+	public long getTrackSize(String name) throws IOException {
+		return fileManager.getSize(this.requireRegisteredTrack(name));
+	}
+
+	@Override
+	public long getTrackLastModified(String name) throws IOException {
+		return fileManager.getLastModified(this.requireRegisteredTrack(name));
 	}
 
-	private void requireRegisteredTrack(String name) {
+	private Path requireRegisteredTrack(String name) {
 		Objects.requireNonNull(name);
-		if (!storedTracks.containsKey(name))
+		Path track = storedTracks.get(name);
+		if (track == null)
 			throw new IllegalArgumentException(String.format("The track \"%s\" isn't registered", name));
+		return track;
 	}
 
 }
@@ -0,0 +1,224 @@
+package craftedMods.lotr.mpc.persistence.provider;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import craftedMods.fileManager.api.FileManager;
+import craftedMods.lotr.mpc.core.api.MusicPackProject;
+
+/*
+ * Stores the headers of the projects of a workspace, so the project files of
+ * unchanged projects don't have to be read on loading. An entry is only valid as
+ * long as the size and the modification time of the project file match.
+ */
+class WorkspaceIndex {
+
+	public static final String INDEX_FILE_NAME = "workspace_index.json";
+
+	private static final int INDEX_VERSION = 1;
+
+	private static final String JSON_VERSION = "version";
+	private static final String JSON_PROJECTS = "projects";
+	private static final String JSON_FOLDER = "folder";
+	private static final String JSON_SIZE = "size";
+	private static final String JSON_LAST_MODIFIED = "lastModified";
+
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+	private volatile boolean modified = false;
+
+	/*
+	 * Returns the entry of the project folder if the project file didn't change
+	 * since the entry was created
+	 */
+	public Entry get(String folder, long size, long lastModified) {
+		Entry entry = this.entries.get(folder);
+		return entry != null && entry.size == size && entry.lastModified == lastModified ? entry : null;
+	}
+
+	public void put(String folder, Entry entry) {
+		this.entries.put(Objects.requireNonNull(folder), Objects.requireNonNull(entry));
+		this.modified = true;
+	}
+
+	public void remove(String folder) {
+		if (this.entries.remove(folder) != null)
+			this.modified = true;
+	}
+
+	/*
+	 * Removes the entries of all folders which don't exist anymore
+	 */
+	public void retain(Collection<String> folders) {
+		if (this.entries.keySet().retainAll(folders))
+			this.modified = true;
+	}
+
+	public int size() {
+		return this.entries.size();
+	}
+
+	/*
+	 * Whether the index changed since it was read or written
+	 */
+	public boolean isModified() {
+		return this.modified;
+	}
+
+	/*
+	 * A corrupt or outdated index file is reported as IOException
+	 */
+	public static WorkspaceIndex read(FileManager fileManager, Path indexFile) throws IOException {
+		WorkspaceIndex index = new WorkspaceIndex();
+		try (InputStreamReader bridge = new InputStreamReader(fileManager.newInputStream(indexFile),
+				StandardCharsets.UTF_8); JsonReader reader = new JsonReader(bridge)) {
+			reader.beginObject();
+			while (reader.hasNext()) {
+				switch (reader.nextName()) {
+					case JSON_VERSION:
+						if (reader.nextInt() != INDEX_VERSION)
+							throw new IOException("The version of the workspace index isn't supported");
+						break;
+					case JSON_PROJECTS:
+						reader.beginArray();
+						while (reader.hasNext())
+							index.readEntry(reader);
+						reader.endArray();
+						break;
+					default:
+						reader.skipValue();
+				}
+			}
+			reader.endObject();
+		} catch (RuntimeException e) {
+			throw new IOException("The workspace index is corrupt", e);
+		}
+		return index;
+	}
+
+	private void readEntry(JsonReader reader) throws IOException {
+		String folder = null;
+		long size = -1;
+		long lastModified = -1;
+		String name = null;
+		int trackCount = -1;
+		Map<String, String> properties = new HashMap<>();
+		reader.beginObject();
+		while (reader.hasNext()) {
+			switch (reader.nextName()) {
+				case JSON_FOLDER:
+					folder = reader.nextString();
+					break;
+				case JSON_SIZE:
+					size = reader.nextLong();
+					break;
+				case JSON_LAST_MODIFIED:
+					lastModified = reader.nextLong();
+					break;
+				case MusicPackProjectWriterImpl.JSON_PROJECT_NAME:
+					name = reader.nextString();
+					break;
+				case MusicPackProjectWriterImpl.JSON_PROJECT_TRACK_COUNT:
+					trackCount = reader.nextInt();
+					break;
+				case MusicPackProjectWriterImpl.JSON_PROJECT_PROPERTIES:
+					reader.beginObject();
+					while (reader.hasNext())
+						properties.put(reader.nextName(), reader.nextString());
+					reader.endObject();
+					break;
+				default:
+					reader.skipValue();
+			}
+		}
+		reader.endObject();
+		if (folder == null || name == null || trackCount < 0)
+			throw new IOException("The workspace index contains an incomplete entry");
+		this.entries.put(folder, new Entry(size, lastModified, name, trackCount, properties));
+	}
+
+	public void write(FileManager fileManager, Path indexFile) throws IOException {
+		this.modified = false;
+		OutputStream output = fileManager.newOutputStream(indexFile);
+		try (OutputStreamWriter bridge = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+				JsonWriter writer = new JsonWriter(bridge)) {
+			writer.beginObject();
+			writer.name(JSON_VERSION).value(INDEX_VERSION);
+			writer.name(JSON_PROJECTS);
+			writer.beginArray();
+			for (Map.Entry<String, Entry> entry : this.entries.entrySet()) {
+				Entry value = entry.getValue();
+				writer.beginObject();
+				writer.name(JSON_FOLDER).value(entry.getKey());
+				writer.name(JSON_SIZE).value(value.size);
+				writer.name(JSON_LAST_MODIFIED).value(value.lastModified);
+				writer.name(MusicPackProjectWriterImpl.JSON_PROJECT_NAME).value(value.name);
+				writer.name(MusicPackProjectWriterImpl.JSON_PROJECT_TRACK_COUNT).value(value.trackCount);
+				writer.name(MusicPackProjectWriterImpl.JSON_PROJECT_PROPERTIES);
+				writer.beginObject();
+				for (Map.Entry<String, String> property : value.properties.entrySet())
+					writer.name(property.getKey()).value(property.getValue());
+				writer.endObject();
+				writer.endObject();
+			}
+			writer.endArray();
+			writer.endObject();
+		} catch (IOException e) {
+			this.modified = true;
+			throw e;
+		}
+	}
+
+	public static class Entry {
+
+		private final long size;
+		private final long lastModified;
+		private final String name;
+		private final int trackCount;
+		private final Map<String, String> properties;
+
+		public Entry(long size, long lastModified, String name, int trackCount, Map<String, String> properties) {
+			this.size = size;
+			this.lastModified = lastModified;
+			this.name = Objects.requireNonNull(name);
+			this.trackCount = trackCount;
+			this.properties = Collections.unmodifiableMap(new HashMap<>(properties));
+		}
+
+		/*
+		 * Creates the entry from the current state of a project. The Music Pack of a
+		 * lazily loaded project isn't loaded.
+		 */
+		public static Entry of(MusicPackProject project, long size, long lastModified) {
+			Map<String, String> properties = new HashMap<>();
+			project.getProperties().forEach((key, value) -> properties.put(key.toString(), value.toString()));
+			return new Entry(size, lastModified, project.getName(), project.getTrackCount(), properties);
+		}
+
+		public String getName() {
+			return this.name;
+		}
+
+		public int getTrackCount() {
+			return this.trackCount;
+		}
+
+		public Map<String, String> getProperties() {
+			return this.properties;
+		}
+
+	}
+
+}
@@ -4,6 +4,7 @@ import java.io.*;
 import java.lang.annotation.Annotation;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.function.Supplier;
 
 import org.easymock.*;
 import org.junit.*;
@@ -17,7 +18,8 @@ import org.powermock.modules.junit4.PowerMockRunner;
 import craftedMods.eventManager.api.EventManager;
 import craftedMods.fileManager.api.FileManager;
 import craftedMods.lotr.mpc.compatibility.api.MusicPackProjectCompatibilityManager;
-import craftedMods.lotr.mpc.core.api.MusicPackProject;
+import craftedMods.lotr.mpc.core.api.*;
+import craftedMods.lotr.mpc.core.base.DefaultMusicPack;
 import craftedMods.lotr.mpc.persistence.api.*;
 import craftedMods.lotr.mpc.persistence.provider.MusicPackProjectPersistenceManagerImpl.Configuration;
 import craftedMods.utils.data.*;
@@ -69,7 +71,7 @@ public class MusicPackProjectPersistenceManagerImplTest extends EasyMockSupport
 
         persistenceManager.mpcVersion = DefaultSemanticVersion.of ("0.1.0");
 
-        managedMusicPackProjects = new HashMap<> ();
+        managedMusicPackProjects = new LinkedHashMap<> ();
         EasyMock.expect (mockMusicPackProjectManager.getManagedMusicPackProjects ())
             .andStubReturn (managedMusicPackProjects);
     }
@@ -105,6 +107,7 @@ public class MusicPackProjectPersistenceManagerImplTest extends EasyMockSupport
             .andReturn (Arrays.stream (new Path[]
             {projectPath1})).once ();
         EasyMock.expect (mockFileManager.isDirectory (EasyMock.anyObject ())).andStubReturn (true);
+        this.expectNoSaveLeftovers ();
         EasyMock.expect (mockFileManager.exists (EasyMock.anyObject ())).andStubReturn (true);
         EasyMock.expect (mockFileManager.newInputStream (projectFilePath1)).andReturn (projectStream1).once ();
 
@@ -150,6 +153,139 @@ public class MusicPackProjectPersistenceManagerImplTest extends EasyMockSupport
         this.verifyAll ();
     }
 
+    @Test
+    public void testLoadMusicPackProjectsLazily () throws IOException
+    {
+        Path projectPath1 = projectsDir.resolve ("project1");
+
+        Path projectFilePath1 = projectPath1.resolve (MusicPackProjectPersistenceManagerImpl.PROJECT_FILE_NAME);
+
+        InputStream projectStream1 = EasyMock.createMock (InputStream.class);
+        InputStream musicPackStream1 = EasyMock.createMock (InputStream.class);
+
+        MusicPackProject mockMusicPackProject1 = createMockMusicPackProject ("0.1.0");
+        MusicPack musicPack = new DefaultMusicPack ();
+
+        EasyMock.expect (mockFileManager.getPathAndCreateDir (projectsDir.toString ())).andStubReturn (projectsDir);
+        EasyMock.expect (mockFileManager.getPathsInDirectory (projectsDir))
+            .andReturn (Arrays.stream (new Path[]
+            {projectPath1})).once ();
+        EasyMock.expect (mockFileManager.isDirectory (EasyMock.anyObject ())).andStubReturn (true);
+        this.expectNoSaveLeftovers ();
+        EasyMock.expect (mockFileManager.exists (EasyMock.anyObject ())).andStubReturn (true);
+        EasyMock.expect (mockFileManager.newInputStream (projectFilePath1)).andReturn (projectStream1).once ()
+            .andReturn (musicPackStream1).once ();
+
+        Capture<Supplier<MusicPack>> loaderCapture = Capture.newInstance ();
+        EasyMock.expect (
+            mockMusicPackProjectReader.readMusicPackProjectHeader (EasyMock.eq (projectStream1),
+                EasyMock.capture (loaderCapture)))
+            .andReturn (mockMusicPackProject1).once ();
+        EasyMock.expect (mockMusicPackProjectReader.readMusicPack (musicPackStream1)).andReturn (musicPack).once ();
+
+        mockCompatibilityManager.applyPreLoadFixes (projectPath1);
+        EasyMock.expectLastCall ().once ();
+        mockCompatibilityManager.applyPostLoadFixes (projectPath1, mockMusicPackProject1, "0.1.0");
+        EasyMock.expectLastCall ().once ();
+
+        this.replayAll ();
+
+        persistenceManager.onActivate (createConfig (true));
+        Collection<MusicPackProject> projects = persistenceManager.loadMusicPackProjects ();
+
+        Assert.assertEquals (Arrays.asList (mockMusicPackProject1), new ArrayList<> (projects));
+        Assert.assertSame (musicPack, loaderCapture.getValue ().get ());
+
+        this.verifyAll ();
+    }
+
+    @Test
+    public void testLoadMusicPackProjectsInFolderOrder () throws IOException
+    {
+        Path projectPath1 = projectsDir.resolve ("project1");
+        Path projectPath2 = projectsDir.resolve ("project2");
+        Path projectPath3 = projectsDir.resolve ("project3");
+
+        InputStream projectStream1 = EasyMock.createMock (InputStream.class);
+        InputStream projectStream2 = EasyMock.createMock (InputStream.class);
+        InputStream projectStream3 = EasyMock.createMock (InputStream.class);
+
+        MusicPackProject mockMusicPackProject1 = createMockMusicPackProject ("0.1.0");
+        MusicPackProject mockMusicPackProject3 = createMockMusicPackProject ("0.1.0");
+
+        EasyMock.expect (mockFileManager.getPathAndCreateDir (projectsDir.toString ())).andStubReturn (projectsDir);
+        EasyMock.expect (mockFileManager.getPathsInDirectory (projectsDir))
+            .andReturn (Arrays.stream (new Path[]
+            {projectPath3, projectPath1, projectPath2})).once ();
+        EasyMock.expect (mockFileManager.isDirectory (EasyMock.anyObject ())).andStubReturn (true);
+        this.expectNoSaveLeftovers ();
+        EasyMock.expect (mockFileManager.exists (EasyMock.anyObject ())).andStubReturn (true);
+        EasyMock.expect (mockFileManager
+            .newInputStream (projectPath1.resolve (MusicPackProjectPersistenceManagerImpl.PROJECT_FILE_NAME)))
+            .andReturn (projectStream1).once ();
+        EasyMock.expect (mockFileManager
+            .newInputStream (projectPath2.resolve (MusicPackProjectPersistenceManagerImpl.PROJECT_FILE_NAME)))
+            .andReturn (projectStream2).once ();
+        EasyMock.expect (mockFileManager
+            .newInputStream (projectPath3.resolve (MusicPackProjectPersistenceManagerImpl.PROJECT_FILE_NAME)))
+            .andReturn (projectStream3).once ();
+
+        IOException thrownException = new IOException ("Invalid project file");
+
+        EasyMock.expect (mockMusicPackProjectReader.readMusicPackProject (projectStream1))
+            .andReturn (mockMusicPackProject1).once ();
+        EasyMock.expect (mockMusicPackProjectReader.readMusicPackProject (projectStream2))
+            .andThrow (thrownException).once ();
+        EasyMock.expect (mockMusicPackProjectReader.readMusicPackProject (projectStream3))
+            .andReturn (mockMusicPackProject3).once ();
+
+        // The pre load fixes are applied on the calling thread in the order of the folders
+        EasyMock.checkOrder (mockCompatibilityManager, false);
+        List<Path> preLoadFixes = new ArrayList<> ();
+        Set<Thread> preLoadFixThreads = new HashSet<> ();
+        mockCompatibilityManager.applyPreLoadFixes (EasyMock.anyObject ());
+        EasyMock.expectLastCall ().andAnswer ( () ->
+        {
+            preLoadFixes.add ((Path) EasyMock.getCurrentArguments ()[0]);
+            preLoadFixThreads.add (Thread.currentThread ());
+            return null;
+        }).times (3);
+
+        List<Path> postLoadFixes = new ArrayList<> ();
+        mockCompatibilityManager.applyPostLoadFixes (EasyMock.anyObject (), EasyMock.anyObject (),
+            EasyMock.eq ("0.1.0"));
+        EasyMock.expectLastCall ().andAnswer ( () ->
+        {
+            postLoadFixes.add ((Path) EasyMock.getCurrentArguments ()[0]);
+            return null;
+        }).times (2);
+
+        Capture<LockableTypedProperties> propertiesCapture = EasyMock.newCapture ();
+
+        EasyMock.expect (mockEventManager.dispatchEvent (
+            EasyMock.eq (MusicPackProjectPersistenceManager.LOAD_ALL_PROJECT_ERROR_EVENT),
+            EasyMock.capture (propertiesCapture))).andReturn (null).once ();
+
+        this.replayAll ();
+
+        persistenceManager.onActivate (createConfig ());
+        Collection<MusicPackProject> projects = persistenceManager.loadMusicPackProjects ();
+
+        Assert.assertEquals (Arrays.asList (mockMusicPackProject1, mockMusicPackProject3), new ArrayList<> (projects));
+        Assert.assertEquals (Arrays.asList (projectPath1, projectPath2, projectPath3), preLoadFixes);
+        Assert.assertEquals (Collections.singleton (Thread.currentThread ()), preLoadFixThreads);
+        Assert.assertEquals (Arrays.asList (projectPath1, projectPath3), postLoadFixes);
+
+        LockableTypedProperties value = propertiesCapture.getValue ();
+
+        Assert.assertEquals (thrownException,
+            value.getProperty (MusicPackProjectPersistenceManager.LOAD_ALL_PROJECT_ERROR_EVENT_EXCEPTION).getCause ());
+        Assert.assertEquals (projectPath2,
+            value.getProperty (MusicPackProjectPersistenceManager.LOAD_ALL_PROJECT_ERROR_EVENT_MUSIC_PACK_PROJECT_PATH));
+
+        this.verifyAll ();
+    }
+
     @Test
     public void testLoadNoMusicPackProjects () throws IOException
     {
@@ -270,6 +406,7 @@ public class MusicPackProjectPersistenceManagerImplTest extends EasyMockSupport
             .andStubReturn (Arrays.stream (new Path[]
             {projectPath1}));
         EasyMock.expect (mockFileManager.isDirectory (EasyMock.anyObject ())).andStubReturn (true);
+        this.expectNoSaveLeftovers ();
         EasyMock.expect (mockFileManager.exists (EasyMock.anyObject ())).andStubReturn (true);
         EasyMock.expect (mockFileManager.newInputStream (projectFilePath1)).andStubReturn (projectStream1);
 
@@ -320,6 +457,7 @@ public class MusicPackProjectPersistenceManagerImplTest extends EasyMockSupport
             .andStubReturn (Arrays.stream (new Path[]
             {projectPath1}));
         EasyMock.expect (mockFileManager.isDirectory (EasyMock.anyObject ())).andStubReturn (true);
+        this.expectNoSaveLeftovers ();
         EasyMock.expect (mockFileManager.exists (EasyMock.anyObject ())).andStubReturn (true);
         EasyMock.expect (mockFileManager.newInputStream (projectFilePath1)).andStubReturn (projectStream1);
 
@@ -370,6 +508,7 @@ public class MusicPackProjectPersistenceManagerImplTest extends EasyMockSupport
             .andStubReturn (Arrays.stream (new Path[]
             {projectPath1}));
         EasyMock.expect (mockFileManager.isDirectory (EasyMock.anyObject ())).andStubReturn (true);
+        this.expectNoSaveLeftovers ();
         EasyMock.expect (mockFileManager.exists (EasyMock.anyObject ())).andStubReturn (true);
         EasyMock.expect (mockFileManager.newInputStream (projectFilePath1)).andStubReturn (projectStream1);
 
@@ -483,30 +622,45 @@ public class MusicPackProjectPersistenceManagerImplTest extends EasyMockSupport
         EasyMock.expect (mockFileManager.getPathAndCreateDir (projectsDir.toString ())).andStubReturn (projectsDir);
 
         Path projectFilePath = projectPath.resolve (MusicPackProjectPersistenceManagerImpl.PROJECT_FILE_NAME);
-
-        EasyMock
-            .expect (mockFileManager.exists (projectFilePath)).andReturn (testBackup);
-
-        if (testBackup)
-        {
-            mockFileManager.rename (projectFilePath, MusicPackProjectPersistenceManagerImpl.OLD_PROJECT_FILE_NAME);
-            EasyMock.expectLastCall ().once ();
-        }
+        Path newProjectFilePath = projectPath.resolve (MusicPackProjectPersistenceManagerImpl.NEW_PROJECT_FILE_NAME);
 
         OutputStream mockOutputStream = EasyMock.createMock (OutputStream.class);
 
-        mockMusicPackProjectWriter.writeMusicPackProject (project, mockOutputStream);
-
+        // The project is marked as unmodified before it's written
+        project.setModified (false);
         EasyMock.expectLastCall ().once ();
 
         if (!exception)
         {
-            EasyMock.expect (mockFileManager.newOutputStream (projectFilePath)).andReturn (mockOutputStream).once ();
+            EasyMock.expect (mockFileManager.newOutputStream (newProjectFilePath, true)).andReturn (mockOutputStream)
+                .once ();
+
+            mockMusicPackProjectWriter.writeMusicPackProject (project, mockOutputStream);
+            EasyMock.expectLastCall ().once ();
+
+            EasyMock
+                .expect (mockFileManager.exists (projectFilePath)).andReturn (testBackup);
+
+            if (testBackup)
+            {
+                // The project file is kept until the new one replaces it
+                mockFileManager.copy (projectFilePath,
+                    projectPath.resolve (MusicPackProjectPersistenceManagerImpl.OLD_PROJECT_FILE_NAME));
+                EasyMock.expectLastCall ().once ();
+            }
+
+            // The project file is only replaced after the new one was written
+            mockFileManager.move (newProjectFilePath, projectFilePath);
+            EasyMock.expectLastCall ().once ();
         }
         else
         {
-            EasyMock.expect (mockFileManager.newOutputStream (projectFilePath))
+            EasyMock.expect (mockFileManager.newOutputStream (newProjectFilePath, true))
                 .andThrow (new IOException ("Couldn't open the output stream")).once ();
+            EasyMock.expect (mockFileManager.deleteFile (newProjectFilePath)).andReturn (false).once ();
+
+            project.setModified (true);
+            EasyMock.expectLastCall ().once ();
         }
 
         this.replayAll ();
@@ -519,6 +673,110 @@ public class MusicPackProjectPersistenceManagerImplTest extends EasyMockSupport
         this.verifyAll ();
     }
 
+    @Test
+    public void testLoadMusicPackProjectCompletesInterruptedSave () throws IOException
+    {
+        Path projectPath1 = projectsDir.resolve ("project1");
+
+        Path projectFilePath1 = projectPath1.resolve (MusicPackProjectPersistenceManagerImpl.PROJECT_FILE_NAME);
+        Path newProjectFilePath1 = projectPath1.resolve (MusicPackProjectPersistenceManagerImpl.NEW_PROJECT_FILE_NAME);
+
+        InputStream newProjectStream1 = EasyMock.createMock (InputStream.class);
+        InputStream projectStream1 = EasyMock.createMock (InputStream.class);
+
+        MusicPackProject mockMusicPackProject1 = createMockMusicPackProject ("0.1.0");
+
+        EasyMock.expect (mockFileManager.getPathAndCreateDir (projectsDir.toString ())).andStubReturn (projectsDir);
+        EasyMock.expect (mockFileManager.getPathsInDirectory (projectsDir))
+            .andReturn (Arrays.stream (new Path[]
+            {projectPath1})).once ();
+        EasyMock.expect (mockFileManager.isDirectory (EasyMock.anyObject ())).andStubReturn (true);
+
+        // The save was interrupted after the backup was created
+        EasyMock.expect (mockFileManager.exists (newProjectFilePath1)).andReturn (true).once ();
+        EasyMock.expect (mockFileManager.newInputStream (newProjectFilePath1)).andReturn (newProjectStream1).once ();
+        EasyMock.expect (mockMusicPackProjectReader.readMusicPackProject (newProjectStream1))
+            .andReturn (mockMusicPackProject1).once ();
+        EasyMock.expect (mockFileManager.exists (projectFilePath1)).andReturn (false).once ();
+        mockFileManager.move (newProjectFilePath1, projectFilePath1);
+        EasyMock.expectLastCall ().once ();
+
+        EasyMock.expect (mockFileManager.exists (projectFilePath1)).andReturn (true).once ();
+        EasyMock.expect (mockFileManager.newInputStream (projectFilePath1)).andReturn (projectStream1).once ();
+        EasyMock.expect (mockMusicPackProjectReader.readMusicPackProject (projectStream1))
+            .andReturn (mockMusicPackProject1).once ();
+
+        mockCompatibilityManager.applyPreLoadFixes (projectPath1);
+        EasyMock.expectLastCall ().once ();
+        mockCompatibilityManager.applyPostLoadFixes (projectPath1, mockMusicPackProject1, "0.1.0");
+        EasyMock.expectLastCall ().once ();
+
+        this.replayAll ();
+
+        persistenceManager.onActivate (createConfig ());
+        Collection<MusicPackProject> projects = persistenceManager.loadMusicPackProjects ();
+
+        Assert.assertEquals (Arrays.asList (mockMusicPackProject1), new ArrayList<> (projects));
+
+        this.verifyAll ();
+    }
+
+    @Test
+    public void testLoadMusicPackProjectRestoresBackup () throws IOException
+    {
+        Path projectPath1 = projectsDir.resolve ("project1");
+
+        Path projectFilePath1 = projectPath1.resolve (MusicPackProjectPersistenceManagerImpl.PROJECT_FILE_NAME);
+        Path oldProjectFilePath1 = projectPath1.resolve (MusicPackProjectPersistenceManagerImpl.OLD_PROJECT_FILE_NAME);
+
+        InputStream corruptProjectStream1 = EasyMock.createMock (InputStream.class);
+        InputStream oldProjectStream1 = EasyMock.createMock (InputStream.class);
+        InputStream projectStream1 = EasyMock.createMock (InputStream.class);
+
+        MusicPackProject mockMusicPackProject1 = createMockMusicPackProject ("0.1.0");
+
+        EasyMock.expect (mockFileManager.getPathAndCreateDir (projectsDir.toString ())).andStubReturn (projectsDir);
+        EasyMock.expect (mockFileManager.getPathsInDirectory (projectsDir))
+            .andReturn (Arrays.stream (new Path[]
+            {projectPath1})).once ();
+        EasyMock.expect (mockFileManager.isDirectory (EasyMock.anyObject ())).andStubReturn (true);
+        EasyMock.expect (mockFileManager.exists (
+            projectPath1.resolve (MusicPackProjectPersistenceManagerImpl.NEW_PROJECT_FILE_NAME))).andStubReturn (false);
+        EasyMock.expect (mockFileManager.exists (EasyMock.anyObject ())).andStubReturn (true);
+
+        // The project file is truncated
+        EasyMock.expect (mockFileManager.newInputStream (projectFilePath1)).andReturn (corruptProjectStream1).times (2)
+            .andReturn (projectStream1).once ();
+        EasyMock.expect (mockMusicPackProjectReader.readMusicPackProject (corruptProjectStream1))
+            .andThrow (new IOException ("Truncated")).times (2);
+        EasyMock.expect (mockFileManager.newInputStream (oldProjectFilePath1)).andReturn (oldProjectStream1).once ();
+        EasyMock.expect (mockMusicPackProjectReader.readMusicPackProject (oldProjectStream1))
+            .andReturn (mockMusicPackProject1).once ();
+
+        mockFileManager.move (projectFilePath1,
+            projectPath1.resolve (MusicPackProjectPersistenceManagerImpl.CORRUPT_PROJECT_FILE_NAME));
+        EasyMock.expectLastCall ().once ();
+        mockFileManager.copy (oldProjectFilePath1, projectFilePath1);
+        EasyMock.expectLastCall ().once ();
+
+        EasyMock.expect (mockMusicPackProjectReader.readMusicPackProject (projectStream1))
+            .andReturn (mockMusicPackProject1).once ();
+
+        mockCompatibilityManager.applyPreLoadFixes (projectPath1);
+        EasyMock.expectLastCall ().once ();
+        mockCompatibilityManager.applyPostLoadFixes (projectPath1, mockMusicPackProject1, "0.1.0");
+        EasyMock.expectLastCall ().once ();
+
+        this.replayAll ();
+
+        persistenceManager.onActivate (createConfig ());
+        Collection<MusicPackProject> projects = persistenceManager.loadMusicPackProjects ();
+
+        Assert.assertEquals (Arrays.asList (mockMusicPackProject1), new ArrayList<> (projects));
+
+        this.verifyAll ();
+    }
+
     @Test(expected = NullPointerException.class)
     public void testDeleteMusicPackProjectNull ()
     {
@@ -581,6 +839,11 @@ public class MusicPackProjectPersistenceManagerImplTest extends EasyMockSupport
     }
 
     private Configuration createConfig ()
+    {
+        return this.createConfig (false);
+    }
+
+    private Configuration createConfig (boolean lazyLoading)
     {
         return new Configuration ()
         {
@@ -596,9 +859,64 @@ public class MusicPackProjectPersistenceManagerImplTest extends EasyMockSupport
             {
                 return projectsDir.toString ();
             }
+
+            @Override
+            public int loadThreads ()
+            {
+                return 2;
+            }
+
+            @Override
+            public boolean lazyLoading ()
+            {
+                return lazyLoading;
+            }
+
+            @Override
+            public boolean workspaceIndex ()
+            {
+                return false;
+            }
+
+            @Override
+            public boolean syncSaves ()
+            {
+                return true;
+            }
         };
     }
 
+    /*
+     * There are neither new project files of interrupted saves nor backups
+     */
+    private void expectNoSaveLeftovers ()
+    {
+        EasyMock.expect (mockFileManager.exists (fileName (MusicPackProjectPersistenceManagerImpl.NEW_PROJECT_FILE_NAME)))
+            .andStubReturn (false);
+        EasyMock.expect (mockFileManager.exists (fileName (MusicPackProjectPersistenceManagerImpl.OLD_PROJECT_FILE_NAME)))
+            .andStubReturn (false);
+    }
+
+    private static Path fileName (String name)
+    {
+        EasyMock.reportMatcher (new IArgumentMatcher ()
+        {
+
+            @Override
+            public boolean matches (Object argument)
+            {
+                return argument instanceof Path && ((Path) argument).getFileName ().toString ().equals (name);
+            }
+
+            @Override
+            public void appendTo (StringBuffer buffer)
+            {
+                buffer.append ("fileName(").append (name).append (")");
+            }
+        });
+        return null;
+    }
+
     private MusicPackProject createMockMusicPackProject (String version)
     {
         MusicPackProject mockMusicPackProject = this.createMock (MusicPackProject.class);
@@ -607,6 +925,9 @@ public class MusicPackProjectPersistenceManagerImplTest extends EasyMockSupport
 
         EasyMock.expect (mockMusicPackProject.getProperties ()).andStubReturn (properties);
         EasyMock.expect (mockMusicPackProject.getName ()).andStubReturn ("proj");
+        EasyMock.expect (mockMusicPackProject.getMusicPack ()).andStubReturn (new DefaultMusicPack ());
+        mockMusicPackProject.setModified (EasyMock.anyBoolean ());
+        EasyMock.expectLastCall ().asStub ();
 
         return mockMusicPackProject;
     }
@@ -1,12 +1,16 @@
 package craftedMods.lotr.mpc.persistence.provider;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import org.easymock.EasyMock;
 import org.easymock.EasyMockRunner;
@@ -86,6 +90,15 @@ public class MusicPackProjectReaderImplTest {
 				public MusicPack getMusicPack() {
 					return mockMusicPack;
 				}
+
+				@Override
+				public boolean isModified() {
+					return true;
+				}
+
+				@Override
+				public void setModified(boolean modified) {
+				}
 			};
 		}).once();
 
@@ -102,6 +115,118 @@ public class MusicPackProjectReaderImplTest {
 		checkReadMusicPackProject(readProject);
 	}
 
+	@Test
+	public void testReadProjectHeaderWithoutTrackCount() throws IOException {
+		MusicPack mockMusicPack = EasyMock.createMock(MusicPack.class);
+		Supplier<MusicPack> loader = () -> mockMusicPack;
+
+		EasyMock.expect(mockFactory.createMusicPackProjectInstance("TestProject", 2, loader))
+				.andReturn(this.createMusicPackProject("TestProject", 2, loader)).once();
+
+		EasyMock.replay(mockFactory);
+
+		MusicPackProject readProject = reader.readMusicPackProjectHeader(testInputStream, loader);
+
+		EasyMock.verify(mockFactory);
+
+		Assert.assertEquals(2, readProject.getProperties().size());
+		Assert.assertEquals("Crafted_Mods", readProject.getProperties().get(MusicPackProject.PROPERTY_AUTHOR));
+	}
+
+	@Test
+	public void testReadProjectHeaderDoesntParseTracks() throws IOException {
+		Supplier<MusicPack> loader = () -> null;
+
+		EasyMock.expect(mockFactory.createMusicPackProjectInstance("Header", 3, loader))
+				.andReturn(this.createMusicPackProject("Header", 3, loader)).once();
+
+		EasyMock.replay(mockFactory);
+
+		// The tracks are incomplete, but they're only skipped and counted
+		MusicPackProject readProject = reader.readMusicPackProjectHeader(new ByteArrayInputStream(
+				"{\"project\":{\"name\":\"Header\",\"properties\":[{\"author\":\"Crafted_Mods\"}],\"trackCount\":3,\"tracks\":[{},{},{\"name\":1}]}}"
+						.getBytes(StandardCharsets.UTF_8)),
+				loader);
+
+		EasyMock.verify(mockFactory);
+
+		Assert.assertEquals("Crafted_Mods", readProject.getProperties().get(MusicPackProject.PROPERTY_AUTHOR));
+	}
+
+	@Test(expected = IOException.class)
+	public void testReadProjectHeaderTruncatedTracks() throws IOException {
+		reader.readMusicPackProjectHeader(new ByteArrayInputStream(
+				"{\"project\":{\"name\":\"Header\",\"properties\":[],\"trackCount\":3,\"tracks\":[{"
+						.getBytes(StandardCharsets.UTF_8)),
+				() -> null);
+	}
+
+	@Test(expected = IOException.class)
+	public void testReadProjectHeaderMalformedTracks() throws IOException {
+		reader.readMusicPackProjectHeader(new ByteArrayInputStream(
+				"{\"project\":{\"name\":\"Header\",\"properties\":[],\"trackCount\":1,\"tracks\":[\"track\"]}}"
+						.getBytes(StandardCharsets.UTF_8)),
+				() -> null);
+	}
+
+	@Test(expected = IOException.class)
+	public void testReadProjectHeaderWrongTrackCount() throws IOException {
+		reader.readMusicPackProjectHeader(new ByteArrayInputStream(
+				"{\"project\":{\"name\":\"Header\",\"properties\":[],\"trackCount\":3,\"tracks\":[{}]}}"
+						.getBytes(StandardCharsets.UTF_8)),
+				() -> null);
+	}
+
+	@Test(expected = IOException.class)
+	public void testReadProjectHeaderIncomplete() throws IOException {
+		reader.readMusicPackProjectHeader(
+				new ByteArrayInputStream("{\"project\":{\"name\":\"Header\"}}".getBytes(StandardCharsets.UTF_8)),
+				() -> null);
+	}
+
+	@Test
+	public void testReadMusicPack() throws IOException {
+		MusicPack musicPack = reader.readMusicPack(testInputStream);
+
+		Assert.assertEquals(new HashSet<>(Arrays.asList("track1.ogg", "track2.ogg")),
+				musicPack.getTracks().stream().map(Track::getName).collect(Collectors.toSet()));
+	}
+
+	private MusicPackProject createMusicPackProject(String name, int trackCount, Supplier<MusicPack> loader) {
+		PrimitiveProperties properties = new ExtendedProperties();
+		return new MusicPackProject() {
+
+			@Override
+			public PrimitiveProperties getProperties() {
+				return properties;
+			}
+
+			@Override
+			public String getName() {
+				return name;
+			}
+
+			@Override
+			public MusicPack getMusicPack() {
+				return loader.get();
+			}
+
+			@Override
+			public int getTrackCount() {
+				return trackCount;
+			}
+
+			@Override
+			public boolean isModified() {
+				return true;
+			}
+
+			@Override
+			public void setModified(boolean modified) {
+			}
+		};
+	}
+
 	private void checkReadMusicPackProject(MusicPackProject project) {
 		Assert.assertEquals("TestProject", project.getName());
 		Assert.assertEquals(2, project.getMusicPack().getTracks().size());
@@ -123,12 +123,6 @@ public class MusicPackProjectWriterImplTest {
 			reader.beginObject();
 			Assert.assertEquals(MusicPackProjectWriterImpl.JSON_PROJECT_NAME, reader.nextName());
 			Assert.assertEquals("TestProject", reader.nextString());
-			Assert.assertEquals(MusicPackProjectWriterImpl.JSON_PROJECT_TRACKS, reader.nextName());
-			reader.beginArray();
-			for(Track track : tracks) {
-				checkWrittenTrack(reader, track);
-			}
-			reader.endArray();
 			Assert.assertEquals(MusicPackProjectWriterImpl.JSON_PROJECT_PROPERTIES, reader.nextName());
 			reader.beginArray();
 			for (Map.Entry<Object, Object> entry : this.mockMusicPackProject.getProperties().entrySet()) {
@@ -138,6 +132,14 @@ public class MusicPackProjectWriterImplTest {
 				reader.endObject();
 			}
 			reader.endArray();
+			Assert.assertEquals(MusicPackProjectWriterImpl.JSON_PROJECT_TRACK_COUNT, reader.nextName());
+			Assert.assertEquals(tracks.size(), reader.nextInt());
+			Assert.assertEquals(MusicPackProjectWriterImpl.JSON_PROJECT_TRACKS, reader.nextName());
+			reader.beginArray();
+			for(Track track : tracks) {
+				checkWrittenTrack(reader, track);
+			}
+			reader.endArray();
 			reader.endObject();
 			reader.endObject();
 		}
@@ -1,10 +1,16 @@
 package craftedMods.lotr.mpc.persistence.provider;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 
@@ -114,6 +120,37 @@ public class TrackStoreImplTest extends EasyMockSupport {
 		this.verifyAll();
 	}
 
+	@Test
+	public void testOpenOutputStreamConcurrently() throws Exception {
+		int trackCount = 1000;
+
+		EasyMock.expect(mockFileManager.getPathAndCreateFile(EasyMock.eq(storeDir.toString()), EasyMock.anyString()))
+				.andStubAnswer(() -> storeDir.resolve((String) EasyMock.getCurrentArguments()[1]));
+		EasyMock.expect(mockFileManager.newOutputStream(EasyMock.anyObject(Path.class)))
+				.andStubAnswer(ByteArrayOutputStream::new);
+
+		this.replayAll();
+
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<?>> openedStreams = new ArrayList<>();
+			for (int i = 0; i < trackCount; i++) {
+				String name = "Track" + i;
+				openedStreams.add(executor.submit(() -> trackStore.openOutputStream(name)));
+			}
+			for (Future<?> openedStream : openedStreams)
+				openedStream.get();
+		} finally {
+			executor.shutdown();
+		}
+
+		Assert.assertEquals(trackCount, trackStore.getStoredTracks().size());
+		for (int i = 0; i < trackCount; i++)
+			Assert.assertEquals(storeDir.resolve("Track" + i), trackStore.getStoredTracksMap().get("Track" + i));
+
+		this.verifyAll();
+	}
+
 	@Test(expected = NullPointerException.class)
 	public void testDeleteTrackNull() throws IOException {
 		trackStore.deleteTrack(null);
@@ -141,6 +178,46 @@ public class TrackStoreImplTest extends EasyMockSupport {
 		this.verifyAll();
 	}
 
+	@Test(expected = IllegalArgumentException.class)
+	public void testGetTrackSizeUnregistered() throws IOException {
+		trackStore.getTrackSize("Track5");
+	}
+
+	@Test
+	public void testGetTrackSize() throws IOException {
+		Path trackPath = storeDir.resolve("Track5");
+
+		trackStore.getStoredTracksMap().put("Track5", trackPath);
+
+		EasyMock.expect(mockFileManager.getSize(trackPath)).andReturn(4711l).once();
+
+		this.replayAll();
+
+		Assert.assertEquals(4711l, trackStore.getTrackSize("Track5"));
+
+		this.verifyAll();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testGetTrackLastModifiedUnregistered() throws IOException {
+		trackStore.getTrackLastModified("Track6");
+	}
+
+	@Test
+	public void testGetTrackLastModified() throws IOException {
+		Path trackPath = storeDir.resolve("Track6");
+
+		trackStore.getStoredTracksMap().put("Track6", trackPath);
+
+		EasyMock.expect(mockFileManager.getLastModified(trackPath)).andReturn(1500000000000l).once();
+
+		this.replayAll();
+
+		Assert.assertEquals(1500000000000l, trackStore.getTrackLastModified("Track6"));
+
+		this.verifyAll();
+	}
+
 	@Test
 	@SuppressWarnings("unchecked")
 	public void testRefreshNoTracks() throws IOException {
@@ -0,0 +1,113 @@
+package craftedMods.lotr.mpc.persistence.provider;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.easymock.EasyMock;
+import org.easymock.EasyMockRunner;
+import org.easymock.EasyMockSupport;
+import org.easymock.Mock;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import craftedMods.fileManager.api.FileManager;
+
+@RunWith(EasyMockRunner.class)
+public class WorkspaceIndexTest extends EasyMockSupport {
+
+	@Mock
+	private FileManager mockFileManager;
+
+	private Path indexFile;
+
+	private WorkspaceIndex index;
+
+	@Before
+	public void setup() {
+		this.indexFile = Paths.get("projects", WorkspaceIndex.INDEX_FILE_NAME);
+		this.index = new WorkspaceIndex();
+	}
+
+	@Test
+	public void testGetValidatesTheProjectFile() {
+		this.index.put("project1", new WorkspaceIndex.Entry(100, 5, "Project", 3, Collections.emptyMap()));
+
+		Assert.assertEquals("Project", this.index.get("project1", 100, 5).getName());
+		Assert.assertNull(this.index.get("project1", 101, 5));
+		Assert.assertNull(this.index.get("project1", 100, 6));
+		Assert.assertNull(this.index.get("project2", 100, 5));
+	}
+
+	@Test
+	public void testWriteAndRead() throws IOException {
+		this.index.put("project1",
+				new WorkspaceIndex.Entry(100, 5, "Project", 3, Collections.singletonMap("author", "Crafted_Mods")));
+		this.index.put("project2", new WorkspaceIndex.Entry(200, 7, "Project 2", 0, Collections.emptyMap()));
+
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		EasyMock.expect(this.mockFileManager.newOutputStream(this.indexFile)).andReturn(output).once();
+		EasyMock.expect(this.mockFileManager.newInputStream(this.indexFile))
+				.andAnswer(() -> new ByteArrayInputStream(output.toByteArray())).once();
+
+		this.replayAll();
+
+		Assert.assertTrue(this.index.isModified());
+		this.index.write(this.mockFileManager, this.indexFile);
+		Assert.assertFalse(this.index.isModified());
+
+		WorkspaceIndex readIndex = WorkspaceIndex.read(this.mockFileManager, this.indexFile);
+
+		this.verifyAll();
+
+		Assert.assertEquals(2, readIndex.size());
+		Assert.assertFalse(readIndex.isModified());
+		WorkspaceIndex.Entry entry = readIndex.get("project1", 100, 5);
+		Assert.assertEquals("Project", entry.getName());
+		Assert.assertEquals(3, entry.getTrackCount());
+		Assert.assertEquals(Collections.singletonMap("author", "Crafted_Mods"), entry.getProperties());
+		Assert.assertEquals("Project 2", readIndex.get("project2", 200, 7).getName());
+	}
+
+	@Test
+	public void testRetain() {
+		this.index.put("project1", new WorkspaceIndex.Entry(100, 5, "Project", 3, Collections.emptyMap()));
+		this.index.put("project2", new WorkspaceIndex.Entry(200, 7, "Project 2", 0, Collections.emptyMap()));
+
+		this.index.retain(Arrays.asList("project2", "project3"));
+
+		Assert.assertEquals(1, this.index.size());
+		Assert.assertNull(this.index.get("project1", 100, 5));
+	}
+
+	@Test(expected = IOException.class)
+	public void testReadCorruptIndex() throws IOException {
+		EasyMock.expect(this.mockFileManager.newInputStream(this.indexFile))
+				.andReturn(new ByteArrayInputStream("{\"version\":1,\"projects\":[{\"folder\":"
+						.getBytes(StandardCharsets.UTF_8)))
+				.once();
+
+		this.replayAll();
+
+		WorkspaceIndex.read(this.mockFileManager, this.indexFile);
+	}
+
+	@Test(expected = IOException.class)
+	public void testReadUnsupportedVersion() throws IOException {
+		EasyMock.expect(this.mockFileManager.newInputStream(this.indexFile))
+				.andReturn(new ByteArrayInputStream("{\"version\":2,\"projects\":[]}".getBytes(StandardCharsets.UTF_8)))
+				.once();
+
+		this.replayAll();
+
+		WorkspaceIndex.read(this.mockFileManager, this.indexFile);
+	}
+
+}
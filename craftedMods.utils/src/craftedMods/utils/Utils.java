@@ -10,6 +10,9 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+
+import craftedMods.utils.io.TransferUtils;
 
 public class Utils {
 
@@ -66,14 +69,29 @@ public class Utils {
 	 * @param in  The input stream
 	 * @param out The output stream
 	 * @throws IOException If the writing/reading operations go wrong
+	 * @see TransferUtils#transfer(InputStream, OutputStream)
 	 */
 	public static void writeFromInputStreamToOutputStream(InputStream in, OutputStream out) throws IOException {
+		writeFromInputStreamToOutputStream(in, out, null);
+	}
+
+	/**
+	 * Writes all data from the specified input stream to the specified output
+	 * stream. The streams won't be closed. The progress listener receives the
+	 * total amount of copied bytes after every written block.
+	 * 
+	 * @param in               The input stream
+	 * @param out              The output stream
+	 * @param progressListener The progress listener, can be null
+	 * @return The amount of copied bytes
+	 * @throws IOException If the writing/reading operations go wrong
+	 * @see TransferUtils#transfer(InputStream, OutputStream, LongConsumer)
+	 */
+	public static long writeFromInputStreamToOutputStream(InputStream in, OutputStream out,
+			LongConsumer progressListener) throws IOException {
 		Objects.requireNonNull(in);
 		Objects.requireNonNull(out);
-		int read = -1;
-		while ((read = in.read()) != -1) {
-			out.write(read);
-		}
+		return TransferUtils.transfer(in, out, progressListener);
 	}
 
 }
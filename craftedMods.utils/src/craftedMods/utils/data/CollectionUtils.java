@@ -26,19 +26,37 @@ public class CollectionUtils {
 	}
 
 	public static <T> NonNullSet<T> createNonNullSetWithInternal(Set<T> internal) {
+		return createNonNullSetWithInternal(internal, () -> {
+		});
+	}
+
+	/*
+	 * The listener is called after every modification made through the returned
+	 * set, modifications of the internal set aren't noticed
+	 */
+	public static <T> NonNullSet<T> createNonNullSetWithInternal(Set<T> internal, Runnable modificationListener) {
 		Objects.requireNonNull(internal);
+		Objects.requireNonNull(modificationListener);
 
-		return new NonNullSetWrapper<>(internal);
+		return new NonNullSetWrapper<>(internal, modificationListener);
 	}
 
 	private static class NonNullSetWrapper<T> implements NonNullSet<T> {
 
 		private final Set<T> internal;
+		private final Runnable modificationListener;
 
-		public NonNullSetWrapper(Set<T> internal) {
+		public NonNullSetWrapper(Set<T> internal, Runnable modificationListener) {
 			internal.forEach(Objects::requireNonNull);
 
 			this.internal = internal;
+			this.modificationListener = modificationListener;
+		}
+
+		private boolean notifyModification(boolean modified) {
+			if (modified)
+				modificationListener.run();
+			return modified;
 		}
 
 		@Override
@@ -58,7 +76,26 @@ public class CollectionUtils {
 
 		@Override
 		public Iterator<T> iterator() {
-			return internal.iterator();
+			Iterator<T> iterator = internal.iterator();
+			return new Iterator<T>() {
+
+				@Override
+				public boolean hasNext() {
+					return iterator.hasNext();
+				}
+
+				@Override
+				public T next() {
+					return iterator.next();
+				}
+
+				@Override
+				public void remove() {
+					iterator.remove();
+					modificationListener.run();
+				}
+
+			};
 		}
 
 		@Override
@@ -75,12 +112,12 @@ public class CollectionUtils {
 		public boolean add(T e) {
 			Objects.requireNonNull(e);
 
-			return internal.add(e);
+			return notifyModification(internal.add(e));
 		}
 
 		@Override
 		public boolean remove(Object o) {
-			return internal.remove(o);
+			return notifyModification(internal.remove(o));
 		}
 
 		@Override
@@ -91,22 +128,24 @@ public class CollectionUtils {
 		@Override
 		public boolean addAll(Collection<? extends T> c) {
 			c.forEach(Objects::requireNonNull);
-			return internal.addAll(c);
+			return notifyModification(internal.addAll(c));
 		}
 
 		@Override
 		public boolean retainAll(Collection<?> c) {
-			return internal.retainAll(c);
+			return notifyModification(internal.retainAll(c));
 		}
 
 		@Override
 		public boolean removeAll(Collection<?> c) {
-			return internal.removeAll(c);
+			return notifyModification(internal.removeAll(c));
 		}
 
 		@Override
 		public void clear() {
+			boolean empty = internal.isEmpty();
 			internal.clear();
+			notifyModification(!empty);
 		}
 
 		@Override
@@ -1,14 +1,34 @@
 package craftedMods.utils.data;
 
-import java.util.Collections;
-import java.util.HashMap;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Set;
 
+/*
+ * Stores the properties in two small arrays which are searched linearly, as
+ * most instances only carry a few properties. The instances aren't thread-safe
+ * while they can be modified, but can be shared freely once they were locked.
+ */
 public class DefaultTypedProperties implements LockableTypedProperties {
 
-	protected final Map<TypedPropertyKey<?>, Object> properties = Collections.synchronizedMap(new HashMap<>());
-	
+	private static final int INITIAL_CAPACITY = 4;
+
+	private TypedPropertyKey<?>[] keys;
+	private Object[] values;
+	private int size = 0;
+
+	/*
+	 * A view of the arrays for subclasses. Like the map it replaced it ignores the
+	 * lock, but it isn't synchronized anymore.
+	 */
+	protected final Map<TypedPropertyKey<?>, Object> properties = new PropertiesView();
+
 	protected boolean isLocked = false;
 
 	@Override
@@ -16,44 +36,238 @@ public class DefaultTypedProperties implements LockableTypedProperties {
 	public <T> T put(TypedPropertyKey<T> key, T value) {
 		Objects.requireNonNull(key);
 		this.checkState ();
-		return (T) this.properties.put(key, value);
+		return (T) this.store(key, value);
 	}
 
 	@Override
 	public boolean isEmpty() {
-		return this.properties.isEmpty();
+		return this.size == 0;
 	}
 
 	@Override
 	public <T> boolean containsProperty(TypedPropertyKey<T> property) {
-		return this.properties.containsKey(property);
+		return this.indexOf(property) >= 0;
 	}
 
 	@Override
 	@SuppressWarnings("unchecked")
 	public <T> T getProperty(TypedPropertyKey<T> property) {
-		return (T) this.properties.get(property);
+		int index = this.indexOf(property);
+		return index >= 0 ? (T) this.values[index] : null;
 	}
 
 	@Override
 	public void clear() {
-	    this.checkState ();
-		this.properties.clear();
+		this.checkState ();
+		this.removeAll();
+	}
+
+	@Override
+	public boolean isLocked() {
+		return this.isLocked;
 	}
-	
+
 	@Override
-    public boolean isLocked() {
-        return this.isLocked;
-    }
-
-    @Override
-    public boolean lock() {
-        return this.isLocked ? false : (this.isLocked = true);
-    }
-	
+	public boolean lock() {
+		return this.isLocked ? false : (this.isLocked = true);
+	}
+
+	private Object store(TypedPropertyKey<?> key, Object value) {
+		int index = this.indexOf(key);
+		if (index >= 0) {
+			Object previousValue = this.values[index];
+			this.values[index] = value;
+			return previousValue;
+		}
+		if (this.keys == null) {
+			this.keys = new TypedPropertyKey<?>[INITIAL_CAPACITY];
+			this.values = new Object[INITIAL_CAPACITY];
+		} else if (this.size == this.keys.length) {
+			this.keys = Arrays.copyOf(this.keys, this.size * 2);
+			this.values = Arrays.copyOf(this.values, this.size * 2);
+		}
+		this.keys[this.size] = key;
+		this.values[this.size++] = value;
+		return null;
+	}
+
+	private void removeAt(int index) {
+		int moved = this.size - index - 1;
+		System.arraycopy(this.keys, index + 1, this.keys, index, moved);
+		System.arraycopy(this.values, index + 1, this.values, index, moved);
+		this.size--;
+		this.keys[this.size] = null;
+		this.values[this.size] = null;
+	}
+
+	private void removeAll() {
+		if (this.size > 0) {
+			Arrays.fill(this.keys, 0, this.size, null);
+			Arrays.fill(this.values, 0, this.size, null);
+			this.size = 0;
+		}
+	}
+
+	/*
+	 * Keys are only equal to themselves, so comparing the indices suffices
+	 */
+	private int indexOf(TypedPropertyKey<?> property) {
+		if (property != null) {
+			int propertyIndex = property.getIndex();
+			for (int i = 0; i < this.size; i++) {
+				if (this.keys[i].getIndex() == propertyIndex)
+					return i;
+			}
+		}
+		return -1;
+	}
+
+	private int indexOf(Object key) {
+		return key instanceof TypedPropertyKey ? this.indexOf((TypedPropertyKey<?>) key) : -1;
+	}
+
 	private void checkState() throws IllegalStateException {
-        if (this.isLocked)
-            throw new IllegalStateException("The writeable event properties were locked");
-    }
+		if (this.isLocked)
+			throw new IllegalStateException("The writeable event properties were locked");
+	}
+
+	private class PropertiesView extends AbstractMap<TypedPropertyKey<?>, Object> {
+
+		@Override
+		public Object put(TypedPropertyKey<?> key, Object value) {
+			return DefaultTypedProperties.this.store(Objects.requireNonNull(key), value);
+		}
+
+		@Override
+		public Object get(Object key) {
+			int index = DefaultTypedProperties.this.indexOf(key);
+			return index >= 0 ? DefaultTypedProperties.this.values[index] : null;
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return DefaultTypedProperties.this.indexOf(key) >= 0;
+		}
+
+		@Override
+		public Object remove(Object key) {
+			int index = DefaultTypedProperties.this.indexOf(key);
+			if (index < 0)
+				return null;
+			Object previousValue = DefaultTypedProperties.this.values[index];
+			DefaultTypedProperties.this.removeAt(index);
+			return previousValue;
+		}
+
+		@Override
+		public int size() {
+			return DefaultTypedProperties.this.size;
+		}
+
+		@Override
+		public void clear() {
+			DefaultTypedProperties.this.removeAll();
+		}
+
+		@Override
+		public Set<Map.Entry<TypedPropertyKey<?>, Object>> entrySet() {
+			return new EntrySet();
+		}
+
+	}
+
+	private class EntrySet extends AbstractSet<Map.Entry<TypedPropertyKey<?>, Object>> {
+
+		@Override
+		public Iterator<Map.Entry<TypedPropertyKey<?>, Object>> iterator() {
+			return new EntryIterator();
+		}
+
+		@Override
+		public int size() {
+			return DefaultTypedProperties.this.size;
+		}
+
+	}
+
+	private class EntryIterator implements Iterator<Map.Entry<TypedPropertyKey<?>, Object>> {
+
+		private int next = 0;
+		private TypedPropertyKey<?> last;
+
+		@Override
+		public boolean hasNext() {
+			return this.next < DefaultTypedProperties.this.size;
+		}
+
+		@Override
+		public Map.Entry<TypedPropertyKey<?>, Object> next() {
+			if (!this.hasNext())
+				throw new NoSuchElementException();
+			this.last = DefaultTypedProperties.this.keys[this.next++];
+			return new Entry(this.last);
+		}
+
+		@Override
+		public void remove() {
+			if (this.last == null)
+				throw new IllegalStateException();
+			int index = DefaultTypedProperties.this.indexOf(this.last);
+			if (index < 0)
+				throw new ConcurrentModificationException();
+			DefaultTypedProperties.this.removeAt(index);
+			this.next = index;
+			this.last = null;
+		}
+
+	}
+
+	/*
+	 * Entries look their key up again, so they stay valid if other entries are
+	 * removed
+	 */
+	private class Entry implements Map.Entry<TypedPropertyKey<?>, Object> {
+
+		private final TypedPropertyKey<?> key;
+
+		private Entry(TypedPropertyKey<?> key) {
+			this.key = key;
+		}
+
+		@Override
+		public TypedPropertyKey<?> getKey() {
+			return this.key;
+		}
+
+		@Override
+		public Object getValue() {
+			int index = DefaultTypedProperties.this.indexOf(this.key);
+			return index >= 0 ? DefaultTypedProperties.this.values[index] : null;
+		}
+
+		@Override
+		public Object setValue(Object value) {
+			return DefaultTypedProperties.this.store(this.key, value);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Map.Entry))
+				return false;
+			Map.Entry<?, ?> other = (Map.Entry<?, ?>) obj;
+			return this.key.equals(other.getKey()) && Objects.equals(this.getValue(), other.getValue());
+		}
+
+		@Override
+		public int hashCode() {
+			return this.key.hashCode() ^ Objects.hashCode(this.getValue());
+		}
+
+		@Override
+		public String toString() {
+			return this.key + "=" + this.getValue();
+		}
+
+	}
 
 }
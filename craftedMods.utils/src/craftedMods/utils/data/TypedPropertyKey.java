@@ -1,18 +1,31 @@
 package craftedMods.utils.data;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 public class TypedPropertyKey<T> {
 
-	private final long propertyKey;
+	private final int propertyKey;
 	private final Class<T> propertyKeyType;
 
-	private static long counter = 0;
+	/*
+	 * Keys are created while bundles are activated, which can happen
+	 * concurrently
+	 */
+	private static final AtomicInteger counter = new AtomicInteger();
 
 	private TypedPropertyKey(Class<T> propertyKeyType) {
-		this.propertyKey = TypedPropertyKey.counter++;
+		this.propertyKey = TypedPropertyKey.counter.getAndIncrement();
 		this.propertyKeyType = propertyKeyType;
 	}
 
 	public Long getUniquePropertyIdentifier() {
+		return (long) this.propertyKey;
+	}
+
+	/*
+	 * The identifiers are dense, which allows using them as array indices
+	 */
+	int getIndex() {
 		return this.propertyKey;
 	}
 
@@ -64,7 +77,7 @@ public class TypedPropertyKey<T> {
 	public int hashCode() {
 		final int prime = 31;
 		int result = 1;
-		result = prime * result + (int) (this.propertyKey ^ this.propertyKey >>> 32);
+		result = prime * result + this.propertyKey;
 		return result;
 	}
 
@@ -0,0 +1,24 @@
+package craftedMods.utils.io;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Objects;
+
+/**
+ * An input stream wrapper which doesn't close the wrapped stream. Useful when
+ * handing a caller-owned stream to APIs which close the streams they read
+ * from, like the java.util.zip streams.
+ */
+public class NonClosingInputStream extends FilterInputStream {
+
+	public NonClosingInputStream(InputStream in) {
+		super(Objects.requireNonNull(in));
+	}
+
+	@Override
+	public void close() throws IOException {
+		// The wrapped stream is owned by the caller
+	}
+
+}
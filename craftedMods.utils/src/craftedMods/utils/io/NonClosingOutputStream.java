@@ -0,0 +1,29 @@
+package craftedMods.utils.io;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Objects;
+
+/**
+ * An output stream wrapper which only flushes the wrapped stream when it gets
+ * closed. Useful when handing a caller-owned stream to APIs which close the
+ * streams they write to, like the java.util.zip streams.
+ */
+public class NonClosingOutputStream extends FilterOutputStream {
+
+	public NonClosingOutputStream(OutputStream out) {
+		super(Objects.requireNonNull(out));
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		this.out.write(b, off, len);
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.flush();
+	}
+
+}
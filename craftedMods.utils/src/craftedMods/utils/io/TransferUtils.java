@@ -0,0 +1,125 @@
+package craftedMods.utils.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.function.LongConsumer;
+
+/**
+ * Bulk data transfer between streams, channels and files. The stream variants
+ * copy through a large per-thread buffer, so no data is handled byte by byte.
+ * The channel and file variants move the data by the file channels directly,
+ * which allows the operating system to skip the copies into the Java heap.
+ */
+public class TransferUtils {
+
+	/**
+	 * The size of the buffers used for stream transfers
+	 */
+	public static final int BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * The maximum amount of bytes moved per channel transfer call - the
+	 * progress listener will be notified after each of them
+	 */
+	public static final long CHANNEL_CHUNK_SIZE = 8l * 1024 * 1024;
+
+	private static final ThreadLocal<byte[]> BUFFERS = ThreadLocal.withInitial(() -> new byte[BUFFER_SIZE]);
+
+	/**
+	 * Writes all data from the specified input stream to the specified output
+	 * stream. The streams won't be closed.
+	 *
+	 * @param in  The input stream
+	 * @param out The output stream
+	 * @return The amount of transferred bytes
+	 * @throws IOException If the writing/reading operations go wrong
+	 */
+	public static long transfer(InputStream in, OutputStream out) throws IOException {
+		return transfer(in, out, null);
+	}
+
+	/**
+	 * Writes all data from the specified input stream to the specified output
+	 * stream. The streams won't be closed. The progress listener receives the
+	 * total amount of bytes transferred so far after every written block.
+	 *
+	 * @param in               The input stream
+	 * @param out              The output stream
+	 * @param progressListener The progress listener, can be null
+	 * @return The amount of transferred bytes
+	 * @throws IOException If the writing/reading operations go wrong
+	 */
+	public static long transfer(InputStream in, OutputStream out, LongConsumer progressListener)
+			throws IOException {
+		Objects.requireNonNull(in);
+		Objects.requireNonNull(out);
+		byte[] buffer = BUFFERS.get();
+		long total = 0l;
+		int read;
+		while ((read = in.read(buffer)) != -1) {
+			out.write(buffer, 0, read);
+			total += read;
+			if (progressListener != null)
+				progressListener.accept(total);
+		}
+		return total;
+	}
+
+	/**
+	 * Transfers the remaining content of the source channel (starting at its
+	 * current position) to the target channel. The position of the source
+	 * channel will be advanced by the amount of transferred bytes. The channels
+	 * won't be closed.
+	 *
+	 * @param source           The source channel
+	 * @param target           The target channel
+	 * @param progressListener The progress listener, can be null
+	 * @return The amount of transferred bytes
+	 * @throws IOException If the transfer goes wrong
+	 */
+	public static long transfer(FileChannel source, FileChannel target, LongConsumer progressListener)
+			throws IOException {
+		Objects.requireNonNull(source);
+		Objects.requireNonNull(target);
+		long position = source.position();
+		long size = source.size();
+		long total = 0l;
+		while (position < size) {
+			long transferred = source.transferTo(position, Math.min(CHANNEL_CHUNK_SIZE, size - position), target);
+			if (transferred <= 0)
+				break; // The source was truncated concurrently
+			position += transferred;
+			total += transferred;
+			if (progressListener != null)
+				progressListener.accept(total);
+		}
+		source.position(position);
+		return total;
+	}
+
+	/**
+	 * Copies the source file to the target file. The target file will be
+	 * created or overwritten.
+	 *
+	 * @param source           The source file
+	 * @param target           The target file
+	 * @param progressListener The progress listener, can be null
+	 * @return The amount of transferred bytes
+	 * @throws IOException If the transfer goes wrong
+	 */
+	public static long transfer(Path source, Path target, LongConsumer progressListener) throws IOException {
+		Objects.requireNonNull(source);
+		Objects.requireNonNull(target);
+		try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+				FileChannel out = FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+						StandardOpenOption.TRUNCATE_EXISTING)) {
+			return transfer(in, out, progressListener);
+		}
+	}
+
+}
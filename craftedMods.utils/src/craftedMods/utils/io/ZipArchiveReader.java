@@ -0,0 +1,264 @@
+package craftedMods.utils.io;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.ZipException;
+
+/**
+ * A minimal .zip reader returning the entries of an archive in their encoded
+ * form, so they can be copied to a {@link ZipArchiveWriter} without being
+ * decompressed and compressed again. Only the central directory is parsed
+ * when the archive is opened, the entries are read on demand. The reads are
+ * positional, so entries can be read concurrently from different threads.
+ * Encrypted entries aren't supported.
+ */
+public class ZipArchiveReader implements Closeable {
+
+	private static final int LOCAL_FILE_HEADER_SIGNATURE = 0x04034b50;
+	private static final int CENTRAL_FILE_HEADER_SIGNATURE = 0x02014b50;
+	private static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50;
+	private static final int ZIP64_END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06064b50;
+	private static final int ZIP64_END_OF_CENTRAL_DIRECTORY_LOCATOR_SIGNATURE = 0x07064b50;
+
+	private static final int LOCAL_FILE_HEADER_LENGTH = 30;
+	private static final int CENTRAL_FILE_HEADER_LENGTH = 46;
+	private static final int END_OF_CENTRAL_DIRECTORY_LENGTH = 22;
+	private static final int ZIP64_END_OF_CENTRAL_DIRECTORY_LENGTH = 56;
+	private static final int ZIP64_END_OF_CENTRAL_DIRECTORY_LOCATOR_LENGTH = 20;
+	private static final int MAX_COMMENT_LENGTH = 0xFFFF;
+
+	private static final int ENCRYPTED_FLAG = 0x0001;
+	private static final int ZIP64_EXTRA_FIELD = 0x0001;
+
+	private static final long MAX_VALUE = 0xFFFFFFFFl;
+	private static final int MAX_ENTRIES = 0xFFFF;
+
+	private final FileChannel channel;
+	private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+	/**
+	 * Opens the specified archive and reads its central directory
+	 *
+	 * @param file The archive
+	 * @throws IOException If the archive couldn't be read or isn't a supported
+	 *                     .zip file
+	 */
+	public ZipArchiveReader(Path file) throws IOException {
+		this.channel = FileChannel.open(Objects.requireNonNull(file), StandardOpenOption.READ);
+		try {
+			this.readCentralDirectory();
+		} catch (IOException | RuntimeException e) {
+			this.channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * @return The names of all entries in the order of the central directory
+	 */
+	public Collection<String> getEntryNames() {
+		return Collections.unmodifiableCollection(this.entries.keySet());
+	}
+
+	/**
+	 * Reads the specified entry without decoding its data. The data is read when
+	 * the entry is written, so the reader must not be closed before.
+	 *
+	 * @param name The name of the entry
+	 * @return The encoded entry or null, if the archive doesn't contain it
+	 * @throws IOException If the entry couldn't be read
+	 */
+	public ZipEntryData readRawEntry(String name) throws IOException {
+		Entry entry = this.entries.get(Objects.requireNonNull(name));
+		if (entry == null)
+			return null;
+		ByteBuffer header = this.read(entry.localHeaderOffset, LOCAL_FILE_HEADER_LENGTH);
+		if (header.getInt(0) != LOCAL_FILE_HEADER_SIGNATURE)
+			throw new ZipException("Invalid local file header of the entry " + name);
+		long dataOffset = entry.localHeaderOffset + LOCAL_FILE_HEADER_LENGTH + getShort(header, 26)
+				+ getShort(header, 28);
+		return new ZipEntryData(name, entry.method, entry.crc, entry.size, entry.compressedSize,
+				out -> this.transfer(dataOffset, entry.compressedSize, out));
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.channel.close();
+	}
+
+	private void readCentralDirectory() throws IOException {
+		long size = this.channel.size();
+		if (size < END_OF_CENTRAL_DIRECTORY_LENGTH)
+			throw new ZipException("The file is too small to be a .zip archive");
+
+		// The end of central directory record is followed by a comment of variable
+		// length, so it has to be searched backwards
+		int tailLength = (int) Math.min(size, END_OF_CENTRAL_DIRECTORY_LENGTH + MAX_COMMENT_LENGTH);
+		ByteBuffer tail = this.read(size - tailLength, tailLength);
+		int end = -1;
+		for (int i = tailLength - END_OF_CENTRAL_DIRECTORY_LENGTH; i >= 0 && end == -1; i--) {
+			if (tail.getInt(i) == END_OF_CENTRAL_DIRECTORY_SIGNATURE)
+				end = i;
+		}
+		if (end == -1)
+			throw new ZipException("The end of the central directory couldn't be found");
+
+		long entryCount = getShort(tail, end + 10);
+		long directorySize = getInt(tail, end + 12);
+		long directoryOffset = getInt(tail, end + 16);
+		int locator = end - ZIP64_END_OF_CENTRAL_DIRECTORY_LOCATOR_LENGTH;
+		if ((entryCount == MAX_ENTRIES || directorySize == MAX_VALUE || directoryOffset == MAX_VALUE)
+				&& locator >= 0 && tail.getInt(locator) == ZIP64_END_OF_CENTRAL_DIRECTORY_LOCATOR_SIGNATURE) {
+			long zip64EndOffset = tail.getLong(locator + 8);
+			if (zip64EndOffset < 0 || zip64EndOffset + ZIP64_END_OF_CENTRAL_DIRECTORY_LENGTH > size)
+				throw new ZipException("Invalid ZIP64 end of central directory");
+			ByteBuffer zip64End = this.read(zip64EndOffset, ZIP64_END_OF_CENTRAL_DIRECTORY_LENGTH);
+			if (zip64End.getInt(0) != ZIP64_END_OF_CENTRAL_DIRECTORY_SIGNATURE)
+				throw new ZipException("Invalid ZIP64 end of central directory");
+			entryCount = zip64End.getLong(32);
+			directorySize = zip64End.getLong(40);
+			directoryOffset = zip64End.getLong(48);
+		}
+		if (directoryOffset < 0 || directorySize < 0 || directoryOffset + directorySize > size)
+			throw new ZipException("Invalid central directory");
+		if (directorySize > Integer.MAX_VALUE)
+			throw new ZipException("The central directory is too large");
+
+		ByteBuffer directory = this.read(directoryOffset, (int) directorySize);
+		int position = 0;
+		for (long i = 0; i < entryCount; i++) {
+			if (position + CENTRAL_FILE_HEADER_LENGTH > directorySize
+					|| directory.getInt(position) != CENTRAL_FILE_HEADER_SIGNATURE)
+				throw new ZipException("Invalid central directory");
+			int flags = getShort(directory, position + 8);
+			int method = getShort(directory, position + 10);
+			long crc = getInt(directory, position + 16);
+			long compressedSize = getInt(directory, position + 20);
+			long uncompressedSize = getInt(directory, position + 24);
+			int nameLength = getShort(directory, position + 28);
+			int extraLength = getShort(directory, position + 30);
+			int commentLength = getShort(directory, position + 32);
+			long localHeaderOffset = getInt(directory, position + 42);
+			if (position + CENTRAL_FILE_HEADER_LENGTH + nameLength > directorySize)
+				throw new ZipException("Invalid central directory");
+
+			byte[] nameBytes = new byte[nameLength];
+			directory.position(position + CENTRAL_FILE_HEADER_LENGTH);
+			directory.get(nameBytes);
+			String name = new String(nameBytes, StandardCharsets.UTF_8);
+
+			if (uncompressedSize == MAX_VALUE || compressedSize == MAX_VALUE || localHeaderOffset == MAX_VALUE) {
+				int extraStart = position + CENTRAL_FILE_HEADER_LENGTH + nameLength;
+				int extra = findExtraField(directory, extraStart,
+						Math.min(extraLength, (int) directorySize - extraStart), ZIP64_EXTRA_FIELD);
+				if (extra == -1)
+					throw new ZipException("Missing ZIP64 extra field of the entry " + name);
+				// Only the values which don't fit are stored, in this order
+				int extraEnd = extra + 4 + getShort(directory, extra + 2);
+				int value = extra + 4;
+				if (uncompressedSize == MAX_VALUE && value + 8 <= extraEnd) {
+					uncompressedSize = directory.getLong(value);
+					value += 8;
+				}
+				if (compressedSize == MAX_VALUE && value + 8 <= extraEnd) {
+					compressedSize = directory.getLong(value);
+					value += 8;
+				}
+				if (localHeaderOffset == MAX_VALUE && value + 8 <= extraEnd)
+					localHeaderOffset = directory.getLong(value);
+			}
+
+			if ((flags & ENCRYPTED_FLAG) != 0)
+				throw new ZipException("Encrypted entries aren't supported: " + name);
+			if (method != ZipEntryData.STORED && method != ZipEntryData.DEFLATED)
+				throw new ZipException("Unsupported compression method of the entry " + name + ": " + method);
+			if (compressedSize < 0 || uncompressedSize < 0 || localHeaderOffset < 0
+					|| localHeaderOffset + compressedSize > directoryOffset
+					|| method == ZipEntryData.STORED && compressedSize != uncompressedSize)
+				throw new ZipException("Invalid size of the entry " + name);
+
+			this.entries.put(name, new Entry(method, crc, uncompressedSize, compressedSize, localHeaderOffset));
+			position += CENTRAL_FILE_HEADER_LENGTH + nameLength + extraLength + commentLength;
+		}
+	}
+
+	/*
+	 * Returns the position of the extra field with the specified ID or -1
+	 */
+	private static int findExtraField(ByteBuffer buffer, int start, int length, int id) {
+		int position = start;
+		while (position + 4 <= start + length) {
+			int fieldLength = getShort(buffer, position + 2);
+			if (getShort(buffer, position) == id)
+				return position + 4 + fieldLength <= start + length ? position : -1;
+			position += 4 + fieldLength;
+		}
+		return -1;
+	}
+
+	private void transfer(long offset, long length, OutputStream out) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(length, TransferUtils.BUFFER_SIZE));
+		long position = offset;
+		long remaining = length;
+		while (remaining > 0) {
+			buffer.clear();
+			buffer.limit((int) Math.min(remaining, buffer.capacity()));
+			int read = this.channel.read(buffer, position);
+			if (read == -1)
+				throw new EOFException("Unexpected end of the archive");
+			out.write(buffer.array(), 0, read);
+			position += read;
+			remaining -= read;
+		}
+	}
+
+	private ByteBuffer read(long offset, int length) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+		while (buffer.hasRemaining()) {
+			if (this.channel.read(buffer, offset + buffer.position()) == -1)
+				throw new EOFException("Unexpected end of the archive");
+		}
+		buffer.clear();
+		return buffer;
+	}
+
+	private static int getShort(ByteBuffer buffer, int index) {
+		return buffer.getShort(index) & 0xFFFF;
+	}
+
+	private static long getInt(ByteBuffer buffer, int index) {
+		return buffer.getInt(index) & 0xFFFFFFFFl;
+	}
+
+	private static class Entry {
+
+		private final int method;
+		private final long crc;
+		private final long size;
+		private final long compressedSize;
+		private final long localHeaderOffset;
+
+		private Entry(int method, long crc, long size, long compressedSize, long localHeaderOffset) {
+			this.method = method;
+			this.crc = crc;
+			this.size = size;
+			this.compressedSize = compressedSize;
+			this.localHeaderOffset = localHeaderOffset;
+		}
+
+	}
+
+}
@@ -0,0 +1,239 @@
+package craftedMods.utils.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.zip.ZipException;
+
+/**
+ * A minimal .zip writer for prepared {@link ZipEntryData}s. Unlike the
+ * {@link java.util.zip.ZipOutputStream} it doesn't encode the data itself,
+ * which allows the (expensive) compression of the entries to happen
+ * elsewhere, for example concurrently. The entries are written in the order
+ * they were passed to the writer. ZIP64 records are written if the archive
+ * contains more than 65535 entries or exceeds 4 GiB.
+ */
+public class ZipArchiveWriter implements Closeable {
+
+	private static final int LOCAL_FILE_HEADER_SIGNATURE = 0x04034b50;
+	private static final int CENTRAL_FILE_HEADER_SIGNATURE = 0x02014b50;
+	private static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50;
+	private static final int ZIP64_END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06064b50;
+	private static final int ZIP64_END_OF_CENTRAL_DIRECTORY_LOCATOR_SIGNATURE = 0x07064b50;
+
+	private static final int VERSION = 20;
+	private static final int ZIP64_VERSION = 45;
+	private static final int UTF8_FLAG = 0x0800;
+	private static final int ZIP64_EXTRA_FIELD = 0x0001;
+
+	private static final long MAX_VALUE = 0xFFFFFFFFl;
+	private static final int MAX_ENTRIES = 0xFFFF;
+
+	private final CountingOutputStream out;
+	private final ByteArrayOutputStream centralDirectory = new ByteArrayOutputStream();
+	private final Set<String> names = new HashSet<>();
+	private final int dosTime;
+	private final int dosDate;
+
+	private long entries = 0l;
+	private boolean closed = false;
+
+	/**
+	 * Creates a new writer. The stream will be closed together with the writer.
+	 *
+	 * @param out The target stream
+	 */
+	public ZipArchiveWriter(OutputStream out) {
+		this.out = new CountingOutputStream(Objects.requireNonNull(out));
+		LocalDateTime now = LocalDateTime.now();
+		this.dosTime = now.getHour() << 11 | now.getMinute() << 5 | now.getSecond() >> 1;
+		this.dosDate = Math.max(now.getYear() - 1980, 0) << 9 | now.getMonthValue() << 5 | now.getDayOfMonth();
+	}
+
+	/**
+	 * Appends the specified entry to the archive. The entry is closed afterwards.
+	 *
+	 * @param entry The entry
+	 * @throws IOException If the entry couldn't be written
+	 */
+	public void write(ZipEntryData entry) throws IOException {
+		Objects.requireNonNull(entry);
+		try {
+			if (this.closed)
+				throw new IOException("The archive was already closed");
+			if (!this.names.add(entry.getName()))
+				throw new ZipException("Duplicate entry: " + entry.getName());
+
+			byte[] name = entry.getName().getBytes(StandardCharsets.UTF_8);
+			long offset = this.out.getCount();
+			boolean zip64Sizes = entry.getSize() >= MAX_VALUE || entry.getCompressedSize() >= MAX_VALUE;
+
+			ByteArrayOutputStream header = new ByteArrayOutputStream(30 + name.length + 20);
+			writeInt(header, LOCAL_FILE_HEADER_SIGNATURE);
+			writeShort(header, zip64Sizes ? ZIP64_VERSION : VERSION);
+			this.writeEntryInfo(header, entry, name.length, zip64Sizes);
+			writeShort(header, zip64Sizes ? 20 : 0); // Extra field length
+			header.write(name);
+			if (zip64Sizes) {
+				writeShort(header, ZIP64_EXTRA_FIELD);
+				writeShort(header, 16);
+				writeLong(header, entry.getSize());
+				writeLong(header, entry.getCompressedSize());
+			}
+			header.writeTo(this.out);
+			long dataStart = this.out.getCount();
+			entry.writeDataTo(this.out);
+			if (this.out.getCount() - dataStart != entry.getCompressedSize())
+				throw new ZipException("The data of the entry " + entry.getName() + " doesn't match its size");
+
+			/*
+			 * Both sizes are replaced by the extra field like in the local header, the
+			 * offset only if it doesn't fit
+			 */
+			ByteArrayOutputStream zip64Extra = new ByteArrayOutputStream();
+			if (zip64Sizes) {
+				writeLong(zip64Extra, entry.getSize());
+				writeLong(zip64Extra, entry.getCompressedSize());
+			}
+			if (offset >= MAX_VALUE)
+				writeLong(zip64Extra, offset);
+			boolean zip64 = zip64Extra.size() > 0;
+
+			writeInt(this.centralDirectory, CENTRAL_FILE_HEADER_SIGNATURE);
+			writeShort(this.centralDirectory, zip64 ? ZIP64_VERSION : VERSION); // Version made by
+			writeShort(this.centralDirectory, zip64 ? ZIP64_VERSION : VERSION);
+			this.writeEntryInfo(this.centralDirectory, entry, name.length, zip64Sizes);
+			writeShort(this.centralDirectory, zip64 ? 4 + zip64Extra.size() : 0); // Extra field length
+			writeShort(this.centralDirectory, 0); // Comment length
+			writeShort(this.centralDirectory, 0); // Disk number
+			writeShort(this.centralDirectory, 0); // Internal attributes
+			writeInt(this.centralDirectory, 0); // External attributes
+			writeInt(this.centralDirectory, (int) Math.min(offset, MAX_VALUE));
+			this.centralDirectory.write(name);
+			if (zip64) {
+				writeShort(this.centralDirectory, ZIP64_EXTRA_FIELD);
+				writeShort(this.centralDirectory, zip64Extra.size());
+				zip64Extra.writeTo(this.centralDirectory);
+			}
+
+			this.entries++;
+		} finally {
+			entry.close();
+		}
+	}
+
+	/**
+	 * @return The amount of bytes written to the target stream so far
+	 */
+	public long getWrittenBytes() {
+		return this.out.getCount();
+	}
+
+	/**
+	 * Writes the central directory and closes the target stream
+	 */
+	@Override
+	public void close() throws IOException {
+		if (!this.closed) {
+			this.closed = true;
+			try (OutputStream out = this.out) {
+				long centralDirectoryOffset = this.out.getCount();
+				long centralDirectorySize = this.centralDirectory.size();
+				this.centralDirectory.writeTo(out);
+				ByteArrayOutputStream end = new ByteArrayOutputStream(98);
+				if (this.entries >= MAX_ENTRIES || centralDirectoryOffset >= MAX_VALUE
+						|| centralDirectorySize >= MAX_VALUE) {
+					long zip64EndOffset = this.out.getCount();
+					writeInt(end, ZIP64_END_OF_CENTRAL_DIRECTORY_SIGNATURE);
+					writeLong(end, 44); // Size of the remaining record
+					writeShort(end, ZIP64_VERSION); // Version made by
+					writeShort(end, ZIP64_VERSION);
+					writeInt(end, 0); // Disk number
+					writeInt(end, 0); // Disk with the central directory
+					writeLong(end, this.entries);
+					writeLong(end, this.entries);
+					writeLong(end, centralDirectorySize);
+					writeLong(end, centralDirectoryOffset);
+
+					writeInt(end, ZIP64_END_OF_CENTRAL_DIRECTORY_LOCATOR_SIGNATURE);
+					writeInt(end, 0); // Disk with the ZIP64 end of central directory
+					writeLong(end, zip64EndOffset);
+					writeInt(end, 1); // Total number of disks
+				}
+				writeInt(end, END_OF_CENTRAL_DIRECTORY_SIGNATURE);
+				writeShort(end, 0); // Disk number
+				writeShort(end, 0); // Disk with the central directory
+				writeShort(end, (int) Math.min(this.entries, MAX_ENTRIES));
+				writeShort(end, (int) Math.min(this.entries, MAX_ENTRIES));
+				writeInt(end, (int) Math.min(centralDirectorySize, MAX_VALUE));
+				writeInt(end, (int) Math.min(centralDirectoryOffset, MAX_VALUE));
+				writeShort(end, 0); // Comment length
+				end.writeTo(out);
+			}
+		}
+	}
+
+	/*
+	 * The sizes are stored in the ZIP64 extra field if one of them doesn't fit
+	 */
+	private void writeEntryInfo(ByteArrayOutputStream out, ZipEntryData entry, int nameLength,
+			boolean zip64Sizes) {
+		writeShort(out, UTF8_FLAG);
+		writeShort(out, entry.getMethod());
+		writeShort(out, this.dosTime);
+		writeShort(out, this.dosDate);
+		writeInt(out, (int) entry.getCrc());
+		writeInt(out, (int) (zip64Sizes ? MAX_VALUE : entry.getCompressedSize()));
+		writeInt(out, (int) (zip64Sizes ? MAX_VALUE : entry.getSize()));
+		writeShort(out, nameLength);
+	}
+
+	private static void writeShort(ByteArrayOutputStream out, int value) {
+		out.write(value & 0xFF);
+		out.write(value >>> 8 & 0xFF);
+	}
+
+	private static void writeInt(ByteArrayOutputStream out, int value) {
+		writeShort(out, value & 0xFFFF);
+		writeShort(out, value >>> 16 & 0xFFFF);
+	}
+
+	private static void writeLong(ByteArrayOutputStream out, long value) {
+		writeInt(out, (int) value);
+		writeInt(out, (int) (value >>> 32));
+	}
+
+	private static class CountingOutputStream extends FilterOutputStream {
+
+		private long count = 0l;
+
+		private CountingOutputStream(OutputStream out) {
+			super(out);
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			this.out.write(b);
+			this.count++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			this.out.write(b, off, len);
+			this.count += len;
+		}
+
+		private long getCount() {
+			return this.count;
+		}
+
+	}
+
+}
@@ -0,0 +1,229 @@
+package craftedMods.utils.io;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * An output stream encoding the written data into a {@link ZipEntryData}. The
+ * CRC and the compression are computed while writing, so multiple buffers can
+ * be filled concurrently on different threads. The encoded data is kept in
+ * memory up to a threshold, larger entries are moved to a temporary file,
+ * which is deleted once the entry was closed.
+ */
+public class ZipEntryBuffer extends OutputStream {
+
+	/**
+	 * The default amount of encoded bytes kept in memory
+	 */
+	public static final int DEFAULT_MEMORY_THRESHOLD = 1024 * 1024;
+
+	private final String name;
+	private final int method;
+
+	private final CRC32 crc = new CRC32();
+	private final EncodedData encoded;
+	private final Deflater deflater;
+	private final OutputStream out;
+
+	private long size = 0l;
+	private ZipEntryData entry;
+	private boolean closed = false;
+
+	/**
+	 * Creates a new buffer for an entry
+	 *
+	 * @param name   The name of the entry
+	 * @param method The compression method, either {@link ZipEntryData#STORED}
+	 *               or {@link ZipEntryData#DEFLATED}
+	 * @param level  The compression level (see {@link Deflater}), ignored for
+	 *               stored entries
+	 */
+	public ZipEntryBuffer(String name, int method, int level) {
+		this(name, method, level, DEFAULT_MEMORY_THRESHOLD);
+	}
+
+	/**
+	 * Creates a new buffer for an entry
+	 *
+	 * @param name            The name of the entry
+	 * @param method          The compression method, either
+	 *                        {@link ZipEntryData#STORED} or
+	 *                        {@link ZipEntryData#DEFLATED}
+	 * @param level           The compression level (see {@link Deflater}),
+	 *                        ignored for stored entries
+	 * @param memoryThreshold The amount of encoded bytes which are kept in
+	 *                        memory, larger entries are stored in a temporary
+	 *                        file
+	 */
+	public ZipEntryBuffer(String name, int method, int level, int memoryThreshold) {
+		this.name = Objects.requireNonNull(name);
+		this.method = method;
+		this.encoded = new EncodedData(memoryThreshold);
+		switch (method) {
+		case ZipEntryData.STORED:
+			this.deflater = null;
+			this.out = this.encoded;
+			break;
+		case ZipEntryData.DEFLATED:
+			this.deflater = new Deflater(level, true);
+			this.out = new DeflaterOutputStream(this.encoded, this.deflater, TransferUtils.BUFFER_SIZE);
+			break;
+		default:
+			throw new IllegalArgumentException("Unsupported compression method: " + method);
+		}
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		this.ensureOpen();
+		this.out.write(b);
+		this.crc.update(b);
+		this.size++;
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		this.ensureOpen();
+		this.out.write(b, off, len);
+		this.crc.update(b, off, len);
+		this.size += len;
+	}
+
+	/**
+	 * @return The amount of uncompressed bytes written so far
+	 */
+	public long getSize() {
+		return this.size;
+	}
+
+	/**
+	 * Completes the entry. No further data can be written afterwards. The entry
+	 * has to be closed once it's no longer needed.
+	 *
+	 * @return The encoded entry
+	 * @throws IOException If the data couldn't be encoded
+	 */
+	public ZipEntryData toEntryData() throws IOException {
+		if (this.entry == null) {
+			if (this.closed)
+				throw new IOException("The entry was discarded");
+			try {
+				if (this.deflater != null)
+					((DeflaterOutputStream) this.out).finish();
+				this.entry = this.encoded.toEntryData(this.name, this.method, this.crc.getValue(), this.size);
+			} catch (IOException | RuntimeException e) {
+				this.close();
+				throw e;
+			} finally {
+				if (this.deflater != null)
+					this.deflater.end();
+			}
+		}
+		return this.entry;
+	}
+
+	/**
+	 * Discards the data if the entry wasn't completed. A completed entry is
+	 * still valid.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (!this.closed) {
+			this.closed = true;
+			if (this.entry == null) {
+				if (this.deflater != null)
+					this.deflater.end();
+				this.encoded.discard();
+			}
+		}
+	}
+
+	private void ensureOpen() throws IOException {
+		if (this.entry != null)
+			throw new IOException("The entry was already completed");
+		if (this.closed)
+			throw new IOException("The entry was discarded");
+	}
+
+	private static class EncodedData extends OutputStream {
+
+		private final int memoryThreshold;
+
+		private Buffer memory = new Buffer();
+		private Path file;
+		private OutputStream fileOut;
+		private long size = 0l;
+
+		private EncodedData(int memoryThreshold) {
+			this.memoryThreshold = memoryThreshold;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			if (this.fileOut == null && this.size + 1 > this.memoryThreshold)
+				this.moveToFile();
+			if (this.fileOut != null)
+				this.fileOut.write(b);
+			else
+				this.memory.write(b);
+			this.size++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			if (this.fileOut == null && this.size + len > this.memoryThreshold)
+				this.moveToFile();
+			if (this.fileOut != null)
+				this.fileOut.write(b, off, len);
+			else
+				this.memory.write(b, off, len);
+			this.size += len;
+		}
+
+		private void moveToFile() throws IOException {
+			this.file = Files.createTempFile("zipEntry", ".tmp");
+			this.fileOut = new BufferedOutputStream(Files.newOutputStream(this.file), TransferUtils.BUFFER_SIZE);
+			this.memory.writeTo(this.fileOut);
+			this.memory = null;
+		}
+
+		private ZipEntryData toEntryData(String name, int method, long crc, long uncompressedSize)
+				throws IOException {
+			if (this.fileOut == null)
+				return new ZipEntryData(name, method, crc, uncompressedSize, this.memory.getBuffer(), 0,
+						this.memory.size());
+			this.fileOut.close();
+			Path file = this.file;
+			return new ZipEntryData(name, method, crc, uncompressedSize, this.size, out -> Files.copy(file, out),
+					() -> Files.deleteIfExists(file));
+		}
+
+		private void discard() throws IOException {
+			if (this.fileOut != null) {
+				try {
+					this.fileOut.close();
+				} finally {
+					Files.deleteIfExists(this.file);
+				}
+			}
+		}
+
+	}
+
+	private static class Buffer extends ByteArrayOutputStream {
+
+		private byte[] getBuffer() {
+			return this.buf;
+		}
+
+	}
+
+}
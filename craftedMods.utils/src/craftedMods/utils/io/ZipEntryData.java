@@ -0,0 +1,159 @@
+package craftedMods.utils.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Objects;
+
+/**
+ * A complete, already encoded .zip entry. The data is stored exactly like it
+ * will appear in the archive, so an entry can be prepared on any thread and
+ * written by a {@link ZipArchiveWriter} without further processing. The data
+ * is either kept in memory or read from a {@link DataSource} when the entry is
+ * written, so large entries don't have to be materialized.
+ */
+public class ZipEntryData implements Closeable {
+
+	public static final int STORED = 0;
+	public static final int DEFLATED = 8;
+
+	private final String name;
+	private final int method;
+	private final long crc;
+	private final long size;
+	private final byte[] data;
+	private final int offset;
+	private final long length;
+	private final DataSource source;
+	private final Closeable resources;
+
+	/**
+	 * Creates a new entry from raw (already encoded) data
+	 *
+	 * @param name   The name of the entry, directories have to end with "/"
+	 * @param method The compression method, either {@link #STORED} or
+	 *               {@link #DEFLATED}
+	 * @param crc    The CRC-32 of the uncompressed data
+	 * @param size   The size of the uncompressed data
+	 * @param data   The encoded data
+	 * @param offset The offset of the encoded data in the array
+	 * @param length The length of the encoded data
+	 */
+	public ZipEntryData(String name, int method, long crc, long size, byte[] data, int offset, int length) {
+		this(name, method, crc, size, data, offset, length, null, null);
+		if (offset < 0 || length < 0 || offset + length > data.length)
+			throw new IndexOutOfBoundsException();
+	}
+
+	/**
+	 * Creates a new entry whose encoded data is read from the source when the
+	 * entry is written. The source has to provide exactly the specified amount
+	 * of bytes.
+	 *
+	 * @param name           The name of the entry, directories have to end with
+	 *                       "/"
+	 * @param method         The compression method, either {@link #STORED} or
+	 *                       {@link #DEFLATED}
+	 * @param crc            The CRC-32 of the uncompressed data
+	 * @param size           The size of the uncompressed data
+	 * @param compressedSize The length of the encoded data
+	 * @param source         The source of the encoded data
+	 */
+	public ZipEntryData(String name, int method, long crc, long size, long compressedSize, DataSource source) {
+		this(name, method, crc, size, null, 0, compressedSize, Objects.requireNonNull(source), null);
+	}
+
+	/*
+	 * The resources are released once the entry was closed
+	 */
+	ZipEntryData(String name, int method, long crc, long size, long compressedSize, DataSource source,
+			Closeable resources) {
+		this(name, method, crc, size, null, 0, compressedSize, Objects.requireNonNull(source), resources);
+	}
+
+	private ZipEntryData(String name, int method, long crc, long size, byte[] data, int offset, long length,
+			DataSource source, Closeable resources) {
+		this.name = Objects.requireNonNull(name);
+		if (method != STORED && method != DEFLATED)
+			throw new IllegalArgumentException("Unsupported compression method: " + method);
+		if (method == STORED && size != length)
+			throw new IllegalArgumentException("The size of a stored entry has to match the data length");
+		if (size < 0 || length < 0)
+			throw new IllegalArgumentException("The size of an entry cannot be negative");
+		this.method = method;
+		this.crc = crc;
+		this.size = size;
+		this.data = data;
+		this.offset = offset;
+		this.length = length;
+		this.source = source;
+		this.resources = resources;
+	}
+
+	/**
+	 * Creates an empty directory entry
+	 *
+	 * @param name The name of the directory, has to end with "/"
+	 * @return The entry
+	 */
+	public static ZipEntryData directory(String name) {
+		if (!name.endsWith("/"))
+			throw new IllegalArgumentException("Directory names have to end with \"/\": " + name);
+		return new ZipEntryData(name, STORED, 0l, 0l, new byte[0], 0, 0);
+	}
+
+	public String getName() {
+		return this.name;
+	}
+
+	public int getMethod() {
+		return this.method;
+	}
+
+	public long getCrc() {
+		return this.crc;
+	}
+
+	public long getSize() {
+		return this.size;
+	}
+
+	public long getCompressedSize() {
+		return this.length;
+	}
+
+	void writeDataTo(OutputStream out) throws IOException {
+		if (this.source != null)
+			this.source.writeTo(out);
+		else
+			out.write(this.data, this.offset, (int) this.length);
+	}
+
+	/**
+	 * Releases the resources of the entry, like temporary files. Entries are
+	 * closed by the {@link ZipArchiveWriter} after they were written, entries
+	 * which won't be written have to be closed by their owner.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (this.resources != null)
+			this.resources.close();
+	}
+
+	/**
+	 * Provides the encoded data of an entry
+	 */
+	@FunctionalInterface
+	public interface DataSource {
+
+		/**
+		 * Writes the encoded data to the specified stream, which must not be closed
+		 *
+		 * @param out The target stream
+		 * @throws IOException If the data couldn't be read or written
+		 */
+		public void writeTo(OutputStream out) throws IOException;
+
+	}
+
+}
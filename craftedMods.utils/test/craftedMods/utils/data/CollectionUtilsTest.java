@@ -1,7 +1,10 @@
 package craftedMods.utils.data;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.junit.Assert;
@@ -113,4 +116,33 @@ public class CollectionUtilsTest {
 		Assert.assertTrue(set1.equals(set2));
 	}
 
+	@Test
+	public void testWrappedSetModificationListener() {
+		List<String> modifications = new ArrayList<>();
+		Set<String> set = CollectionUtils.createNonNullSetWithInternal(new HashSet<>(),
+				() -> modifications.add("Modified"));
+
+		set.add("str1");
+		set.add("str1");
+		set.addAll(Arrays.asList("str2", "str3"));
+		set.remove("str4");
+		set.remove("str3");
+		set.clear();
+		set.clear();
+
+		Assert.assertEquals(4, modifications.size());
+	}
+
+	@Test
+	public void testWrappedSetModificationListenerIteratorRemove() {
+		List<String> modifications = new ArrayList<>();
+		Set<String> set = CollectionUtils.createNonNullSetWithInternal(new HashSet<>(Arrays.asList("str1", "str2")),
+				() -> modifications.add("Modified"));
+
+		set.removeIf(value -> value.equals("str1"));
+
+		Assert.assertEquals(Arrays.asList("Modified"), modifications);
+		Assert.assertEquals(Collections.singleton("str2"), set);
+	}
+
 }
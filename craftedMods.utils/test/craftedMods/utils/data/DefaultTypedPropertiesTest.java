@@ -1,5 +1,10 @@
 package craftedMods.utils.data;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -101,4 +106,67 @@ public class DefaultTypedPropertiesTest
         this.properties.lock ();
         Assert.assertEquals ("Test", this.properties.getProperty (this.key));
     }
+
+    @Test
+    public void testPutReplacesValue ()
+    {
+        Assert.assertNull (this.properties.put (this.key, "Test"));
+        Assert.assertEquals ("Test", this.properties.put (this.key, "Test2"));
+        Assert.assertEquals ("Test2", this.properties.getProperty (this.key));
+    }
+
+    @Test
+    public void testManyProperties ()
+    {
+        List<TypedPropertyKey<Integer>> keys = new ArrayList<> ();
+        for (int i = 0; i < 20; i++)
+        {
+            TypedPropertyKey<Integer> key = TypedPropertyKey.createIntegerPropertyKey ();
+            keys.add (key);
+            this.properties.put (key, i);
+        }
+        for (int i = 0; i < 20; i++)
+            Assert.assertEquals (Integer.valueOf (i), this.properties.getProperty (keys.get (i)));
+        Assert.assertFalse (this.properties.containsProperty (this.key));
+        Assert.assertNull (this.properties.getProperty (this.key));
+    }
+
+    @Test
+    public void testNullValue ()
+    {
+        this.properties.put (this.key, null);
+        Assert.assertTrue (this.properties.containsProperty (this.key));
+        Assert.assertFalse (this.properties.isEmpty ());
+    }
+
+    @Test
+    public void testPropertiesView ()
+    {
+        TypedPropertyKey<Integer> key2 = TypedPropertyKey.createIntegerPropertyKey ();
+        TypedPropertyKey<Integer> key3 = TypedPropertyKey.createIntegerPropertyKey ();
+        Map<TypedPropertyKey<?>, Object> view = new DefaultTypedProperties ()
+        {
+            {
+                this.put (DefaultTypedPropertiesTest.this.key, "Test");
+                this.put (key2, 2);
+            }
+        }.properties;
+
+        Assert.assertEquals (2, view.size ());
+        Assert.assertEquals ("Test", view.get (this.key));
+        Assert.assertNull (view.put (key3, 3));
+        Assert.assertEquals (2, view.remove (key2));
+        Assert.assertFalse (view.containsKey (key2));
+        Assert.assertEquals (Integer.valueOf (3), view.get (key3));
+
+        Iterator<Map.Entry<TypedPropertyKey<?>, Object>> iterator = view.entrySet ().iterator ();
+        Assert.assertEquals (this.key, iterator.next ().getKey ());
+        iterator.remove ();
+        Assert.assertEquals (key3, iterator.next ().getKey ());
+        Assert.assertFalse (iterator.hasNext ());
+        Assert.assertEquals (1, view.size ());
+
+        view.clear ();
+        Assert.assertTrue (view.isEmpty ());
+    }
 }
@@ -1,5 +1,8 @@
 package craftedMods.utils.data;
 
+import java.util.*;
+import java.util.concurrent.*;
+
 import org.junit.*;
 
 public class TypedPropertyKeyTest {
@@ -10,4 +13,26 @@ public class TypedPropertyKeyTest {
 				TypedPropertyKey.createIntegerPropertyKey().getUniquePropertyIdentifier());
 	}
 
+	@Test
+	public void testUniquenessOfConcurrentlyCreatedIdentifiers() throws InterruptedException, ExecutionException {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<List<Long>>> futures = new ArrayList<>();
+			for (int i = 0; i < 4; i++) {
+				futures.add(executor.submit(() -> {
+					List<Long> identifiers = new ArrayList<>();
+					for (int j = 0; j < 10000; j++)
+						identifiers.add(TypedPropertyKey.createIntegerPropertyKey().getUniquePropertyIdentifier());
+					return identifiers;
+				}));
+			}
+			Set<Long> identifiers = new HashSet<>();
+			for (Future<List<Long>> future : futures)
+				identifiers.addAll(future.get());
+			Assert.assertEquals(40000, identifiers.size());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
 }
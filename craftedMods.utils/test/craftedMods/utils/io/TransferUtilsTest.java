@@ -0,0 +1,106 @@
+package craftedMods.utils.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TransferUtilsTest {
+
+	private static byte[] createData(int length) {
+		byte[] data = new byte[length];
+		new Random(length).nextBytes(data);
+		return data;
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void testTransferStreamsInNull() throws IOException {
+		TransferUtils.transfer(null, new ByteArrayOutputStream());
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void testTransferStreamsOutNull() throws IOException {
+		TransferUtils.transfer(new ByteArrayInputStream(new byte[0]), (OutputStream) null);
+	}
+
+	@Test
+	public void testTransferStreamsEmpty() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		Assert.assertEquals(0, TransferUtils.transfer(new ByteArrayInputStream(new byte[0]), out));
+		Assert.assertEquals(0, out.size());
+	}
+
+	@Test
+	public void testTransferStreams() throws IOException {
+		byte[] data = createData(TransferUtils.BUFFER_SIZE * 3 + 17);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		Assert.assertEquals(data.length, TransferUtils.transfer(new ByteArrayInputStream(data), out));
+		Assert.assertArrayEquals(data, out.toByteArray());
+	}
+
+	@Test
+	public void testTransferStreamsProgress() throws IOException {
+		byte[] data = createData(TransferUtils.BUFFER_SIZE * 2 + 5);
+		List<Long> progress = new ArrayList<>();
+
+		TransferUtils.transfer(new ByteArrayInputStream(data), new ByteArrayOutputStream(), progress::add);
+
+		Assert.assertFalse(progress.isEmpty());
+		for (int i = 1; i < progress.size(); i++)
+			Assert.assertTrue(progress.get(i) > progress.get(i - 1));
+		Assert.assertEquals(Long.valueOf(data.length), progress.get(progress.size() - 1));
+	}
+
+	@Test
+	public void testTransferFiles() throws IOException {
+		byte[] data = createData(TransferUtils.BUFFER_SIZE + 123);
+		Path source = Files.createTempFile("transferSource", ".tmp");
+		Path target = Files.createTempFile("transferTarget", ".tmp");
+		try {
+			Files.write(source, data);
+			Files.write(target, createData(data.length * 2)); // Has to be truncated
+			List<Long> progress = new ArrayList<>();
+
+			Assert.assertEquals(data.length, TransferUtils.transfer(source, target, progress::add));
+			Assert.assertArrayEquals(data, Files.readAllBytes(target));
+			Assert.assertEquals(Long.valueOf(data.length), progress.get(progress.size() - 1));
+		} finally {
+			Files.deleteIfExists(source);
+			Files.deleteIfExists(target);
+		}
+	}
+
+	@Test
+	public void testTransferFileStreams() throws IOException {
+		byte[] data = createData(4711);
+		Path source = Files.createTempFile("transferSource", ".tmp");
+		Path target = Files.createTempFile("transferTarget", ".tmp");
+		try {
+			Files.write(source, data);
+			try (FileInputStream in = new FileInputStream(source.toFile());
+					FileOutputStream out = new FileOutputStream(target.toFile())) {
+				Assert.assertEquals(11, in.skip(11));
+				Assert.assertEquals(data.length - 11, TransferUtils.transfer(in, out));
+				Assert.assertEquals(-1, in.read()); // The stream position has to be advanced
+			}
+			byte[] expected = new byte[data.length - 11];
+			System.arraycopy(data, 11, expected, 0, expected.length);
+			Assert.assertArrayEquals(expected, Files.readAllBytes(target));
+		} finally {
+			Files.deleteIfExists(source);
+			Files.deleteIfExists(target);
+		}
+	}
+
+}
@@ -0,0 +1,142 @@
+package craftedMods.utils.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ZipArchiveReaderTest {
+
+	private Path file;
+
+	@Before
+	public void setup() throws IOException {
+		this.file = Files.createTempFile("zipArchiveReader", ".zip");
+	}
+
+	@After
+	public void cleanup() throws IOException {
+		Files.deleteIfExists(this.file);
+	}
+
+	private static byte[] createData(int length) {
+		byte[] data = new byte[length];
+		new Random(length).nextBytes(data);
+		return data;
+	}
+
+	@Test
+	public void testReadZipOutputStreamArchive() throws IOException {
+		byte[] track = createData(30000);
+		try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(this.file))) {
+			out.setComment("A comment");
+			out.putNextEntry(new ZipEntry("assets/"));
+			out.putNextEntry(new ZipEntry("assets/träck.ogg"));
+			out.write(track);
+			out.putNextEntry(new ZipEntry("empty"));
+			out.closeEntry();
+		}
+
+		try (ZipArchiveReader reader = new ZipArchiveReader(this.file)) {
+			Assert.assertEquals(Arrays.asList("assets/", "assets/träck.ogg", "empty"),
+					Arrays.asList(reader.getEntryNames().toArray()));
+			Assert.assertNull(reader.readRawEntry("missing"));
+
+			ZipEntryData entry = reader.readRawEntry("assets/träck.ogg");
+			Assert.assertEquals(ZipEntryData.DEFLATED, entry.getMethod());
+			Assert.assertEquals(track.length, entry.getSize());
+
+			// Copy the raw entry into a new archive and decode it there
+			ByteArrayOutputStream copy = new ByteArrayOutputStream();
+			try (ZipArchiveWriter writer = new ZipArchiveWriter(copy)) {
+				writer.write(entry);
+				writer.write(reader.readRawEntry("empty"));
+			}
+			try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(copy.toByteArray()))) {
+				Assert.assertEquals("assets/träck.ogg", in.getNextEntry().getName());
+				ByteArrayOutputStream content = new ByteArrayOutputStream();
+				TransferUtils.transfer(in, content);
+				Assert.assertArrayEquals(track, content.toByteArray());
+				Assert.assertEquals("empty", in.getNextEntry().getName());
+			}
+		}
+	}
+
+	@Test
+	public void testReadWrittenArchive() throws IOException {
+		byte[] track = createData(5000);
+		ZipEntryData written;
+		try (ZipEntryBuffer buffer = new ZipEntryBuffer("track", ZipEntryData.STORED, Deflater.BEST_SPEED)) {
+			buffer.write(track);
+			written = buffer.toEntryData();
+		}
+		try (ZipArchiveWriter writer = new ZipArchiveWriter(Files.newOutputStream(this.file))) {
+			writer.write(written);
+		}
+
+		try (ZipArchiveReader reader = new ZipArchiveReader(this.file)) {
+			ZipEntryData entry = reader.readRawEntry("track");
+			Assert.assertEquals(ZipEntryData.STORED, entry.getMethod());
+			Assert.assertEquals(written.getCrc(), entry.getCrc());
+			Assert.assertEquals(track.length, entry.getCompressedSize());
+		}
+	}
+
+	@Test
+	public void testReadZip64Archive() throws IOException {
+		byte[] track = createData(5000);
+		try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(this.file))) {
+			for (int i = 0; i < 70000; i++)
+				out.putNextEntry(new ZipEntry("dir" + i + "/"));
+			out.putNextEntry(new ZipEntry("track"));
+			out.write(track);
+		}
+
+		try (ZipArchiveReader reader = new ZipArchiveReader(this.file)) {
+			Assert.assertEquals(70001, reader.getEntryNames().size());
+
+			ByteArrayOutputStream copy = new ByteArrayOutputStream();
+			try (ZipArchiveWriter writer = new ZipArchiveWriter(copy)) {
+				writer.write(reader.readRawEntry("track"));
+			}
+			try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(copy.toByteArray()))) {
+				Assert.assertEquals("track", in.getNextEntry().getName());
+				ByteArrayOutputStream content = new ByteArrayOutputStream();
+				TransferUtils.transfer(in, content);
+				Assert.assertArrayEquals(track, content.toByteArray());
+			}
+		}
+	}
+
+	@Test(expected = ZipException.class)
+	public void testReadNoArchive() throws IOException {
+		try (OutputStream out = Files.newOutputStream(this.file)) {
+			out.write(createData(1000));
+		}
+		new ZipArchiveReader(this.file).close();
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void testReadRawEntryNull() throws IOException {
+		try (ZipArchiveWriter writer = new ZipArchiveWriter(Files.newOutputStream(this.file))) {
+		}
+		try (ZipArchiveReader reader = new ZipArchiveReader(this.file)) {
+			reader.readRawEntry(null);
+		}
+	}
+
+}
@@ -0,0 +1,269 @@
+package craftedMods.utils.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+import java.util.stream.Stream;
+import java.util.zip.ZipInputStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ZipArchiveWriterTest {
+
+	private static byte[] createData(int length) {
+		byte[] data = new byte[length];
+		new Random(length).nextBytes(data);
+		return data;
+	}
+
+	private static ZipEntryData createEntry(String name, int method, byte[] data) throws IOException {
+		try (ZipEntryBuffer buffer = new ZipEntryBuffer(name, method, Deflater.BEST_SPEED)) {
+			buffer.write(data);
+			return buffer.toEntryData();
+		}
+	}
+
+	private static long countTempFiles() throws IOException {
+		try (Stream<Path> files = Files.list(Paths.get(System.getProperty("java.io.tmpdir")))) {
+			return files.filter(file -> file.getFileName().toString().startsWith("zipEntry")).count();
+		}
+	}
+
+	private static byte[] readFully(InputStream in) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		TransferUtils.transfer(in, out);
+		return out.toByteArray();
+	}
+
+	@Test
+	public void testEntryBuffer() throws IOException {
+		byte[] data = createData(5000);
+		CRC32 crc = new CRC32();
+		crc.update(data);
+
+		ZipEntryData stored = createEntry("stored", ZipEntryData.STORED, data);
+		Assert.assertEquals(crc.getValue(), stored.getCrc());
+		Assert.assertEquals(data.length, stored.getSize());
+		Assert.assertEquals(data.length, stored.getCompressedSize());
+
+		ZipEntryData deflated = createEntry("deflated", ZipEntryData.DEFLATED, new byte[5000]);
+		Assert.assertEquals(5000, deflated.getSize());
+		Assert.assertTrue(deflated.getCompressedSize() < 5000);
+	}
+
+	@Test(expected = IOException.class)
+	public void testEntryBufferWriteAfterCompletion() throws IOException {
+		ZipEntryBuffer buffer = new ZipEntryBuffer("entry", ZipEntryData.STORED, 0);
+		buffer.toEntryData();
+		buffer.write(1);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testEntryBufferInvalidMethod() {
+		new ZipEntryBuffer("entry", 3, 0);
+	}
+
+	@Test
+	public void testWriteArchive() throws IOException {
+		byte[] text = "{\"tracks\":[]}".getBytes("UTF-8");
+		byte[] track = createData(100000);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (ZipArchiveWriter writer = new ZipArchiveWriter(out)) {
+			writer.write(createEntry("music.json", ZipEntryData.DEFLATED, text));
+			writer.write(ZipEntryData.directory("assets/"));
+			writer.write(createEntry("assets/track.ogg", ZipEntryData.STORED, track));
+			writer.write(createEntry("assets/empty", ZipEntryData.DEFLATED, new byte[0]));
+			Assert.assertEquals(out.size(), writer.getWrittenBytes());
+		}
+
+		List<String> names = new ArrayList<>();
+		try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+			ZipEntry entry;
+			while ((entry = in.getNextEntry()) != null) {
+				names.add(entry.getName());
+				byte[] content = readFully(in);
+				switch (entry.getName()) {
+				case "music.json":
+					Assert.assertArrayEquals(text, content);
+					break;
+				case "assets/track.ogg":
+					Assert.assertArrayEquals(track, content);
+					break;
+				default:
+					Assert.assertEquals(0, content.length);
+				}
+			}
+		}
+		Assert.assertEquals(Arrays.asList("music.json", "assets/", "assets/track.ogg", "assets/empty"), names);
+	}
+
+	@Test
+	public void testCentralDirectory() throws IOException {
+		byte[] track = createData(4711);
+		Path file = Files.createTempFile("zipArchiveWriter", ".zip");
+		try {
+			try (ZipArchiveWriter writer = new ZipArchiveWriter(Files.newOutputStream(file))) {
+				writer.write(ZipEntryData.directory("dir/"));
+				writer.write(createEntry("dir/ärger.ogg", ZipEntryData.DEFLATED, track));
+			}
+			try (ZipFile zip = new ZipFile(file.toFile())) {
+				Assert.assertEquals(2, zip.size());
+				Enumeration<? extends ZipEntry> entries = zip.entries();
+				Assert.assertTrue(entries.nextElement().isDirectory());
+				ZipEntry entry = zip.getEntry("dir/ärger.ogg");
+				Assert.assertEquals(ZipEntry.DEFLATED, entry.getMethod());
+				Assert.assertEquals(track.length, entry.getSize());
+				try (InputStream in = zip.getInputStream(entry)) {
+					Assert.assertArrayEquals(track, readFully(in));
+				}
+			}
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	@Test
+	public void testEntryBufferMovesLargeEntriesToFile() throws IOException {
+		byte[] track = createData(50000);
+		long tempFiles = countTempFiles();
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (ZipArchiveWriter writer = new ZipArchiveWriter(out)) {
+			ZipEntryData entry;
+			try (ZipEntryBuffer buffer = new ZipEntryBuffer("track.ogg", ZipEntryData.STORED, 0, 1000)) {
+				buffer.write(track);
+				entry = buffer.toEntryData();
+			}
+			Assert.assertEquals(tempFiles + 1, countTempFiles());
+			writer.write(entry);
+		}
+		Assert.assertEquals(tempFiles, countTempFiles());
+
+		try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+			Assert.assertEquals("track.ogg", in.getNextEntry().getName());
+			Assert.assertArrayEquals(track, readFully(in));
+		}
+	}
+
+	@Test
+	public void testEntryBufferDiscardsIncompleteEntries() throws IOException {
+		long tempFiles = countTempFiles();
+		try (ZipEntryBuffer buffer = new ZipEntryBuffer("track", ZipEntryData.DEFLATED, 0, 1000)) {
+			buffer.write(createData(50000));
+		}
+		Assert.assertEquals(tempFiles, countTempFiles());
+	}
+
+	@Test
+	public void testWriteSourceEntry() throws IOException {
+		byte[] track = createData(100000);
+		CRC32 crc = new CRC32();
+		crc.update(track);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (ZipArchiveWriter writer = new ZipArchiveWriter(out)) {
+			writer.write(new ZipEntryData("track.ogg", ZipEntryData.STORED, crc.getValue(), track.length,
+					track.length, trackOut -> trackOut.write(track)));
+		}
+
+		try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+			Assert.assertEquals("track.ogg", in.getNextEntry().getName());
+			Assert.assertArrayEquals(track, readFully(in));
+		}
+	}
+
+	@Test(expected = ZipException.class)
+	public void testWriteSourceEntryWithWrongSize() throws IOException {
+		try (ZipArchiveWriter writer = new ZipArchiveWriter(new ByteArrayOutputStream())) {
+			writer.write(new ZipEntryData("track.ogg", ZipEntryData.STORED, 0l, 10, 10, out -> out.write(new byte[5])));
+		}
+	}
+
+	@Test
+	public void testWriteZip64Archive() throws IOException {
+		Path file = Files.createTempFile("zipArchiveWriter", ".zip");
+		try {
+			try (ZipArchiveWriter writer = new ZipArchiveWriter(Files.newOutputStream(file))) {
+				for (int i = 0; i < 70000; i++)
+					writer.write(ZipEntryData.directory("dir" + i + "/"));
+			}
+			try (ZipFile zip = new ZipFile(file.toFile())) {
+				Assert.assertEquals(70000, zip.size());
+				Assert.assertNotNull(zip.getEntry("dir69999/"));
+			}
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	@Test
+	public void testWriteZip64Sizes() throws IOException {
+		// Only the uncompressed size exceeds 4 GiB, the data itself is small
+		long size = 0x100000010l;
+		byte[] data = createData(16);
+		Path file = Files.createTempFile("zipArchiveWriter", ".zip");
+		try {
+			try (ZipArchiveWriter writer = new ZipArchiveWriter(Files.newOutputStream(file))) {
+				writer.write(new ZipEntryData("large", ZipEntryData.DEFLATED, 0l, size, data, 0, data.length));
+			}
+
+			ByteBuffer archive = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+			int centralDirectory = archive.getInt(archive.limit() - 6);
+			Assert.assertEquals(0x02014b50, archive.getInt(centralDirectory));
+			Assert.assertEquals(0xFFFFFFFF, archive.getInt(centralDirectory + 20));
+			Assert.assertEquals(0xFFFFFFFF, archive.getInt(centralDirectory + 24));
+			Assert.assertEquals(20, archive.getShort(centralDirectory + 30));
+			int extra = centralDirectory + 46 + "large".length();
+			Assert.assertEquals(0x0001, archive.getShort(extra));
+			Assert.assertEquals(16, archive.getShort(extra + 2));
+			Assert.assertEquals(size, archive.getLong(extra + 4));
+			Assert.assertEquals(data.length, archive.getLong(extra + 12));
+
+			try (ZipFile zip = new ZipFile(file.toFile())) {
+				ZipEntry entry = zip.getEntry("large");
+				Assert.assertEquals(size, entry.getSize());
+				Assert.assertEquals(data.length, entry.getCompressedSize());
+			}
+			try (ZipArchiveReader reader = new ZipArchiveReader(file); ZipEntryData entry = reader.readRawEntry("large")) {
+				Assert.assertEquals(size, entry.getSize());
+				Assert.assertEquals(data.length, entry.getCompressedSize());
+			}
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	@Test(expected = ZipException.class)
+	public void testDuplicateEntry() throws IOException {
+		try (ZipArchiveWriter writer = new ZipArchiveWriter(new ByteArrayOutputStream())) {
+			writer.write(ZipEntryData.directory("dir/"));
+			writer.write(ZipEntryData.directory("dir/"));
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testWriteAfterClose() throws IOException {
+		ZipArchiveWriter writer = new ZipArchiveWriter(new ByteArrayOutputStream());
+		writer.close();
+		writer.write(ZipEntryData.directory("dir/"));
+	}
+
+}